@@ -6,6 +6,7 @@ import fr.insee.kraftwerk.api.configuration.MinioConfig;
 import fr.insee.kraftwerk.api.configuration.VaultConfig;
 import fr.insee.kraftwerk.api.process.MainProcessing;
 import fr.insee.kraftwerk.api.process.MainProcessingGenesisLegacy;
+import fr.insee.kraftwerk.api.process.UnimodalWorkers;
 import fr.insee.kraftwerk.api.services.KraftwerkService;
 import fr.insee.kraftwerk.core.exceptions.KraftwerkException;
 import fr.insee.kraftwerk.core.utils.KraftwerkExecutionContext;
@@ -17,7 +18,6 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.core.env.Environment;
 import org.springframework.stereotype.Component;
 
@@ -31,6 +31,8 @@ public class KraftwerkBatch implements CommandLineRunner {
     MinioClient minioClient;
 
     VaultConfig vaultConfig;
+    GenesisClient genesisClient;
+    UnimodalWorkers unimodalWorkers;
 
     @Value("${fr.insee.postcollecte.files}")
     protected String defaultDirectory;
@@ -39,8 +41,11 @@ public class KraftwerkBatch implements CommandLineRunner {
     protected long limitSize;
 
     @Autowired
-    public KraftwerkBatch(ConfigProperties configProperties, MinioConfig minioConfig, VaultConfig vaultConfig, Environment env) {
+    public KraftwerkBatch(ConfigProperties configProperties, MinioConfig minioConfig, VaultConfig vaultConfig, Environment env,
+                          GenesisClient genesisClient, UnimodalWorkers unimodalWorkers) {
         this.configProperties = configProperties;
+        this.genesisClient = genesisClient;
+        this.unimodalWorkers = unimodalWorkers;
         this.minioConfig = minioConfig;
         if(minioConfig.isEnable()){
             minioClient = MinioClient.builder().endpoint(minioConfig.getEndpoint()).credentials(minioConfig.getAccessKey(), minioConfig.getSecretKey()).build();
@@ -98,16 +103,18 @@ public class KraftwerkBatch implements CommandLineRunner {
                 if (kraftwerkServiceType == KraftwerkServiceType.GENESIS) {
                     MainProcessingGenesisLegacy mainProcessingGenesisLegacy = new MainProcessingGenesisLegacy(
                         configProperties,
-                        new GenesisClient(new RestTemplateBuilder(), configProperties),
+                        genesisClient,
                         fileSystem,
                         kraftwerkExecutionContext
                     );
+                    mainProcessingGenesisLegacy.setUnimodalWorkers(unimodalWorkers);
                     mainProcessingGenesisLegacy.runMain(inDirectory,1000);
                 } else {
                     MainProcessing mainProcessing = new MainProcessing(
                             kraftwerkExecutionContext,
                             defaultDirectory,
                             fileSystem);
+                    mainProcessing.setUnimodalWorkers(unimodalWorkers);
                     mainProcessing.runMain();
                 }
 
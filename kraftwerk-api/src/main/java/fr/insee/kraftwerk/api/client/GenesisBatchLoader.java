@@ -0,0 +1,92 @@
+package fr.insee.kraftwerk.api.client;
+
+import fr.insee.kraftwerk.core.data.model.InterrogationId;
+import fr.insee.kraftwerk.core.data.model.Mode;
+import fr.insee.kraftwerk.core.data.model.SurveyUnitUpdateLatest;
+import fr.insee.kraftwerk.core.exceptions.KraftwerkException;
+import fr.insee.kraftwerk.core.utils.ConcurrentTasks;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Loads the latest states of survey units from Genesis, partition by partition, in order.
+ * While the caller processes a partition, the next ones are fetched in the background (on virtual threads),
+ * so that network round trips overlap with processing.
+ * At most prefetchCount partitions are fetched ahead of the one being processed, to keep memory bounded.
+ */
+public class GenesisBatchLoader implements AutoCloseable {
+
+    private final GenesisClient client;
+    private final String questionnaireModelId;
+    private final Mode mode;
+    private final List<List<InterrogationId>> partitions;
+    private final int prefetchCount;
+    private final ConcurrentTasks fetches;
+    private final Deque<Future<List<SurveyUnitUpdateLatest>>> pendingPartitions = new ArrayDeque<>();
+    private int nextPartitionToSubmit = 0;
+    private int nextPartitionToReturn = 0;
+
+    public GenesisBatchLoader(GenesisClient client, String questionnaireModelId,
+                              List<List<InterrogationId>> partitions, int prefetchCount) {
+        this(client, questionnaireModelId, null, partitions, prefetchCount);
+    }
+
+    /**
+     * @param client Genesis client.
+     * @param questionnaireModelId Questionnaire of the survey units.
+     * @param mode Mode of the survey units, filtered by Genesis (null: all modes).
+     * @param partitions Interrogation ids, by partition.
+     * @param prefetchCount Number of partitions fetched ahead of the one being processed (0: no prefetch).
+     */
+    public GenesisBatchLoader(GenesisClient client, String questionnaireModelId, Mode mode,
+                              List<List<InterrogationId>> partitions, int prefetchCount) {
+        this.client = client;
+        this.questionnaireModelId = questionnaireModelId;
+        this.mode = mode;
+        this.partitions = partitions;
+        this.prefetchCount = Math.max(0, prefetchCount);
+        this.fetches = this.prefetchCount > 0
+                ? new ConcurrentTasks(Executors.newVirtualThreadPerTaskExecutor(), "loading of data from Genesis")
+                : null;
+    }
+
+    public boolean hasNext() {
+        return nextPartitionToReturn < partitions.size();
+    }
+
+    /**
+     * Return the survey units of the next partition, waiting for them if they have not been fetched yet.
+     */
+    public List<SurveyUnitUpdateLatest> next() throws KraftwerkException {
+        if (!hasNext()) {
+            throw new NoSuchElementException("No more partitions to load");
+        }
+        if (fetches == null) {
+            return client.getUEsLatestState(questionnaireModelId, partitions.get(nextPartitionToReturn++), mode);
+        }
+        // Current partition and the ones fetched ahead
+        while (nextPartitionToSubmit < partitions.size()
+                && nextPartitionToSubmit <= nextPartitionToReturn + prefetchCount) {
+            List<InterrogationId> partition = partitions.get(nextPartitionToSubmit++);
+            pendingPartitions.add(fetches.submit(() -> client.getUEsLatestState(questionnaireModelId, partition, mode)));
+        }
+        nextPartitionToReturn++;
+        return fetches.get(pendingPartitions.poll());
+    }
+
+    /** Cancel the partitions fetched ahead that have not been returned. */
+    @Override
+    public void close() {
+        if (fetches != null) {
+            pendingPartitions.forEach(future -> future.cancel(true));
+            pendingPartitions.clear();
+            fetches.close();
+        }
+    }
+
+}
@@ -10,18 +10,23 @@ import fr.insee.kraftwerk.core.data.model.InterrogationId;
 import fr.insee.kraftwerk.core.data.model.Mode;
 import fr.insee.kraftwerk.core.data.model.SurveyUnitUpdateLatest;
 import fr.insee.kraftwerk.core.exceptions.KraftwerkException;
+import fr.insee.kraftwerk.core.metadata.MetadataCache;
 import lombok.Getter;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestClientResponseException;
 import org.springframework.web.client.RestTemplate;
 
+import java.net.http.HttpClient;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -30,18 +35,34 @@ import java.util.List;
 @Service
 public class GenesisClient {
 
+	private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(30);
+	private static final ParameterizedTypeReference<List<SurveyUnitUpdateLatest>> SURVEY_UNITS_TYPE = new ParameterizedTypeReference<>() {};
+
 	private final RestTemplate restTemplate;
 
 	@Getter
 	private final ConfigProperties configProperties;
 
 
+	/**
+	 * Client shared by all the processings : connections to Genesis are kept alive and reused,
+	 * and the service account token is shared.
+	 */
 	@Autowired
-	public GenesisClient(RestTemplateBuilder restTemplateBuilder, ConfigProperties configProperties) {
-		this.restTemplate = restTemplateBuilder.build();
+	public GenesisClient(RestTemplateBuilder restTemplateBuilder, ConfigProperties configProperties, OidcService oidcService) {
+		HttpClient httpClient = HttpClient.newBuilder()
+				.version(HttpClient.Version.HTTP_1_1)
+				.connectTimeout(CONNECT_TIMEOUT)
+				.build();
+		this.restTemplate = restTemplateBuilder
+				.requestFactory(() -> new JdkClientHttpRequestFactory(httpClient))
+				.additionalInterceptors(new GenesisAuthInterceptor(oidcService), new GzipResponseInterceptor())
+				.build();
 		this.configProperties = configProperties;
-		OidcService oidcService = new OidcService(configProperties);
-		this.restTemplate.getInterceptors().add(new GenesisAuthInterceptor(oidcService));
+	}
+
+	public GenesisClient(RestTemplateBuilder restTemplateBuilder, ConfigProperties configProperties) {
+		this(restTemplateBuilder, configProperties, new OidcService(configProperties));
 	}
 
 	//Constructors used for tests
@@ -55,6 +76,11 @@ public class GenesisClient {
 	}
 
 	private <T, R> ResponseEntity<R> makeApiCall(String url, HttpMethod method, T requestBody, Class<R> responseType) throws KraftwerkException {
+		return makeApiCallForType(url, method, requestBody, ParameterizedTypeReference.forType(responseType == null ? Void.class : responseType));
+	}
+
+	/* Responses are decoded by the message converters while they are read from the connection */
+	private <T, R> ResponseEntity<R> makeApiCallForType(String url, HttpMethod method, T requestBody, ParameterizedTypeReference<R> responseType) throws KraftwerkException {
 		HttpHeaders headers = new HttpHeaders();
 		HttpEntity<T> requestEntity = new HttpEntity<>(requestBody, headers);
 
@@ -112,8 +138,19 @@ public class GenesisClient {
 	
 	public List<SurveyUnitUpdateLatest> getUEsLatestState(String questionnaireId, List<InterrogationId> interrogationIds) throws KraftwerkException {
 		String url = String.format("%s/responses/simplified/by-list-interrogation-and-questionnaire/latest?questionnaireId=%s", configProperties.getGenesisUrl(), questionnaireId);
-		ResponseEntity<SurveyUnitUpdateLatest[]> response = makeApiCall(url,HttpMethod.POST,interrogationIds,SurveyUnitUpdateLatest[].class);
-		return response.getBody() != null ? Arrays.asList(response.getBody()) : null;
+		return makeApiCallForType(url,HttpMethod.POST,interrogationIds,SURVEY_UNITS_TYPE).getBody();
+	}
+
+	/**
+	 * Latest states of the survey units, filtered by Genesis on the mode if one is given.
+	 */
+	public List<SurveyUnitUpdateLatest> getUEsLatestState(String questionnaireId, List<InterrogationId> interrogationIds, Mode mode) throws KraftwerkException {
+		if (mode == null) {
+			return getUEsLatestState(questionnaireId, interrogationIds);
+		}
+		String url = String.format("%s/responses/simplified/by-list-interrogation-and-questionnaire/latest?questionnaireId=%s&mode=%s",
+				configProperties.getGenesisUrl(), questionnaireId, mode);
+		return makeApiCallForType(url,HttpMethod.POST,interrogationIds,SURVEY_UNITS_TYPE).getBody();
 	}
 
     public List<String> getQuestionnaireModelIds(String campaignId) throws JsonProcessingException, KraftwerkException {
@@ -132,14 +169,21 @@ public class GenesisClient {
 	public MetadataModel getMetadataByQuestionnaireIdAndMode(String questionnaireId, Mode mode) throws KraftwerkException {
 		String url = String.format("%s/questionnaire-metadata?questionnaireId=%s&mode=%s",
 				configProperties.getGenesisUrl(), questionnaireId, mode);
-		ResponseEntity<MetadataModel> response = makeApiCall(url,HttpMethod.GET,null,MetadataModel.class);
-		return response.getBody();
+		long timeToLive = configProperties.getGenesisMetadataCacheTtl();
+		return MetadataCache.getInstance().getMetadataModel(timeToLive > 0 ? metadataCacheKey(questionnaireId, mode) : null,
+				Duration.ofSeconds(timeToLive), () -> makeApiCall(url,HttpMethod.GET,null,MetadataModel.class).getBody());
     }
 
 	public void saveMetadata(String questionnaireId, Mode mode, MetadataModel metadataModel) throws KraftwerkException {
 		String url = String.format("%s/questionnaire-metadata?questionnaireId=%s&mode=%s",
 				configProperties.getGenesisUrl(), questionnaireId, mode);
 		makeApiCall(url,HttpMethod.POST,metadataModel,null);
+		MetadataCache.getInstance().removeMetadataModel(metadataCacheKey(questionnaireId, mode));
+	}
+
+	/* Genesis metadata is cached by questionnaire and mode, until it expires or is saved again by this instance */
+	private static String metadataCacheKey(String questionnaireId, Mode mode) {
+		return "GENESIS:" + questionnaireId + ":" + mode;
 	}
 
 	public void saveDateExtraction(String questionnaireModelId, Mode mode) throws KraftwerkException {
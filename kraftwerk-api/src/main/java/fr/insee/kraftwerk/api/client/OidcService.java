@@ -13,23 +13,37 @@ import org.springframework.web.client.RestTemplate;
 
 import java.io.IOException;
 import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 @Service
 @Slf4j
 public class OidcService {
 
     public static final String ACCESS_TOKEN = "access_token";
+    /* The token is refreshed in the background this long before it expires */
+    private static final long REFRESH_MARGIN_MILLIS = 30000L;
     @Getter
     private final ConfigProperties configProperties;
-    private String serviceAccountToken;
-    private long tokenExpirationTime = 0;
+    /* Token and expiration time are published together, read without lock by the requests */
+    private volatile ServiceAccountToken serviceAccountToken;
+    private volatile boolean tokenUsed = false;
+    /* Requests needing a new token wait for a single call to the identity provider */
+    private final Object retrieveLock = new Object();
     private final RestTemplate restTemplate;
+    private ScheduledExecutorService refreshExecutor;
+    private ScheduledFuture<?> scheduledRefresh;
 
     public OidcService(ConfigProperties configProperties) {
         this.restTemplate = new RestTemplate();
         this.configProperties = configProperties;
     }
 
+    private record ServiceAccountToken(String value, long expirationTime) {
+    }
+
     protected void retrieveServiceAccountToken() throws IOException {
         String tokenUrl = String.format("%s/realms/%s/protocol/openid-connect/token",
                 configProperties.getAuthServerUrl(),
@@ -52,9 +66,11 @@ public class OidcService {
                     throw new IOException("Invalid response: Missing or incorrect 'access_token'");
                 }
 
-                serviceAccountToken = (String) responseBody.get(ACCESS_TOKEN);
                 Integer expiresIn = (Integer) responseBody.get("expires_in");
-                tokenExpirationTime = System.currentTimeMillis() + (expiresIn.longValue() * 1000L);
+                serviceAccountToken = new ServiceAccountToken((String) responseBody.get(ACCESS_TOKEN),
+                        System.currentTimeMillis() + (expiresIn.longValue() * 1000L));
+                tokenUsed = false;
+                scheduleRefresh(expiresIn.longValue() * 1000L);
             } else {
                 throw new IOException("Failed to retrieve service account token, status: " + response.getStatusCode());
             }
@@ -65,12 +81,53 @@ public class OidcService {
         }
     }
 
-    public synchronized String getServiceAccountToken() throws IOException {
+    public String getServiceAccountToken() throws IOException {
+        ServiceAccountToken token = serviceAccountToken;
+        if (!isValid(token)) {
+            synchronized (retrieveLock) {
+                // Another request may have retrieved the token while waiting for the lock
+                if (!isValid(serviceAccountToken)) {
+                    retrieveServiceAccountToken();
+                }
+                token = serviceAccountToken;
+            }
+        }
+        tokenUsed = true;
+        return token.value();
+    }
+
+    private static boolean isValid(ServiceAccountToken token) {
         //We had a margin of 5 seconds for the expiration time
-        if (serviceAccountToken == null || System.currentTimeMillis() >= tokenExpirationTime - 5000L) {
+        return token != null && System.currentTimeMillis() < token.expirationTime() - 5000L;
+    }
+
+    /* Jobs sharing this service get a valid token without waiting for the identity provider */
+    private synchronized void scheduleRefresh(long expiresInMillis) {
+        if (scheduledRefresh != null) {
+            scheduledRefresh.cancel(false);
+        }
+        if (refreshExecutor == null) {
+            refreshExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "oidc-token-refresh");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        long delay = Math.max(expiresInMillis - REFRESH_MARGIN_MILLIS, expiresInMillis / 2);
+        scheduledRefresh = refreshExecutor.schedule(this::refreshInBackground, delay, TimeUnit.MILLISECONDS);
+    }
+
+    /* Requests keep using the current token while the new one is retrieved */
+    private void refreshInBackground() {
+        // The token is no longer refreshed once it is not used anymore
+        if (!tokenUsed) {
+            return;
+        }
+        try {
             retrieveServiceAccountToken();
+        } catch (IOException e) {
+            log.warn("Service account token not refreshed, it will be retrieved on next request : {}", e.getMessage());
         }
-        return serviceAccountToken;
     }
 
 }
@@ -11,6 +11,12 @@ public class ConfigProperties {
 	@Value("${fr.insee.postcollecte.genesis.api.url}")
 	private String genesisUrl;
 
+	@Value("${fr.insee.postcollecte.genesis.prefetch-partitions:1}")
+	private int genesisPrefetchPartitions;
+
+	@Value("${fr.insee.postcollecte.genesis.metadata-cache-ttl:300}")
+	private long genesisMetadataCacheTtl;
+
 	@Value("${fr.insee.postcollecte.files}")
 	private String defaultDirectory;
 
@@ -33,4 +39,37 @@ public class ConfigProperties {
 
 	@Value("${fr.insee.kraftwerk.duckdb.use-memory}")
 	private boolean isDuckDbInMemory;
+
+	@Value("${fr.insee.kraftwerk.duckdb.multimodal:false}")
+	private boolean multimodalDuckDb;
+
+	@Value("${fr.insee.kraftwerk.vtl.json-dataset-mode:false}")
+	private boolean vtlJsonDatasetMode;
+
+	@Value("${fr.insee.kraftwerk.file-by-file.workers:1}")
+	private int fileByFileWorkers;
+
+	@Value("${fr.insee.kraftwerk.unimodal.workers:1}")
+	private int unimodalWorkers;
+
+	@Value("${fr.insee.kraftwerk.vtl.compilation-cache-size:512}")
+	private int vtlCompilationCacheSize;
+
+	@Value("${fr.insee.kraftwerk.paradata.workers:4}")
+	private int paradataWorkers;
+
+	@Value("${fr.insee.kraftwerk.export.workers:1}")
+	private int exportWorkers;
+
+	@Value("${fr.insee.kraftwerk.export.minio-upload-workers:4}")
+	private int minioUploadWorkers;
+
+	@Value("${fr.insee.kraftwerk.metadata.cache-size:16}")
+	private int metadataCacheSize;
+
+	@Value("${fr.insee.kraftwerk.jobs.concurrency:2}")
+	private int jobsConcurrency;
+
+	@Value("${fr.insee.kraftwerk.jobs.memory-budget:0}")
+	private long jobsMemoryBudget;
 }
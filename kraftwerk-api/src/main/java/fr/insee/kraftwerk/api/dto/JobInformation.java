@@ -0,0 +1,38 @@
+package fr.insee.kraftwerk.api.dto;
+
+import fr.insee.kraftwerk.api.jobs.JobStatus;
+import fr.insee.kraftwerk.api.jobs.KraftwerkJob;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class JobInformation {
+    private String jobId;
+    private String name;
+    private JobStatus status;
+    private LocalDateTime submissionDate;
+    private LocalDateTime startDate;
+    private LocalDateTime endDate;
+    private int progressDone;
+    private int progressTotal;
+    private Integer resultStatus;
+
+    public static JobInformation of(KraftwerkJob job) {
+        JobInformation jobInformation = new JobInformation();
+        jobInformation.setJobId(job.getId());
+        jobInformation.setName(job.getName());
+        jobInformation.setStatus(job.getStatus());
+        jobInformation.setSubmissionDate(job.getSubmissionDateTime());
+        jobInformation.setStartDate(job.getStartDateTime());
+        jobInformation.setEndDate(job.getEndDateTime());
+        jobInformation.setProgressDone(job.getProgressDone());
+        jobInformation.setProgressTotal(job.getProgressTotal());
+        jobInformation.setResultStatus(job.getResultStatus());
+        return jobInformation;
+    }
+}
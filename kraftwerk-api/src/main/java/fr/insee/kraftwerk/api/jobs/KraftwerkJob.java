@@ -0,0 +1,135 @@
+package fr.insee.kraftwerk.api.jobs;
+
+import fr.insee.kraftwerk.core.utils.KraftwerkExecutionContext;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Processing submitted to the {@link KraftwerkJobScheduler}, with its status, progress and result.
+ */
+@Slf4j
+@Getter
+public class KraftwerkJob {
+
+    private final String id;
+    private final String name;
+    private final LocalDateTime submissionDateTime;
+    private volatile LocalDateTime startDateTime;
+    private volatile LocalDateTime endDateTime;
+    private volatile JobStatus status;
+    private volatile boolean cancelRequested;
+    private volatile KraftwerkExecutionContext executionContext;
+
+    //Result, set when the job is finished. No status if the job was cancelled before it started
+    private volatile Integer resultStatus;
+    private volatile String resultMessage;
+    private final CountDownLatch finished = new CountDownLatch(1);
+
+    KraftwerkJob(String id, String name) {
+        this.id = id;
+        this.name = name;
+        this.submissionDateTime = LocalDateTime.now();
+        this.status = JobStatus.QUEUED;
+    }
+
+    /**
+     * Attach the execution context of the processing, that gives the progress of the job.
+     * The processing stops at its next file or partition if the job has already been cancelled.
+     */
+    public synchronized void setExecutionContext(KraftwerkExecutionContext executionContext) {
+        this.executionContext = executionContext;
+        if (executionContext != null && cancelRequested) {
+            executionContext.setCancelled(true);
+        }
+    }
+
+    /** Files or partitions processed, 0 until the processing knows what it has to process */
+    public int getProgressDone() {
+        KraftwerkExecutionContext context = executionContext;
+        return context == null ? 0 : context.getProgressDone();
+    }
+
+    public int getProgressTotal() {
+        KraftwerkExecutionContext context = executionContext;
+        return context == null ? 0 : context.getProgressTotal();
+    }
+
+    /**
+     * Cancel the job. A queued job will not be run, a running job stops before its next file or partition.
+     * @return false if the job is already finished
+     */
+    synchronized boolean cancel() {
+        if (status == JobStatus.QUEUED) {
+            finish(JobStatus.CANCELLED, null, "Job cancelled before it started");
+            return true;
+        }
+        if (status == JobStatus.RUNNING) {
+            cancelRequested = true;
+            if (executionContext != null) {
+                executionContext.setCancelled(true);
+            }
+            return true;
+        }
+        return false;
+    }
+
+    void run(KraftwerkJobTask task) {
+        synchronized (this) {
+            if (status != JobStatus.QUEUED) {
+                return;
+            }
+            status = JobStatus.RUNNING;
+            startDateTime = LocalDateTime.now();
+        }
+        log.info("Job {} started : {}", id, name);
+        try {
+            ResponseEntity<String> response = task.run(this);
+            finish(statusOf(response.getStatusCode().is2xxSuccessful()), response.getStatusCode().value(), response.getBody());
+        } catch (RuntimeException e) {
+            log.error("Job {} failed", id, e);
+            finish(statusOf(false), HttpStatus.INTERNAL_SERVER_ERROR.value(), e.getMessage());
+        } finally {
+            // An error (out of memory, stack overflow...) is not caught : the job must not stay running
+            if (status == JobStatus.RUNNING) {
+                finish(statusOf(false), HttpStatus.INTERNAL_SERVER_ERROR.value(), "Job stopped by an unexpected error");
+            }
+        }
+        log.info("Job {} finished with status {}", id, status);
+    }
+
+    /** Wait until the job is finished, whether it succeeded, failed or was cancelled */
+    public void awaitFinished() throws InterruptedException {
+        finished.await();
+    }
+
+    /**
+     * @return the response of the synchronous service, or a conflict if the job was cancelled before it started
+     */
+    public ResponseEntity<String> getResult() {
+        if (resultStatus == null) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(resultMessage);
+        }
+        return ResponseEntity.status(resultStatus).body(resultMessage);
+    }
+
+    /* A job that completed before noticing its cancellation keeps its outputs, and is reported as succeeded */
+    private JobStatus statusOf(boolean successful) {
+        if (successful) {
+            return JobStatus.SUCCEEDED;
+        }
+        return cancelRequested ? JobStatus.CANCELLED : JobStatus.FAILED;
+    }
+
+    private synchronized void finish(JobStatus finalStatus, Integer resultStatus, String resultMessage) {
+        this.resultStatus = resultStatus;
+        this.resultMessage = resultMessage;
+        this.endDateTime = LocalDateTime.now();
+        this.status = finalStatus;
+        finished.countDown();
+    }
+}
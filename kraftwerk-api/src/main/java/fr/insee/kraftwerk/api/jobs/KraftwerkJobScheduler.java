@@ -0,0 +1,138 @@
+package fr.insee.kraftwerk.api.jobs;
+
+import fr.insee.kraftwerk.api.configuration.ConfigProperties;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the submitted jobs in the background, a bounded number at a time.
+ * Jobs exceeding this bound are queued, never rejected.
+ * Synchronous services are run as jobs too, so that they are counted in this bound.
+ * When a memory budget is given for each job, no more jobs run at the same time than the heap can hold.
+ */
+@Slf4j
+@Component
+public class KraftwerkJobScheduler implements DisposableBean {
+
+    /** Number of finished jobs kept for their status and result */
+    static final int MAX_FINISHED_JOBS = 100;
+
+    private static final long MEGABYTE = 1024L * 1024L;
+
+    @Getter
+    private final int concurrency;
+    private final ExecutorService executor;
+    // Jobs in submission order, to forget the oldest finished ones first
+    private final Map<String, KraftwerkJob> jobs = new LinkedHashMap<>();
+
+    @Autowired
+    public KraftwerkJobScheduler(ConfigProperties configProperties) {
+        this(configProperties.getJobsConcurrency(), configProperties.getJobsMemoryBudget(), Runtime.getRuntime().maxMemory());
+    }
+
+    KraftwerkJobScheduler(int concurrency, long memoryBudgetMegabytes, long maxMemoryBytes) {
+        this.concurrency = effectiveConcurrency(concurrency, memoryBudgetMegabytes, maxMemoryBytes);
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadPoolExecutor threadPoolExecutor = new ThreadPoolExecutor(this.concurrency, this.concurrency, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> new Thread(runnable, "kraftwerk-job-" + threadCount.incrementAndGet()));
+        // Idle workers are released
+        threadPoolExecutor.allowCoreThreadTimeOut(true);
+        this.executor = threadPoolExecutor;
+        log.info("Jobs run {} at a time", this.concurrency);
+    }
+
+    static int effectiveConcurrency(int concurrency, long memoryBudgetMegabytes, long maxMemoryBytes) {
+        int workers = Math.max(1, concurrency);
+        if (memoryBudgetMegabytes > 0) {
+            long jobsInHeap = maxMemoryBytes / (memoryBudgetMegabytes * MEGABYTE);
+            workers = (int) Math.max(1, Math.min(workers, jobsInHeap));
+        }
+        return workers;
+    }
+
+    /**
+     * Queue a job, run as soon as a worker is free.
+     * @param name description of the job, for logs and status
+     * @param task processing of the job
+     * @return the job, with its identifier
+     */
+    public KraftwerkJob submit(String name, KraftwerkJobTask task) {
+        KraftwerkJob job = new KraftwerkJob(UUID.randomUUID().toString(), name);
+        synchronized (jobs) {
+            jobs.put(job.getId(), job);
+            forgetOldestFinishedJobs();
+        }
+        executor.execute(() -> job.run(task));
+        log.info("Job {} queued : {}", job.getId(), name);
+        return job;
+    }
+
+    /**
+     * Queue a job and wait for its result, for the synchronous services.
+     * If the calling thread is interrupted while waiting, the job is cancelled.
+     * @param name description of the job, for logs and status
+     * @param task processing of the job
+     * @return the response of the task
+     */
+    public ResponseEntity<String> run(String name, KraftwerkJobTask task) {
+        KraftwerkJob job = submit(name, task);
+        try {
+            job.awaitFinished();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancel(job);
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(String.format("Interrupted while waiting for job %s", job.getId()));
+        }
+        return job.getResult();
+    }
+
+    public Optional<KraftwerkJob> getJob(String jobId) {
+        synchronized (jobs) {
+            return Optional.ofNullable(jobs.get(jobId));
+        }
+    }
+
+    /**
+     * Cancel a job. A queued job will not be run, a running job stops before its next file or partition.
+     * @return false if the job is already finished
+     */
+    public boolean cancel(KraftwerkJob job) {
+        boolean cancelled = job.cancel();
+        if (cancelled) {
+            log.info("Job {} cancelled", job.getId());
+        }
+        return cancelled;
+    }
+
+    private void forgetOldestFinishedJobs() {
+        long finishedJobs = jobs.values().stream().filter(job -> job.getStatus().isFinished()).count();
+        Iterator<KraftwerkJob> iterator = jobs.values().iterator();
+        while (finishedJobs > MAX_FINISHED_JOBS && iterator.hasNext()) {
+            if (iterator.next().getStatus().isFinished()) {
+                iterator.remove();
+                finishedJobs--;
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
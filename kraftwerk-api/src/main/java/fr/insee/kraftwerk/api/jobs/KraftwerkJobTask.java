@@ -0,0 +1,13 @@
+package fr.insee.kraftwerk.api.jobs;
+
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Processing run by a job. It gives its execution context to the job for progress and cancellation,
+ * and returns the response the synchronous service would have returned.
+ */
+@FunctionalInterface
+public interface KraftwerkJobTask {
+
+    ResponseEntity<String> run(KraftwerkJob job);
+}
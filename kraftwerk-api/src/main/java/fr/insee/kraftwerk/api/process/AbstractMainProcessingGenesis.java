@@ -2,6 +2,7 @@ package fr.insee.kraftwerk.api.process;
 
 import fr.insee.bpm.exceptions.MetadataParserException;
 import fr.insee.bpm.metadata.model.MetadataModel;
+import fr.insee.kraftwerk.api.client.GenesisBatchLoader;
 import fr.insee.kraftwerk.api.client.GenesisClient;
 import fr.insee.kraftwerk.api.configuration.ConfigProperties;
 import fr.insee.kraftwerk.core.data.model.InterrogationId;
@@ -17,6 +18,7 @@ import fr.insee.kraftwerk.core.sequence.MultimodalSequence;
 import fr.insee.kraftwerk.core.sequence.UnimodalSequence;
 import fr.insee.kraftwerk.core.sequence.WriterSequence;
 import fr.insee.kraftwerk.core.utils.KraftwerkExecutionContext;
+import fr.insee.kraftwerk.core.utils.StageTimer;
 import fr.insee.kraftwerk.core.utils.TextFileWriter;
 import fr.insee.kraftwerk.core.utils.files.FileUtilsInterface;
 import fr.insee.kraftwerk.core.vtl.VtlBindings;
@@ -27,6 +29,7 @@ import org.apache.commons.collections4.ListUtils;
 
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.HashMap;
 import java.util.List;
@@ -43,6 +46,7 @@ public abstract class AbstractMainProcessingGenesis {
     protected UserInputsGenesis userInputs;
     protected final FileUtilsInterface fileUtilsInterface;
     protected Statement database;
+    @Getter
     protected final KraftwerkExecutionContext kraftwerkExecutionContext;
     /* SPECIFIC VARIABLES */
     @Getter
@@ -54,6 +58,9 @@ public abstract class AbstractMainProcessingGenesis {
     protected Map<String, MetadataModel> metadataModelsByMode;
     protected final GenesisClient client;
     protected final ConfigProperties config;
+    /** Workers running the unimodal steps of the modes, null to process the modes one after the other */
+    @Setter
+    protected UnimodalWorkers unimodalWorkers;
 
     protected AbstractMainProcessingGenesis(
             ConfigProperties config,
@@ -126,40 +133,63 @@ public abstract class AbstractMainProcessingGenesis {
         List<List<InterrogationId>> listIds = ListUtils.partition(ids, batchSize);
         int nbPartitions = listIds.size();
         int indexPartition = 1;
-        for (List<InterrogationId> listId : listIds) {
-            List<SurveyUnitUpdateLatest> suLatest = client.getUEsLatestState(questionnaireModelId, listId);
-            log.info("Number of documents retrieved from database : {}, partition {}/{}", suLatest.size(), indexPartition, nbPartitions);
-            vtlBindings = new VtlBindings();
-            if (dataMode != null){
-                suLatest = suLatest.stream().filter(su-> su.getMode()==dataMode).toList();
+        kraftwerkExecutionContext.addProgressTotal(nbPartitions);
+        try (GenesisBatchLoader batchLoader = createBatchLoader(questionnaireModelId, dataMode, listIds)) {
+            while (batchLoader.hasNext()) {
+                kraftwerkExecutionContext.checkNotCancelled();
+                List<SurveyUnitUpdateLatest> suLatest = batchLoader.next();
+                log.info("Number of documents retrieved from database : {}, partition {}/{}", suLatest.size(), indexPartition, nbPartitions);
+                vtlBindings = new VtlBindings();
+                // Genesis filters on the mode, survey units of other modes are still ignored if it does not
+                if (dataMode != null){
+                    suLatest = suLatest.stream().filter(su-> su.getMode()==dataMode).toList();
+                }
+                unimodalProcess(suLatest);
+                multimodalProcess();
+                insertDatabase();
+                kraftwerkExecutionContext.incrementProgressDone();
+                indexPartition++;
             }
-            unimodalProcess(suLatest);
-            multimodalProcess();
-            insertDatabase();
-            indexPartition++;
         }
     }
 
+    /** Loader fetching the next partitions from Genesis while the current one is processed. */
+    protected GenesisBatchLoader createBatchLoader(String questionnaireModelId, Mode dataMode, List<List<InterrogationId>> partitions) {
+        return new GenesisBatchLoader(client, questionnaireModelId, dataMode, partitions, config.getGenesisPrefetchPartitions());
+    }
+
+    /* Step 2 : unimodal data, the modes being processed concurrently */
     protected void unimodalProcess(List<SurveyUnitUpdateLatest> suLatest) throws KraftwerkException {
+        ModeProcessing.processModes(userInputs.getModeInputsMap().keySet(), vtlBindings, unimodalWorkers,
+                (dataMode, modeVtlBindings) -> unimodalProcess(suLatest, dataMode, modeVtlBindings));
+    }
+
+    private void unimodalProcess(List<SurveyUnitUpdateLatest> suLatest, String dataMode, VtlBindings modeVtlBindings) throws KraftwerkException {
         BuildBindingsSequenceGenesis buildBindingsSequenceGenesis = new BuildBindingsSequenceGenesis(fileUtilsInterface);
-        for (String dataMode : userInputs.getModeInputsMap().keySet()) {
-            buildBindingsSequenceGenesis.buildVtlBindings(dataMode, vtlBindings, metadataModelsByMode, suLatest, specsDirectory);
-            UnimodalSequence unimodal = new UnimodalSequence();
-            unimodal.applyUnimodalSequence(userInputs, dataMode, vtlBindings, kraftwerkExecutionContext, metadataModelsByMode, fileUtilsInterface);
+        try (StageTimer stageTimer = kraftwerkExecutionContext.startStage("Parsing", dataMode)) {
+            stageTimer.setRowsIn(suLatest.size());
+            buildBindingsSequenceGenesis.buildVtlBindings(dataMode, modeVtlBindings, metadataModelsByMode, suLatest, specsDirectory);
         }
+        UnimodalSequence unimodal = new UnimodalSequence();
+        unimodal.applyUnimodalSequence(userInputs, dataMode, modeVtlBindings, kraftwerkExecutionContext, metadataModelsByMode, fileUtilsInterface);
     }
 
     /* Step 3 : multimodal VTL data processing */
     protected void multimodalProcess() throws KraftwerkException {
         MultimodalSequence multimodalSequence = new MultimodalSequence();
-        multimodalSequence.multimodalProcessing(userInputs, vtlBindings, kraftwerkExecutionContext, metadataModelsByMode,
-                fileUtilsInterface);
+        try {
+            multimodalSequence.multimodalProcessing(userInputs, vtlBindings, kraftwerkExecutionContext, metadataModelsByMode,
+                    fileUtilsInterface, database == null ? null : database.getConnection());
+        } catch (SQLException e) {
+            log.error(e.toString());
+            throw new KraftwerkException(500, "SQL Error");
+        }
     }
 
     /* Step 4 : Insert into SQL database */
     protected void insertDatabase(){
         InsertDatabaseSequence insertDatabaseSequence = new InsertDatabaseSequence();
-        insertDatabaseSequence.insertDatabaseProcessing(vtlBindings, database);
+        insertDatabaseSequence.insertDatabaseProcessing(vtlBindings, database, kraftwerkExecutionContext);
     }
 
     /* Step 5 : Write output files */
@@ -173,4 +203,11 @@ public abstract class AbstractMainProcessingGenesis {
         TextFileWriter.writeErrorsFile(specsDirectory, kraftwerkExecutionContext, fileUtilsInterface);
     }
 
+    /* Step 7 : Publish execution metrics */
+    protected void publishMetrics() {
+        kraftwerkExecutionContext.setEndTimeStamp(System.currentTimeMillis());
+        log.info("Execution metrics :\n{}", kraftwerkExecutionContext.getFormattedString());
+        ExecutionMetrics.publish(kraftwerkExecutionContext);
+    }
+
 }
@@ -0,0 +1,65 @@
+package fr.insee.kraftwerk.api.process;
+
+import fr.insee.kraftwerk.core.utils.KraftwerkExecutionContext;
+import fr.insee.kraftwerk.core.utils.StageMetrics;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
+
+/**
+ * Publishes the stage metrics of an execution as Micrometer meters.
+ * Meters are registered in the global registry, to which Spring Boot adds its registries.
+ * Each execution adds one sample per stage, mode and dataset. Rows are only published for the stages which counted them.
+ */
+public class ExecutionMetrics {
+
+	static final String STAGE_DURATION = "kraftwerk.stage.duration";
+	static final String STAGE_ROWS_IN = "kraftwerk.stage.rows.in";
+	static final String STAGE_ROWS_OUT = "kraftwerk.stage.rows.out";
+	static final String STAGE_ALLOCATED = "kraftwerk.stage.allocated";
+	private static final String NONE = "none";
+
+	private ExecutionMetrics() {
+		throw new IllegalStateException("Utility class");
+	}
+
+	public static void publish(KraftwerkExecutionContext kraftwerkExecutionContext) {
+		publish(kraftwerkExecutionContext, Metrics.globalRegistry);
+	}
+
+	static void publish(KraftwerkExecutionContext kraftwerkExecutionContext, MeterRegistry meterRegistry) {
+		for (StageMetrics stageMetrics : kraftwerkExecutionContext.getStageMetrics()) {
+			Tags tags = Tags.of("stage", stageMetrics.getStageName(),
+					"mode", stageMetrics.getMode() == null ? NONE : stageMetrics.getMode(),
+					"dataset", stageMetrics.getDataset() == null ? NONE : stageMetrics.getDataset());
+			Timer.builder(STAGE_DURATION)
+					.description("Duration of a Kraftwerk processing stage")
+					.tags(tags)
+					.register(meterRegistry)
+					.record(Duration.ofNanos(stageMetrics.getDurationNanos()));
+			if (stageMetrics.isRowsMeasured()) {
+				DistributionSummary.builder(STAGE_ROWS_IN)
+						.description("Rows read by a Kraftwerk processing stage")
+						.tags(tags)
+						.register(meterRegistry)
+						.record(stageMetrics.getRowsIn());
+				DistributionSummary.builder(STAGE_ROWS_OUT)
+						.description("Rows produced by a Kraftwerk processing stage")
+						.tags(tags)
+						.register(meterRegistry)
+						.record(stageMetrics.getRowsOut());
+			}
+			DistributionSummary.builder(STAGE_ALLOCATED)
+					.description("Memory allocated by a Kraftwerk processing stage")
+					.baseUnit("bytes")
+					.tags(tags)
+					.register(meterRegistry)
+					.record(stageMetrics.getAllocatedBytes());
+		}
+	}
+
+}
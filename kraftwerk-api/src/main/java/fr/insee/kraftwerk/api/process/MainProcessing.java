@@ -1,31 +1,45 @@
 package fr.insee.kraftwerk.api.process;
 
 import fr.insee.bpm.metadata.model.MetadataModel;
+import fr.insee.kraftwerk.core.Constants;
 import fr.insee.kraftwerk.core.exceptions.KraftwerkException;
 import fr.insee.kraftwerk.core.inputs.ModeInputs;
 import fr.insee.kraftwerk.core.inputs.UserInputsFile;
 import fr.insee.kraftwerk.core.metadata.MetadataUtils;
+import fr.insee.kraftwerk.core.parsers.DataFormat;
 import fr.insee.kraftwerk.core.sequence.BuildBindingsSequence;
 import fr.insee.kraftwerk.core.sequence.ControlInputSequence;
 import fr.insee.kraftwerk.core.sequence.InsertDatabaseSequence;
 import fr.insee.kraftwerk.core.sequence.MultimodalSequence;
 import fr.insee.kraftwerk.core.sequence.UnimodalSequence;
 import fr.insee.kraftwerk.core.sequence.WriterSequence;
+import fr.insee.kraftwerk.core.utils.ConcurrentTasks;
 import fr.insee.kraftwerk.core.utils.SqlUtils;
+import fr.insee.kraftwerk.core.utils.StageTimer;
 import fr.insee.kraftwerk.core.utils.TextFileWriter;
 import fr.insee.kraftwerk.core.utils.files.FileUtilsInterface;
 import fr.insee.kraftwerk.core.utils.KraftwerkExecutionContext;
 import fr.insee.kraftwerk.core.vtl.VtlBindings;
+import fr.insee.kraftwerk.core.vtl.VtlCompilationCache;
 import lombok.Getter;
+import lombok.Setter;
 import lombok.extern.log4j.Log4j2;
 
 import java.nio.file.Path;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 @Log4j2
 public class MainProcessing {
@@ -42,8 +56,14 @@ public class MainProcessing {
 	List<UserInputsFile> userInputsFileList; // for file by file process
 	@Getter
 	private VtlBindings vtlBindings = new VtlBindings();
+	@Getter
 	private final KraftwerkExecutionContext kraftwerkExecutionContext;
 	private final FileUtilsInterface fileUtilsInterface;
+	/** Workers running the unimodal steps of the modes, null to process the modes one after the other */
+	@Setter
+	private UnimodalWorkers unimodalWorkers;
+	/** Guard the metadata model of each mode, that is modified when parsing files and read by VTL processing. */
+	private final Map<String, ReadWriteLock> metadataLocks = new ConcurrentHashMap<>();
 
 	
 	/**
@@ -66,15 +86,21 @@ public class MainProcessing {
 
 	public void runMain() throws KraftwerkException {
 		init();
+		kraftwerkExecutionContext.addProgressTotal(userInputsFileList.size());
 		//iterate on file(s)
 		try (Connection writeDatabaseConnection = SqlUtils.openConnection()) {
-			for (UserInputsFile userFile : userInputsFileList) {
-				this.userInputsFile = userFile;
-				vtlBindings = new VtlBindings();
-				unimodalProcess();
-				multimodalProcess();
-				try(Statement writeDatabase = writeDatabaseConnection.createStatement()){
-					insertDatabase(writeDatabase);
+			int workers = Math.min(Constants.getFileByFileWorkers(), userInputsFileList.size());
+			if (workers > 1) {
+				processFilesInParallel(writeDatabaseConnection, workers);
+			} else {
+				for (UserInputsFile userFile : userInputsFileList) {
+					kraftwerkExecutionContext.checkNotCancelled();
+					this.userInputsFile = userFile;
+					vtlBindings = processFile(userFile, writeDatabaseConnection);
+					try(Statement writeDatabase = writeDatabaseConnection.createStatement()){
+						insertDatabase(writeDatabase);
+					}
+					kraftwerkExecutionContext.incrementProgressDone();
 				}
 			}
 			//Export from database
@@ -84,12 +110,60 @@ public class MainProcessing {
 			writeErrors();
 			kraftwerkExecutionContext.setEndTimeStamp(System.currentTimeMillis());
 			writeLog();
+			ExecutionMetrics.publish(kraftwerkExecutionContext);
+			VtlCompilationCache vtlCompilationCache = VtlCompilationCache.getInstance();
+			log.info("VTL compilation cache : {} hits, {} misses, {} scripts cached",
+					vtlCompilationCache.getHitCount(), vtlCompilationCache.getMissCount(), vtlCompilationCache.size());
 		} catch (SQLException e) {
 			log.error(e.toString());
 			throw new KraftwerkException(500, "SQL Error");
 		}
 	}
 
+	/**
+	 * Parse and process files concurrently. Each file gets its own VTL bindings (and VTL engines).
+	 * Database inserts are done by the calling thread, in the order of the files list, so that outputs
+	 * are the same as in sequential processing.
+	 * At most 2 * workers files are processed or waiting for insert at the same time, to bound memory.
+	 * When the execution is cancelled, the files being processed are not interrupted : the processing stops once they are done.
+	 */
+	private void processFilesInParallel(Connection writeDatabaseConnection, int workers) throws KraftwerkException, SQLException {
+		log.info("Processing {} files with {} workers", userInputsFileList.size(), workers);
+		try (ConcurrentTasks fileProcessings = new ConcurrentTasks(workers, "file-by-file processing")) {
+			Deque<Future<VtlBindings>> pendingFiles = new ArrayDeque<>();
+			for (UserInputsFile userFile : userInputsFileList) {
+				if (kraftwerkExecutionContext.isCancelled()) {
+					fileProcessings.awaitSubmittedTasks();
+					kraftwerkExecutionContext.checkNotCancelled();
+				}
+				if (pendingFiles.size() >= 2 * workers) {
+					insertProcessedFile(fileProcessings.get(pendingFiles.poll()), writeDatabaseConnection);
+				}
+				pendingFiles.add(fileProcessings.submit(() -> processFile(userFile, writeDatabaseConnection)));
+			}
+			while (!pendingFiles.isEmpty()) {
+				insertProcessedFile(fileProcessings.get(pendingFiles.poll()), writeDatabaseConnection);
+			}
+			this.userInputsFile = userInputsFileList.getLast();
+		}
+	}
+
+	private void insertProcessedFile(VtlBindings fileVtlBindings, Connection writeDatabaseConnection) throws KraftwerkException, SQLException {
+		vtlBindings = fileVtlBindings;
+		try(Statement writeDatabase = writeDatabaseConnection.createStatement()){
+			insertDatabase(writeDatabase);
+		}
+		kraftwerkExecutionContext.incrementProgressDone();
+	}
+
+	/* Steps 2 and 3 for one file, SQL multimodal processing tables being attached to the database given */
+	private VtlBindings processFile(UserInputsFile userFile, Connection writeDatabaseConnection) throws KraftwerkException {
+		VtlBindings fileVtlBindings = new VtlBindings();
+		unimodalProcess(userFile, fileVtlBindings);
+		multimodalProcess(userFile, fileVtlBindings, writeDatabaseConnection);
+		return fileVtlBindings;
+	}
+
 	/* Step 1 : Init */
 	public void init() throws KraftwerkException {
 		inDirectory = controlInputSequence.getInDirectory(kraftwerkExecutionContext.getInDirectoryParam());
@@ -106,6 +180,7 @@ public class MainProcessing {
 		userInputsFileList = getUserInputsFile(userInputsFile, kraftwerkExecutionContext.isFileByFile());
 
 		// Check size of data files and throw an exception if it is too big .Limit is 400 Mo for one processing (one file or data folder if not file by file).
+		// Lunatic XML data is streamed, so only a warning is logged for it.
 		//In case of file-by-file processing we check the size of each file.
 		if (Boolean.TRUE.equals(kraftwerkExecutionContext.isFileByFile())) {
 			for (UserInputsFile userInputs : userInputsFileList) {
@@ -121,30 +196,72 @@ public class MainProcessing {
 
 	}
 
-	/* Step 2 : unimodal data */
-	private void unimodalProcess() throws KraftwerkException {
+	/* Step 2 : unimodal data, the modes being processed concurrently */
+	private void unimodalProcess(UserInputsFile userFile, VtlBindings fileVtlBindings) throws KraftwerkException {
+		ModeProcessing.processModes(userFile.getModeInputsMap().keySet(), fileVtlBindings, unimodalWorkers,
+				(dataMode, modeVtlBindings) -> unimodalProcess(userFile, dataMode, modeVtlBindings));
+	}
+
+	private void unimodalProcess(UserInputsFile userFile, String dataMode, VtlBindings modeVtlBindings) throws KraftwerkException {
 		BuildBindingsSequence buildBindingsSequence = new BuildBindingsSequence(fileUtilsInterface);
-		for (String dataMode : userInputsFile.getModeInputsMap().keySet()) {
-			MetadataModel metadataForMode = metadataModels.get(dataMode);
-			buildBindingsSequence.buildVtlBindings(userInputsFile, dataMode, vtlBindings, metadataForMode, kraftwerkExecutionContext.isWithDDI(),
+		MetadataModel metadataForMode = metadataModels.get(dataMode);
+		ReadWriteLock metadataLock = metadataLock(dataMode);
+		// Parsers add variables and update lengths in the metadata model : the file is parsed with its own copy
+		// of the model of the mode, shared by all files, so that files of the same mode are parsed concurrently
+		MetadataModel fileMetadata;
+		metadataLock.readLock().lock();
+		try {
+			fileMetadata = MetadataUtils.copyOf(metadataForMode);
+		} finally {
+			metadataLock.readLock().unlock();
+		}
+		try (StageTimer ignored = kraftwerkExecutionContext.startStage("Parsing", dataMode)) {
+			buildBindingsSequence.buildVtlBindings(userFile, dataMode, modeVtlBindings, fileMetadata, kraftwerkExecutionContext.isWithDDI(),
 					kraftwerkExecutionContext);
+		}
+		metadataLock.writeLock().lock();
+		try {
+			MetadataUtils.mergeParsedMetadata(metadataForMode, fileMetadata);
+		} finally {
+			metadataLock.writeLock().unlock();
+		}
+		metadataLock.readLock().lock();
+		try {
 			UnimodalSequence unimodal = new UnimodalSequence();
-			unimodal.applyUnimodalSequence(userInputsFile, dataMode, vtlBindings, kraftwerkExecutionContext,
+			unimodal.applyUnimodalSequence(userFile, dataMode, modeVtlBindings, kraftwerkExecutionContext,
 					metadataModels,
 					fileUtilsInterface);
+		} finally {
+			metadataLock.readLock().unlock();
 		}
 	}
 
 	/* Step 3 : multimodal VTL data processing */
-	private void multimodalProcess() throws KraftwerkException {
-		MultimodalSequence multimodalSequence = new MultimodalSequence();
-		multimodalSequence.multimodalProcessing(userInputsFile, vtlBindings, kraftwerkExecutionContext, metadataModels, fileUtilsInterface);
+	private void multimodalProcess(UserInputsFile userFile, VtlBindings fileVtlBindings, Connection writeDatabaseConnection) throws KraftwerkException {
+		// Locks are always taken in the same order, writers only take the lock of one mode
+		List<Lock> readLocks = new ArrayList<>();
+		for (String dataMode : new TreeSet<>(metadataModels.keySet())) {
+			Lock readLock = metadataLock(dataMode).readLock();
+			readLock.lock();
+			readLocks.add(readLock);
+		}
+		try {
+			MultimodalSequence multimodalSequence = new MultimodalSequence();
+			multimodalSequence.multimodalProcessing(userFile, fileVtlBindings, kraftwerkExecutionContext, metadataModels, fileUtilsInterface,
+					writeDatabaseConnection);
+		} finally {
+			readLocks.forEach(Lock::unlock);
+		}
+	}
+
+	private ReadWriteLock metadataLock(String dataMode) {
+		return metadataLocks.computeIfAbsent(dataMode, mode -> new ReentrantReadWriteLock());
 	}
 
 	/* Step 4 : Insert into SQL database */
 	private void insertDatabase(Statement database) {
 		InsertDatabaseSequence insertDatabaseSequence = new InsertDatabaseSequence();
-		insertDatabaseSequence.insertDatabaseProcessing(vtlBindings, database);
+		insertDatabaseSequence.insertDatabaseProcessing(vtlBindings, database, kraftwerkExecutionContext);
 	}
 
 	/* Step 5 : Write output files */
@@ -219,6 +336,12 @@ public class MainProcessing {
 		for (String dataMode : userInputsFile.getModeInputsMap().keySet()){
 			long dataSize = userInputsFile.getFileUtilsInterface().getSizeOf(userInputsFile.getModeInputs(dataMode).getDataFile().toString());
 			if (dataSize > limitSize) {
+				// Lunatic XML files are parsed one survey unit at a time, their size is not a hard limit
+				if (userInputsFile.getModeInputs(dataMode).getDataFormat() == DataFormat.LUNATIC_XML) {
+					log.warn("Size of data folder/file {} : {}, greater than the recommended size {}",
+							userInputsFile.getModeInputs(dataMode).getDataFile(), dataSize, limitSize);
+					continue;
+				}
 				log.error("Size of data folder/file {} : {}",userInputsFile.getModeInputs(dataMode).getDataFile(), dataSize);
 				throw new KraftwerkException(413,errorMessage);
 			}
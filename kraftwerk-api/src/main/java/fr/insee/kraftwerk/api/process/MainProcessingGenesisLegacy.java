@@ -64,6 +64,7 @@ public class MainProcessingGenesisLegacy extends AbstractMainProcessingGenesis{
 			}
 			outputFileWriter();
 			writeErrors();
+			publishMetrics();
 			if (!database.isClosed()){database.close();}
 		}catch (SQLException e){
 			log.error(e.toString());
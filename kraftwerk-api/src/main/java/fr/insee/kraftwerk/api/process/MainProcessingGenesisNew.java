@@ -4,6 +4,7 @@ import com.fasterxml.jackson.core.JsonEncoding;
 import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import fr.insee.kraftwerk.api.client.GenesisBatchLoader;
 import fr.insee.kraftwerk.api.client.GenesisClient;
 import fr.insee.kraftwerk.api.configuration.ConfigProperties;
 import fr.insee.kraftwerk.api.dto.LastJsonExtractionDate;
@@ -73,6 +74,7 @@ public class MainProcessingGenesisNew extends AbstractMainProcessingGenesis{
             processDataByBatch(questionnaireModelId, batchSize, dataMode);
             outputFileWriter();
             writeErrors();
+            publishMetrics();
             if (!database.isClosed()){database.close();}
         }catch (SQLException e){
             log.error(e.toString());
@@ -101,21 +103,24 @@ public class MainProcessingGenesisNew extends AbstractMainProcessingGenesis{
         Path tmpOutputFile = createTempOutputFile(questionnaireModelId);
 
         //Try with resources to close database when done
+        List<InterrogationId> ids = fetchInterrogationIds(questionnaireModelId, beginDate);
+        List<List<InterrogationId>> partitions  = ListUtils.partition(ids, batchSize);
         try (Connection connection = openDatabaseConnection(databasePath);
-             JsonGenerator jsonGenerator = createJsonGenerator(tmpOutputFile))
+             JsonGenerator jsonGenerator = createJsonGenerator(tmpOutputFile);
+             GenesisBatchLoader batchLoader = createBatchLoader(questionnaireModelId, dataMode, partitions))
         {
             this.database = connection.createStatement();
 
-            List<InterrogationId> ids = fetchInterrogationIds(questionnaireModelId, beginDate);
-            List<List<InterrogationId>> partitions  = ListUtils.partition(ids, batchSize);
             int nbPartitions = partitions .size();
             int indexPartition = 1;
+            kraftwerkExecutionContext.addProgressTotal(nbPartitions);
 
             ObjectMapper objectMapper = new ObjectMapper();
             jsonGenerator.writeStartArray(); // Beginning of Json Array
 
             for (List<InterrogationId> listId : partitions ) {
-                List<SurveyUnitUpdateLatest> suLatest = client.getUEsLatestState(questionnaireModelId, listId);
+                kraftwerkExecutionContext.checkNotCancelled();
+                List<SurveyUnitUpdateLatest> suLatest = batchLoader.next();
                 log.info("Number of documents retrieved from database : {}, partition {}/{}", suLatest.size(), indexPartition, nbPartitions);
                 vtlBindings = new VtlBindings();
                 // if one mode is specified we filter to keep data of that mode only
@@ -127,6 +132,7 @@ public class MainProcessingGenesisNew extends AbstractMainProcessingGenesis{
                 multimodalProcess();
                 insertDatabase();
                 tmpJsonFileWriter(listId, suLatest, objectMapper, jsonGenerator, database);
+                kraftwerkExecutionContext.incrementProgressDone();
                 indexPartition++;
             }
             jsonGenerator.writeEndArray(); // End of Json Array
@@ -137,6 +143,7 @@ public class MainProcessingGenesisNew extends AbstractMainProcessingGenesis{
         }
         moveTempFile(outputFileName(questionnaireModelId), tmpOutputFile);
         writeErrors();
+        publishMetrics();
         client.saveDateExtraction(questionnaireModelId, dataMode);
         SqlUtils.deleteDatabaseFile(databasePath);
     }
@@ -0,0 +1,56 @@
+package fr.insee.kraftwerk.api.process;
+
+import fr.insee.kraftwerk.core.exceptions.KraftwerkException;
+import fr.insee.kraftwerk.core.utils.ConcurrentTasks;
+import fr.insee.kraftwerk.core.vtl.VtlBindings;
+import lombok.extern.log4j.Log4j2;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * Unimodal steps of the modes of a file or partition, run concurrently.
+ * Each mode is processed in its own VTL bindings, and the datasets of all modes are put in the bindings
+ * of the file or partition once every mode is processed, in the order of the modes.
+ * The modes are run by the {@link UnimodalWorkers} shared by all the processings.
+ */
+@Log4j2
+final class ModeProcessing {
+
+	/** Unimodal steps of one mode, filling the given bindings */
+	@FunctionalInterface
+	interface ModeProcessor {
+		void process(String dataMode, VtlBindings modeVtlBindings) throws KraftwerkException;
+	}
+
+	private ModeProcessing() {
+	}
+
+	/**
+	 * @param unimodalWorkers workers running the modes, null to process them one after the other
+	 */
+	static void processModes(Collection<String> dataModes, VtlBindings vtlBindings, UnimodalWorkers unimodalWorkers,
+							 ModeProcessor modeProcessor) throws KraftwerkException {
+		if (unimodalWorkers == null || unimodalWorkers.getWorkers() <= 1 || dataModes.size() <= 1) {
+			for (String dataMode : dataModes) {
+				modeProcessor.process(dataMode, vtlBindings);
+			}
+			return;
+		}
+		log.info("Processing {} modes with {} shared workers", dataModes.size(), unimodalWorkers.getWorkers());
+		List<Callable<VtlBindings>> modeProcessings = new ArrayList<>();
+		for (String dataMode : dataModes) {
+			modeProcessings.add(() -> {
+				VtlBindings modeVtlBindings = new VtlBindings();
+				modeProcessor.process(dataMode, modeVtlBindings);
+				return modeVtlBindings;
+			});
+		}
+		// Every mode is processed before the multimodal steps
+		for (VtlBindings modeVtlBindings : ConcurrentTasks.invokeAll(modeProcessings, unimodalWorkers.getExecutor(), "unimodal processing")) {
+			vtlBindings.putAll(modeVtlBindings);
+		}
+	}
+}
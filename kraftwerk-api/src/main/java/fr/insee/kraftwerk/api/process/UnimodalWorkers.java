@@ -0,0 +1,49 @@
+package fr.insee.kraftwerk.api.process;
+
+import fr.insee.kraftwerk.api.configuration.ConfigProperties;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Workers running the unimodal steps of the modes, shared by all the processings :
+ * concurrent jobs or files don't multiply the unimodal threads, their modes are queued.
+ * With a single worker, modes are processed one after the other by the thread of the processing.
+ */
+@Log4j2
+@Component
+public class UnimodalWorkers implements DisposableBean {
+
+	@Getter
+	private final int workers;
+	@Getter(AccessLevel.PACKAGE)
+	private final ThreadPoolExecutor executor;
+
+	@Autowired
+	public UnimodalWorkers(ConfigProperties configProperties) {
+		this(configProperties.getUnimodalWorkers());
+	}
+
+	UnimodalWorkers(int workers) {
+		this.workers = Math.max(1, workers);
+		AtomicInteger threadCount = new AtomicInteger();
+		this.executor = new ThreadPoolExecutor(this.workers, this.workers, 60L, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<>(), runnable -> new Thread(runnable, "kraftwerk-unimodal-" + threadCount.incrementAndGet()));
+		// Idle workers are released
+		this.executor.allowCoreThreadTimeOut(true);
+		log.info("Modes processed {} at a time", this.workers);
+	}
+
+	@Override
+	public void destroy() {
+		executor.shutdownNow();
+	}
+}
@@ -0,0 +1,141 @@
+package fr.insee.kraftwerk.api.services;
+
+
+import fr.insee.kraftwerk.api.configuration.ConfigProperties;
+import fr.insee.kraftwerk.api.configuration.MinioConfig;
+import fr.insee.kraftwerk.api.dto.JobInformation;
+import fr.insee.kraftwerk.api.jobs.KraftwerkJob;
+import fr.insee.kraftwerk.api.jobs.KraftwerkJobScheduler;
+import fr.insee.kraftwerk.api.jobs.KraftwerkJobTask;
+import fr.insee.kraftwerk.core.data.model.Mode;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Main services run as background jobs : the submission returns a job identifier,
+ * used to follow the progress of the job, to get its result or to cancel it.
+ */
+@RestController
+@Tag(name = "${tag.jobs}")
+public class JobService extends KraftwerkService {
+
+	private static final String UNKNOWN_JOB = "Unknown job %s";
+
+	MainService mainService;
+	KraftwerkJobScheduler jobScheduler;
+
+	@Autowired
+	public JobService(ConfigProperties configProperties, MinioConfig minioConfig, MainService mainService, KraftwerkJobScheduler jobScheduler) {
+		super(configProperties, minioConfig);
+		this.mainService = mainService;
+		this.jobScheduler = jobScheduler;
+	}
+
+	@PutMapping(value = "/main/jobs/main")
+	@Operation(operationId = "mainJob", summary = "${summary.jobs.submit}", description = "${description.jobs.submit}")
+	public ResponseEntity<JobInformation> mainJob(
+			@Parameter(description = "${param.inDirectory}", required = true, example = INDIRECTORY_EXAMPLE) @RequestBody String inDirectoryParam,
+			@Parameter(description = "${param.archiveAtEnd}", required = false) @RequestParam(defaultValue = "false") boolean archiveAtEnd,
+			@Parameter(description = "${param.withEncryption}") @RequestParam(value = "withEncryption", defaultValue = "false") boolean withEncryption
+	) {
+		boolean fileByFile = false;
+		boolean withDDI = true;
+		return submit(String.format("main %s", inDirectoryParam),
+				job -> mainService.runWithoutGenesis(inDirectoryParam, archiveAtEnd, fileByFile, withDDI, withEncryption, job));
+	}
+
+	@PutMapping(value = "/main/jobs/file-by-file")
+	@Operation(operationId = "mainFileByFileJob", summary = "${summary.jobs.submit}", description = "${description.jobs.submit}")
+	public ResponseEntity<JobInformation> mainFileByFileJob(
+			@Parameter(description = "${param.inDirectory}", required = true, example = INDIRECTORY_EXAMPLE) @RequestBody String inDirectoryParam,
+			@Parameter(description = "${param.archiveAtEnd}", required = false) @RequestParam(defaultValue = "false") boolean archiveAtEnd,
+			@Parameter(description = "${param.withEncryption}") @RequestParam(value = "withEncryption", defaultValue = "false") boolean withEncryption
+	) {
+		boolean fileByFile = true;
+		boolean withDDI = true;
+		return submit(String.format("file-by-file %s", inDirectoryParam),
+				job -> mainService.runWithoutGenesis(inDirectoryParam, archiveAtEnd, fileByFile, withDDI, withEncryption, job));
+	}
+
+	@PutMapping(value = "/main/jobs/genesis/by-questionnaire")
+	@Operation(operationId = "mainGenesisByQuestionnaireIdJob", summary = "${summary.jobs.submit}", description = "${description.jobs.submit}")
+	public ResponseEntity<JobInformation> mainGenesisByQuestionnaireIdJob(
+			@Parameter(description = "${param.questionnaireModelId}") @RequestParam(required = true) String questionnaireModelId,
+			@Parameter(description = "${param.dataMode}") @RequestParam(required = false) Mode dataMode,
+			@Parameter(description = "${param.batchSize}") @RequestParam(value = "batchSize", defaultValue = "1000") int batchSize,
+			@Parameter(description = "${param.withEncryption}") @RequestParam(value = "withEncryption", defaultValue = "false") boolean withEncryption) {
+		boolean withDDI = true;
+		return submit(String.format("genesis %s", questionnaireModelId),
+				job -> mainService.runWithGenesisByQuestionnaire(questionnaireModelId, withDDI, withEncryption, batchSize, dataMode, job));
+	}
+
+	@PutMapping(value = "/main/jobs/json")
+	@Operation(operationId = "jsonExtractionJob", summary = "${summary.jobs.submit}", description = "${description.jobs.submit}")
+	public ResponseEntity<JobInformation> jsonExtractionJob(
+			@Parameter(description = "${param.questionnaireModelId}", required = true, example = INDIRECTORY_EXAMPLE) @RequestParam String questionnaireModelId,
+			@Parameter(description = "${param.dataMode}") @RequestParam(required = false) Mode dataMode,
+			@Parameter(description = "${param.batchSize}") @RequestParam(value = "batchSize", defaultValue = "1000") int batchSize,
+			@Parameter(description = "Extract since") @RequestParam(value = "sinceDate",required = false) LocalDateTime since) {
+		return submit(String.format("json %s", questionnaireModelId),
+				job -> mainService.runJsonExtraction(questionnaireModelId, dataMode, batchSize, since, job));
+	}
+
+	@GetMapping(value = "/main/jobs/{jobId}")
+	@Operation(operationId = "jobStatus", summary = "${summary.jobs.status}")
+	public ResponseEntity<Object> jobStatus(
+			@Parameter(description = "${param.jobId}", required = true) @PathVariable String jobId) {
+		Optional<KraftwerkJob> job = jobScheduler.getJob(jobId);
+		if (job.isEmpty()) {
+			return ResponseEntity.status(HttpStatus.NOT_FOUND).body(String.format(UNKNOWN_JOB, jobId));
+		}
+		return ResponseEntity.ok(JobInformation.of(job.get()));
+	}
+
+	@GetMapping(value = "/main/jobs/{jobId}/result")
+	@Operation(operationId = "jobResult", summary = "${summary.jobs.result}")
+	public ResponseEntity<String> jobResult(
+			@Parameter(description = "${param.jobId}", required = true) @PathVariable String jobId) {
+		Optional<KraftwerkJob> job = jobScheduler.getJob(jobId);
+		if (job.isEmpty()) {
+			return ResponseEntity.status(HttpStatus.NOT_FOUND).body(String.format(UNKNOWN_JOB, jobId));
+		}
+		if (!job.get().getStatus().isFinished()) {
+			return ResponseEntity.status(HttpStatus.ACCEPTED).body(String.format("Job %s is %s", jobId, job.get().getStatus()));
+		}
+		//Same response as the synchronous service
+		return job.get().getResult();
+	}
+
+	@DeleteMapping(value = "/main/jobs/{jobId}")
+	@Operation(operationId = "cancelJob", summary = "${summary.jobs.cancel}")
+	public ResponseEntity<Object> cancelJob(
+			@Parameter(description = "${param.jobId}", required = true) @PathVariable String jobId) {
+		Optional<KraftwerkJob> job = jobScheduler.getJob(jobId);
+		if (job.isEmpty()) {
+			return ResponseEntity.status(HttpStatus.NOT_FOUND).body(String.format(UNKNOWN_JOB, jobId));
+		}
+		if (!jobScheduler.cancel(job.get())) {
+			return ResponseEntity.status(HttpStatus.CONFLICT).body(String.format("Job %s is already finished", jobId));
+		}
+		return ResponseEntity.accepted().body(JobInformation.of(job.get()));
+	}
+
+	private ResponseEntity<JobInformation> submit(String name, KraftwerkJobTask task) {
+		KraftwerkJob job = jobScheduler.submit(name, task);
+		return ResponseEntity.accepted().body(JobInformation.of(job));
+	}
+}
@@ -60,6 +60,14 @@ public class KraftwerkService {
 		if (StringUtils.isNotEmpty(csvOutputsQuoteChar)) {
 			Constants.setCsvOutputQuoteChar(csvOutputsQuoteChar.trim().charAt(0));
 		}
+		Constants.setVtlJsonDatasetMode(configProperties.isVtlJsonDatasetMode());
+		Constants.setFileByFileWorkers(configProperties.getFileByFileWorkers());
+		Constants.setVtlCompilationCacheSize(configProperties.getVtlCompilationCacheSize());
+		Constants.setParadataWorkers(configProperties.getParadataWorkers());
+		Constants.setMultimodalDuckDb(configProperties.isMultimodalDuckDb());
+		Constants.setExportWorkers(configProperties.getExportWorkers());
+		Constants.setMinioUploadWorkers(configProperties.getMinioUploadWorkers());
+		Constants.setMetadataCacheSize(configProperties.getMetadataCacheSize());
 		controlInputSequence = new ControlInputSequence(configProperties.getDefaultDirectory(), fileUtilsInterface);
 	}
 	
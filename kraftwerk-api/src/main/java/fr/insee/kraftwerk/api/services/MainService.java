@@ -6,9 +6,12 @@ import fr.insee.kraftwerk.api.configuration.ConfigProperties;
 import fr.insee.kraftwerk.api.configuration.MinioConfig;
 import fr.insee.kraftwerk.api.configuration.VaultConfig;
 import fr.insee.kraftwerk.api.dto.LastJsonExtractionDate;
+import fr.insee.kraftwerk.api.jobs.KraftwerkJob;
+import fr.insee.kraftwerk.api.jobs.KraftwerkJobScheduler;
 import fr.insee.kraftwerk.api.process.MainProcessing;
 import fr.insee.kraftwerk.api.process.MainProcessingGenesisLegacy;
 import fr.insee.kraftwerk.api.process.MainProcessingGenesisNew;
+import fr.insee.kraftwerk.api.process.UnimodalWorkers;
 import fr.insee.kraftwerk.core.data.model.Mode;
 import fr.insee.kraftwerk.core.exceptions.KraftwerkException;
 import fr.insee.kraftwerk.core.utils.KraftwerkExecutionContext;
@@ -44,14 +47,24 @@ public class MainService extends KraftwerkService {
 	MinioClient minioClient;
 	VaultConfig vaultConfig;
 	boolean useMinio;
+	/* Shared by the processings, to reuse connections and token */
+	GenesisClient genesisClient;
+	/* Synchronous services run as jobs, so that they share the bound on concurrent processings */
+	KraftwerkJobScheduler jobScheduler;
+	/* Shared by the processings, to bound the modes processed at the same time */
+	UnimodalWorkers unimodalWorkers;
 
 
 	@Autowired
-	public MainService(ConfigProperties configProperties, MinioConfig minioConfig, VaultConfig vaultConfig, Environment env) {
+	public MainService(ConfigProperties configProperties, MinioConfig minioConfig, VaultConfig vaultConfig, Environment env,
+					   GenesisClient genesisClient, KraftwerkJobScheduler jobScheduler, UnimodalWorkers unimodalWorkers) {
         super(configProperties, minioConfig);
         this.configProperties = configProperties;
 		this.minioConfig = minioConfig;
 		this.vaultConfig = vaultConfig;
+		this.genesisClient = genesisClient;
+		this.jobScheduler = jobScheduler;
+		this.unimodalWorkers = unimodalWorkers;
 
 		useMinio = false;
 		if(minioConfig == null){
@@ -63,6 +76,12 @@ public class MainService extends KraftwerkService {
 		}
 	}
 
+	//Constructor used for tests
+	public MainService(ConfigProperties configProperties, MinioConfig minioConfig, VaultConfig vaultConfig, Environment env) {
+		this(configProperties, minioConfig, vaultConfig, env, new GenesisClient(new RestTemplateBuilder(), configProperties),
+				new KraftwerkJobScheduler(configProperties), new UnimodalWorkers(configProperties));
+	}
+
 	@PutMapping(value = "/main")
 	@Operation(operationId = "main", summary = "${summary.main}", description = "${description.main}")
 	public ResponseEntity<String> mainService(
@@ -72,7 +91,8 @@ public class MainService extends KraftwerkService {
 			) {
 		boolean fileByFile = false;
 		boolean withDDI = true;
-		return runWithoutGenesis(inDirectoryParam, archiveAtEnd, fileByFile, withDDI, withEncryption);
+		return jobScheduler.run(String.format("main %s", inDirectoryParam),
+				job -> runWithoutGenesis(inDirectoryParam, archiveAtEnd, fileByFile, withDDI, withEncryption, job));
 	}
 
 	@PutMapping(value = "/main/file-by-file")
@@ -84,7 +104,8 @@ public class MainService extends KraftwerkService {
 	) {
 		boolean fileByFile = true;
 		boolean withDDI = true;
-		return runWithoutGenesis(inDirectoryParam, archiveAtEnd, fileByFile, withDDI, withEncryption);
+		return jobScheduler.run(String.format("file-by-file %s", inDirectoryParam),
+				job -> runWithoutGenesis(inDirectoryParam, archiveAtEnd, fileByFile, withDDI, withEncryption, job));
 	}
 
 	@PutMapping(value = "/main/lunatic-only")
@@ -96,7 +117,8 @@ public class MainService extends KraftwerkService {
 	) {
 		boolean withDDI = false;
 		boolean fileByFile = false;
-		return runWithoutGenesis(inDirectoryParam, archiveAtEnd, fileByFile, withDDI, withEncryption);
+		return jobScheduler.run(String.format("lunatic-only %s", inDirectoryParam),
+				job -> runWithoutGenesis(inDirectoryParam, archiveAtEnd, fileByFile, withDDI, withEncryption, job));
 	}
 
 	/**
@@ -113,7 +135,8 @@ public class MainService extends KraftwerkService {
 			@Parameter(description = "${param.batchSize}") @RequestParam(value = "batchSize", defaultValue = "1000") int batchSize,
 			@Parameter(description = "${param.withEncryption}") @RequestParam(value = "withEncryption", defaultValue = "false") boolean withEncryption) {
 		boolean withDDI = true;
-		return runWithGenesis(campaignId, withDDI, withEncryption, batchSize);
+		return jobScheduler.run(String.format("genesis campaign %s", campaignId),
+				job -> runWithGenesis(campaignId, withDDI, withEncryption, batchSize));
 	}
 
 	@PutMapping(value = "/main/genesis/by-questionnaire")
@@ -124,7 +147,8 @@ public class MainService extends KraftwerkService {
 			@Parameter(description = "${param.batchSize}") @RequestParam(value = "batchSize", defaultValue = "1000") int batchSize,
 			@Parameter(description = "${param.withEncryption}") @RequestParam(value = "withEncryption", defaultValue = "false") boolean withEncryption) {
 		boolean withDDI = true;
-		return runWithGenesisByQuestionnaire(questionnaireModelId, withDDI, withEncryption, batchSize, dataMode);
+		return jobScheduler.run(String.format("genesis %s", questionnaireModelId),
+				job -> runWithGenesisByQuestionnaire(questionnaireModelId, withDDI, withEncryption, batchSize, dataMode, job));
 	}
 
 	/**
@@ -142,7 +166,8 @@ public class MainService extends KraftwerkService {
 			@Parameter(description = "${param.withEncryption}") @RequestParam(value = "withEncryption", defaultValue = "false") boolean withEncryption
 	) {
 		boolean withDDI = false;
-		return runWithGenesis(campaignId, withDDI, withEncryption, batchSize);
+		return jobScheduler.run(String.format("genesis lunatic-only campaign %s", campaignId),
+				job -> runWithGenesis(campaignId, withDDI, withEncryption, batchSize));
 	}
 
 	@PutMapping(value = "/main/genesis/by-questionnaire/lunatic-only")
@@ -154,22 +179,35 @@ public class MainService extends KraftwerkService {
 			@Parameter(description = "${param.withEncryption}") @RequestParam(value = "withEncryption", defaultValue = "false") boolean withEncryption
 	) {
 		boolean withDDI = false;
-		return runWithGenesisByQuestionnaire(questionnaireModelId, withDDI, withEncryption, batchSize, dataMode);
+		return jobScheduler.run(String.format("genesis lunatic-only %s", questionnaireModelId),
+				job -> runWithGenesisByQuestionnaire(questionnaireModelId, withDDI, withEncryption, batchSize, dataMode, job));
 	}
 
 	@GetMapping(value ="/json")
 	@Operation(operationId = "jsonExtraction", summary = "", description ="")
-	public ResponseEntity<Object> jsonExtraction(
+	public ResponseEntity<String> jsonExtraction(
 			@Parameter(description = "${param.questionnaireModelId}", required = true, example = INDIRECTORY_EXAMPLE) @RequestParam String questionnaireModelId,
 			@Parameter(description = "${param.dataMode}") @RequestParam(required = false) Mode dataMode,
 			@Parameter(description = "${param.batchSize}") @RequestParam(value = "batchSize", defaultValue = "1000") int batchSize,
 			@Parameter(description = "Extract since") @RequestParam(value = "sinceDate",required = false) LocalDateTime since
 			){
+		return jobScheduler.run(String.format("json %s", questionnaireModelId),
+				job -> runJsonExtraction(questionnaireModelId, dataMode, batchSize, since, job));
+	}
+
+	/**
+	 * Run the JSON extraction. Like the other run methods, it gives the execution context of the processing
+	 * to the job running it, if any.
+	 * @param job the job running the service, null when it is called directly
+	 */
+	@NotNull
+	ResponseEntity<String> runJsonExtraction(String questionnaireModelId, Mode dataMode, int batchSize, LocalDateTime since, KraftwerkJob job) {
 		FileUtilsInterface fileUtilsInterface = getFileUtilsInterface();
 		boolean withDDI = true;
 		boolean withEncryption = false;
 
 		MainProcessingGenesisNew mpGenesis = getMainProcessingGenesisByQuestionnaire(withDDI, withEncryption, fileUtilsInterface);
+		attachToJob(job, mpGenesis.getKraftwerkExecutionContext());
 		try {
 			mpGenesis.runMainJson(questionnaireModelId, batchSize, dataMode, since);
 			log.info("Data extracted");
@@ -182,10 +220,11 @@ public class MainService extends KraftwerkService {
 	}
 
 	@NotNull
-	private ResponseEntity<String> runWithoutGenesis(String inDirectoryParam, boolean archiveAtEnd, boolean fileByFile, boolean withDDI, boolean withEncryption) {
+	ResponseEntity<String> runWithoutGenesis(String inDirectoryParam, boolean archiveAtEnd, boolean fileByFile, boolean withDDI, boolean withEncryption, KraftwerkJob job) {
 		FileUtilsInterface fileUtilsInterface = getFileUtilsInterface();
 
 		MainProcessing mp = getMainProcessing(inDirectoryParam, fileByFile, withDDI, withEncryption, fileUtilsInterface);
+		attachToJob(job, mp.getKraftwerkExecutionContext());
 		try {
 			mp.runMain();
 		} catch (KraftwerkException e) {
@@ -215,10 +254,11 @@ public class MainService extends KraftwerkService {
 	}
 
 	@NotNull
-	private ResponseEntity<String> runWithGenesisByQuestionnaire(String questionnaireModelId,  boolean withDDI, boolean withEncryption, int batchSize, Mode dataMode) {
+	ResponseEntity<String> runWithGenesisByQuestionnaire(String questionnaireModelId,  boolean withDDI, boolean withEncryption, int batchSize, Mode dataMode, KraftwerkJob job) {
 		FileUtilsInterface fileUtilsInterface = getFileUtilsInterface();
 
 		MainProcessingGenesisNew mpGenesis = getMainProcessingGenesisByQuestionnaire(withDDI, withEncryption, fileUtilsInterface);
+		attachToJob(job, mpGenesis.getKraftwerkExecutionContext());
 
 		try {
 			mpGenesis.runMain(questionnaireModelId, batchSize, dataMode);
@@ -230,6 +270,12 @@ public class MainService extends KraftwerkService {
 		return ResponseEntity.ok(questionnaireModelId);
 	}
 
+	private static void attachToJob(KraftwerkJob job, KraftwerkExecutionContext kraftwerkExecutionContext) {
+		if (job != null) {
+			job.setExecutionContext(kraftwerkExecutionContext);
+		}
+	}
+
 
 
 
@@ -244,12 +290,14 @@ public class MainService extends KraftwerkService {
 				limitSize
 		);
 
-		return new MainProcessingGenesisLegacy(
+		MainProcessingGenesisLegacy mainProcessingGenesisLegacy = new MainProcessingGenesisLegacy(
 				configProperties,
-				new GenesisClient(new RestTemplateBuilder(), configProperties),
+				genesisClient,
 				fileUtilsInterface,
 				kraftwerkExecutionContext
 		);
+		mainProcessingGenesisLegacy.setUnimodalWorkers(unimodalWorkers);
+		return mainProcessingGenesisLegacy;
 	}
 
 	@NotNull
@@ -263,12 +311,14 @@ public class MainService extends KraftwerkService {
 				limitSize
 		);
 
-		return new MainProcessingGenesisNew(
+		MainProcessingGenesisNew mainProcessingGenesisNew = new MainProcessingGenesisNew(
 				configProperties,
-				new GenesisClient(new RestTemplateBuilder(), configProperties),
+				genesisClient,
 				fileUtilsInterface,
 				kraftwerkExecutionContext
 		);
+		mainProcessingGenesisNew.setUnimodalWorkers(unimodalWorkers);
+		return mainProcessingGenesisNew;
 	}
 
 
@@ -281,7 +331,9 @@ public class MainService extends KraftwerkService {
 				limitSize
 		);
 
-		return new MainProcessing(kraftwerkExecutionContext, defaultDirectory, fileUtilsInterface);
+		MainProcessing mainProcessing = new MainProcessing(kraftwerkExecutionContext, defaultDirectory, fileUtilsInterface);
+		mainProcessing.setUnimodalWorkers(unimodalWorkers);
+		return mainProcessing;
 	}
 
 	@NotNull FileUtilsInterface getFileUtilsInterface() {
@@ -0,0 +1,93 @@
+package fr.insee.kraftwerk.api.client;
+
+import fr.insee.kraftwerk.api.configuration.ConfigProperties;
+import fr.insee.kraftwerk.core.data.model.InterrogationId;
+import fr.insee.kraftwerk.core.data.model.SurveyUnitUpdateLatest;
+import fr.insee.kraftwerk.core.exceptions.KraftwerkException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GenesisBatchLoaderTest {
+
+    private final AtomicInteger fetchedPartitions = new AtomicInteger();
+
+    private final GenesisClient genesisClient = new GenesisClient(new ConfigProperties()) {
+        @Override
+        public List<SurveyUnitUpdateLatest> getUEsLatestState(String questionnaireId, List<InterrogationId> interrogationIds) throws KraftwerkException {
+            fetchedPartitions.incrementAndGet();
+            if (interrogationIds.getFirst().getId().equals("ERROR")) {
+                throw new KraftwerkException(500, "Genesis error");
+            }
+            List<SurveyUnitUpdateLatest> surveyUnits = new ArrayList<>();
+            for (InterrogationId interrogationId : interrogationIds) {
+                SurveyUnitUpdateLatest surveyUnit = new SurveyUnitUpdateLatest();
+                surveyUnit.setInterrogationId(interrogationId.getId());
+                surveyUnits.add(surveyUnit);
+            }
+            return surveyUnits;
+        }
+    };
+
+    private static List<List<InterrogationId>> partitions(String... ids) {
+        List<List<InterrogationId>> partitions = new ArrayList<>();
+        for (String id : ids) {
+            InterrogationId interrogationId = new InterrogationId();
+            interrogationId.setId(id);
+            partitions.add(List.of(interrogationId));
+        }
+        return partitions;
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, 3, 10})
+    void next_returnsPartitionsInOrder(int prefetchCount) throws KraftwerkException {
+        try (GenesisBatchLoader batchLoader = new GenesisBatchLoader(genesisClient, "QUEST",
+                partitions("A", "B", "C", "D", "E"), prefetchCount)) {
+            List<String> ids = new ArrayList<>();
+            while (batchLoader.hasNext()) {
+                ids.add(batchLoader.next().getFirst().getInterrogationId());
+            }
+            assertEquals(List.of("A", "B", "C", "D", "E"), ids);
+        }
+        assertEquals(5, fetchedPartitions.get());
+    }
+
+    @Test
+    void next_fetchesAtMostPrefetchCountAhead() throws KraftwerkException {
+        try (GenesisBatchLoader batchLoader = new GenesisBatchLoader(genesisClient, "QUEST",
+                partitions("A", "B", "C", "D", "E"), 2)) {
+            batchLoader.next();
+            assertTrue(batchLoader.hasNext());
+        }
+        // First partition and the two next ones
+        assertTrue(fetchedPartitions.get() <= 3);
+    }
+
+    @Test
+    void next_genesisError() throws KraftwerkException {
+        try (GenesisBatchLoader batchLoader = new GenesisBatchLoader(genesisClient, "QUEST",
+                partitions("A", "ERROR", "C"), 1)) {
+            assertEquals("A", batchLoader.next().getFirst().getInterrogationId());
+            KraftwerkException exception = assertThrows(KraftwerkException.class, batchLoader::next);
+            assertEquals("Genesis error", exception.getMessage());
+        }
+    }
+
+    @Test
+    void next_noPartitions() {
+        try (GenesisBatchLoader batchLoader = new GenesisBatchLoader(genesisClient, "QUEST", List.of(), 1)) {
+            assertFalse(batchLoader.hasNext());
+        }
+    }
+
+}
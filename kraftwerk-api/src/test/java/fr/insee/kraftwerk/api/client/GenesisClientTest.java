@@ -0,0 +1,116 @@
+package fr.insee.kraftwerk.api.client;
+
+import fr.insee.kraftwerk.api.configuration.ConfigProperties;
+import fr.insee.kraftwerk.core.data.model.InterrogationId;
+import fr.insee.kraftwerk.core.data.model.Mode;
+import fr.insee.kraftwerk.core.data.model.SurveyUnitUpdateLatest;
+import fr.insee.kraftwerk.core.exceptions.KraftwerkException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class GenesisClientTest {
+
+    private static final String GENESIS_URL = "http://genesis";
+    private static final String LATEST_STATES_URL = GENESIS_URL
+            + "/responses/simplified/by-list-interrogation-and-questionnaire/latest?questionnaireId=QUEST";
+    private static final String SURVEY_UNITS = """
+            [{"interrogationId":"ID1","mode":"WEB"},{"interrogationId":"ID2","mode":"WEB"}]""";
+
+    private MockRestServiceServer genesisServer;
+    private GenesisClient genesisClient;
+
+    @BeforeEach
+    void init() {
+        RestTemplate restTemplate = new RestTemplate();
+        restTemplate.getInterceptors().add(new GzipResponseInterceptor());
+        genesisServer = MockRestServiceServer.bindTo(restTemplate).build();
+        ConfigProperties configProperties = new ConfigProperties() {
+            @Override
+            public String getGenesisUrl() {
+                return GENESIS_URL;
+            }
+        };
+        genesisClient = new GenesisClient(restTemplate, configProperties);
+    }
+
+    @Test
+    void getUEsLatestState_modeSentToGenesis() throws KraftwerkException {
+        genesisServer.expect(requestTo(LATEST_STATES_URL + "&mode=WEB"))
+                .andExpect(method(HttpMethod.POST))
+                .andRespond(withSuccess(SURVEY_UNITS, MediaType.APPLICATION_JSON));
+
+        List<SurveyUnitUpdateLatest> surveyUnits = genesisClient.getUEsLatestState("QUEST", interrogationIds(), Mode.WEB);
+
+        genesisServer.verify();
+        assertEquals(List.of("ID1", "ID2"), surveyUnits.stream().map(SurveyUnitUpdateLatest::getInterrogationId).toList());
+    }
+
+    @Test
+    void getUEsLatestState_noMode() throws KraftwerkException {
+        genesisServer.expect(requestTo(LATEST_STATES_URL))
+                .andRespond(withSuccess(SURVEY_UNITS, MediaType.APPLICATION_JSON));
+
+        List<SurveyUnitUpdateLatest> surveyUnits = genesisClient.getUEsLatestState("QUEST", interrogationIds(), null);
+
+        genesisServer.verify();
+        assertEquals(2, surveyUnits.size());
+    }
+
+    @Test
+    void getUEsLatestState_gzipResponse() throws KraftwerkException, IOException {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+        genesisServer.expect(requestTo(LATEST_STATES_URL))
+                .andExpect(header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andRespond(withSuccess(gzip(SURVEY_UNITS), MediaType.APPLICATION_JSON).headers(headers));
+
+        List<SurveyUnitUpdateLatest> surveyUnits = genesisClient.getUEsLatestState("QUEST", interrogationIds());
+
+        genesisServer.verify();
+        assertEquals(Mode.WEB, surveyUnits.get(1).getMode());
+    }
+
+    @Test
+    void saveDateExtraction_emptyGzipResponse() throws KraftwerkException {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+        genesisServer.expect(requestTo(GENESIS_URL + "/extractions/json?questionnaireId=QUEST"))
+                .andExpect(method(HttpMethod.PUT))
+                .andRespond(withSuccess().headers(headers));
+
+        genesisClient.saveDateExtraction("QUEST", null);
+
+        genesisServer.verify();
+    }
+
+    private static List<InterrogationId> interrogationIds() {
+        InterrogationId interrogationId = new InterrogationId();
+        interrogationId.setId("ID1");
+        return List.of(interrogationId);
+    }
+
+    private static byte[] gzip(String content) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(compressed)) {
+            gzipOutputStream.write(content.getBytes(StandardCharsets.UTF_8));
+        }
+        return compressed.toByteArray();
+    }
+}
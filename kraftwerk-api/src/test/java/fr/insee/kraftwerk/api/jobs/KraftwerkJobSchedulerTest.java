@@ -0,0 +1,160 @@
+package fr.insee.kraftwerk.api.jobs;
+
+import fr.insee.kraftwerk.core.exceptions.KraftwerkException;
+import fr.insee.kraftwerk.core.utils.KraftwerkExecutionContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class KraftwerkJobSchedulerTest {
+
+    private static final long MEGABYTE = 1024L * 1024L;
+
+    private final KraftwerkJobScheduler jobScheduler = new KraftwerkJobScheduler(1, 0, Runtime.getRuntime().maxMemory());
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void shutdown() {
+        release.countDown();
+        jobScheduler.destroy();
+    }
+
+    @Test
+    void effectiveConcurrency_boundedByMemoryBudget() {
+        assertEquals(4, KraftwerkJobScheduler.effectiveConcurrency(4, 0, 1024 * MEGABYTE));
+        assertEquals(2, KraftwerkJobScheduler.effectiveConcurrency(4, 512, 1024 * MEGABYTE));
+        assertEquals(1, KraftwerkJobScheduler.effectiveConcurrency(4, 2048, 1024 * MEGABYTE));
+        assertEquals(1, KraftwerkJobScheduler.effectiveConcurrency(0, 0, 1024 * MEGABYTE));
+    }
+
+    @Test
+    void submit_queuedThenRun() throws InterruptedException {
+        KraftwerkJob first = jobScheduler.submit("first", this::blockingTask);
+        KraftwerkJob second = jobScheduler.submit("second", job -> ResponseEntity.ok("second done"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        assertEquals(JobStatus.RUNNING, first.getStatus());
+        assertEquals(JobStatus.QUEUED, second.getStatus());
+
+        release.countDown();
+        awaitFinished(second);
+        assertEquals(JobStatus.SUCCEEDED, first.getStatus());
+        assertEquals(JobStatus.SUCCEEDED, second.getStatus());
+        assertEquals(200, second.getResultStatus());
+        assertEquals("second done", second.getResultMessage());
+        assertTrue(jobScheduler.getJob(second.getId()).isPresent());
+    }
+
+    @Test
+    void submit_failedJob() throws InterruptedException {
+        KraftwerkJob job = jobScheduler.submit("failing", j -> ResponseEntity.status(413).body("Too big"));
+
+        awaitFinished(job);
+        assertEquals(JobStatus.FAILED, job.getStatus());
+        assertEquals(413, job.getResultStatus());
+    }
+
+    @Test
+    void submit_errorEndsJob() throws InterruptedException {
+        KraftwerkJob job = jobScheduler.submit("overflowing", j -> {
+            throw new StackOverflowError();
+        });
+
+        awaitFinished(job);
+        assertEquals(JobStatus.FAILED, job.getStatus());
+        assertEquals(500, job.getResultStatus());
+    }
+
+    @Test
+    void run_waitsForResult() {
+        ResponseEntity<String> response = jobScheduler.run("synchronous", job -> ResponseEntity.status(413).body("Too big"));
+
+        assertEquals(413, response.getStatusCode().value());
+        assertEquals("Too big", response.getBody());
+    }
+
+    @Test
+    void cancel_queuedJobNotRun() throws InterruptedException {
+        AtomicInteger runs = new AtomicInteger();
+        KraftwerkJob first = jobScheduler.submit("first", this::blockingTask);
+        KraftwerkJob second = jobScheduler.submit("second", job -> {
+            runs.incrementAndGet();
+            return ResponseEntity.ok("second done");
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        assertTrue(jobScheduler.cancel(second));
+        release.countDown();
+        awaitFinished(first);
+        // The single worker has gone past the cancelled job once the next one is finished
+        awaitFinished(jobScheduler.submit("third", job -> ResponseEntity.ok("third done")));
+
+        assertEquals(JobStatus.CANCELLED, second.getStatus());
+        assertNull(second.getResultStatus());
+        assertEquals(0, runs.get());
+        assertFalse(jobScheduler.cancel(second));
+    }
+
+    @Test
+    void cancel_runningJobStopsAtNextPartition() throws InterruptedException {
+        KraftwerkJob job = jobScheduler.submit("partitions", j -> {
+            KraftwerkExecutionContext context = new KraftwerkExecutionContext(null, false, true, false, 0);
+            j.setExecutionContext(context);
+            context.addProgressTotal(3);
+            try {
+                for (int partition = 0; partition < 3; partition++) {
+                    context.checkNotCancelled();
+                    context.incrementProgressDone();
+                    if (partition == 0) {
+                        started.countDown();
+                        release.await();
+                    }
+                }
+            } catch (KraftwerkException e) {
+                return ResponseEntity.status(e.getStatus()).body(e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return ResponseEntity.ok("done");
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        assertEquals(1, job.getProgressDone());
+        assertEquals(3, job.getProgressTotal());
+
+        assertTrue(jobScheduler.cancel(job));
+        release.countDown();
+        awaitFinished(job);
+
+        assertEquals(JobStatus.CANCELLED, job.getStatus());
+        assertEquals(1, job.getProgressDone());
+        assertEquals("Execution cancelled", job.getResultMessage());
+    }
+
+    private ResponseEntity<String> blockingTask(KraftwerkJob job) {
+        started.countDown();
+        try {
+            release.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return ResponseEntity.ok(job.getName() + " done");
+    }
+
+    private static void awaitFinished(KraftwerkJob job) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!job.getStatus().isFinished() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(job.getStatus().isFinished());
+    }
+}
@@ -0,0 +1,44 @@
+package fr.insee.kraftwerk.api.process;
+
+import fr.insee.kraftwerk.KraftwerkApi;
+import fr.insee.kraftwerk.core.encryption.EncryptionUtils;
+import fr.insee.kraftwerk.core.utils.KraftwerkExecutionContext;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(classes = KraftwerkApi.class)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ExecutionMetricsEndpointTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	// Provided by the encryption module in the INSEE build
+	@MockitoBean
+	private EncryptionUtils encryptionUtils;
+
+	@Test
+	void stageDuration_exposedByActuator() throws Exception {
+		KraftwerkExecutionContext kraftwerkExecutionContext = new KraftwerkExecutionContext(null, false, true, false, 0);
+		kraftwerkExecutionContext.recordStage("Parsing", "WEB", 1_000_000, 0, 10, 0);
+
+		ExecutionMetrics.publish(kraftwerkExecutionContext);
+
+		mockMvc.perform(get("/actuator/metrics/" + ExecutionMetrics.STAGE_DURATION)
+						.param("tag", "stage:Parsing"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.name").value(ExecutionMetrics.STAGE_DURATION))
+				.andExpect(jsonPath("$.availableTags[?(@.tag == 'mode')].values[0]").value("WEB"));
+	}
+
+}
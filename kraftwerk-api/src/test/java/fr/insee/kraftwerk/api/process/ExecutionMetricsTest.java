@@ -0,0 +1,73 @@
+package fr.insee.kraftwerk.api.process;
+
+import fr.insee.kraftwerk.core.utils.KraftwerkExecutionContext;
+import fr.insee.kraftwerk.core.utils.StageTimer;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExecutionMetricsTest {
+
+	@Test
+	void publish_oneMeterByStageAndMode() {
+		SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+		KraftwerkExecutionContext kraftwerkExecutionContext = new KraftwerkExecutionContext(null, false, true, false, 0);
+		kraftwerkExecutionContext.recordStage("GroupProcessing", "WEB", 2_000_000, 10, 10, 1024);
+		kraftwerkExecutionContext.recordStage("GroupProcessing", "WEB", 3_000_000, 20, 20, 1024);
+		kraftwerkExecutionContext.recordStage("CsvExport", null, 4_000_000, 0, 45, 0);
+
+		ExecutionMetrics.publish(kraftwerkExecutionContext, meterRegistry);
+
+		Timer groupProcessingTimer = meterRegistry.get(ExecutionMetrics.STAGE_DURATION)
+				.tags("stage", "GroupProcessing", "mode", "WEB").timer();
+		assertThat(groupProcessingTimer.count()).isEqualTo(1);
+		assertThat(groupProcessingTimer.totalTime(TimeUnit.MILLISECONDS)).isEqualTo(5);
+		DistributionSummary rowsOut = meterRegistry.get(ExecutionMetrics.STAGE_ROWS_OUT)
+				.tags("stage", "CsvExport", "mode", "none").summary();
+		assertThat(rowsOut.totalAmount()).isEqualTo(45);
+		assertThat(meterRegistry.get(ExecutionMetrics.STAGE_ALLOCATED).tags("mode", "WEB").summary().totalAmount())
+				.isEqualTo(2048);
+	}
+
+	@Test
+	void publish_rowsOnlyWhenMeasured_datasetInItsOwnTag() {
+		SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+		KraftwerkExecutionContext kraftwerkExecutionContext = new KraftwerkExecutionContext(null, false, true, false, 0);
+		try (StageTimer ignored = kraftwerkExecutionContext.startStage("StandardVtl", "WEB")) {
+			// VTL stages don't count their rows
+		}
+		try (StageTimer stageTimer = kraftwerkExecutionContext.startStage("InsertDatabase", null, "RACINE")) {
+			stageTimer.setRowsIn(3);
+			stageTimer.setRowsOut(3);
+		}
+
+		ExecutionMetrics.publish(kraftwerkExecutionContext, meterRegistry);
+
+		assertThat(meterRegistry.get(ExecutionMetrics.STAGE_DURATION).tags("stage", "StandardVtl").timer().count())
+				.isEqualTo(1);
+		assertThat(meterRegistry.find(ExecutionMetrics.STAGE_ROWS_IN).tags("stage", "StandardVtl").summary()).isNull();
+		assertThat(meterRegistry.find(ExecutionMetrics.STAGE_ROWS_OUT).tags("stage", "StandardVtl").summary()).isNull();
+		DistributionSummary insertedRows = meterRegistry.get(ExecutionMetrics.STAGE_ROWS_OUT)
+				.tags("stage", "InsertDatabase", "mode", "none", "dataset", "RACINE").summary();
+		assertThat(insertedRows.totalAmount()).isEqualTo(3);
+	}
+
+	@Test
+	void publish_samplesAddedByEachExecution() {
+		SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+		for (int i = 0; i < 2; i++) {
+			KraftwerkExecutionContext kraftwerkExecutionContext = new KraftwerkExecutionContext(null, false, true, false, 0);
+			kraftwerkExecutionContext.recordStage("Parsing", "WEB", 1_000_000, 0, 10, 0);
+			ExecutionMetrics.publish(kraftwerkExecutionContext, meterRegistry);
+		}
+
+		assertThat(meterRegistry.get(ExecutionMetrics.STAGE_ROWS_OUT).summary().count()).isEqualTo(2);
+		assertThat(meterRegistry.get(ExecutionMetrics.STAGE_ROWS_OUT).summary().totalAmount()).isEqualTo(20);
+	}
+
+}
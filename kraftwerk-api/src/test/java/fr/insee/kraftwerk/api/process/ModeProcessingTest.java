@@ -0,0 +1,119 @@
+package fr.insee.kraftwerk.api.process;
+
+import fr.insee.kraftwerk.core.exceptions.KraftwerkException;
+import fr.insee.kraftwerk.core.vtl.VtlBindings;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ModeProcessingTest {
+
+	private static final List<String> MODES = List.of("WEB", "TEL", "F2F");
+
+	private UnimodalWorkers unimodalWorkers;
+
+	@AfterEach
+	void shutdownWorkers() {
+		if (unimodalWorkers != null) {
+			unimodalWorkers.destroy();
+		}
+	}
+
+	@Test
+	void processModes_sequential() throws KraftwerkException {
+		unimodalWorkers = new UnimodalWorkers(1);
+		VtlBindings vtlBindings = new VtlBindings();
+		List<Integer> bindingsSizes = new ArrayList<>();
+
+		ModeProcessing.processModes(MODES, vtlBindings, unimodalWorkers, (dataMode, modeVtlBindings) -> {
+			bindingsSizes.add(modeVtlBindings.size());
+			modeVtlBindings.put(dataMode, dataMode + "_DATA");
+		});
+
+		// Modes fill the bindings one after the other
+		assertEquals(List.of(0, 1, 2), bindingsSizes);
+		assertEquals(Set.copyOf(MODES), vtlBindings.keySet());
+	}
+
+	@Test
+	void processModes_concurrent() throws KraftwerkException {
+		unimodalWorkers = new UnimodalWorkers(4);
+		VtlBindings vtlBindings = new VtlBindings();
+		Set<String> threads = ConcurrentHashMap.newKeySet();
+		// Every mode waits for the others : they can only all finish if they run at the same time
+		CountDownLatch allStarted = new CountDownLatch(MODES.size());
+
+		ModeProcessing.processModes(MODES, vtlBindings, unimodalWorkers, (dataMode, modeVtlBindings) -> {
+			threads.add(Thread.currentThread().getName());
+			allStarted.countDown();
+			awaitQuietly(allStarted);
+			assertTrue(modeVtlBindings.isEmpty());
+			modeVtlBindings.put(dataMode, dataMode + "_DATA");
+		});
+
+		assertEquals(MODES.size(), threads.size());
+		assertEquals(3, vtlBindings.size());
+		for (String dataMode : MODES) {
+			assertEquals(dataMode + "_DATA", vtlBindings.get(dataMode));
+		}
+	}
+
+	@Test
+	void processModes_sharedWorkers() throws KraftwerkException {
+		unimodalWorkers = new UnimodalWorkers(2);
+		ThreadPoolExecutor executor = unimodalWorkers.getExecutor();
+		Set<String> threads = ConcurrentHashMap.newKeySet();
+
+		for (int i = 0; i < 3; i++) {
+			ModeProcessing.processModes(MODES, new VtlBindings(), unimodalWorkers,
+					(dataMode, modeVtlBindings) -> threads.add(Thread.currentThread().getName()));
+		}
+
+		// Calls don't create their own workers
+		assertSame(executor, unimodalWorkers.getExecutor());
+		assertEquals(2, executor.getCorePoolSize());
+		assertEquals(2, executor.getMaximumPoolSize());
+		assertTrue(executor.getLargestPoolSize() <= 2);
+		assertTrue(threads.stream().allMatch(thread -> thread.startsWith("kraftwerk-unimodal-")));
+	}
+
+	@Test
+	void processModes_exception() {
+		unimodalWorkers = new UnimodalWorkers(4);
+		VtlBindings vtlBindings = new VtlBindings();
+
+		KraftwerkException exception = assertThrows(KraftwerkException.class, () ->
+				ModeProcessing.processModes(MODES, vtlBindings, unimodalWorkers, (dataMode, modeVtlBindings) -> {
+					if ("TEL".equals(dataMode)) {
+						throw new KraftwerkException(400, "Bad TEL data");
+					}
+					modeVtlBindings.put(dataMode, dataMode + "_DATA");
+				}));
+
+		assertEquals(400, exception.getStatus());
+		assertEquals("Bad TEL data", exception.getMessage());
+	}
+
+	private static void awaitQuietly(CountDownLatch latch) throws KraftwerkException {
+		try {
+			if (!latch.await(5, TimeUnit.SECONDS)) {
+				throw new KraftwerkException(500, "Modes not processed concurrently");
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new KraftwerkException(500, "Interrupted");
+		}
+	}
+}
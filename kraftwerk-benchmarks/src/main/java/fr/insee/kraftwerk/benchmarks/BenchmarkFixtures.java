@@ -0,0 +1,75 @@
+package fr.insee.kraftwerk.benchmarks;
+
+import fr.insee.kraftwerk.benchmarks.data.SyntheticDataGenerator;
+import fr.insee.kraftwerk.core.exceptions.NullException;
+import fr.insee.kraftwerk.core.parsers.LunaticXmlDataParser;
+import fr.insee.kraftwerk.core.rawdata.SurveyRawData;
+import fr.insee.kraftwerk.core.utils.KraftwerkExecutionContext;
+import fr.insee.kraftwerk.core.utils.files.FileSystemImpl;
+import fr.insee.kraftwerk.core.utils.files.FileUtilsInterface;
+import fr.insee.kraftwerk.core.vtl.VtlBindings;
+import fr.insee.kraftwerk.core.vtl.VtlExecute;
+import fr.insee.vtl.model.Dataset;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * Helpers shared by the benchmarks to set up synthetic data.
+ */
+public class BenchmarkFixtures {
+
+	private BenchmarkFixtures() {
+		throw new IllegalStateException("Utility class");
+	}
+
+	public static Path createWorkingDirectory() throws IOException {
+		return Files.createTempDirectory("kraftwerk-benchmarks");
+	}
+
+	public static void deleteWorkingDirectory(Path workingDirectory) throws IOException {
+		try (Stream<Path> paths = Files.walk(workingDirectory)) {
+			paths.sorted(Comparator.reverseOrder()).forEach(path -> {
+				try {
+					Files.delete(path);
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			});
+		}
+	}
+
+	public static FileUtilsInterface fileUtils(Path workingDirectory) {
+		return new FileSystemImpl(workingDirectory.toString());
+	}
+
+	public static KraftwerkExecutionContext kraftwerkExecutionContext() {
+		return new KraftwerkExecutionContext(null, false, true, false, 419430400L);
+	}
+
+	/** Parse the given Lunatic XML file into survey raw data of the given mode. */
+	public static SurveyRawData parseLunaticXml(SyntheticDataGenerator generator, Path xmlFile, String dataMode,
+												 FileUtilsInterface fileUtilsInterface) throws NullException {
+		SurveyRawData surveyRawData = new SurveyRawData(dataMode);
+		surveyRawData.setMetadataModel(generator.metadataModel());
+		new LunaticXmlDataParser(surveyRawData, fileUtilsInterface).parseSurveyData(xmlFile, null);
+		return surveyRawData;
+	}
+
+	/** Write the synthetic data as Lunatic XML, parse it and return it as a VTL dataset. */
+	public static Dataset buildVtlDataset(SyntheticDataGenerator generator, Path workingDirectory, String dataMode)
+			throws IOException, NullException {
+		Path xmlFile = workingDirectory.resolve(dataMode + ".xml");
+		generator.writeLunaticXml(xmlFile);
+		FileUtilsInterface fileUtilsInterface = fileUtils(workingDirectory);
+		SurveyRawData surveyRawData = parseLunaticXml(generator, xmlFile, dataMode, fileUtilsInterface);
+		VtlBindings vtlBindings = new VtlBindings();
+		new VtlExecute(fileUtilsInterface).convertToVtlDataset(surveyRawData, dataMode, vtlBindings);
+		return vtlBindings.getDataset(dataMode);
+	}
+
+}
@@ -0,0 +1,47 @@
+package fr.insee.kraftwerk.benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+
+/**
+ * Entry point of the benchmarks uber jar. It accepts the usual JMH command line options
+ * (ex: a benchmark name regexp, -p surveyUnitsCount=1000, -f 1),
+ * and writes the results in JSON unless another format is given, so that they can be compared across versions.
+ */
+public class BenchmarkRunner {
+
+	public static final String DEFAULT_RESULT_FILE = "kraftwerk-benchmarks-result.json";
+
+	private BenchmarkRunner() {
+		throw new IllegalStateException("Utility class");
+	}
+
+	public static void main(String[] args) throws RunnerException, CommandLineOptionException, IOException {
+		CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+		if (commandLineOptions.shouldHelp()) {
+			commandLineOptions.showHelp();
+			return;
+		}
+		if (commandLineOptions.shouldList()) {
+			new Runner(commandLineOptions).list();
+			return;
+		}
+		ChainedOptionsBuilder optionsBuilder = new OptionsBuilder().parent(commandLineOptions);
+		if (commandLineOptions.getResultFormat().hasValue() || commandLineOptions.getResult().hasValue()) {
+			new Runner(optionsBuilder.build()).run();
+			return;
+		}
+		new Runner(optionsBuilder
+				.resultFormat(ResultFormatType.JSON)
+				.result(DEFAULT_RESULT_FILE)
+				.build()).run();
+	}
+
+}
@@ -0,0 +1,95 @@
+package fr.insee.kraftwerk.benchmarks;
+
+import fr.insee.kraftwerk.core.Constants;
+import fr.insee.kraftwerk.core.utils.KraftwerkExecutionContext;
+import fr.insee.kraftwerk.core.vtl.VtlBindings;
+import fr.insee.kraftwerk.core.vtl.VtlExecute;
+import fr.insee.vtl.model.Dataset;
+import fr.insee.vtl.model.InMemoryDataset;
+import fr.insee.vtl.model.Structured;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Removal of duplicated rows in a group table, with the VTL union(ds, ds) instruction
+ * or with {@link VtlBindings#removeDuplicates(Dataset)}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class DeduplicationBenchmark {
+
+	private static final String GROUP_NAME = "BOUCLE_PRENOMS";
+
+	@Param({"1000000"})
+	public int rowsCount;
+
+	/** One duplicated row every {@code duplicatesEvery} rows, 0 for no duplicate. */
+	@Param({"0", "10"})
+	public int duplicatesEvery;
+
+	private Path workingDirectory;
+	private Dataset dataset;
+	private VtlExecute vtlExecute;
+	private KraftwerkExecutionContext kraftwerkExecutionContext;
+
+	@Setup
+	public void setUp() throws IOException {
+		workingDirectory = BenchmarkFixtures.createWorkingDirectory();
+		vtlExecute = new VtlExecute(BenchmarkFixtures.fileUtils(workingDirectory));
+		kraftwerkExecutionContext = BenchmarkFixtures.kraftwerkExecutionContext();
+		List<List<Object>> dataPoints = new ArrayList<>(rowsCount);
+		for (int i = 0; i < rowsCount; i++) {
+			// Duplicated rows have the identifiers of the previous row
+			int row = duplicatesEvery > 0 && i > 0 && i % duplicatesEvery == 0 ? i - 1 : i;
+			dataPoints.add(List.of("UE" + row / 4, GROUP_NAME + "-" + row % 4, "CAWI", "PRENOM" + i, (long) i));
+		}
+		dataset = new InMemoryDataset(dataPoints, List.of(
+				new Structured.Component(Constants.ROOT_IDENTIFIER_NAME, String.class, Dataset.Role.IDENTIFIER),
+				new Structured.Component(GROUP_NAME, String.class, Dataset.Role.IDENTIFIER),
+				new Structured.Component(Constants.MODE_VARIABLE_NAME, String.class, Dataset.Role.IDENTIFIER),
+				new Structured.Component("PRENOM", String.class, Dataset.Role.MEASURE),
+				new Structured.Component("AGE", Long.class, Dataset.Role.MEASURE)
+		));
+	}
+
+	@TearDown
+	public void tearDown() throws IOException {
+		BenchmarkFixtures.deleteWorkingDirectory(workingDirectory);
+	}
+
+	@Benchmark
+	public Dataset vtlUnion() {
+		VtlBindings vtlBindings = new VtlBindings();
+		vtlBindings.put(GROUP_NAME, dataset);
+		vtlExecute.evalVtlScript(String.format("%1$s := union(%1$s,%1$s);", GROUP_NAME), vtlBindings, kraftwerkExecutionContext);
+		// Forces the evaluation of the union
+		vtlBindings.getDataset(GROUP_NAME).getDataPoints();
+		return vtlBindings.getDataset(GROUP_NAME);
+	}
+
+	@Benchmark
+	public Dataset removeDuplicates() {
+		return VtlBindings.removeDuplicates(dataset);
+	}
+
+}
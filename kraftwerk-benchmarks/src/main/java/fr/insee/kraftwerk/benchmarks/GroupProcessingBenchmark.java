@@ -0,0 +1,76 @@
+package fr.insee.kraftwerk.benchmarks;
+
+import fr.insee.bpm.metadata.model.MetadataModel;
+import fr.insee.kraftwerk.benchmarks.data.SyntheticDataGenerator;
+import fr.insee.kraftwerk.core.dataprocessing.GroupProcessing;
+import fr.insee.kraftwerk.core.exceptions.KraftwerkException;
+import fr.insee.kraftwerk.core.exceptions.NullException;
+import fr.insee.kraftwerk.core.utils.KraftwerkExecutionContext;
+import fr.insee.kraftwerk.core.utils.files.FileUtilsInterface;
+import fr.insee.kraftwerk.core.vtl.VtlBindings;
+import fr.insee.vtl.model.Dataset;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Group prefixes step on a wide questionnaire (many loop variables).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class GroupProcessingBenchmark {
+
+	@Param({"100"})
+	public int surveyUnitsCount;
+
+	@Param({"100", "1500"})
+	public int loopVariablesCount;
+
+	private Path workingDirectory;
+	private Dataset dataset;
+	private MetadataModel metadataModel;
+	private FileUtilsInterface fileUtilsInterface;
+	private KraftwerkExecutionContext kraftwerkExecutionContext;
+
+	@Setup
+	public void setUp() throws IOException, NullException {
+		SyntheticDataGenerator generator = new SyntheticDataGenerator(surveyUnitsCount, 10, loopVariablesCount, 2);
+		workingDirectory = BenchmarkFixtures.createWorkingDirectory();
+		dataset = BenchmarkFixtures.buildVtlDataset(generator, workingDirectory, "CAWI");
+		metadataModel = generator.metadataModel();
+		fileUtilsInterface = BenchmarkFixtures.fileUtils(workingDirectory);
+		kraftwerkExecutionContext = BenchmarkFixtures.kraftwerkExecutionContext();
+	}
+
+	@TearDown
+	public void tearDown() throws IOException {
+		BenchmarkFixtures.deleteWorkingDirectory(workingDirectory);
+	}
+
+	@Benchmark
+	public Dataset addGroupPrefixes() throws KraftwerkException {
+		VtlBindings vtlBindings = new VtlBindings();
+		vtlBindings.put("CAWI", dataset);
+		new GroupProcessing(vtlBindings, metadataModel, fileUtilsInterface)
+				.applyVtlTransformations("CAWI", null, kraftwerkExecutionContext);
+		return vtlBindings.getDataset("CAWI");
+	}
+
+}
@@ -0,0 +1,65 @@
+package fr.insee.kraftwerk.benchmarks;
+
+import fr.insee.kraftwerk.benchmarks.data.SyntheticDataGenerator;
+import fr.insee.kraftwerk.core.exceptions.NullException;
+import fr.insee.kraftwerk.core.rawdata.SurveyRawData;
+import fr.insee.kraftwerk.core.utils.files.FileUtilsInterface;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing of a Lunatic XML data file.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class LunaticXmlDataParserBenchmark {
+
+	@Param({"1000", "10000"})
+	public int surveyUnitsCount;
+
+	@Param({"50"})
+	public int variablesCount;
+
+	private SyntheticDataGenerator generator;
+	private Path workingDirectory;
+	private Path xmlFile;
+	private FileUtilsInterface fileUtilsInterface;
+
+	@Setup
+	public void setUp() throws IOException {
+		generator = new SyntheticDataGenerator(surveyUnitsCount, variablesCount, variablesCount, 3);
+		workingDirectory = BenchmarkFixtures.createWorkingDirectory();
+		xmlFile = workingDirectory.resolve("data.xml");
+		generator.writeLunaticXml(xmlFile);
+		fileUtilsInterface = BenchmarkFixtures.fileUtils(workingDirectory);
+	}
+
+	@TearDown
+	public void tearDown() throws IOException {
+		BenchmarkFixtures.deleteWorkingDirectory(workingDirectory);
+	}
+
+	@Benchmark
+	public SurveyRawData parseLunaticXml() throws NullException {
+		return BenchmarkFixtures.parseLunaticXml(generator, xmlFile, "CAWI", fileUtilsInterface);
+	}
+
+}
@@ -0,0 +1,91 @@
+package fr.insee.kraftwerk.benchmarks;
+
+import fr.insee.kraftwerk.benchmarks.data.SyntheticDataGenerator;
+import fr.insee.kraftwerk.core.Constants;
+import fr.insee.kraftwerk.core.encryption.EncryptionUtilsStub;
+import fr.insee.kraftwerk.core.exceptions.KraftwerkException;
+import fr.insee.kraftwerk.core.exceptions.NullException;
+import fr.insee.kraftwerk.core.outputs.OutputFiles;
+import fr.insee.kraftwerk.core.outputs.csv.CsvOutputFiles;
+import fr.insee.kraftwerk.core.outputs.parquet.ParquetOutputFiles;
+import fr.insee.kraftwerk.core.utils.KraftwerkExecutionContext;
+import fr.insee.kraftwerk.core.utils.SqlUtils;
+import fr.insee.kraftwerk.core.utils.files.FileUtilsInterface;
+import fr.insee.kraftwerk.core.vtl.VtlBindings;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Export of a database table to CSV or Parquet output files.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class OutputFilesBenchmark {
+
+	@Param({"1000", "10000"})
+	public int surveyUnitsCount;
+
+	@Param({"CSV", "PARQUET"})
+	public String outputFormat;
+
+	private Path workingDirectory;
+	private VtlBindings vtlBindings;
+	private Connection connection;
+	private Statement statement;
+	private FileUtilsInterface fileUtilsInterface;
+	private KraftwerkExecutionContext kraftwerkExecutionContext;
+
+	@Setup
+	public void setUp() throws IOException, NullException, SQLException {
+		SyntheticDataGenerator generator = new SyntheticDataGenerator(surveyUnitsCount, 50, 50, 3);
+		workingDirectory = BenchmarkFixtures.createWorkingDirectory();
+		vtlBindings = new VtlBindings();
+		vtlBindings.put(Constants.ROOT_GROUP_NAME, BenchmarkFixtures.buildVtlDataset(generator, workingDirectory, "CAWI"));
+		connection = SqlUtils.openConnection();
+		statement = connection.createStatement();
+		SqlUtils.convertVtlBindingsIntoSqlDatabase(vtlBindings, statement);
+		fileUtilsInterface = BenchmarkFixtures.fileUtils(workingDirectory);
+		kraftwerkExecutionContext = BenchmarkFixtures.kraftwerkExecutionContext();
+	}
+
+	@TearDown
+	public void tearDown() throws IOException, SQLException {
+		statement.close();
+		connection.close();
+		BenchmarkFixtures.deleteWorkingDirectory(workingDirectory);
+	}
+
+	@Benchmark
+	public void writeOutputTables() throws KraftwerkException {
+		Path outDirectory = workingDirectory.resolve("out").resolve(outputFormat);
+		OutputFiles outputFiles = outputFormat.equals("CSV")
+				? new CsvOutputFiles(outDirectory, vtlBindings, List.of("CAWI"), statement, fileUtilsInterface,
+						kraftwerkExecutionContext, new EncryptionUtilsStub())
+				: new ParquetOutputFiles(outDirectory, vtlBindings, List.of("CAWI"), statement, fileUtilsInterface,
+						kraftwerkExecutionContext, new EncryptionUtilsStub());
+		outputFiles.writeOutputTables();
+	}
+
+}
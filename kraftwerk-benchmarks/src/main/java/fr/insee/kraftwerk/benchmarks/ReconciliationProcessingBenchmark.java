@@ -0,0 +1,74 @@
+package fr.insee.kraftwerk.benchmarks;
+
+import fr.insee.kraftwerk.benchmarks.data.SyntheticDataGenerator;
+import fr.insee.kraftwerk.core.Constants;
+import fr.insee.kraftwerk.core.dataprocessing.ReconciliationProcessing;
+import fr.insee.kraftwerk.core.exceptions.KraftwerkException;
+import fr.insee.kraftwerk.core.exceptions.NullException;
+import fr.insee.kraftwerk.core.utils.KraftwerkExecutionContext;
+import fr.insee.kraftwerk.core.utils.files.FileUtilsInterface;
+import fr.insee.kraftwerk.core.vtl.VtlBindings;
+import fr.insee.vtl.model.Dataset;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reconciliation of two modes into the multimode dataset.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ReconciliationProcessingBenchmark {
+
+	@Param({"1000", "10000"})
+	public int surveyUnitsCount;
+
+	private Path workingDirectory;
+	private Dataset cawiDataset;
+	private Dataset papiDataset;
+	private FileUtilsInterface fileUtilsInterface;
+	private KraftwerkExecutionContext kraftwerkExecutionContext;
+
+	@Setup
+	public void setUp() throws IOException, NullException {
+		SyntheticDataGenerator generator = new SyntheticDataGenerator(surveyUnitsCount, 50, 50, 3);
+		workingDirectory = BenchmarkFixtures.createWorkingDirectory();
+		cawiDataset = BenchmarkFixtures.buildVtlDataset(generator, workingDirectory, "CAWI");
+		papiDataset = BenchmarkFixtures.buildVtlDataset(generator, workingDirectory, "PAPI");
+		fileUtilsInterface = BenchmarkFixtures.fileUtils(workingDirectory);
+		kraftwerkExecutionContext = BenchmarkFixtures.kraftwerkExecutionContext();
+	}
+
+	@TearDown
+	public void tearDown() throws IOException {
+		BenchmarkFixtures.deleteWorkingDirectory(workingDirectory);
+	}
+
+	@Benchmark
+	public Dataset reconciliation() throws KraftwerkException {
+		VtlBindings vtlBindings = new VtlBindings();
+		vtlBindings.put("CAWI", cawiDataset);
+		vtlBindings.put("PAPI", papiDataset);
+		new ReconciliationProcessing(vtlBindings, fileUtilsInterface)
+				.applyVtlTransformations(Constants.MULTIMODE_DATASET_NAME, null, kraftwerkExecutionContext);
+		return vtlBindings.getDataset(Constants.MULTIMODE_DATASET_NAME);
+	}
+
+}
@@ -0,0 +1,78 @@
+package fr.insee.kraftwerk.benchmarks;
+
+import fr.insee.kraftwerk.benchmarks.data.SyntheticDataGenerator;
+import fr.insee.kraftwerk.core.exceptions.NullException;
+import fr.insee.kraftwerk.core.utils.SqlUtils;
+import fr.insee.kraftwerk.core.vtl.VtlBindings;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Insertion of the VTL bindings into a DuckDB database.
+ * Each invocation uses a new in-memory database, since tables are appended to.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SqlConversionBenchmark {
+
+	@Param({"1000", "10000"})
+	public int surveyUnitsCount;
+
+	private Path workingDirectory;
+	private VtlBindings vtlBindings;
+	private Connection connection;
+	private Statement statement;
+
+	@Setup
+	public void setUp() throws IOException, NullException {
+		SyntheticDataGenerator generator = new SyntheticDataGenerator(surveyUnitsCount, 50, 50, 3);
+		workingDirectory = BenchmarkFixtures.createWorkingDirectory();
+		vtlBindings = new VtlBindings();
+		vtlBindings.put("CAWI", BenchmarkFixtures.buildVtlDataset(generator, workingDirectory, "CAWI"));
+	}
+
+	@Setup(Level.Invocation)
+	public void openDatabase() throws SQLException {
+		connection = SqlUtils.openConnection();
+		statement = connection.createStatement();
+	}
+
+	@TearDown(Level.Invocation)
+	public void closeDatabase() throws SQLException {
+		statement.close();
+		connection.close();
+	}
+
+	@TearDown
+	public void tearDown() throws IOException {
+		BenchmarkFixtures.deleteWorkingDirectory(workingDirectory);
+	}
+
+	@Benchmark
+	public void convertVtlBindingsIntoSqlDatabase() {
+		SqlUtils.convertVtlBindingsIntoSqlDatabase(vtlBindings, statement);
+	}
+
+}
@@ -0,0 +1,75 @@
+package fr.insee.kraftwerk.benchmarks;
+
+import fr.insee.kraftwerk.benchmarks.data.SyntheticDataGenerator;
+import fr.insee.kraftwerk.core.Constants;
+import fr.insee.kraftwerk.core.exceptions.NullException;
+import fr.insee.kraftwerk.core.rawdata.SurveyRawData;
+import fr.insee.kraftwerk.core.utils.files.FileUtilsInterface;
+import fr.insee.kraftwerk.core.vtl.VtlBindings;
+import fr.insee.kraftwerk.core.vtl.VtlExecute;
+import fr.insee.vtl.model.Dataset;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversion of survey raw data into a VTL dataset, in memory or through a VTL JSON file
+ * ({@link fr.insee.kraftwerk.core.vtl.VtlJsonDatasetWriter}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class VtlDatasetBenchmark {
+
+	@Param({"1000", "10000"})
+	public int surveyUnitsCount;
+
+	@Param({"false", "true"})
+	public boolean jsonDatasetMode;
+
+	private Path workingDirectory;
+	private SurveyRawData surveyRawData;
+	private VtlExecute vtlExecute;
+
+	@Setup
+	public void setUp() throws IOException, NullException {
+		SyntheticDataGenerator generator = new SyntheticDataGenerator(surveyUnitsCount, 50, 50, 3);
+		workingDirectory = BenchmarkFixtures.createWorkingDirectory();
+		Path xmlFile = workingDirectory.resolve("data.xml");
+		generator.writeLunaticXml(xmlFile);
+		FileUtilsInterface fileUtilsInterface = BenchmarkFixtures.fileUtils(workingDirectory);
+		surveyRawData = BenchmarkFixtures.parseLunaticXml(generator, xmlFile, "CAWI", fileUtilsInterface);
+		vtlExecute = new VtlExecute(fileUtilsInterface);
+		Constants.setVtlJsonDatasetMode(jsonDatasetMode);
+	}
+
+	@TearDown
+	public void tearDown() throws IOException {
+		Constants.setVtlJsonDatasetMode(false);
+		BenchmarkFixtures.deleteWorkingDirectory(workingDirectory);
+	}
+
+	@Benchmark
+	public Dataset convertToVtlDataset() {
+		VtlBindings vtlBindings = new VtlBindings();
+		vtlExecute.convertToVtlDataset(surveyRawData, "CAWI", vtlBindings);
+		return vtlBindings.getDataset("CAWI");
+	}
+
+}
@@ -0,0 +1,215 @@
+package fr.insee.kraftwerk.benchmarks.data;
+
+import fr.insee.bpm.metadata.model.Group;
+import fr.insee.bpm.metadata.model.MetadataModel;
+import fr.insee.bpm.metadata.model.Variable;
+import fr.insee.bpm.metadata.model.VariableType;
+import fr.insee.kraftwerk.core.Constants;
+import fr.insee.kraftwerk.core.data.model.DataState;
+import fr.insee.kraftwerk.core.data.model.Mode;
+import fr.insee.kraftwerk.core.data.model.SurveyUnitUpdateLatest;
+import fr.insee.kraftwerk.core.data.model.VariableModel;
+import lombok.Getter;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Generates synthetic survey data of a given size, in the formats read by Kraftwerk :
+ * Lunatic XML and JSON data files, Genesis survey units and Lunatic paradata files.
+ * The questionnaire has variables in the root group and in one loop, with the four main variable types.
+ * Values are deterministic, so that the same parameters always give the same data.
+ */
+@Getter
+public class SyntheticDataGenerator {
+
+	public static final String QUESTIONNAIRE_ID = "BENCH2025X01";
+	public static final String LOOP_NAME = "BOUCLE_INDIVIDUS";
+	private static final VariableType[] VARIABLE_TYPES =
+			{VariableType.STRING, VariableType.INTEGER, VariableType.NUMBER, VariableType.BOOLEAN};
+
+	private final int surveyUnitsCount;
+	private final int rootVariablesCount;
+	private final int loopVariablesCount;
+	private final int loopIterationsCount;
+
+	/**
+	 * @param surveyUnitsCount Number of survey units.
+	 * @param rootVariablesCount Number of variables in the root group.
+	 * @param loopVariablesCount Number of variables in the loop.
+	 * @param loopIterationsCount Number of loop iterations of each survey unit.
+	 */
+	public SyntheticDataGenerator(int surveyUnitsCount, int rootVariablesCount, int loopVariablesCount, int loopIterationsCount) {
+		this.surveyUnitsCount = surveyUnitsCount;
+		this.rootVariablesCount = rootVariablesCount;
+		this.loopVariablesCount = loopVariablesCount;
+		this.loopIterationsCount = loopIterationsCount;
+	}
+
+	public static String surveyUnitId(int surveyUnitIndex) {
+		return String.format("SU%08d", surveyUnitIndex);
+	}
+
+	public static String rootVariableName(int variableIndex) {
+		return "ROOT_VAR" + variableIndex;
+	}
+
+	public static String loopVariableName(int variableIndex) {
+		return "LOOP_VAR" + variableIndex;
+	}
+
+	private static VariableType variableType(int variableIndex) {
+		return VARIABLE_TYPES[variableIndex % VARIABLE_TYPES.length];
+	}
+
+	private static String value(int variableIndex, int surveyUnitIndex, int iteration) {
+		return switch (variableType(variableIndex)) {
+			case INTEGER -> Integer.toString(surveyUnitIndex + iteration);
+			case NUMBER -> (surveyUnitIndex % 1000) + "." + (iteration % 10) + "5";
+			case BOOLEAN -> Boolean.toString((surveyUnitIndex + iteration) % 2 == 0);
+			default -> "value " + variableIndex + "-" + surveyUnitIndex + "-" + iteration;
+		};
+	}
+
+	/**
+	 * Metadata model of the synthetic questionnaire. A new model is returned by each call,
+	 * since metadata models are updated by the parsers.
+	 */
+	public MetadataModel metadataModel() {
+		MetadataModel metadataModel = new MetadataModel();
+		Group rootGroup = metadataModel.getRootGroup();
+		metadataModel.putGroup(new Group(LOOP_NAME, rootGroup.getName()));
+		for (int i = 0; i < rootVariablesCount; i++) {
+			metadataModel.getVariables().putVariable(new Variable(rootVariableName(i), rootGroup, variableType(i)));
+		}
+		for (int i = 0; i < loopVariablesCount; i++) {
+			metadataModel.getVariables().putVariable(
+					new Variable(loopVariableName(i), metadataModel.getGroup(LOOP_NAME), variableType(i)));
+		}
+		return metadataModel;
+	}
+
+	/**
+	 * Write all the survey units in one Lunatic XML data file.
+	 */
+	public void writeLunaticXml(Path xmlFile) throws IOException {
+		try (BufferedWriter writer = Files.newBufferedWriter(xmlFile, StandardCharsets.UTF_8)) {
+			writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<Campaign>\n");
+			writer.write("<Id>" + QUESTIONNAIRE_ID + "</Id>\n<Label>Synthetic campaign</Label>\n<SurveyUnits>\n");
+			for (int su = 0; su < surveyUnitsCount; su++) {
+				writer.write("<SurveyUnit>\n<Id>" + surveyUnitId(su) + "</Id>\n");
+				writer.write("<QuestionnaireModelId>" + QUESTIONNAIRE_ID + "</QuestionnaireModelId>\n");
+				writer.write("<Data>\n<COLLECTED>\n");
+				for (int i = 0; i < rootVariablesCount; i++) {
+					String name = rootVariableName(i);
+					writer.write("<" + name + "><COLLECTED type=\"string\">" + value(i, su, 0) + "</COLLECTED>"
+							+ "<EDITED type=\"null\"/></" + name + ">\n");
+				}
+				for (int i = 0; i < loopVariablesCount; i++) {
+					String name = loopVariableName(i);
+					writer.write("<" + name + "><COLLECTED>");
+					for (int iteration = 1; iteration <= loopIterationsCount; iteration++) {
+						writer.write("<COLLECTED type=\"string\">" + value(i, su, iteration) + "</COLLECTED>");
+					}
+					writer.write("</COLLECTED></" + name + ">\n");
+				}
+				writer.write("</COLLECTED>\n<CALCULATED/>\n<EXTERNAL/>\n</Data>\n</SurveyUnit>\n");
+			}
+			writer.write("</SurveyUnits>\n</Campaign>\n");
+		}
+	}
+
+	/**
+	 * Write one Lunatic JSON data file per survey unit in the given folder.
+	 */
+	public void writeLunaticJsonFiles(Path folder) throws IOException {
+		Files.createDirectories(folder);
+		for (int su = 0; su < surveyUnitsCount; su++) {
+			StringBuilder json = new StringBuilder("{\"id\":\"").append(surveyUnitId(su))
+					.append("\",\"data\":{\"").append(Constants.COLLECTED).append("\":{");
+			for (int i = 0; i < rootVariablesCount; i++) {
+				json.append(i == 0 ? "" : ",").append('"').append(rootVariableName(i)).append("\":{\"")
+						.append(Constants.COLLECTED).append("\":\"").append(value(i, su, 0)).append("\"}");
+			}
+			json.append("}}}");
+			Files.writeString(folder.resolve(surveyUnitId(su) + ".json"), json);
+		}
+	}
+
+	/**
+	 * Survey units as returned by Genesis, for the given mode.
+	 */
+	public List<SurveyUnitUpdateLatest> surveyUnitUpdateLatests(Mode mode) {
+		List<SurveyUnitUpdateLatest> surveyUnits = new ArrayList<>(surveyUnitsCount);
+		for (int su = 0; su < surveyUnitsCount; su++) {
+			SurveyUnitUpdateLatest surveyUnit = new SurveyUnitUpdateLatest();
+			surveyUnit.setQuestionnaireId(QUESTIONNAIRE_ID);
+			surveyUnit.setInterrogationId(surveyUnitId(su));
+			surveyUnit.setSurveyUnitId("UE" + surveyUnitId(su));
+			surveyUnit.setMode(mode);
+			surveyUnit.setState(DataState.COLLECTED);
+			List<VariableModel> collectedVariables = new ArrayList<>();
+			for (int i = 0; i < rootVariablesCount; i++) {
+				collectedVariables.add(variableModel(rootVariableName(i), Constants.ROOT_GROUP_NAME, 1, value(i, su, 0)));
+			}
+			for (int i = 0; i < loopVariablesCount; i++) {
+				for (int iteration = 1; iteration <= loopIterationsCount; iteration++) {
+					collectedVariables.add(variableModel(loopVariableName(i), LOOP_NAME, iteration, value(i, su, iteration)));
+				}
+			}
+			surveyUnit.setCollectedVariables(collectedVariables);
+			surveyUnit.setExternalVariables(new ArrayList<>());
+			surveyUnits.add(surveyUnit);
+		}
+		return surveyUnits;
+	}
+
+	private static VariableModel variableModel(String name, String scope, int iteration, String value) {
+		VariableModel variableModel = new VariableModel();
+		variableModel.setVarId(name);
+		variableModel.setScope(scope);
+		variableModel.setIteration(iteration);
+		variableModel.setValue(value);
+		return variableModel;
+	}
+
+	/**
+	 * Write one Lunatic paradata file per survey unit in the given folder.
+	 * Each file has one session, with one input event per root variable between the orchestrator initialization
+	 * and the validation events.
+	 */
+	public void writeParadataFiles(Path folder) throws IOException {
+		Files.createDirectories(folder);
+		for (int su = 0; su < surveyUnitsCount; su++) {
+			String id = surveyUnitId(su);
+			long timestamp = 1_700_000_000_000L + su * 3_600_000L;
+			List<String> events = new ArrayList<>();
+			events.add(paradataEvent(id, "session", "init-session", timestamp, null));
+			events.add(paradataEvent(id, "orchestrator", "init-orchestrator-collect", timestamp + 1_000, null));
+			for (int i = 0; i < rootVariablesCount; i++) {
+				events.add(paradataEvent(id, "lunatic-input", rootVariableName(i), timestamp + 2_000 + i * 1_000L, value(i, su, 0)));
+				events.add(paradataEvent(id, "orchestrator", "next-button-orchestrator-collect", timestamp + 2_500 + i * 1_000L, null));
+			}
+			long end = timestamp + 3_000 + rootVariablesCount * 1_000L;
+			events.add(paradataEvent(id, "orchestrator", "validate-button-orchestrator-collect", end, null));
+			events.add(paradataEvent(id, "orchestrator", Constants.PARADATA_SURVEY_VALIDATION_EVENT_NAME, end + 1_000, null));
+			events.add(paradataEvent(id, "orchestrator", "logout-close-button-orchestrator-collect", end + 2_000, null));
+			Files.writeString(folder.resolve("paradata." + id + ".json"),
+					"{\"idSu\":\"" + id + "\",\"events\":[[" + String.join(",", events) + "]]}");
+		}
+	}
+
+	private static String paradataEvent(String id, String type, String idParadataObject, long timestamp, String newValue) {
+		return "{\"idSurveyUnit\":\"" + id + "\",\"typeParadataObject\":\"" + type
+				+ "\",\"idOrchestrator\":\"orchestrator-collect\",\"idQuestionnaire\":\"" + QUESTIONNAIRE_ID
+				+ "\",\"idSession\":\"session-" + id + "\",\"idParadataObject\":\"" + idParadataObject
+				+ "\",\"timestamp\":" + timestamp
+				+ (newValue == null ? "" : ",\"newValue\":\"" + newValue + "\"") + "}";
+	}
+
+}
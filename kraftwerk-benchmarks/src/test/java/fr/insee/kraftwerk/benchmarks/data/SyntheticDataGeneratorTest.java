@@ -0,0 +1,93 @@
+package fr.insee.kraftwerk.benchmarks.data;
+
+import fr.insee.kraftwerk.benchmarks.BenchmarkFixtures;
+import fr.insee.kraftwerk.core.Constants;
+import fr.insee.kraftwerk.core.data.model.Mode;
+import fr.insee.kraftwerk.core.data.model.SurveyUnitUpdateLatest;
+import fr.insee.kraftwerk.core.exceptions.KraftwerkException;
+import fr.insee.kraftwerk.core.extradata.paradata.Paradata;
+import fr.insee.kraftwerk.core.extradata.paradata.ParadataParser;
+import fr.insee.kraftwerk.core.parsers.LunaticJsonDataParser;
+import fr.insee.kraftwerk.core.rawdata.SurveyRawData;
+import fr.insee.kraftwerk.core.sequence.BuildBindingsSequenceGenesis;
+import fr.insee.kraftwerk.core.utils.files.FileUtilsInterface;
+import fr.insee.kraftwerk.core.vtl.VtlBindings;
+import fr.insee.vtl.model.Dataset;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SyntheticDataGeneratorTest {
+
+	private final SyntheticDataGenerator generator = new SyntheticDataGenerator(10, 8, 4, 3);
+
+	@TempDir
+	Path tempDirectory;
+
+	@Test
+	void writeLunaticXml_parsed() throws IOException, KraftwerkException {
+		Path xmlFile = tempDirectory.resolve("data.xml");
+		generator.writeLunaticXml(xmlFile);
+
+		SurveyRawData surveyRawData = BenchmarkFixtures.parseLunaticXml(generator, xmlFile, "CAWI",
+				BenchmarkFixtures.fileUtils(tempDirectory));
+
+		assertEquals(10, surveyRawData.getQuestionnairesCount());
+		assertEquals("SU00000003", surveyRawData.getQuestionnaires().get(3).getIdentifier());
+		assertEquals("3", surveyRawData.getQuestionnaires().get(3).getAnswers().getValue("ROOT_VAR1"));
+		assertEquals(3, surveyRawData.getQuestionnaires().get(3).getAnswers()
+				.getSubGroup(SyntheticDataGenerator.LOOP_NAME).getInstanceIds().size());
+	}
+
+	@Test
+	void writeLunaticJsonFiles_parsed() throws IOException, KraftwerkException {
+		Path jsonFolder = tempDirectory.resolve("json");
+		generator.writeLunaticJsonFiles(jsonFolder);
+		SurveyRawData surveyRawData = new SurveyRawData("CAWI");
+		surveyRawData.setMetadataModel(generator.metadataModel());
+
+		new LunaticJsonDataParser(surveyRawData, BenchmarkFixtures.fileUtils(tempDirectory))
+				.parseSurveyData(jsonFolder, null);
+
+		assertEquals(10, surveyRawData.getQuestionnairesCount());
+	}
+
+	@Test
+	void surveyUnitUpdateLatests_bindings() throws KraftwerkException {
+		List<SurveyUnitUpdateLatest> surveyUnits = generator.surveyUnitUpdateLatests(Mode.WEB);
+		VtlBindings vtlBindings = new VtlBindings();
+
+		new BuildBindingsSequenceGenesis(BenchmarkFixtures.fileUtils(tempDirectory)).buildVtlBindings("WEB", vtlBindings,
+				Map.of("WEB", generator.metadataModel()), surveyUnits, tempDirectory);
+
+		Dataset dataset = vtlBindings.getDataset("WEB");
+		// One line per loop iteration
+		assertEquals(30, dataset.getDataPoints().size());
+	}
+
+	@Test
+	void writeParadataFiles_parsed() throws IOException, KraftwerkException {
+		Path paradataFolder = tempDirectory.resolve("paradata");
+		generator.writeParadataFiles(paradataFolder);
+		FileUtilsInterface fileUtilsInterface = BenchmarkFixtures.fileUtils(tempDirectory);
+		Path xmlFile = tempDirectory.resolve("data.xml");
+		generator.writeLunaticXml(xmlFile);
+		SurveyRawData surveyRawData = BenchmarkFixtures.parseLunaticXml(generator, xmlFile, "CAWI", fileUtilsInterface);
+		Paradata paradata = new Paradata(paradataFolder);
+
+		new ParadataParser(fileUtilsInterface).parseParadata(paradata, surveyRawData);
+
+		assertEquals(10, paradata.getListParadataUE().size());
+		assertEquals(1, paradata.getListParadataUE().getFirst().getSessions().size());
+		assertEquals(8, surveyRawData.getMetadataModel().getVariables().getVariableNames().stream()
+				.filter(name -> name.startsWith("ROOT_VAR")).count());
+		assertEquals(Constants.ROOT_GROUP_NAME, surveyRawData.getMetadataModel().getRootGroup().getName());
+	}
+
+}
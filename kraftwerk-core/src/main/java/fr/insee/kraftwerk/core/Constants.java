@@ -52,6 +52,30 @@ public final class Constants {
 	public static final char CSV_OUTPUTS_SEPARATOR = ';';
 	@Getter
 	private static char csvOutputQuoteChar = '"';
+	/** If true, VTL datasets are built through temporary JSON files instead of in memory (debug mode). */
+	@Getter
+	private static boolean vtlJsonDatasetMode = false;
+	/** Number of files processed concurrently in file-by-file mode (1: files are processed one after the other). */
+	@Getter
+	private static int fileByFileWorkers = 1;
+	/** Maximum number of parsed VTL scripts kept in cache (0: no cache). */
+	@Getter
+	private static int vtlCompilationCacheSize = 512;
+	/** Number of paradata files parsed concurrently (1: files are parsed one after the other). */
+	@Getter
+	private static int paradataWorkers = 4;
+	/** If true, automated multimodal steps (reconciliation, clean up, information levels) are run as SQL in DuckDB. */
+	@Getter
+	private static boolean multimodalDuckDb = false;
+	/** Number of output files (dataset and format) exported concurrently (1: files are exported one after the other). */
+	@Getter
+	private static int exportWorkers = 1;
+	/** Number of parts of an output file uploaded concurrently to MinIO, one more part being buffered while they are uploaded. */
+	@Getter
+	private static int minioUploadWorkers = 4;
+	/** Maximum number of metadata models, and of calculated variables, kept in cache (0: no cache). */
+	@Getter
+	private static int metadataCacheSize = 16;
 
 	// ----- Fixed parameters
 	public static final String ROOT_GROUP_NAME = "RACINE";
@@ -281,6 +305,38 @@ public final class Constants {
 		Constants.csvOutputQuoteChar = csvOutputQuoteChar;
 	}
 
+	public static void setVtlJsonDatasetMode(boolean vtlJsonDatasetMode) {
+		Constants.vtlJsonDatasetMode = vtlJsonDatasetMode;
+	}
+
+	public static void setFileByFileWorkers(int fileByFileWorkers) {
+		Constants.fileByFileWorkers = Math.max(1, fileByFileWorkers);
+	}
+
+	public static void setVtlCompilationCacheSize(int vtlCompilationCacheSize) {
+		Constants.vtlCompilationCacheSize = Math.max(0, vtlCompilationCacheSize);
+	}
+
+	public static void setParadataWorkers(int paradataWorkers) {
+		Constants.paradataWorkers = Math.max(1, paradataWorkers);
+	}
+
+	public static void setExportWorkers(int exportWorkers) {
+		Constants.exportWorkers = Math.max(1, exportWorkers);
+	}
+
+	public static void setMinioUploadWorkers(int minioUploadWorkers) {
+		Constants.minioUploadWorkers = Math.max(1, minioUploadWorkers);
+	}
+
+	public static void setMetadataCacheSize(int metadataCacheSize) {
+		Constants.metadataCacheSize = Math.max(0, metadataCacheSize);
+	}
+
+	public static void setMultimodalDuckDb(boolean multimodalDuckDb) {
+		Constants.multimodalDuckDb = multimodalDuckDb;
+	}
+
 	public static String[] getEnoVariables() {
 		return ENO_VARIABLES;
 	}
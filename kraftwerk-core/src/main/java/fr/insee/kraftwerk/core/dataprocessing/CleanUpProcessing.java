@@ -5,11 +5,14 @@ import fr.insee.bpm.metadata.model.PaperUcq;
 import fr.insee.bpm.metadata.model.VariablesMap;
 import fr.insee.kraftwerk.core.utils.files.FileUtilsInterface;
 import fr.insee.kraftwerk.core.utils.KraftwerkExecutionContext;
+import fr.insee.kraftwerk.core.utils.SqlUtils;
 import fr.insee.kraftwerk.core.vtl.VtlBindings;
 import fr.insee.kraftwerk.core.vtl.VtlScript;
 import lombok.extern.log4j.Log4j2;
 
 import java.nio.file.Path;
+import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -57,19 +60,31 @@ public class CleanUpProcessing extends DataProcessing {
         return cleanUpScript.toString();
     }
 
+    /**
+     * Same clean up as the VTL one, with the multimode dataset being a table of the database given.
+     * Unimodal tables are dropped from the database too.
+     *
+     * @param bindingName The name of the multimode table.
+     * @param database statement of the database containing the tables.
+     * @return the SQL instructions executed.
+     * @throws SQLException if sql error
+     */
+    public String applySqlTransformations(String bindingName, Statement database) throws SQLException {
+        List<String> cleanUpInstructions = generateSqlInstructions(bindingName);
+        log.debug("Automated clean up SQL instructions after step {} : {}", getStepName(), cleanUpInstructions);
+        for (String instruction : cleanUpInstructions) {
+            database.execute(instruction);
+        }
+        removePaperUcqVariables();
+        removeUnimodalDatasets();
+        return String.join("\n", cleanUpInstructions);
+    }
+
     /** Generate VTL script to remove the paper indicator variables. */
     @Override
     protected VtlScript generateVtlInstructions(String bindingName) {
         VtlScript vtlScript = new VtlScript();
-        List<String> paperUcqVtlNames = new ArrayList<>();
-        for (Entry<String,MetadataModel> mode : metadataModels.entrySet()) {
-            VariablesMap variablesMap = mode.getValue().getVariables();
-            paperUcqVtlNames.addAll(
-                    variablesMap.getPaperUcq().stream()
-                            .map(variable -> mode.getValue().getFullyQualifiedName(variable.getName()))
-                            .toList()
-            );
-        }
+        List<String> paperUcqVtlNames = getPaperUcqNames();
         if (!paperUcqVtlNames.isEmpty()) {
             StringBuilder dropInstruction = new StringBuilder(
                     String.format("%s := %s [ drop ", bindingName, bindingName)
@@ -83,6 +98,33 @@ public class CleanUpProcessing extends DataProcessing {
         return vtlScript;
     }
 
+    /** Generate SQL instructions to remove the paper indicator variables and the unimodal tables. */
+    public List<String> generateSqlInstructions(String bindingName) {
+        List<String> sqlInstructions = new ArrayList<>();
+        for (String paperUcqName : getPaperUcqNames()) {
+            sqlInstructions.add(String.format("ALTER TABLE %s DROP COLUMN IF EXISTS %s;",
+                    SqlUtils.toSqlIdentifier(bindingName), SqlUtils.toSqlIdentifier(paperUcqName)));
+        }
+        for (String datasetName : metadataModels.keySet()) {
+            sqlInstructions.add(String.format("DROP TABLE IF EXISTS %s;", SqlUtils.toSqlIdentifier(datasetName)));
+        }
+        return sqlInstructions;
+    }
+
+    /** Fully qualified names of the paper indicator variables of every mode. */
+    private List<String> getPaperUcqNames() {
+        List<String> paperUcqNames = new ArrayList<>();
+        for (Entry<String,MetadataModel> mode : metadataModels.entrySet()) {
+            VariablesMap variablesMap = mode.getValue().getVariables();
+            paperUcqNames.addAll(
+                    variablesMap.getPaperUcq().stream()
+                            .map(variable -> mode.getValue().getFullyQualifiedName(variable.getName()))
+                            .toList()
+            );
+        }
+        return paperUcqNames;
+    }
+
     /** Remove PaperUcq variables from concerned VariablesMap */
     private void removePaperUcqVariables() {
         for (MetadataModel metadata : metadataModels.values()) {
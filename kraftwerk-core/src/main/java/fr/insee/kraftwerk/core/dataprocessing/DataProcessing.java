@@ -11,6 +11,7 @@ import lombok.extern.log4j.Log4j2;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Path;
+import java.util.List;
 
 
 /**
@@ -41,13 +42,32 @@ public abstract class DataProcessing {
         // First step
         String automatedVtlInstructions = applyAutomatedVtlInstructions(bindingName, kraftwerkExecutionContext);
         // Second step
-        if(userVtlInstructionsPath == null || !fileUtilsInterface.isFileExists(userVtlInstructionsPath.toString())){
+        applyUserVtlTransformations(bindingName, userVtlInstructionsPath, kraftwerkExecutionContext);
+        return automatedVtlInstructions;
+    }
+
+    /**
+     * Second step only : apply the user VTL instructions file, if given.
+     *
+     * @return true if user VTL instructions have been applied.
+     */
+    public boolean applyUserVtlTransformations(String bindingName, Path userVtlInstructionsPath, KraftwerkExecutionContext kraftwerkExecutionContext) throws KraftwerkException {
+        if(!isUserVtlGiven(userVtlInstructionsPath)){
             log.info(String.format("No user VTL instructions given for dataset named %s (step %s).",
                     bindingName, getStepName()));
-            return automatedVtlInstructions;
+            return false;
         }
         applyUserVtlInstructions(userVtlInstructionsPath, kraftwerkExecutionContext);
-        return automatedVtlInstructions;
+        return true;
+    }
+
+    /**
+     * @param userVtlInstructionsPath User VTL instructions file of the step, possibly null.
+     *
+     * @return true if the user VTL instructions file is given and exists.
+     */
+    public boolean isUserVtlGiven(Path userVtlInstructionsPath) {
+        return userVtlInstructionsPath != null && fileUtilsInterface.isFileExists(userVtlInstructionsPath.toString());
     }
 
     /**
@@ -66,9 +86,23 @@ public abstract class DataProcessing {
         if (!(automatedInstructions.isEmpty() || automatedInstructions.toString().contentEquals(""))) {
         	vtlExecute.evalVtlScript(automatedInstructions, vtlBindings, kraftwerkExecutionContext);
         }
+        for (String datasetName : getDatasetsToDeduplicate(bindingName)) {
+            vtlBindings.removeDuplicates(datasetName);
+        }
         return automatedInstructions.toString();
     }
 
+    /**
+     * Datasets from which duplicated rows (same identifiers) are removed after the automated VTL instructions.
+     *
+     * @param bindingName The name of the concerned dataset.
+     *
+     * @return names of datasets in the bindings, none by default.
+     */
+    protected List<String> getDatasetsToDeduplicate(String bindingName) {
+        return List.of();
+    }
+
     protected void applyUserVtlInstructions(Path userVtlInstructionsPath, KraftwerkExecutionContext kraftwerkExecutionContext) throws KraftwerkException {
         String vtlScript;
         try (InputStream inputStream = fileUtilsInterface.readFile(userVtlInstructionsPath.toString())){
@@ -5,8 +5,15 @@ import fr.insee.bpm.metadata.model.MetadataModel;
 import fr.insee.bpm.metadata.model.VariablesMap;
 import fr.insee.kraftwerk.core.utils.files.FileUtilsInterface;
 import fr.insee.kraftwerk.core.vtl.VtlBindings;
+import fr.insee.kraftwerk.core.vtl.VtlMacros;
 import fr.insee.kraftwerk.core.vtl.VtlScript;
+import fr.insee.vtl.model.Dataset;
+import lombok.extern.log4j.Log4j2;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Log4j2
 public class GroupProcessing extends DataProcessing{
 
 	private MetadataModel metadataModel;
@@ -27,6 +34,8 @@ public class GroupProcessing extends DataProcessing{
      * Examples:
      * - FIRST_NAME -> INDIVIDUALS_LOOP.FIRST_NAME
      * - CAR_COLOR -> INDIVIDUALS_LOOP.CARS_LOOP.CAR_COLOR
+     * All the variables are renamed in a single rename clause, so that the dataset is transformed only once.
+     * Variables that are not in the dataset are ignored.
      * @see VariablesMap (getFullyQualifiedName method)
      * @param bindingName The name of the concerned dataset.
      * @return A VTL script.
@@ -35,14 +44,24 @@ public class GroupProcessing extends DataProcessing{
     protected VtlScript generateVtlInstructions(String bindingName) {
         VtlScript vtlScript = new VtlScript();
         VariablesMap variablesMap = metadataModel.getVariables();
+        Dataset dataset = vtlBindings.getDataset(bindingName);
 
+        Map<String, String> renames = new LinkedHashMap<>();
         for (String variableName : variablesMap.getVariableNames()) {
-            if (variablesMap.getVariable(variableName).getGroup() != metadataModel.getRootGroup()) {
-                vtlScript.add(String.format("%s := %s [rename %s to %s];",
-                        bindingName, bindingName, variableName, metadataModel.getFullyQualifiedName(variableName)));
+            if (variablesMap.getVariable(variableName).getGroup() == metadataModel.getRootGroup()) {
+                continue;
+            }
+            if (dataset != null && !dataset.getDataStructure().containsKey(variableName)) {
+                log.debug("Variable {} not found in dataset {}, it will not be prefixed", variableName, bindingName);
+                continue;
             }
+            renames.put(variableName, metadataModel.getFullyQualifiedName(variableName));
         }
 
+        if (!renames.isEmpty()) {
+            vtlScript.add(String.format("%s := %s [rename %s];",
+                    bindingName, bindingName, VtlMacros.toVtlRenameSyntax(renames)));
+        }
         return vtlScript;
     }
 }
@@ -2,20 +2,29 @@ package fr.insee.kraftwerk.core.dataprocessing;
 
 import fr.insee.bpm.metadata.model.MetadataModel;
 import fr.insee.kraftwerk.core.Constants;
+import fr.insee.kraftwerk.core.utils.SqlUtils;
 import fr.insee.kraftwerk.core.utils.files.FileUtilsInterface;
 import fr.insee.kraftwerk.core.vtl.VtlBindings;
 import fr.insee.kraftwerk.core.vtl.VtlMacros;
 import fr.insee.kraftwerk.core.vtl.VtlScript;
+import fr.insee.vtl.model.Dataset;
+import fr.insee.vtl.model.Structured;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.StringJoiner;
 
 /**
  * This processing class is designed to create one dataset per group existing in metadata.
  */
 public class InformationLevelsProcessing extends DataProcessing {
 
+	/** Technical column used to keep the rows of the group tables in the multimodal table order. */
+	private static final String SQL_ROW_ORDER = "kw_row_order";
+
     public InformationLevelsProcessing(VtlBindings vtlBindings, FileUtilsInterface fileUtilsInterface) {
         super(vtlBindings, fileUtilsInterface);
     }
@@ -51,9 +60,6 @@ public class InformationLevelsProcessing extends DataProcessing {
 
 		vtlScript.add(rootInstructions.toString());
 
-		// To delete duplicates, to be eventually reviewed with a better VTL solution
-		vtlScript.add(Constants.ROOT_GROUP_NAME + " := union(" + Constants.ROOT_GROUP_NAME + ", " + Constants.ROOT_GROUP_NAME +");");
-
 		 
 		// Group datasets
 		for (String groupName : metadataModel.getSubGroupNames()) {
@@ -80,19 +86,103 @@ public class InformationLevelsProcessing extends DataProcessing {
 
 			vtlScript.add(groupInstructions.toString());
 
-			// To delete duplicates
-			vtlScript.add(String.format("%1$s := union(%1$s,%1$s);",groupName));
-
-			// Then rename fully qualified names into simple names
+			// Then rename fully qualified names into simple names, in a single rename clause
+			Map<String, String> renames = new LinkedHashMap<>();
 			for (int j=0; j< groupVariableNames.size(); j++) {
-				String variableName = groupVariableNames.get(j);
-				String fullyQualifiedName = groupMeasureNames.get(j);
-				vtlScript.add(String.format("%s := %s [rename %s to %s];",
-						groupName, groupName, fullyQualifiedName, variableName));
+				renames.put(groupMeasureNames.get(j), groupVariableNames.get(j));
+			}
+			if (!renames.isEmpty()) {
+				vtlScript.add(String.format("%s := %s [rename %s];",
+						groupName, groupName, VtlMacros.toVtlRenameSyntax(renames)));
 			}
 		}
 
 		return vtlScript;
     }
 
+
+	/** Duplicates are removed from each dataset created, the renames being only on measures. */
+	@Override
+	protected List<String> getDatasetsToDeduplicate(String bindingName) {
+		List<String> groupNames = new ArrayList<>();
+		groupNames.add(Constants.ROOT_GROUP_NAME);
+		groupNames.addAll(vtlBindings.getDatasetVariablesMap(bindingName).getSubGroupNames());
+		return groupNames;
+	}
+
+	/**
+	 * Generate SQL instructions creating the same tables as the VTL instructions, one per group of variables,
+	 * from the multimodal table of the same name as the binding name.
+	 * Each table is a projection of the multimodal table, in which fully qualified names are renamed into simple names.
+	 * Duplicated rows are removed with DISTINCT ON the identifiers kept, the first row being kept as in VTL processing.
+	 *
+	 * @param bindingName The name of the multimodal dataset, also in the bindings.
+	 * @return SQL instructions, one per group table.
+	 */
+	public Map<String, String> generateSqlInstructions(String bindingName) {
+		Map<String, String> sqlInstructions = new LinkedHashMap<>();
+		MetadataModel metadataModel = vtlBindings.getDatasetVariablesMap(bindingName);
+		Structured.DataStructure multimodeStructure = vtlBindings.getDataset(bindingName).getDataStructure();
+
+		// Root table
+		Map<String, String> rootColumns = new LinkedHashMap<>();
+		rootColumns.put(Constants.ROOT_IDENTIFIER_NAME, Constants.ROOT_IDENTIFIER_NAME);
+		rootColumns.put(Constants.SURVEY_UNIT_IDENTIFIER_NAME, Constants.SURVEY_UNIT_IDENTIFIER_NAME);
+		metadataModel.getVariables().getGroupVariableNames(Constants.ROOT_GROUP_NAME)
+				.forEach(variableName -> rootColumns.put(variableName, variableName));
+		rootColumns.put(Constants.MODE_VARIABLE_NAME, Constants.MODE_VARIABLE_NAME);
+		sqlInstructions.put(Constants.ROOT_GROUP_NAME,
+				groupTableQuery(Constants.ROOT_GROUP_NAME, bindingName, multimodeStructure, rootColumns, ""));
+
+		// Group tables, fully qualified names being renamed into simple names
+		for (String groupName : metadataModel.getSubGroupNames()) {
+			Map<String, String> groupColumns = new LinkedHashMap<>();
+			groupColumns.put(Constants.ROOT_IDENTIFIER_NAME, Constants.ROOT_IDENTIFIER_NAME);
+			groupColumns.put(Constants.SURVEY_UNIT_IDENTIFIER_NAME, Constants.SURVEY_UNIT_IDENTIFIER_NAME);
+			groupColumns.put(groupName, groupName);
+			metadataModel.getVariables().getGroupVariableNames(groupName)
+					.forEach(variableName -> groupColumns.put(metadataModel.getFullyQualifiedName(variableName), variableName));
+			groupColumns.put(Constants.MODE_VARIABLE_NAME, Constants.MODE_VARIABLE_NAME);
+			// Empty lines are created to produce group level tables and need to be removed
+			String filter = multimodeStructure.containsKey(groupName)
+					? String.format(" WHERE %s <> ''", SqlUtils.toSqlIdentifier(groupName))
+					: "";
+			sqlInstructions.put(groupName,
+					groupTableQuery(groupName, bindingName, multimodeStructure, groupColumns, filter));
+		}
+		return sqlInstructions;
+	}
+
+	private String groupTableQuery(String groupName, String bindingName, Structured.DataStructure multimodeStructure,
+								   Map<String, String> columns, String filter) {
+		StringJoiner selectedColumns = new StringJoiner(", ");
+		List<String> identifiers = new ArrayList<>();
+		// Columns in the multimodal dataset order, as with VTL keep
+		for (Structured.Component component : multimodeStructure.values()) {
+			String columnName = columns.get(component.getName());
+			if (columnName == null) {
+				continue;
+			}
+			if (component.getName().equals(columnName)) {
+				selectedColumns.add(SqlUtils.toSqlIdentifier(columnName));
+			} else {
+				selectedColumns.add(String.format("%s AS %s",
+						SqlUtils.toSqlIdentifier(component.getName()), SqlUtils.toSqlIdentifier(columnName)));
+			}
+			if (component.getRole() == Dataset.Role.IDENTIFIER) {
+				identifiers.add(component.getName());
+			}
+		}
+		if (identifiers.isEmpty()) {
+			return String.format("CREATE OR REPLACE TABLE %s AS SELECT %s FROM %s%s ORDER BY rowid;",
+					SqlUtils.toSqlIdentifier(groupName), selectedColumns, SqlUtils.toSqlIdentifier(bindingName), filter);
+		}
+		// To delete duplicates, the rows are then put back in the multimodal table order
+		return String.format("CREATE OR REPLACE TABLE %1$s AS SELECT * EXCLUDE (%2$s) FROM (" +
+						"SELECT DISTINCT ON (%3$s) %4$s, rowid AS %2$s FROM %5$s%6$s ORDER BY %3$s, rowid" +
+						") ORDER BY %2$s;",
+				SqlUtils.toSqlIdentifier(groupName), SQL_ROW_ORDER, SqlUtils.toSqlIdentifiers(identifiers),
+				selectedColumns, SqlUtils.toSqlIdentifier(bindingName), filter);
+	}
+
 }
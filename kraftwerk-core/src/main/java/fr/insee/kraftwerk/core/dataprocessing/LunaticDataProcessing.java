@@ -21,7 +21,7 @@ public class LunaticDataProcessing extends UnimodalDataProcessing {
     }
 
     /**
-     * There is only the removal of duplicates as VTL automated data processing for data that comes from Lunatic at the moment.
+     * There is no VTL automated data processing (duplicates are removed by the step) for data that comes from Lunatic at the moment.
      *
      * @param bindingName The name of the dataset in the bindings.
      *
@@ -32,8 +32,6 @@ public class LunaticDataProcessing extends UnimodalDataProcessing {
         // Write the VTL instructions
         VtlScript vtlScript = new VtlScript();
 
-        // To delete duplicates, to be eventually reviewed with a better VTL solution
-        vtlScript.add(String.format("%1$s := union(%1$s,%1$s);",bindingName));
         return vtlScript;
     }
 
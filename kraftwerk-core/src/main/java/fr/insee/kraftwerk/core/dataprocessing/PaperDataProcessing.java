@@ -43,8 +43,6 @@ public class PaperDataProcessing extends UnimodalDataProcessing {
         // Write the VTL instructions
         VtlScript vtlScript = new VtlScript();
 
-        // To delete duplicates, to be eventually reviewed with a better VTL solution
-        vtlScript.add(String.format("%1$s := union(%1$s,%1$s);",bindingName));
 
         for (UcqVariable ucqVariable : ucqVariables) {
 
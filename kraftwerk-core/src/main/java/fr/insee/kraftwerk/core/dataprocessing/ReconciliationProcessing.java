@@ -1,6 +1,7 @@
 package fr.insee.kraftwerk.core.dataprocessing;
 
 import fr.insee.kraftwerk.core.Constants;
+import fr.insee.kraftwerk.core.utils.SqlUtils;
 import fr.insee.kraftwerk.core.utils.files.FileUtilsInterface;
 import fr.insee.kraftwerk.core.vtl.VtlBindings;
 import fr.insee.kraftwerk.core.vtl.VtlMacros;
@@ -15,6 +16,11 @@ import java.util.stream.Collectors;
 @Log4j2
 public class ReconciliationProcessing extends DataProcessing {
 
+	/** Technical columns used to keep the rows of the multimodal table in the unimodal tables order. */
+	private static final String SQL_MODE_ORDER = "kw_mode_order";
+	private static final String SQL_ROW_ORDER = "kw_row_order";
+	private static final String SQL_COMMON_TABLE = "kw_common";
+
 	private final String modeVariableIdentifier;
 
 	/** Return processing instance with default mode variable name. */
@@ -143,6 +149,106 @@ public class ReconciliationProcessing extends DataProcessing {
 		return vtlScript;
 	}
 
+	/**
+	 * Generate SQL instructions to aggregate all the unimodal datasets, to be run in a database
+	 * in which each unimodal dataset of the bindings is a table of the same name.
+	 * The result is the one of the VTL instructions :
+	 * - the common variables of the unimodal tables, with the mode variable and integer common measures cast
+	 * into numbers, are concatenated by name. If the same identifiers are in several modes, the row of the first
+	 * mode is kept, as VTL union does.
+	 * - the other variables of each unimodal table are left joined on its identifiers. As with VTL left join,
+	 * a table is not joined if one of its other variables has already been joined from a previous table.
+	 *
+	 * @param bindingName The name of the table that will be created.
+	 *
+	 * @return SQL instructions to aggregate all the unimodal tables.
+	 */
+	public List<String> generateSqlInstructions(String bindingName) {
+		List<String> unimodalDatasetNames = vtlBindings.getDatasetNames();
+		String multimodeTable = SqlUtils.toSqlIdentifier(bindingName);
+		if (unimodalDatasetNames.size() == 1) {
+			return List.of(String.format("CREATE OR REPLACE TABLE %s AS SELECT * FROM %s;",
+					multimodeTable, SqlUtils.toSqlIdentifier(unimodalDatasetNames.getFirst())));
+		}
+		if (unimodalDatasetNames.isEmpty()) {
+			log.debug("No dataset in the bindings at reconciliation step");
+			return new ArrayList<>();
+		}
+
+		Set<String> identifiers = getIdentifiers();
+		Set<String> commonMeasures = getCommonMeasures();
+		Set<String> commonVariables = mergeSets(identifiers, commonMeasures);
+
+		// Union of the common variables, duplicated identifiers being removed
+		StringJoiner unionQuery = new StringJoiner(" UNION ALL BY NAME ");
+		for (int k = 0; k < unimodalDatasetNames.size(); k++) {
+			String datasetName = unimodalDatasetNames.get(k);
+			StringJoiner selectedColumns = new StringJoiner(", ");
+			for (String variableName : vtlBindings.getDataset(datasetName).getDataStructure().keySet()) {
+				if (!commonVariables.contains(variableName)) {
+					continue;
+				}
+				// Cast Integer into Number to ensure numerical measure have the same type
+				if (commonMeasures.contains(variableName)
+						&& vtlBindings.getMeasureType(datasetName, variableName).equals("integer")) {
+					selectedColumns.add(String.format("CAST(%1$s AS DOUBLE) AS %1$s", SqlUtils.toSqlIdentifier(variableName)));
+				} else {
+					selectedColumns.add(SqlUtils.toSqlIdentifier(variableName));
+				}
+			}
+			unionQuery.add(String.format("SELECT %s, '%s' AS %s, %d AS %s, rowid AS %s FROM %s",
+					selectedColumns, datasetName.replace("'", "''"), SqlUtils.toSqlIdentifier(modeVariableIdentifier),
+					k, SQL_MODE_ORDER, SQL_ROW_ORDER, SqlUtils.toSqlIdentifier(datasetName)));
+		}
+		String commonQuery = String.format("SELECT * FROM (%s)%s", unionQuery,
+				firstRowByIdentifiers(identifiers, SQL_MODE_ORDER + ", " + SQL_ROW_ORDER));
+
+		// Left join of the other variables of each table
+		Set<String> commonMeasuresAndMode = new HashSet<>(commonMeasures);
+		commonMeasuresAndMode.add(modeVariableIdentifier);
+		Set<String> joinedVariables = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+		StringJoiner selectedColumns = new StringJoiner(", ");
+		selectedColumns.add(String.format("%s.* EXCLUDE (%s, %s)", SQL_COMMON_TABLE, SQL_MODE_ORDER, SQL_ROW_ORDER));
+		StringBuilder joins = new StringBuilder();
+		for (String datasetName : unimodalDatasetNames) {
+			List<String> datasetIdentifiers = vtlBindings.getDatasetIdentifierNames(datasetName);
+			List<String> otherMeasures = getOtherVariables(datasetName, commonMeasuresAndMode).stream()
+					.filter(variableName -> !datasetIdentifiers.contains(variableName))
+					.toList();
+			if (otherMeasures.isEmpty()) {
+				continue;
+			}
+			if (otherMeasures.stream().anyMatch(joinedVariables::contains)) {
+				log.warn("Variables of dataset {} not joined at reconciliation step, some of them are already in another mode : {}",
+						datasetName, otherMeasures.stream().filter(joinedVariables::contains).toList());
+				continue;
+			}
+			joinedVariables.addAll(otherMeasures);
+			String joinedTable = SqlUtils.toSqlIdentifier(datasetName + "_keep");
+			StringJoiner joinCondition = new StringJoiner(" AND ").setEmptyValue("TRUE");
+			for (String identifier : datasetIdentifiers) {
+				joinCondition.add(String.format("%1$s.%3$s IS NOT DISTINCT FROM %2$s.%3$s",
+						SQL_COMMON_TABLE, joinedTable, SqlUtils.toSqlIdentifier(identifier)));
+			}
+			otherMeasures.forEach(variableName ->
+					selectedColumns.add(joinedTable + "." + SqlUtils.toSqlIdentifier(variableName)));
+			List<String> joinedColumns = new ArrayList<>(datasetIdentifiers);
+			joinedColumns.addAll(otherMeasures);
+			joins.append(String.format(" LEFT JOIN (SELECT %s FROM %s%s) AS %s ON %s",
+					SqlUtils.toSqlIdentifiers(joinedColumns), SqlUtils.toSqlIdentifier(datasetName),
+					firstRowByIdentifiers(datasetIdentifiers, "rowid"), joinedTable, joinCondition));
+		}
+
+		return List.of(String.format("CREATE OR REPLACE TABLE %1$s AS WITH %2$s AS (%3$s) SELECT %4$s FROM %2$s%5$s ORDER BY %2$s.%6$s, %2$s.%7$s;",
+				multimodeTable, SQL_COMMON_TABLE, commonQuery, selectedColumns, joins, SQL_MODE_ORDER, SQL_ROW_ORDER));
+	}
+
+	/* Clause keeping the first row of each identifiers values, in the order given */
+	private static String firstRowByIdentifiers(Collection<String> identifiers, String order) {
+		return identifiers.isEmpty() ? "" : String.format(" QUALIFY row_number() OVER (PARTITION BY %s ORDER BY %s) = 1",
+				SqlUtils.toSqlIdentifiers(identifiers), order);
+	}
+
 	private String createModeIdentifier(String modeName) {
 		return String.format("%s := %s [calc %s := \"%s\"];",
 				modeName, modeName, modeVariableIdentifier, modeName);
@@ -5,6 +5,8 @@ import fr.insee.kraftwerk.core.utils.files.FileUtilsInterface;
 import fr.insee.kraftwerk.core.vtl.VtlBindings;
 import fr.insee.kraftwerk.core.vtl.VtlScript;
 
+import java.util.List;
+
 /**
  * Interface to apply automated unimodal VTL instructions.
  */
@@ -28,4 +30,10 @@ public abstract class UnimodalDataProcessing extends DataProcessing {
      * @return a String of VTL instructions
      */
     public abstract VtlScript generateVtlInstructions(String bindingName);
+
+    /** Duplicated rows of the unimodal dataset are removed, whatever the data collection tool. */
+    @Override
+    protected List<String> getDatasetsToDeduplicate(String bindingName) {
+        return List.of(bindingName);
+    }
 }
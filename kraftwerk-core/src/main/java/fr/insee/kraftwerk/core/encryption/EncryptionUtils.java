@@ -2,8 +2,11 @@ package fr.insee.kraftwerk.core.encryption;
 
 import fr.insee.kraftwerk.core.exceptions.KraftwerkException;
 import fr.insee.kraftwerk.core.utils.KraftwerkExecutionContext;
+import fr.insee.kraftwerk.core.utils.files.CommittableOutputStream;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Files;
 import java.nio.file.Path;
 
 public interface EncryptionUtils {
@@ -14,4 +17,20 @@ public interface EncryptionUtils {
         ) throws KraftwerkException;
 
         String getEncryptedFileExtension();
+
+        /**
+         * Stream encrypting the data written into it to the destination stream, committed or aborted with it.
+         * By default, data is encrypted from a temporary file when the stream is committed :
+         * implementations able to encrypt on the fly should override it.
+         */
+        default CommittableOutputStream encryptOutputStream(
+                CommittableOutputStream destination, KraftwerkExecutionContext kraftwerkExecutionContext
+        ) throws KraftwerkException {
+                try {
+                        Path tmpFile = Files.createTempFile(Path.of(System.getProperty("java.io.tmpdir")), "kraftwerk", null);
+                        return new TempFileEncryptionOutputStream(tmpFile, destination, this, kraftwerkExecutionContext);
+                } catch (IOException e) {
+                        throw new KraftwerkException(500, e.toString());
+                }
+        }
 }
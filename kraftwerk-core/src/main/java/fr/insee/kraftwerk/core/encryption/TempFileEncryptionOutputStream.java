@@ -0,0 +1,100 @@
+package fr.insee.kraftwerk.core.encryption;
+
+import fr.insee.kraftwerk.core.exceptions.KraftwerkException;
+import fr.insee.kraftwerk.core.utils.KraftwerkExecutionContext;
+import fr.insee.kraftwerk.core.utils.files.CommittableOutputStream;
+import lombok.extern.log4j.Log4j2;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Stream writing into a temporary file, encrypted to the destination stream when it is committed.
+ * The temporary file is deleted, and the destination aborted, if the stream is closed without being committed.
+ */
+@Log4j2
+class TempFileEncryptionOutputStream extends CommittableOutputStream {
+
+    private final Path tmpFile;
+    private final OutputStream out;
+    private final CommittableOutputStream destination;
+    private final EncryptionUtils encryptionUtils;
+    private final KraftwerkExecutionContext kraftwerkExecutionContext;
+    private boolean closed = false;
+
+    TempFileEncryptionOutputStream(Path tmpFile, CommittableOutputStream destination, EncryptionUtils encryptionUtils,
+                                   KraftwerkExecutionContext kraftwerkExecutionContext) throws IOException {
+        this.out = Files.newOutputStream(tmpFile);
+        this.tmpFile = tmpFile;
+        this.destination = destination;
+        this.encryptionUtils = encryptionUtils;
+        this.kraftwerkExecutionContext = kraftwerkExecutionContext;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        ensureOpen();
+        out.write(b);
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        ensureOpen();
+        out.write(bytes, offset, length);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        ensureOpen();
+        out.flush();
+    }
+
+    @Override
+    public void commit() throws IOException {
+        ensureOpen();
+        closed = true;
+        try (destination) {
+            out.close();
+            try (InputStream encryptedStream = encryptionUtils.encryptOutputFile(tmpFile, kraftwerkExecutionContext)) {
+                encryptedStream.transferTo(destination);
+            }
+            destination.commit();
+        } catch (KraftwerkException e) {
+            throw new IOException(e.getMessage(), e);
+        } finally {
+            deleteTmpFile();
+        }
+    }
+
+    @Override
+    public void abort() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            out.close();
+        } catch (IOException e) {
+            log.warn("Can't close temporary file {} : {}", tmpFile, e.toString());
+        }
+        deleteTmpFile();
+        destination.abort();
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Encryption stream is closed");
+        }
+    }
+
+    private void deleteTmpFile() {
+        try {
+            Files.deleteIfExists(tmpFile);
+        } catch (IOException e) {
+            log.error("Can't delete temporary file {} : {}", tmpFile, e.toString());
+        }
+    }
+}
@@ -5,21 +5,19 @@ import lombok.Setter;
 
 import java.nio.file.Path;
 import java.util.*;
-import java.util.stream.Collectors;
 
 public class ParaDataUE {
 	private static final String INITIALIZATION_ONGOING = "Initialization ongoing";
+	private static final int NO_EVENT = -1;
 	@Getter
 	@Setter
 	private Path filepath;
 	@Getter
 	@Setter
 	private String identifier;
-	@Getter
-	@Setter
-	private List<Event> events = new ArrayList<>();
-	@Getter
-	private Map<String, List<ParadataVariable>> paraDataVariables = new LinkedHashMap<>();
+	private ParadataEvents events = new ParadataEvents();
+	/* Number of paradata events by variable */
+	private final Map<String, Integer> paradataVariableCounts = new LinkedHashMap<>();
 	@Getter
 	private List<Session> sessions = new ArrayList<>();
 	@Getter
@@ -27,20 +25,47 @@ public class ParaDataUE {
 	@Getter
 	private long surveyValidationDateTimeStamp;
 
-	public List<ParadataVariable> getParadataVariable(String variableName) {
-		return this.paraDataVariables.get(variableName);
+	/**
+	 * Events as objects. They are created at each call from the compact storage, prefer getEventsCount when possible.
+	 */
+	public List<Event> getEvents() {
+		List<Event> eventList = new ArrayList<>(events.size());
+		for (int i = 0; i < events.size(); i++) {
+			Event event = new Event(identifier, events.getIdSession(i));
+			event.setIdParadataObject(events.getIdParadataObject(i));
+			event.setTimestamp(events.getTimestamp(i));
+			eventList.add(event);
+		}
+		return eventList;
 	}
 
-	public void addParadataVariable(ParadataVariable paraDataVariable) {
-		String variableName = paraDataVariable.getVariableName();
-		if (this.paraDataVariables.containsKey(variableName)) {
-			this.paraDataVariables.get(variableName).add(paraDataVariable);
-		} else {
-			this.paraDataVariables.put(variableName, new ArrayList<>());
-			this.paraDataVariables.get(variableName).add(paraDataVariable);
+	public void setEvents(List<Event> eventList) {
+		this.events = new ParadataEvents();
+		for (Event event : eventList) {
+			this.events.add(event.getTimestamp(), event.getIdParadataObject(), event.getIdSession());
 		}
 	}
 
+	void setEvents(ParadataEvents events) {
+		this.events = events;
+	}
+
+	public int getEventsCount() {
+		return events.size();
+	}
+
+	public Set<String> getParadataVariableNames() {
+		return paradataVariableCounts.keySet();
+	}
+
+	public int getParadataVariableCount(String variableName) {
+		return paradataVariableCounts.getOrDefault(variableName, 0);
+	}
+
+	public void addParadataVariable(String variableName) {
+		paradataVariableCounts.merge(variableName, 1, Integer::sum);
+	}
+
 	public void addSession(Session session) {
 		this.sessions.add(session);
 	}
@@ -49,10 +74,9 @@ public class ParaDataUE {
 		this.orchestrators.add(orchestrator);
 	}
 
+	/** Sort events by timestamp, removing duplicated events */
 	public void sortEvents() {
-		this.setEvents(this.getEvents().stream().distinct()
-				.sorted(Comparator.comparingLong(Event::getTimestamp).thenComparing(Event::getIdParadataObject))
-				.collect(Collectors.toList()));
+		events.sortAndRemoveDuplicates();
 	}
 
 	public long createLengthOrchestratorsVariable() {
@@ -78,44 +102,46 @@ public class ParaDataUE {
 		return getSessions().getLast();
 	}
 
+	/**
+	 * Compute sessions and orchestrators in one pass on the sorted events.
+	 */
 	public void createOrchestratorsAndSessions() {
-		List<Event> listParadataEvents = getEvents();
-
 		// initialize
 		Session session = new Session(INITIALIZATION_ONGOING);
 		Orchestrator orchestrator = new Orchestrator(identifier);
 
-		if (checkNoSessionToCreate(listParadataEvents)) {return;}
-		Event previousEvent = null ;
-		
+		if (checkNoSessionToCreate()) {return;}
+		int previousEvent = NO_EVENT;
+
 		// iterate on paradata events
-		for (Event currentEvent : listParadataEvents) {
+		for (int currentEvent = 0; currentEvent < events.size(); currentEvent++) {
 			initializeSessionIdentifier(session, currentEvent);
-			String idParadataObject = currentEvent.getIdParadataObject();
+			String idParadataObject = events.getIdParadataObject(currentEvent);
+			long currentTimestamp = events.getTimestamp(currentEvent);
 
 			switch (idParadataObject) {
 				case "init-session":
 					session = initializeOrChangeSession(session, previousEvent, currentEvent);
 					if (isOrchestratorStartBeforePreviousEvent(orchestrator, previousEvent)) {
-						orchestrator = changeCurrentOrchestrator(orchestrator, previousEvent);
+						orchestrator = changeCurrentOrchestrator(orchestrator, events.getTimestamp(previousEvent));
 					}
 					break;
 
 				case "init-orchestrator-collect":
-					orchestrator = initializeOrChangeOrchestrator(orchestrator, previousEvent, currentEvent);
+					orchestrator = initializeOrChangeOrchestrator(orchestrator, previousEvent, currentTimestamp);
 					break;
 				case "agree-sending-modal-button-orchestrator-collect":
 					//validate the modal popup
 					initOrchestratorWithSessionIfNeeded(session, orchestrator);
-					if (orchestrator.getInitialization() < currentEvent.getTimestamp()) {
-						orchestrator = changeCurrentOrchestrator(orchestrator, currentEvent);
-						orchestrator.setInitialization(currentEvent.getTimestamp());
+					if (orchestrator.getInitialization() < currentTimestamp) {
+						orchestrator = changeCurrentOrchestrator(orchestrator, currentTimestamp);
+						orchestrator.setInitialization(currentTimestamp);
 					}
 					break;
 				case "logout-close-button-orchestrator-collect":
 					initOrchestratorWithSessionIfNeeded(session, orchestrator);
-					if (orchestrator.getInitialization() < currentEvent.getTimestamp()) {
-						orchestrator = changeCurrentOrchestrator(orchestrator, currentEvent);
+					if (orchestrator.getInitialization() < currentTimestamp) {
+						orchestrator = changeCurrentOrchestrator(orchestrator, currentTimestamp);
 					}
 					break;
 				default:
@@ -124,50 +150,50 @@ public class ParaDataUE {
 
 			previousEvent = currentEvent;
 		}
-		Event event = listParadataEvents.get(listParadataEvents.size() - 1);
-		closeLastSession(session, event);
-		closeLastOrchestrator(orchestrator, event);
+		long lastTimestamp = events.getTimestamp(events.size() - 1);
+		closeLastSession(session, lastTimestamp);
+		closeLastOrchestrator(orchestrator, lastTimestamp);
 
 	}
 
-	private Orchestrator initializeOrChangeOrchestrator(Orchestrator orchestrator, Event previousEvent,
-			Event currentEvent) {
+	private Orchestrator initializeOrChangeOrchestrator(Orchestrator orchestrator, int previousEvent,
+			long currentTimestamp) {
 		if (isOrchestratorStartBeforePreviousEvent(orchestrator, previousEvent)) {
-				orchestrator = changeCurrentOrchestrator(orchestrator, previousEvent);
+				orchestrator = changeCurrentOrchestrator(orchestrator, events.getTimestamp(previousEvent));
 		}
-		orchestrator.setInitialization(currentEvent.getTimestamp());
+		orchestrator.setInitialization(currentTimestamp);
 		return orchestrator;
 	}
 
-	private Session initializeOrChangeSession(Session session, Event previousEvent, Event currentEvent) {
+	private Session initializeOrChangeSession(Session session, int previousEvent, int currentEvent) {
 		if (session.getInitialization() == 0L) {
-			session.setInitialization(currentEvent.getTimestamp());
+			session.setInitialization(events.getTimestamp(currentEvent));
 		} else {
 			session = changeCurrentSession(session, currentEvent, previousEvent);
 		}
 		return session;
 	}
 
-	private boolean checkNoSessionToCreate(List<Event> listParadataEvents) {
-		return listParadataEvents.isEmpty() || listParadataEvents.size()==1;
+	private boolean checkNoSessionToCreate() {
+		return events.size() <= 1;
 	}
 
-	private void initializeSessionIdentifier(Session session, Event currentEvent) {
+	private void initializeSessionIdentifier(Session session, int currentEvent) {
 		if (session.getIdentifier().contentEquals(INITIALIZATION_ONGOING)) {// idSession was never set
-			session.setIdentifier(currentEvent.getIdSession());
+			session.setIdentifier(events.getIdSession(currentEvent));
 		}
 	}
 
-	private void closeLastOrchestrator(Orchestrator orchestrator, Event event) {
-		if (isOrchestratorStartButNotFinish(orchestrator)&& orchestrator.getInitialization() < event.getTimestamp()) { //close last orchestrator
-			orchestrator.setValidation(event.getTimestamp());
+	private void closeLastOrchestrator(Orchestrator orchestrator, long lastTimestamp) {
+		if (isOrchestratorStartButNotFinish(orchestrator)&& orchestrator.getInitialization() < lastTimestamp) { //close last orchestrator
+			orchestrator.setValidation(lastTimestamp);
 			addOrchestrator(orchestrator);
 		}
 	}
 
-	private void closeLastSession(Session session, Event event) {
+	private void closeLastSession(Session session, long lastTimestamp) {
 		if (isSessionStartButNotFinish(session)) { //close last session
-			session.setTermination(event.getTimestamp());
+			session.setTermination(lastTimestamp);
 			addSession(session);
 		}
 	}
@@ -178,9 +204,9 @@ public class ParaDataUE {
 		}
 	}
 
-	private boolean isOrchestratorStartBeforePreviousEvent(Orchestrator orchestrator, Event previousEvent) {
-		if (previousEvent == null) return false;
-		return orchestrator.getInitialization() != 0L	&& orchestrator.getInitialization() < previousEvent.getTimestamp();
+	private boolean isOrchestratorStartBeforePreviousEvent(Orchestrator orchestrator, int previousEvent) {
+		if (previousEvent == NO_EVENT) return false;
+		return orchestrator.getInitialization() != 0L	&& orchestrator.getInitialization() < events.getTimestamp(previousEvent);
 	}
 
 	private boolean isOrchestratorStartButNotFinish(Orchestrator orchestrator) {
@@ -191,18 +217,18 @@ public class ParaDataUE {
 		return session.getInitialization() != 0L && session.getTermination() == 0L;
 	}
 
-	private Orchestrator changeCurrentOrchestrator(Orchestrator orchestrator, Event previousEvent) {
-		orchestrator.setValidation(previousEvent.getTimestamp());
+	private Orchestrator changeCurrentOrchestrator(Orchestrator orchestrator, long validationTimestamp) {
+		orchestrator.setValidation(validationTimestamp);
 		addOrchestrator(orchestrator);
 		orchestrator = new Orchestrator(identifier);
 		return orchestrator;
 	}
 
-	private Session changeCurrentSession(Session session, Event currentEvent, Event previousEvent) {
-		if (previousEvent == null) return session;
-		session.setTermination(previousEvent.getTimestamp());
+	private Session changeCurrentSession(Session session, int currentEvent, int previousEvent) {
+		if (previousEvent == NO_EVENT) return session;
+		session.setTermination(events.getTimestamp(previousEvent));
 		addSession(session);
-		session = new Session(currentEvent.getIdSession(), currentEvent.getTimestamp(), 0L);
+		session = new Session(events.getIdSession(currentEvent), events.getTimestamp(currentEvent), 0L);
 		return session;
 	}
 
@@ -212,10 +238,10 @@ public class ParaDataUE {
 	 */
 	public void setSurveyValidationDateTimeStamp(String validationParadataObjectId) {
 		long maxTimestamp = 0;
-		for(Event event : this.events){
-			if(event.getIdParadataObject().equals(validationParadataObjectId) && event.getTimestamp() >= maxTimestamp) {
-				this.surveyValidationDateTimeStamp = event.getTimestamp();
-				maxTimestamp = event.getTimestamp();
+		for (int i = 0; i < events.size(); i++) {
+			if (events.getIdParadataObject(i).equals(validationParadataObjectId) && events.getTimestamp(i) >= maxTimestamp) {
+				this.surveyValidationDateTimeStamp = events.getTimestamp(i);
+				maxTimestamp = events.getTimestamp(i);
 			}
 		}
 	}
@@ -0,0 +1,85 @@
+package fr.insee.kraftwerk.core.extradata.paradata;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Paradata events of one survey unit, stored column by column : primitive timestamps,
+ * and paradata object and session identifiers shared between events.
+ * Takes much less memory than one Event object per event for respondents with many events.
+ */
+public class ParadataEvents {
+
+	private static final int INITIAL_CAPACITY = 64;
+
+	private long[] timestamps = new long[INITIAL_CAPACITY];
+	private String[] idParadataObjects = new String[INITIAL_CAPACITY];
+	private String[] idSessions = new String[INITIAL_CAPACITY];
+	private int size = 0;
+
+	public void add(long timestamp, String idParadataObject, String idSession) {
+		if (size == timestamps.length) {
+			int capacity = timestamps.length * 2;
+			timestamps = Arrays.copyOf(timestamps, capacity);
+			idParadataObjects = Arrays.copyOf(idParadataObjects, capacity);
+			idSessions = Arrays.copyOf(idSessions, capacity);
+		}
+		timestamps[size] = timestamp;
+		idParadataObjects[size] = idParadataObject;
+		idSessions[size] = idSession;
+		size++;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public long getTimestamp(int index) {
+		return timestamps[index];
+	}
+
+	public String getIdParadataObject(int index) {
+		return idParadataObjects[index];
+	}
+
+	public String getIdSession(int index) {
+		return idSessions[index];
+	}
+
+	/**
+	 * Sort events by timestamp then paradata object, and remove duplicated events (same timestamp and paradata object).
+	 * The sort is stable, so the first event read is kept among duplicates.
+	 */
+	public void sortAndRemoveDuplicates() {
+		Integer[] order = new Integer[size];
+		for (int i = 0; i < size; i++) {
+			order[i] = i;
+		}
+		Arrays.sort(order, Comparator.<Integer>comparingLong(i -> timestamps[i])
+				.thenComparing(i -> idParadataObjects[i]));
+
+		long[] sortedTimestamps = new long[size];
+		String[] sortedIdParadataObjects = new String[size];
+		String[] sortedIdSessions = new String[size];
+		int sortedSize = 0;
+		for (int i : order) {
+			if (sortedSize > 0 && sortedTimestamps[sortedSize - 1] == timestamps[i]
+					&& sortedIdParadataObjects[sortedSize - 1].equals(idParadataObjects[i])) {
+				continue;
+			}
+			sortedTimestamps[sortedSize] = timestamps[i];
+			sortedIdParadataObjects[sortedSize] = idParadataObjects[i];
+			sortedIdSessions[sortedSize] = idSessions[i];
+			sortedSize++;
+		}
+		timestamps = Arrays.copyOf(sortedTimestamps, sortedSize);
+		idParadataObjects = Arrays.copyOf(sortedIdParadataObjects, sortedSize);
+		idSessions = Arrays.copyOf(sortedIdSessions, sortedSize);
+		size = sortedSize;
+	}
+
+}
@@ -1,6 +1,10 @@
 package fr.insee.kraftwerk.core.extradata.paradata;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import fr.insee.kraftwerk.core.Constants;
+import fr.insee.kraftwerk.core.exceptions.KraftwerkException;
 import fr.insee.kraftwerk.core.exceptions.NullException;
 import fr.insee.bpm.metadata.model.Group;
 import fr.insee.bpm.metadata.model.Variable;
@@ -8,53 +12,66 @@ import fr.insee.bpm.metadata.model.VariableType;
 import fr.insee.bpm.metadata.model.VariablesMap;
 import fr.insee.kraftwerk.core.rawdata.QuestionnaireData;
 import fr.insee.kraftwerk.core.rawdata.SurveyRawData;
+import fr.insee.kraftwerk.core.utils.ConcurrentTasks;
 import fr.insee.kraftwerk.core.utils.files.FileUtilsInterface;
 import lombok.extern.log4j.Log4j2;
-import org.json.simple.JSONArray;
-import org.json.simple.JSONObject;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Path;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Log4j2
 public class ParadataParser {
 
-	private static final String NEW_VALUE = "newValue";
+	private static final String COLLECT_ORCHESTRATOR = "orchestrator-collect";
+	private static final JsonFactory JSON_FACTORY = new JsonFactory();
 
 	private final List<String> inputFields = Arrays.asList("RADIO", "CHECKBOX", "INPUT", "DATEPICKER");
 
 	private final FileUtilsInterface fileUtilsInterface;
 
+	/* Paradata object ids are the same for all survey units : one instance of each is kept */
+	private final Map<String, String> idParadataObjects = new ConcurrentHashMap<>();
+
 	public ParadataParser(FileUtilsInterface fileUtilsInterface) {
 		this.fileUtilsInterface = fileUtilsInterface;
 	}
 
+	/**
+	 * Parse the paradata files of the survey units of the given data, and add the paradata variables to it.
+	 * Files are parsed concurrently by {@link Constants#getParadataWorkers()} workers, then integrated into the
+	 * data in the order of the files list, so that the result doesn't depend on the number of workers.
+	 */
 	public void parseParadata(Paradata paradata, SurveyRawData surveyRawData) throws NullException {
 
-		log.info("Paradata parser being implemented for Survey Unit : {} !",
-				surveyRawData.getIdSurveyUnits().toString());
+		log.info("Paradata parser being implemented for {} survey units", surveyRawData.getIdSurveyUnits().size());
 		Path filePath = paradata.getFilepath();
 		if (filePath == null)
 			throw new NullException("JSONFile not defined");
 
 		if (!filePath.toString().contentEquals("")) {
 			try {
+				// Get all filepaths for each ParadataUE
+				Set<String> idSurveyUnits = new HashSet<>(surveyRawData.getIdSurveyUnits());
+				List<Path> paradataFiles = fileUtilsInterface.listFilePaths(filePath.toString()).stream()
+						.map(Path::of)
+						.filter(paradataFile -> idSurveyUnits.contains(getIdFromFilename(paradataFile)))
+						.toList();
 				// Parse each ParaDataUE
+				List<ParaDataUE> parsedParaDataUEs = parseParadataUEs(paradataFiles, surveyRawData);
+				Map<String, QuestionnaireData> questionnairesById = new HashMap<>();
+				for (QuestionnaireData questionnaire : surveyRawData.getQuestionnaires()) {
+					questionnairesById.putIfAbsent(questionnaire.getIdentifier(), questionnaire);
+				}
 				List<ParaDataUE> listParaDataUE = new ArrayList<>();
-				// Get all filepaths for each ParadataUE
-				for (String fileParaDataPath : fileUtilsInterface.listFilePaths(filePath.toString()).stream().filter(
-						s -> surveyRawData.getIdSurveyUnits().contains(getIdFromFilename(Path.of(s)))
-				).toList()) {
-					ParaDataUE paraDataUE = new ParaDataUE();
-					paraDataUE.setFilepath(Path.of(fileParaDataPath));
-					parseParadataUE(paraDataUE, surveyRawData);
-					paraDataUE.sortEvents();
-					paraDataUE.setSurveyValidationDateTimeStamp(Constants.PARADATA_SURVEY_VALIDATION_EVENT_NAME);
-					if (paraDataUE.getEvents().size() > 2) {
-						paraDataUE.createOrchestratorsAndSessions();
-						integrateParaDataVariablesIntoUE(paraDataUE, surveyRawData);
+				for (ParaDataUE paraDataUE : parsedParaDataUEs) {
+					if (paraDataUE.getEventsCount() > 2) {
+						integrateParaDataVariablesIntoUE(paraDataUE, surveyRawData, questionnairesById);
 						listParaDataUE.add(paraDataUE);
 					}
 				}
@@ -65,103 +82,165 @@ public class ParadataParser {
 		}
 	}
 
+	/**
+	 * Parse the paradata files on a bounded pool of workers.
+	 * @return the parsed ParaDataUEs, in the order of the files
+	 * @throws NullException if a file can't be read, as in sequential parsing
+	 */
+	private List<ParaDataUE> parseParadataUEs(List<Path> paradataFiles, SurveyRawData surveyRawData) throws NullException {
+		// Read only by the workers
+		Set<String> variableNames = new HashSet<>(surveyRawData.getMetadataModel().getVariables().getVariableNames());
+		int workers = Math.min(Constants.getParadataWorkers(), paradataFiles.size());
+		if (workers <= 1) {
+			List<ParaDataUE> paraDataUEs = new ArrayList<>(paradataFiles.size());
+			for (Path paradataFile : paradataFiles) {
+				paraDataUEs.add(parseParadataUE(paradataFile, variableNames));
+			}
+			return paraDataUEs;
+		}
+		log.info("Parsing {} paradata files with {} workers", paradataFiles.size(), workers);
+		List<Callable<ParaDataUE>> parsings = new ArrayList<>(paradataFiles.size());
+		for (Path paradataFile : paradataFiles) {
+			parsings.add(() -> parseParadataUE(paradataFile, variableNames));
+		}
+		try {
+			return ConcurrentTasks.invokeAll(parsings, workers, "paradata parsing");
+		} catch (NullException e) {
+			throw e;
+		} catch (KraftwerkException e) {
+			throw new NullException(e.getMessage());
+		}
+	}
+
+	/* Parsing of one file, independent of the other files and of the survey data */
+	private ParaDataUE parseParadataUE(Path paradataFile, Set<String> variableNames) throws NullException {
+		ParaDataUE paraDataUE = new ParaDataUE();
+		paraDataUE.setFilepath(paradataFile);
+		parseParadataUE(paraDataUE, variableNames);
+		paraDataUE.sortEvents();
+		paraDataUE.setSurveyValidationDateTimeStamp(Constants.PARADATA_SURVEY_VALIDATION_EVENT_NAME);
+		if (paraDataUE.getEventsCount() > 2) {
+			paraDataUE.createOrchestratorsAndSessions();
+		}
+		return paraDataUE;
+	}
+
 	private String getIdFromFilename(Path file) {
 		String[] splitFilename = file.getFileName().toString().split("\\.");
 		return splitFilename[splitFilename.length - 2];
 	}
 
-	private void parseParadataUE(ParaDataUE paradataUE, SurveyRawData surveyRawData) throws NullException {
-		// To convert to an entire folder instead of a single file
-		VariablesMap variablesMap = surveyRawData.getMetadataModel().getVariables();
-		JSONObject jsonObject = getParadataFromJson(paradataUE);
-		// Get Identifier
-		String identifier = (String) jsonObject.get("idSu");
-		paradataUE.setIdentifier(identifier);
-
-		// Now we get each event recorded
-		ArrayList<Event> events = new ArrayList<>();
-		JSONArray collectedEvents = (JSONArray) jsonObject.get("events");
-		for (Object collectedEvent : collectedEvents) {
-			JSONArray subParadata = (JSONArray) collectedEvent;
-			for (int j = 0; j < subParadata.size(); j++) {
-				parseEventFromParadataUE(paradataUE, variablesMap, identifier, events, subParadata, j);
+	/**
+	 * Read the paradata file of one survey unit with a streaming parser, keeping only the collect events.
+	 * Neither the JSON tree nor the events values are kept in memory.
+	 */
+	private void parseParadataUE(ParaDataUE paradataUE, Set<String> variableNames) throws NullException {
+		Path filePath = paradataUE.getFilepath();
+		ParadataEvents events = new ParadataEvents();
+		// Session ids are shared by the events of a session
+		Map<String, String> idSessions = new HashMap<>();
+		try (InputStream inputStream = fileUtilsInterface.readFile(filePath.toString())) {
+			if (inputStream == null)
+				throw new NullException("Error reading file - NullPointer");
+			try (JsonParser jsonParser = JSON_FACTORY.createParser(inputStream)) {
+				if (jsonParser.nextToken() != JsonToken.START_OBJECT)
+					throw new NullException("Error reading file - JSON object expected");
+				while (jsonParser.nextToken() == JsonToken.FIELD_NAME) {
+					String fieldName = jsonParser.currentName();
+					jsonParser.nextToken();
+					switch (fieldName) {
+						case "idSu" -> paradataUE.setIdentifier(stringValue(jsonParser));
+						case "events" -> parseEvents(jsonParser, paradataUE, variableNames, events, idSessions);
+						default -> jsonParser.skipChildren();
+					}
+				}
 			}
+		} catch (IOException e) {
+			throw new NullException("Can't read JSON file - " + e.getClass() + " " + e.getMessage());
 		}
 		paradataUE.setEvents(events);
 	}
 
-	private void parseEventFromParadataUE(ParaDataUE paradataUE, VariablesMap variablesMap, String identifier,
-			ArrayList<Event> events, JSONArray subParadata, int j) {
-		JSONObject collectedEvent = (JSONObject) subParadata.get(j);
-		if (isCollectedParadata(collectedEvent)) { // check that paradata are linked to collect (not visualisation or
-													// readonly))
-
-			Event event = new Event(identifier);
-			event.setIdParadataObject((String) collectedEvent.get("idParadataObject"));
-			event.setIdSession((String) collectedEvent.get("idSession"));
-			String timestamp = "timestamp";
-			event.setTimestamp((long) collectedEvent.get(timestamp));
-
-			ParadataVariable paradataVariable = new ParadataVariable(identifier);
-			paradataVariable.setTimestamp((long) collectedEvent.get(timestamp));
-			paradataVariable.setValue(collectedEvent.get(NEW_VALUE));
-
-			if (variablesMap.getVariableNames().contains(event.getIdParadataObject())) {
-				paradataVariable.setVariableName(event.getIdParadataObject().toUpperCase());
-				// Change value -> not String dependant
-				Object newValue = getValue(new JSONObject(collectedEvent).get(NEW_VALUE));
-				event.setValue(newValue);
-				paradataVariable.setValue(newValue);
-				paradataUE.addParadataVariable(paradataVariable);
-
-			}
-			if (inputFields.stream().anyMatch(event.getIdParadataObject().toUpperCase()::contains)) {
-				paradataVariable.setVariableName((String) collectedEvent.get("responseName"));
-				paradataUE.addParadataVariable(paradataVariable);
+	/* Events are recorded in an array of arrays of events */
+	private void parseEvents(JsonParser jsonParser, ParaDataUE paradataUE, Set<String> variableNames,
+							 ParadataEvents events, Map<String, String> idSessions) throws IOException, NullException {
+		if (jsonParser.currentToken() != JsonToken.START_ARRAY) {
+			jsonParser.skipChildren();
+			return;
+		}
+		while (jsonParser.nextToken() != JsonToken.END_ARRAY) {
+			if (jsonParser.currentToken() != JsonToken.START_ARRAY) {
+				jsonParser.skipChildren();
+				continue;
 			}
-			if (event.getIdParadataObject().toUpperCase().contains(Constants.FILTER_RESULT_PREFIX)) {
-				paradataVariable.setVariableName(event.getIdParadataObject());
-				paradataUE.addParadataVariable(paradataVariable);
+			while (jsonParser.nextToken() != JsonToken.END_ARRAY) {
+				if (jsonParser.currentToken() == JsonToken.START_OBJECT) {
+					parseEvent(jsonParser, paradataUE, variableNames, events, idSessions);
+				} else {
+					jsonParser.skipChildren();
+				}
 			}
-			events.add(event);
 		}
 	}
 
-	private boolean isCollectedParadata(JSONObject collectedEvent) {
-		return collectedEvent.containsKey("idOrchestrator")
-				&& collectedEvent.get("idOrchestrator").equals("orchestrator-collect");
-	}
+	private void parseEvent(JsonParser jsonParser, ParaDataUE paradataUE, Set<String> variableNames,
+							ParadataEvents events, Map<String, String> idSessions) throws IOException, NullException {
+		String idOrchestrator = null;
+		String idParadataObject = null;
+		String idSession = null;
+		String responseName = null;
+		Long timestamp = null;
+		while (jsonParser.nextToken() == JsonToken.FIELD_NAME) {
+			String fieldName = jsonParser.currentName();
+			jsonParser.nextToken();
+			switch (fieldName) {
+				case "idOrchestrator" -> idOrchestrator = stringValue(jsonParser);
+				case "idParadataObject" -> idParadataObject = stringValue(jsonParser);
+				case "idSession" -> idSession = stringValue(jsonParser);
+				case "responseName" -> responseName = stringValue(jsonParser);
+				case "timestamp" -> timestamp = longValue(jsonParser);
+				default -> jsonParser.skipChildren();
+			}
+		}
+		// check that paradata are linked to collect (not visualisation or readonly)
+		if (!COLLECT_ORCHESTRATOR.equals(idOrchestrator)) {
+			return;
+		}
+		if (idParadataObject == null || timestamp == null) {
+			throw new NullException("Invalid paradata event in file %s".formatted(paradataUE.getFilepath()));
+		}
+		idParadataObject = idParadataObjects.computeIfAbsent(idParadataObject, id -> id);
+		idSession = idSession == null ? null : idSessions.computeIfAbsent(idSession, id -> id);
+		events.add(timestamp, idParadataObject, idSession);
 
-	private JSONObject getParadataFromJson(ParaDataUE paradataUE) throws NullException {
-		Path filePath = paradataUE.getFilepath();
-		JSONObject jsonObject;
-		try {
-			jsonObject = (JSONObject) Constants.readJsonSimple(filePath, fileUtilsInterface);
-		} catch (Exception e) {
-			throw new NullException("Can't read JSON file - " + e.getClass() + " " + e.getMessage());
+		String upperCaseIdParadataObject = idParadataObject.toUpperCase();
+		if (variableNames.contains(idParadataObject)) {
+			paradataUE.addParadataVariable(upperCaseIdParadataObject);
+		}
+		if (inputFields.stream().anyMatch(upperCaseIdParadataObject::contains)) {
+			paradataUE.addParadataVariable(responseName);
+		}
+		if (upperCaseIdParadataObject.contains(Constants.FILTER_RESULT_PREFIX)) {
+			paradataUE.addParadataVariable(idParadataObject);
 		}
-		if (jsonObject == null)
-			throw new NullException("Error reading file - NullPointer");
-		return jsonObject;
 	}
 
-	private Object getValue(Object object) {
-		if (object instanceof String ) {
-			return object;
-		} else if (object instanceof Long) {
-			return object.toString();
-		} else if (object instanceof JSONArray jsonArray) {
-			List<String> values = new ArrayList<>();
-			for (Object jsonValue : jsonArray) {
-				values.add((String) getValue(jsonValue));
-			}
-			return values;
-		} else if (object instanceof Integer) {
-			return object;
+	/* Value of a text field, null (and skipped) if the value is an object or an array */
+	private static String stringValue(JsonParser jsonParser) throws IOException {
+		if (jsonParser.currentToken().isStructStart()) {
+			jsonParser.skipChildren();
+			return null;
 		}
+		return jsonParser.getValueAsString();
+	}
 
+	/* Value of a numeric field, null (and skipped) if the value is not a number */
+	private static Long longValue(JsonParser jsonParser) throws IOException {
+		if (jsonParser.currentToken().isNumeric()) {
+			return jsonParser.getLongValue();
+		}
+		jsonParser.skipChildren();
 		return null;
-
 	}
 
 	/**
@@ -169,12 +248,14 @@ public class ParadataParser {
 	 *
 	 * @param paraDataUE    the paradata
 	 * @param surveyRawData dataset where the paradata will be saved
+	 * @param questionnairesById questionnaires of the dataset, by identifier
 	 */
-	private void integrateParaDataVariablesIntoUE(ParaDataUE paraDataUE, SurveyRawData surveyRawData) {
+	private void integrateParaDataVariablesIntoUE(ParaDataUE paraDataUE, SurveyRawData surveyRawData,
+												  Map<String, QuestionnaireData> questionnairesById) {
 		VariablesMap variablesMap = surveyRawData.getMetadataModel().getVariables();
 		Group rootGroup = surveyRawData.getMetadataModel().getRootGroup();
 
-		Set<String> paradataVariables = paraDataUE.getParaDataVariables().keySet();
+		Set<String> paradataVariables = paraDataUE.getParadataVariableNames();
 		Variable variableDuree = new Variable(Constants.LENGTH_ORCHESTRATORS_NAME,rootGroup,
 				VariableType.STRING, "30");
 		Variable variableDureeBrute = new Variable(
@@ -221,10 +302,7 @@ public class ParadataParser {
 		long lengthOrchestrators = paraDataUE.createLengthOrchestratorsVariable();
 		long lengthSessions = paraDataUE.createLengthSessionsVariable();
 
-		QuestionnaireData questionnaire = surveyRawData.getQuestionnaires().stream()
-				.filter(questionnaireToSearch -> paraDataUE.getOrchestrators().getFirst().getIdentifier()
-						.equals(questionnaireToSearch.getIdentifier()))
-				.findAny().orElse(null);
+		QuestionnaireData questionnaire = questionnairesById.get(paraDataUE.getOrchestrators().getFirst().getIdentifier());
 		
 		if (questionnaire == null)	return;
 		
@@ -247,7 +325,7 @@ public class ParadataParser {
 		for (String variableName : paradataVariables) {
 			if (variableName.contentEquals("PRENOM")) {
 				questionnaire.getAnswers().putValue(Constants.PARADATA_VARIABLES_PREFIX + variableName,
-						String.valueOf(paraDataUE.getParadataVariable(variableName).size()));
+						String.valueOf(paraDataUE.getParadataVariableCount(variableName)));
 			}
 		}
 
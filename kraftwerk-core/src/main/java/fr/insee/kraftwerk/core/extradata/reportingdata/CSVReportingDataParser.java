@@ -41,20 +41,15 @@ public class CSVReportingDataParser extends ReportingDataParser {
 					String rowState = nextRecord[0];
 					String rowTimestamp = nextRecord[1];
 					State state = new State(rowState, convertToTimestamp(rowTimestamp));
-					if (reportingData.containsReportingDataUE(rowIdentifier)) {
-						ReportingDataUE reportingDataUE1 = reportingData.getListReportingDataUE().stream().filter(
-										reportingDataUEToSearch -> rowIdentifier.equals(reportingDataUEToSearch.getIdentifier()))
-								.findAny().orElse(null);
-						if (reportingDataUE1 != null) {
-							reportingDataUE1.addState(state);
-							reportingDataUE1.sortStates();
-						}
-						continue;
+					ReportingDataUE reportingDataUE = reportingData.getReportingDataUE(rowIdentifier);
+					if (reportingDataUE == null) {
+						reportingDataUE = new ReportingDataUE(rowIdentifier);
+						reportingData.addReportingDataUE(reportingDataUE);
 					}
-					ReportingDataUE reportingDataUE = new ReportingDataUE(rowIdentifier);
 					reportingDataUE.addState(state);
-					reportingData.addReportingDataUE(reportingDataUE);
 				}
+				// States are sorted once all the rows are read
+				reportingData.getListReportingDataUE().forEach(ReportingDataUE::sortStates);
 				integrateReportingDataIntoUE(data, reportingData, withAllReportingData, fileUtilsInterface);
 			} else {
 				log.error("Following CSV file is malformed : {}", filePath);
@@ -1,37 +1,65 @@
 package fr.insee.kraftwerk.core.extradata.reportingdata;
 
-import lombok.AllArgsConstructor;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Getter
 @Setter
-@AllArgsConstructor
 public class ReportingData {
 
   private final Path filepath;
-  
-  private final List<ReportingDataUE> listReportingDataUE ;
+
+  private final List<ReportingDataUE> listReportingDataUE = new ArrayList<>();
+
+  /** Index of the survey units by identifier, the first one read is kept if an identifier is duplicated.
+   * Survey units are only added through {@link #addReportingDataUE}, which keeps it up to date. */
+  @Getter(AccessLevel.NONE)
+  private final Map<String, ReportingDataUE> reportingDataUEById = new HashMap<>();
+
+  public ReportingData(Path filepath, List<ReportingDataUE> listReportingDataUE) {
+    this.filepath = filepath;
+    putReportingDataUE(listReportingDataUE);
+  }
+
+  /**
+   * @return the survey units, in the order they were added. Read-only : use {@link #addReportingDataUE} to add one.
+   */
+  public List<ReportingDataUE> getListReportingDataUE() {
+    return Collections.unmodifiableList(listReportingDataUE);
+  }
 
   public void addReportingDataUE(ReportingDataUE reportingDataUE) {
 	  if (reportingDataUE != null) {
         this.listReportingDataUE.add(reportingDataUE);
+        if (reportingDataUE.getIdentifier() != null) {
+          reportingDataUEById.putIfAbsent(reportingDataUE.getIdentifier(), reportingDataUE);
+        }
       }
   }
-  
+
   public void putReportingDataUE(List<ReportingDataUE> reportingDataUEs) {
     for (ReportingDataUE ue : reportingDataUEs){
       addReportingDataUE(ue);
     }
   }
-  
+
   public boolean containsReportingDataUE(String identifier) {
-    ReportingDataUE result = this.listReportingDataUE.stream()
-      .filter(reportingDataUE -> identifier.equals(reportingDataUE.getIdentifier()))
-      .findAny().orElse(null);
-    return (result != null);
+    return getReportingDataUE(identifier) != null;
+  }
+
+  /**
+   * @param identifier survey unit identifier
+   * @return the reporting data of the survey unit, null if there is none
+   */
+  public ReportingDataUE getReportingDataUE(String identifier) {
+    return reportingDataUEById.get(identifier);
   }
 }
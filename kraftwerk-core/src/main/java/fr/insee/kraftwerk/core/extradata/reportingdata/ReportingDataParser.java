@@ -5,6 +5,7 @@ import fr.insee.bpm.metadata.model.Group;
 import fr.insee.bpm.metadata.model.Variable;
 import fr.insee.bpm.metadata.model.VariableType;
 import fr.insee.kraftwerk.core.Constants;
+import fr.insee.kraftwerk.core.rawdata.GroupInstance;
 import fr.insee.kraftwerk.core.rawdata.QuestionnaireData;
 import fr.insee.kraftwerk.core.rawdata.SurveyRawData;
 import fr.insee.kraftwerk.core.utils.files.FileUtilsInterface;
@@ -15,7 +16,9 @@ import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Log4j2
 public abstract class ReportingDataParser {
@@ -145,14 +148,21 @@ public abstract class ReportingDataParser {
 	private void addReportingValues(SurveyRawData surveyRawData, ReportingData reportingData,
 			boolean withAllReportingData) {
 		List<String> missingQuestionnaireIds = new ArrayList<>();
-		for (int i = 0; i < reportingData.getListReportingDataUE().size(); i++) {
-			ReportingDataUE reportingDataUE = reportingData.getListReportingDataUE().get(i);
-			QuestionnaireData questionnaire = surveyRawData.getQuestionnaires().stream()
-					.filter(questionnaireToSearch -> reportingDataUE.getIdentifier()
-							.equals(questionnaireToSearch.getIdentifier()))
-					.findAny().orElse(null);
+		// Questionnaires indexed by identifier, to join the reporting data in one pass
+		Map<String, QuestionnaireData> questionnairesById = new HashMap<>();
+		for (QuestionnaireData questionnaire : surveyRawData.getQuestionnaires()) {
+			if (questionnaire.getIdentifier() != null) {
+				questionnairesById.putIfAbsent(questionnaire.getIdentifier(), questionnaire);
+			}
+		}
+		for (ReportingDataUE reportingDataUE : reportingData.getListReportingDataUE()) {
+			QuestionnaireData questionnaire = reportingDataUE.getIdentifier() == null ? null
+					: questionnairesById.get(reportingDataUE.getIdentifier());
 			if (questionnaire != null || withAllReportingData) {
-				addReportingDataUEToQuestionnaire(surveyRawData, reportingDataUE, questionnaire, missingQuestionnaireIds);
+				questionnaire = addReportingDataUEToQuestionnaire(surveyRawData, reportingDataUE, questionnaire, missingQuestionnaireIds);
+				if (reportingDataUE.getIdentifier() != null) {
+					questionnairesById.putIfAbsent(reportingDataUE.getIdentifier(), questionnaire);
+				}
 			}
 		}
 		// We log the lists of missing questionnaires on one line only
@@ -165,191 +175,144 @@ public abstract class ReportingDataParser {
 		}
 	}
 
-	private void addReportingDataUEToQuestionnaire(SurveyRawData surveyRawData, ReportingDataUE reportingDataUE,
+	/**
+	 * Put the reporting data values of the survey unit in its questionnaire, created if it doesn't exist.
+	 * @return the questionnaire of the survey unit
+	 */
+	private QuestionnaireData addReportingDataUEToQuestionnaire(SurveyRawData surveyRawData, ReportingDataUE reportingDataUE,
 			QuestionnaireData questionnaire, List<String> missingQuestionnaireIds) {
 		if (questionnaire == null) {
-			questionnaire = new QuestionnaireData();
+			questionnaire = new QuestionnaireData(surveyRawData.getDataTables());
 			questionnaire.setIdentifier(reportingDataUE.getIdentifier());
 			surveyRawData.addQuestionnaire(questionnaire);
 			missingQuestionnaireIds.add(reportingDataUE.getIdentifier());
 		}
 		// TODO Find another way than Constants.REPORTING_DATA_PREFIX_NAME +
+		// reportingDataUE.getIdentifier() to fill the identifier field
+		ReportingInstance reportingInstance = new ReportingInstance(questionnaire,
+				Constants.REPORTING_DATA_PREFIX_NAME + reportingDataUE.getIdentifier());
 		if (reportingDataUE.getIdentificationConfiguration() != null){
-			questionnaire.getAnswers().getSubGroup(Constants.REPORTING_DATA_GROUP_NAME)
-					.getInstance(Constants.REPORTING_DATA_PREFIX_NAME + reportingDataUE.getIdentifier())
-					.putValue(Constants.IDENTIFICATION_CONFIGURATION, reportingDataUE.getIdentificationConfiguration());
+			reportingInstance.putValue(Constants.IDENTIFICATION_CONFIGURATION, reportingDataUE.getIdentificationConfiguration());
 		}
-		// reportingDataUE.getIdentifier() to fill the identifier field
 		if (reportingDataUE.getInterviewerId() != null)
-			questionnaire.getAnswers().getSubGroup(Constants.REPORTING_DATA_GROUP_NAME)
-					.getInstance(Constants.REPORTING_DATA_PREFIX_NAME + reportingDataUE.getIdentifier())
-					.putValue(Constants.INTERVIEWER_ID_NAME, reportingDataUE.getInterviewerId());
+			reportingInstance.putValue(Constants.INTERVIEWER_ID_NAME, reportingDataUE.getInterviewerId());
 		if (reportingDataUE.getOrganizationUnitId() != null)
-			questionnaire.getAnswers().getSubGroup(Constants.REPORTING_DATA_GROUP_NAME)
-					.getInstance(Constants.REPORTING_DATA_PREFIX_NAME + reportingDataUE.getIdentifier())
-					.putValue(Constants.ORGANIZATION_UNIT_ID_NAME, reportingDataUE.getOrganizationUnitId());
+			reportingInstance.putValue(Constants.ORGANIZATION_UNIT_ID_NAME, reportingDataUE.getOrganizationUnitId());
 		if (reportingDataUE.getInseeSampleIdentifier() != null) {
-			questionnaire.getAnswers().getSubGroup(Constants.REPORTING_DATA_GROUP_NAME)
-					.getInstance(Constants.REPORTING_DATA_PREFIX_NAME + reportingDataUE.getIdentifier())
-					.putValue(Constants.ADRESS_RGES_NAME, reportingDataUE.getInseeSampleIdentifier().getRges());
-			questionnaire.getAnswers().getSubGroup(Constants.REPORTING_DATA_GROUP_NAME)
-					.getInstance(Constants.REPORTING_DATA_PREFIX_NAME + reportingDataUE.getIdentifier())
-					.putValue(Constants.ADRESS_NUMFA_NAME, reportingDataUE.getInseeSampleIdentifier().getNumfa());
-			questionnaire.getAnswers().getSubGroup(Constants.REPORTING_DATA_GROUP_NAME)
-					.getInstance(Constants.REPORTING_DATA_PREFIX_NAME + reportingDataUE.getIdentifier())
-					.putValue(Constants.ADRESS_SSECH_NAME, reportingDataUE.getInseeSampleIdentifier().getSsech());
-			questionnaire.getAnswers().getSubGroup(Constants.REPORTING_DATA_GROUP_NAME)
-					.getInstance(Constants.REPORTING_DATA_PREFIX_NAME + reportingDataUE.getIdentifier())
-					.putValue(Constants.ADRESS_LE_NAME, reportingDataUE.getInseeSampleIdentifier().getLe());
-			questionnaire.getAnswers().getSubGroup(Constants.REPORTING_DATA_GROUP_NAME)
-					.getInstance(Constants.REPORTING_DATA_PREFIX_NAME + reportingDataUE.getIdentifier())
-					.putValue(Constants.ADRESS_EC_NAME, reportingDataUE.getInseeSampleIdentifier().getEc());
-			questionnaire.getAnswers().getSubGroup(Constants.REPORTING_DATA_GROUP_NAME)
-					.getInstance(Constants.REPORTING_DATA_PREFIX_NAME + reportingDataUE.getIdentifier())
-					.putValue(Constants.ADRESS_BS_NAME, reportingDataUE.getInseeSampleIdentifier().getBs());
-			questionnaire.getAnswers().getSubGroup(Constants.REPORTING_DATA_GROUP_NAME)
-					.getInstance(Constants.REPORTING_DATA_PREFIX_NAME + reportingDataUE.getIdentifier())
-					.putValue(Constants.ADRESS_NOI_NAME, reportingDataUE.getInseeSampleIdentifier().getNoi());
-			questionnaire.getAnswers().getSubGroup(Constants.REPORTING_DATA_GROUP_NAME)
-					.getInstance(Constants.REPORTING_DATA_PREFIX_NAME + reportingDataUE.getIdentifier())
-					.putValue(Constants.ADRESS_ID_STAT_INSEE,
-							reportingDataUE.getInseeSampleIdentifier().getIdStatInsee());
-			questionnaire.getAnswers().getSubGroup(Constants.REPORTING_DATA_GROUP_NAME)
-					.getInstance(Constants.REPORTING_DATA_PREFIX_NAME + reportingDataUE.getIdentifier())
-					.putValue(Constants.NOGRAP,
-							reportingDataUE.getInseeSampleIdentifier().getNograp());
-			questionnaire.getAnswers().getSubGroup(Constants.REPORTING_DATA_GROUP_NAME)
-					.getInstance(Constants.REPORTING_DATA_PREFIX_NAME + reportingDataUE.getIdentifier())
-					.putValue(Constants.NOGRAP,
-							reportingDataUE.getInseeSampleIdentifier().getNograp());
-			questionnaire.getAnswers().getSubGroup(Constants.REPORTING_DATA_GROUP_NAME)
-					.getInstance(Constants.REPORTING_DATA_PREFIX_NAME + reportingDataUE.getIdentifier())
-					.putValue(Constants.NOLOG,
-							reportingDataUE.getInseeSampleIdentifier().getNolog());
-			questionnaire.getAnswers().getSubGroup(Constants.REPORTING_DATA_GROUP_NAME)
-					.getInstance(Constants.REPORTING_DATA_PREFIX_NAME + reportingDataUE.getIdentifier())
-					.putValue(Constants.NOLE,
-							reportingDataUE.getInseeSampleIdentifier().getNole());
-			questionnaire.getAnswers().getSubGroup(Constants.REPORTING_DATA_GROUP_NAME)
-					.getInstance(Constants.REPORTING_DATA_PREFIX_NAME + reportingDataUE.getIdentifier())
-					.putValue(Constants.AUTRE,
-							reportingDataUE.getInseeSampleIdentifier().getAutre());
+			reportingInstance.putValue(Constants.ADRESS_RGES_NAME, reportingDataUE.getInseeSampleIdentifier().getRges());
+			reportingInstance.putValue(Constants.ADRESS_NUMFA_NAME, reportingDataUE.getInseeSampleIdentifier().getNumfa());
+			reportingInstance.putValue(Constants.ADRESS_SSECH_NAME, reportingDataUE.getInseeSampleIdentifier().getSsech());
+			reportingInstance.putValue(Constants.ADRESS_LE_NAME, reportingDataUE.getInseeSampleIdentifier().getLe());
+			reportingInstance.putValue(Constants.ADRESS_EC_NAME, reportingDataUE.getInseeSampleIdentifier().getEc());
+			reportingInstance.putValue(Constants.ADRESS_BS_NAME, reportingDataUE.getInseeSampleIdentifier().getBs());
+			reportingInstance.putValue(Constants.ADRESS_NOI_NAME, reportingDataUE.getInseeSampleIdentifier().getNoi());
+			reportingInstance.putValue(Constants.ADRESS_ID_STAT_INSEE,
+					reportingDataUE.getInseeSampleIdentifier().getIdStatInsee());
+			reportingInstance.putValue(Constants.NOGRAP,
+					reportingDataUE.getInseeSampleIdentifier().getNograp());
+			reportingInstance.putValue(Constants.NOLOG,
+					reportingDataUE.getInseeSampleIdentifier().getNolog());
+			reportingInstance.putValue(Constants.NOLE,
+					reportingDataUE.getInseeSampleIdentifier().getNole());
+			reportingInstance.putValue(Constants.AUTRE,
+					reportingDataUE.getInseeSampleIdentifier().getAutre());
 		}
 		if (!reportingDataUE.getStates().isEmpty()) {
-			addStates(reportingDataUE, questionnaire);
+			addStates(reportingDataUE, reportingInstance);
 		}
 		if (reportingDataUE.getContactOutcome() != null) {
-			addContactOutcome(reportingDataUE, questionnaire);
+			addContactOutcome(reportingDataUE, reportingInstance);
 		}
 		if (!reportingDataUE.getContactAttempts().isEmpty()) {
-			addContactAttempts(reportingDataUE, questionnaire);
+			addContactAttempts(reportingDataUE, reportingInstance);
 		}
 		if (reportingDataUE.getIdentification() != null) {
-			questionnaire.getAnswers().getSubGroup(Constants.REPORTING_DATA_GROUP_NAME)
-					.getInstance(Constants.REPORTING_DATA_PREFIX_NAME + reportingDataUE.getIdentifier())
-					.putValue(Constants.IDENTIFICATION_NAME, reportingDataUE.getIdentification().getIdentification());
-			questionnaire.getAnswers().getSubGroup(Constants.REPORTING_DATA_GROUP_NAME)
-					.getInstance(Constants.REPORTING_DATA_PREFIX_NAME + reportingDataUE.getIdentifier())
-					.putValue(Constants.ACCESS_NAME, reportingDataUE.getIdentification().getAccess());
-			questionnaire.getAnswers().getSubGroup(Constants.REPORTING_DATA_GROUP_NAME)
-					.getInstance(Constants.REPORTING_DATA_PREFIX_NAME + reportingDataUE.getIdentifier())
-					.putValue(Constants.SITUATION_NAME, reportingDataUE.getIdentification().getSituation());
-			questionnaire.getAnswers().getSubGroup(Constants.REPORTING_DATA_GROUP_NAME)
-					.getInstance(Constants.REPORTING_DATA_PREFIX_NAME + reportingDataUE.getIdentifier())
-					.putValue(Constants.CATEGORY_NAME, reportingDataUE.getIdentification().getCategory());
-			questionnaire.getAnswers().getSubGroup(Constants.REPORTING_DATA_GROUP_NAME)
-					.getInstance(Constants.REPORTING_DATA_PREFIX_NAME + reportingDataUE.getIdentifier())
-					.putValue(Constants.OCCUPANT_NAME, reportingDataUE.getIdentification().getOccupant());
-			questionnaire.getAnswers().getSubGroup(Constants.REPORTING_DATA_GROUP_NAME)
-					.getInstance(Constants.REPORTING_DATA_PREFIX_NAME + reportingDataUE.getIdentifier())
-					.putValue(Constants.INDIVIDUAL_STATUS, reportingDataUE.getIdentification().getIndividualStatus());
-			questionnaire.getAnswers().getSubGroup(Constants.REPORTING_DATA_GROUP_NAME)
-					.getInstance(Constants.REPORTING_DATA_PREFIX_NAME + reportingDataUE.getIdentifier())
-					.putValue(Constants.INTERVIEWER_CAN_PROCESS, reportingDataUE.getIdentification().getInterviewerCanProcess());
-			questionnaire.getAnswers().getSubGroup(Constants.REPORTING_DATA_GROUP_NAME)
-					.getInstance(Constants.REPORTING_DATA_PREFIX_NAME + reportingDataUE.getIdentifier())
-					.putValue(Constants.OUTCOME_SPOTTING, reportingDataUE.getIdentification().getOutcomeSpotting(reportingDataUE.getIdentificationConfiguration()));
+			reportingInstance.putValue(Constants.IDENTIFICATION_NAME, reportingDataUE.getIdentification().getIdentification());
+			reportingInstance.putValue(Constants.ACCESS_NAME, reportingDataUE.getIdentification().getAccess());
+			reportingInstance.putValue(Constants.SITUATION_NAME, reportingDataUE.getIdentification().getSituation());
+			reportingInstance.putValue(Constants.CATEGORY_NAME, reportingDataUE.getIdentification().getCategory());
+			reportingInstance.putValue(Constants.OCCUPANT_NAME, reportingDataUE.getIdentification().getOccupant());
+			reportingInstance.putValue(Constants.INDIVIDUAL_STATUS, reportingDataUE.getIdentification().getIndividualStatus());
+			reportingInstance.putValue(Constants.INTERVIEWER_CAN_PROCESS, reportingDataUE.getIdentification().getInterviewerCanProcess());
+			reportingInstance.putValue(Constants.OUTCOME_SPOTTING, reportingDataUE.getIdentification().getOutcomeSpotting(reportingDataUE.getIdentificationConfiguration()));
 
 		}
 		if (!reportingDataUE.getComments().isEmpty()) {
-			addComments(reportingDataUE, questionnaire);
+			addComments(reportingDataUE, reportingInstance);
 		}
 		if(reportingDataUE.getSurveyValidationDateTimeStamp() != null){
-			questionnaire.getAnswers().getSubGroup(Constants.REPORTING_DATA_GROUP_NAME).getInstance(Constants.REPORTING_DATA_PREFIX_NAME + reportingDataUE.getIdentifier()).putValue(Constants.REPORTING_DATA_SURVEY_VALIDATION_NAME,
+			reportingInstance.putValue(Constants.REPORTING_DATA_SURVEY_VALIDATION_NAME,
 					reportingDataOutputDateFormat.format(LocalDateTime.ofInstant(Instant.ofEpochMilli(reportingDataUE.getSurveyValidationDateTimeStamp()),ZoneId.of("CET"))));
 		}
 		if(reportingDataUE.getReportingDataClosingCause() != null){
-			questionnaire.getAnswers().getSubGroup(Constants.REPORTING_DATA_GROUP_NAME)
-					.getInstance(Constants.REPORTING_DATA_PREFIX_NAME + reportingDataUE.getIdentifier())
-					.putValue(Constants.CLOSING_CAUSE,
-							reportingDataUE.getReportingDataClosingCause().getClosingCauseValue().toString());
-			questionnaire.getAnswers().getSubGroup(Constants.REPORTING_DATA_GROUP_NAME)
-					.getInstance(Constants.REPORTING_DATA_PREFIX_NAME + reportingDataUE.getIdentifier())
-					.putValue(Constants.CLOSING_CAUSE_DATE,
-							reportingDataUE.getReportingDataClosingCause().getClosingCauseDate()
-									.format(DateTimeFormatter.ofPattern(Constants.REPORTING_DATA_OUTPUT_DATE_FORMAT)));
+			reportingInstance.putValue(Constants.CLOSING_CAUSE,
+					reportingDataUE.getReportingDataClosingCause().getClosingCauseValue().toString());
+			reportingInstance.putValue(Constants.CLOSING_CAUSE_DATE,
+					reportingDataUE.getReportingDataClosingCause().getClosingCauseDate()
+							.format(DateTimeFormatter.ofPattern(Constants.REPORTING_DATA_OUTPUT_DATE_FORMAT)));
 		}
+		return questionnaire;
 	}
 
-	private void addContactAttempts(ReportingDataUE reportingDataUE, QuestionnaireData questionnaire) {
+	private void addContactAttempts(ReportingDataUE reportingDataUE, ReportingInstance reportingInstance) {
 		for (int k = 1; k <= reportingDataUE.getContactAttempts().size(); k++) {
-			questionnaire.getAnswers().getSubGroup(Constants.REPORTING_DATA_GROUP_NAME)
-					.getInstance(Constants.REPORTING_DATA_PREFIX_NAME + reportingDataUE.getIdentifier())
-					.putValue(Constants.OUTCOME_ATTEMPT_SUFFIX_NAME + "_" + k, ContactAttemptType
-							.getAttemptType(reportingDataUE.getContactAttempts().get(k - 1).getStatus()));
-			questionnaire.getAnswers().getSubGroup(Constants.REPORTING_DATA_GROUP_NAME)
-					.getInstance(Constants.REPORTING_DATA_PREFIX_NAME + reportingDataUE.getIdentifier())
-					.putValue(Constants.OUTCOME_ATTEMPT_SUFFIX_NAME + "_" + k + DATE_SUFFIX,
-							reportingDataOutputDateFormat.format(reportingDataUE.getContactAttempts().get(k - 1).getDate()));
+			reportingInstance.putValue(Constants.OUTCOME_ATTEMPT_SUFFIX_NAME + "_" + k, ContactAttemptType
+					.getAttemptType(reportingDataUE.getContactAttempts().get(k - 1).getStatus()));
+			reportingInstance.putValue(Constants.OUTCOME_ATTEMPT_SUFFIX_NAME + "_" + k + DATE_SUFFIX,
+					reportingDataOutputDateFormat.format(reportingDataUE.getContactAttempts().get(k - 1).getDate()));
 		}
-		questionnaire.getAnswers().getSubGroup(Constants.REPORTING_DATA_GROUP_NAME)
-				.getInstance(Constants.REPORTING_DATA_PREFIX_NAME + reportingDataUE.getIdentifier())
-				.putValue(Constants.LAST_ATTEMPT_DATE,
-						reportingDataOutputDateFormat.format(getLastContactAttempt(reportingDataUE).getDate()));
+		reportingInstance.putValue(Constants.LAST_ATTEMPT_DATE,
+				reportingDataOutputDateFormat.format(getLastContactAttempt(reportingDataUE).getDate()));
 	}
 
-	private void addContactOutcome(ReportingDataUE reportingDataUE, QuestionnaireData questionnaire) {
+	private void addContactOutcome(ReportingDataUE reportingDataUE, ReportingInstance reportingInstance) {
 		ContactOutcome contactOutcome = reportingDataUE.getContactOutcome();
-		questionnaire.getAnswers().getSubGroup(Constants.REPORTING_DATA_GROUP_NAME)
-				.getInstance(Constants.REPORTING_DATA_PREFIX_NAME + reportingDataUE.getIdentifier())
-				.putValue(Constants.OUTCOME_NAME, contactOutcome.getOutcomeType());
+		reportingInstance.putValue(Constants.OUTCOME_NAME, contactOutcome.getOutcomeType());
 		if (contactOutcome.getDateEndContact() != 0L) {
-			questionnaire.getAnswers().getSubGroup(Constants.REPORTING_DATA_GROUP_NAME)
-					.getInstance(Constants.REPORTING_DATA_PREFIX_NAME + reportingDataUE.getIdentifier())
-					.putValue(Constants.OUTCOME_DATE,
-							reportingDataOutputDateFormat.format(LocalDateTime.ofInstant(Instant.ofEpochMilli(contactOutcome.getDateEndContact()),ZoneId.of("CET"))));
+			reportingInstance.putValue(Constants.OUTCOME_DATE,
+					reportingDataOutputDateFormat.format(LocalDateTime.ofInstant(Instant.ofEpochMilli(contactOutcome.getDateEndContact()),ZoneId.of("CET"))));
 		}
-		questionnaire.getAnswers().getSubGroup(Constants.REPORTING_DATA_GROUP_NAME)
-				.getInstance(Constants.REPORTING_DATA_PREFIX_NAME + reportingDataUE.getIdentifier())
-				.putValue(Constants.NUMBER_ATTEMPTS_NAME,
-						Integer.toString(contactOutcome.getTotalNumberOfContactAttempts()));
+		reportingInstance.putValue(Constants.NUMBER_ATTEMPTS_NAME,
+				Integer.toString(contactOutcome.getTotalNumberOfContactAttempts()));
 	}
 
-	private void addStates(ReportingDataUE reportingDataUE, QuestionnaireData questionnaire) {
+	private void addStates(ReportingDataUE reportingDataUE, ReportingInstance reportingInstance) {
 		for (int k = 1; k <= reportingDataUE.size(); k++) {
-			questionnaire.getAnswers().getSubGroup(Constants.REPORTING_DATA_GROUP_NAME)
-					.getInstance(Constants.REPORTING_DATA_PREFIX_NAME + reportingDataUE.getIdentifier())
-					.putValue(Constants.STATE_SUFFIX_NAME + "_" + k, reportingDataUE.getStates().get(k - 1).getStateType());
-			questionnaire.getAnswers().getSubGroup(Constants.REPORTING_DATA_GROUP_NAME)
-					.getInstance(Constants.REPORTING_DATA_PREFIX_NAME + reportingDataUE.getIdentifier())
-					.putValue(Constants.STATE_SUFFIX_NAME + "_" + k + DATE_SUFFIX,
-							reportingDataOutputDateFormat.format(LocalDateTime.ofInstant(Instant.ofEpochMilli(reportingDataUE.getStates().get(k - 1).getTimestamp()),ZoneId.of("CET"))));
+			reportingInstance.putValue(Constants.STATE_SUFFIX_NAME + "_" + k, reportingDataUE.getStates().get(k - 1).getStateType());
+			reportingInstance.putValue(Constants.STATE_SUFFIX_NAME + "_" + k + DATE_SUFFIX,
+					reportingDataOutputDateFormat.format(LocalDateTime.ofInstant(Instant.ofEpochMilli(reportingDataUE.getStates().get(k - 1).getTimestamp()),ZoneId.of("CET"))));
 		}
-		questionnaire.getAnswers().getSubGroup(Constants.REPORTING_DATA_GROUP_NAME)
-				.getInstance(Constants.REPORTING_DATA_PREFIX_NAME + reportingDataUE.getIdentifier())
-				.putValue(Constants.LAST_STATE_NAME, reportingDataUE.getStates().getLast().getStateType());
+		reportingInstance.putValue(Constants.LAST_STATE_NAME, reportingDataUE.getStates().getLast().getStateType());
 	}
 
-	private void addComments(ReportingDataUE reportingDataUE, QuestionnaireData questionnaire) {
+	private void addComments(ReportingDataUE reportingDataUE, ReportingInstance reportingInstance) {
 		for (int k = 1; k <= reportingDataUE.getComments().size(); k++) {
-			questionnaire.getAnswers().getSubGroup(Constants.REPORTING_DATA_GROUP_NAME)
-					.getInstance(Constants.REPORTING_DATA_PREFIX_NAME + reportingDataUE.getIdentifier())
-					.putValue(Constants.COMMENT_PREFIX_NAME + "_TYPE_" + k,
-							reportingDataUE.getComments().get(k - 1).getType());
-			questionnaire.getAnswers().getSubGroup(Constants.REPORTING_DATA_GROUP_NAME)
-					.getInstance(Constants.REPORTING_DATA_PREFIX_NAME + reportingDataUE.getIdentifier())
-					.putValue(Constants.COMMENT_PREFIX_NAME + "_" + k,
-							reportingDataUE.getComments().get(k - 1).getValue());
+			reportingInstance.putValue(Constants.COMMENT_PREFIX_NAME + "_TYPE_" + k,
+					reportingDataUE.getComments().get(k - 1).getType());
+			reportingInstance.putValue(Constants.COMMENT_PREFIX_NAME + "_" + k,
+					reportingDataUE.getComments().get(k - 1).getValue());
+		}
+	}
+
+	/**
+	 * Reporting data instance of a questionnaire. The group instance adds a row to the reporting data table :
+	 * it is only created when the first value is put, so that survey units without reporting values have no row.
+	 */
+	private static final class ReportingInstance {
+		private final QuestionnaireData questionnaire;
+		private final String instanceId;
+		private GroupInstance groupInstance;
+
+		private ReportingInstance(QuestionnaireData questionnaire, String instanceId) {
+			this.questionnaire = questionnaire;
+			this.instanceId = instanceId;
+		}
+
+		private void putValue(String variableName, String value) {
+			if (groupInstance == null) {
+				groupInstance = questionnaire.getAnswers().getSubGroup(Constants.REPORTING_DATA_GROUP_NAME).getInstance(instanceId);
+			}
+			groupInstance.putValue(variableName, value);
 		}
 	}
 
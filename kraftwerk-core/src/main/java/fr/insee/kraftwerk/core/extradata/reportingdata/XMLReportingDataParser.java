@@ -4,9 +4,8 @@ import fr.insee.kraftwerk.core.Constants;
 import fr.insee.kraftwerk.core.exceptions.KraftwerkException;
 import fr.insee.kraftwerk.core.rawdata.SurveyRawData;
 import fr.insee.kraftwerk.core.utils.files.FileUtilsInterface;
-import fr.insee.kraftwerk.core.utils.xml.XmlFileReader;
+import fr.insee.kraftwerk.core.utils.xml.XmlElementStreamReader;
 import lombok.extern.log4j.Log4j2;
-import nu.xom.Document;
 import nu.xom.Element;
 import nu.xom.Elements;
 
@@ -17,141 +16,127 @@ import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 @Log4j2
 public class XMLReportingDataParser extends ReportingDataParser {
 
-    private Document document;
+    private static final String IDENTIFICATION_CONFIGURATION_ELEMENT = "IdentificationConfiguration";
+    /** Elements read, survey units being either directly in the root element or divided into partitionings. */
+    private static final Set<String> ELEMENT_PATHS = Set.of(
+            IDENTIFICATION_CONFIGURATION_ELEMENT,
+            "SurveyUnits/SurveyUnit",
+            "Partitionings/Partitioning/SurveyUnits/SurveyUnit");
+
+    /** Identification configuration of the file being read, given once outside the survey units. */
+    private String identificationConfiguration;
 
     public XMLReportingDataParser(FileUtilsInterface fileUtilsInterface) {
         super(fileUtilsInterface);
     }
 
+    /**
+     * Read the reporting data file one survey unit at a time, so that memory used by the reading
+     * doesn't depend on the size of the file, then integrate the reporting data into the survey data.
+     */
     public void parseReportingData(ReportingData reportingData, SurveyRawData data, boolean withAllReportingData) throws KraftwerkException {
         Path filePath = reportingData.getFilepath();
-        readFile(filePath);
-        Element root;
-        try {
-            root = this.document.getRootElement();
-        } catch (NullPointerException e) {
+        identificationConfiguration = null;
+
+        // Survey units are only added to the reporting data once the whole file is read
+        List<ReportingDataUE> surveyUnitsRead = new ArrayList<>();
+        boolean fileRead = new XmlElementStreamReader(fileUtilsInterface).readElements(filePath,
+                ELEMENT_PATHS,
+                element -> {
+                    if (IDENTIFICATION_CONFIGURATION_ELEMENT.equals(element.getLocalName())) {
+                        identificationConfiguration = element.getValue();
+                    } else {
+                        surveyUnitsRead.add(readSurveyUnit(element));
+                    }
+                });
+        if (!fileRead) {
+            log.warn("Failed to parse Coleman/Moog answers file: {}", filePath);
             throw new KraftwerkException(500,"Reporting data file not found");
         }
+        log.info("Successfully parsed Coleman/Moog answers file: {}", filePath);
 
-        String identificationConfiguration = getElementValueIfExists(root, "IdentificationConfiguration");
-
-        // Read information on each survey unit
-        List<Element> surveyUnitsNodeList = getSurveyUnitList(root);
-
-        log.info("Read {} surveyUnit in file {}", surveyUnitsNodeList.size(), filePath);
-
-        for (Element surveyUnitElement : surveyUnitsNodeList) {
-            ReportingDataUE reportingDataUE = new ReportingDataUE();
-            Element identifierElement = surveyUnitElement.getFirstChildElement("Id");
-            String identifier = identifierElement.getValue();
-            reportingDataUE.setIdentifier(identifier);
-
+        for (ReportingDataUE reportingDataUE : surveyUnitsRead) {
             reportingDataUE.setIdentificationConfiguration(identificationConfiguration);
+            reportingData.addReportingDataUE(reportingDataUE);
+        }
+        log.info("Read {} surveyUnit in file {}", surveyUnitsRead.size(), filePath);
 
-            Element interviewerIdentifierElement = surveyUnitElement.getFirstChildElement("InterviewerId");
-            String interviewerIdentifier = Constants.REPORTING_DATA_INTERVIEWER_ID_NULL_PLACEHOLDER + identifier;
-            if (interviewerIdentifierElement != null) {
-                interviewerIdentifier = interviewerIdentifierElement.getValue();
-            }
-            reportingDataUE.setInterviewerId(interviewerIdentifier);
-
-            Element organizationalUnitIdentifierElement = surveyUnitElement
-                    .getFirstChildElement("OrganizationalUnitId");
-            if (organizationalUnitIdentifierElement != null) {
-                String organizationalUnitIdentifier = organizationalUnitIdentifierElement.getValue();
-                reportingDataUE.setOrganizationUnitId(organizationalUnitIdentifier);
-            }
-
-            // Get address values
-            getAddress(surveyUnitElement, reportingDataUE);
-
-            Elements stateNodeList = surveyUnitElement.getFirstChildElement("States").getChildElements("State");
-            for (int j = 0; j < stateNodeList.size(); j++) {
-                Element stateElement = stateNodeList.get(j);
-                String type = stateElement.getFirstChildElement("type").getValue().toUpperCase();
-                String timestamp = stateElement.getFirstChildElement("date").getValue();
-                reportingDataUE.addState(new State(type, Long.parseLong(timestamp)));
-            }
-            reportingDataUE.sortStates();
-
-            // Get outcome values
-            Element contactOutcomeElement = surveyUnitElement.getFirstChildElement("ContactOutcome");
-            reportingDataUE.setContactOutcome(new ContactOutcome());
-            if (contactOutcomeElement != null) {
-                reportingDataUE.getContactOutcome()
-                        .setOutcomeType(contactOutcomeElement.getFirstChildElement("outcomeType").getValue());
-                reportingDataUE.getContactOutcome().setDateEndContact(
-                        Long.parseLong(contactOutcomeElement.getFirstChildElement("date").getValue()));
-                reportingDataUE.getContactOutcome().setTotalNumberOfContactAttempts(
-                        Integer.parseInt(contactOutcomeElement.getFirstChildElement("totalNumberOfContactAttempts").getValue()));
-            }
-
-            Element contactAttemptsNode = surveyUnitElement.getFirstChildElement("ContactAttempts");
-            if (contactAttemptsNode != null) {
-                Elements contactAttemptsElements = contactAttemptsNode.getChildElements("ContactAttempt");
-                for (int k = 0; k < contactAttemptsElements.size(); k++) {
-                    Element contactAttemptsElement = contactAttemptsElements.get(k);
-                    String status = contactAttemptsElement.getFirstChildElement("status").getValue().toUpperCase();
-                    String timestamp = contactAttemptsElement.getFirstChildElement("date").getValue();
-                    reportingDataUE.addContactAttempt(new ContactAttempt(status, Long.parseLong(timestamp)));
-                }
-            }
-
-            //Get identification
-            getIdentification(surveyUnitElement, reportingDataUE);
-
-            //Get comments
-            getComments(surveyUnitElement, reportingDataUE);
+        integrateReportingDataIntoUE(data, reportingData, withAllReportingData, fileUtilsInterface);
+    }
 
-            //Get survey validation date from states
-            setSurveyValidationDate(reportingDataUE);
+    private ReportingDataUE readSurveyUnit(Element surveyUnitElement) {
+        ReportingDataUE reportingDataUE = new ReportingDataUE();
+        Element identifierElement = surveyUnitElement.getFirstChildElement("Id");
+        String identifier = identifierElement.getValue();
+        reportingDataUE.setIdentifier(identifier);
 
-            //Get closing cause
-            getClosingCause(surveyUnitElement, reportingDataUE);
+        Element interviewerIdentifierElement = surveyUnitElement.getFirstChildElement("InterviewerId");
+        String interviewerIdentifier = Constants.REPORTING_DATA_INTERVIEWER_ID_NULL_PLACEHOLDER + identifier;
+        if (interviewerIdentifierElement != null) {
+            interviewerIdentifier = interviewerIdentifierElement.getValue();
+        }
+        reportingDataUE.setInterviewerId(interviewerIdentifier);
 
-            reportingData.addReportingDataUE(reportingDataUE);
+        Element organizationalUnitIdentifierElement = surveyUnitElement
+                .getFirstChildElement("OrganizationalUnitId");
+        if (organizationalUnitIdentifierElement != null) {
+            String organizationalUnitIdentifier = organizationalUnitIdentifierElement.getValue();
+            reportingDataUE.setOrganizationUnitId(organizationalUnitIdentifier);
         }
-        integrateReportingDataIntoUE(data, reportingData, withAllReportingData, fileUtilsInterface);
-        this.document = null;
-    }
 
+        // Get address values
+        getAddress(surveyUnitElement, reportingDataUE);
 
-    private void readFile(Path filePath) {
-        XmlFileReader xmlFileReader = new XmlFileReader(fileUtilsInterface);
-        this.document = xmlFileReader.readXmlFile(filePath);
-        if (this.document != null) {
-            log.info("Successfully parsed Coleman/Moog answers file: {}", filePath);
-        } else {
-            log.warn("Failed to parse Coleman/Moog answers file: {}", filePath);
+        Elements stateNodeList = surveyUnitElement.getFirstChildElement("States").getChildElements("State");
+        for (int j = 0; j < stateNodeList.size(); j++) {
+            Element stateElement = stateNodeList.get(j);
+            String type = stateElement.getFirstChildElement("type").getValue().toUpperCase();
+            String timestamp = stateElement.getFirstChildElement("date").getValue();
+            reportingDataUE.addState(new State(type, Long.parseLong(timestamp)));
+        }
+        reportingDataUE.sortStates();
+
+        // Get outcome values
+        Element contactOutcomeElement = surveyUnitElement.getFirstChildElement("ContactOutcome");
+        reportingDataUE.setContactOutcome(new ContactOutcome());
+        if (contactOutcomeElement != null) {
+            reportingDataUE.getContactOutcome()
+                    .setOutcomeType(contactOutcomeElement.getFirstChildElement("outcomeType").getValue());
+            reportingDataUE.getContactOutcome().setDateEndContact(
+                    Long.parseLong(contactOutcomeElement.getFirstChildElement("date").getValue()));
+            reportingDataUE.getContactOutcome().setTotalNumberOfContactAttempts(
+                    Integer.parseInt(contactOutcomeElement.getFirstChildElement("totalNumberOfContactAttempts").getValue()));
         }
-    }
 
-    private List<Element> getSurveyUnitList(Element root) {
-        List<Element> surveyUnitList = new ArrayList<>();
-
-        Element partitioningsNode = root.getFirstChildElement("Partitionings");
-        if (partitioningsNode == null) {
-            // Survey unit list directly in root
-            getSurveyUnitsFromElement(root, surveyUnitList);
-        } else {
-            //  Survey unit list divided into partitionings
-            for (Element partitioningElement : partitioningsNode.getChildElements("Partitioning")) {
-                getSurveyUnitsFromElement(partitioningElement, surveyUnitList);
+        Element contactAttemptsNode = surveyUnitElement.getFirstChildElement("ContactAttempts");
+        if (contactAttemptsNode != null) {
+            Elements contactAttemptsElements = contactAttemptsNode.getChildElements("ContactAttempt");
+            for (int k = 0; k < contactAttemptsElements.size(); k++) {
+                Element contactAttemptsElement = contactAttemptsElements.get(k);
+                String status = contactAttemptsElement.getFirstChildElement("status").getValue().toUpperCase();
+                String timestamp = contactAttemptsElement.getFirstChildElement("date").getValue();
+                reportingDataUE.addContactAttempt(new ContactAttempt(status, Long.parseLong(timestamp)));
             }
         }
 
-        return surveyUnitList;
-    }
+        //Get identification
+        getIdentification(surveyUnitElement, reportingDataUE);
 
-    private void getSurveyUnitsFromElement(Element element, List<Element> surveyUnitList) {
-        Element surveyUnitsNode = element.getFirstChildElement("SurveyUnits");
-        for (Element surveyUnitElement : surveyUnitsNode.getChildElements("SurveyUnit")) {
-            surveyUnitList.add(surveyUnitElement);
-        }
+        //Get comments
+        getComments(surveyUnitElement, reportingDataUE);
+
+        //Get survey validation date from states
+        setSurveyValidationDate(reportingDataUE);
+
+        //Get closing cause
+        getClosingCause(surveyUnitElement, reportingDataUE);
+
+        return reportingDataUE;
     }
 
     private void getAddress(Element surveyUnitElement, ReportingDataUE reportingDataUE) {
@@ -7,6 +7,7 @@ import lombok.Setter;
 import java.nio.file.Path;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 
 @Setter
 @Getter
@@ -20,6 +21,8 @@ public class UserInputs {
 	protected Path vtlInformationLevelsFile;
 	protected String multimodeDatasetName;
 	protected FileUtilsInterface fileUtilsInterface;
+	/** Identifies the processing of these inputs : its temporary VTL scripts are not shared with concurrent processings */
+	protected final String processingId = UUID.randomUUID().toString();
 
 	public UserInputs(Path inputDirectory, FileUtilsInterface fileUtilsInterface) {
 		this.inputDirectory = inputDirectory;
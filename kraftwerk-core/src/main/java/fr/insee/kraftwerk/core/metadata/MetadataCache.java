@@ -0,0 +1,221 @@
+package fr.insee.kraftwerk.core.metadata;
+
+import fr.insee.bpm.metadata.model.CalculatedVariables;
+import fr.insee.bpm.metadata.model.McqVariable;
+import fr.insee.bpm.metadata.model.MetadataModel;
+import fr.insee.bpm.metadata.model.UcqVariable;
+import fr.insee.bpm.metadata.model.Variable;
+import fr.insee.bpm.metadata.model.VariablesMap;
+import fr.insee.kraftwerk.core.Constants;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache of the metadata read from the questionnaire specifications (DDI, Lunatic) or from Genesis.
+ * Keys are built from the content hash of the specification files, so runs on the same questionnaire
+ * get their metadata without parsing the specifications again, and a modified specification is parsed again.
+ * Metadata read from Genesis has no content hash : it is cached for a limited time, as it can be updated by other clients.
+ * Metadata models are completed during the processing (variables added, max length of the data) :
+ * each hit returns a new copy of the cached model.
+ * The caches are LRU bounded by {@link Constants#getMetadataCacheSize()} entries, shared by all processings.
+ */
+public class MetadataCache {
+
+	private static final MetadataCache INSTANCE = new MetadataCache();
+
+	private final Map<String, CachedModel> metadataModels = lruMap();
+	private final Map<String, CalculatedVariables> calculatedVariables = lruMap();
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+
+	MetadataCache() {
+	}
+
+	public static MetadataCache getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * Parser of a specification, called when its result is not in the cache.
+	 */
+	@FunctionalInterface
+	public interface SpecParser<T, E extends Exception> {
+		T parse() throws E;
+	}
+
+	/** Cached model, expired after the given time (in ms since epoch) */
+	private record CachedModel(MetadataModel metadataModel, long expiryTime) {
+		boolean isExpired() {
+			return System.currentTimeMillis() >= expiryTime;
+		}
+	}
+
+	/**
+	 * @return the hexadecimal SHA-256 hash of the content, to build cache keys.
+	 */
+	public static String contentHash(byte[] content) {
+		try {
+			return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Get a copy of the cached metadata model, parsing it if it is not in the cache.
+	 *
+	 * @param key    key of the model, built from the content hash of the specifications it is read from (null : not cached).
+	 * @param parser parser of the specifications.
+	 * @return a metadata model which is not shared with the cache.
+	 */
+	public <E extends Exception> MetadataModel getMetadataModel(String key, SpecParser<MetadataModel, E> parser) throws E {
+		return getMetadataModel(key, null, parser);
+	}
+
+	/**
+	 * Get a copy of the cached metadata model, parsing it if it is not in the cache or if it has expired.
+	 * A model is cached only once it is parsed : a parser failure is not cached.
+	 *
+	 * @param key        key of the model (null : not cached).
+	 * @param timeToLive time the model is kept in the cache (null : until evicted).
+	 * @param parser     parser of the specifications.
+	 * @return a metadata model which is not shared with the cache.
+	 */
+	public <E extends Exception> MetadataModel getMetadataModel(String key, Duration timeToLive, SpecParser<MetadataModel, E> parser) throws E {
+		if (key == null || Constants.getMetadataCacheSize() <= 0) {
+			return parser.parse();
+		}
+		CachedModel cachedModel;
+		synchronized (metadataModels) {
+			cachedModel = metadataModels.get(key);
+		}
+		if (cachedModel == null || cachedModel.isExpired()) {
+			misses.increment();
+			MetadataModel metadataModel = parser.parse();
+			if (metadataModel == null) {
+				return null;
+			}
+			cachedModel = new CachedModel(metadataModel, timeToLive == null ? Long.MAX_VALUE
+					: System.currentTimeMillis() + timeToLive.toMillis());
+			synchronized (metadataModels) {
+				metadataModels.put(key, cachedModel);
+			}
+		} else {
+			hits.increment();
+		}
+		return copyOf(cachedModel.metadataModel());
+	}
+
+	/**
+	 * Get a copy of the cached calculated variables, parsing them if they are not in the cache.
+	 *
+	 * @param key    key of the variables, built from the content hash of the Lunatic file they are read from (null : not cached).
+	 * @param parser parser of the Lunatic file.
+	 */
+	public <E extends Exception> CalculatedVariables getCalculatedVariables(String key, SpecParser<CalculatedVariables, E> parser) throws E {
+		if (key == null || Constants.getMetadataCacheSize() <= 0) {
+			return parser.parse();
+		}
+		CalculatedVariables cachedVariables;
+		synchronized (calculatedVariables) {
+			cachedVariables = calculatedVariables.get(key);
+		}
+		if (cachedVariables == null) {
+			misses.increment();
+			cachedVariables = parser.parse();
+			if (cachedVariables == null) {
+				return null;
+			}
+			synchronized (calculatedVariables) {
+				calculatedVariables.put(key, cachedVariables);
+			}
+		} else {
+			hits.increment();
+		}
+		CalculatedVariables copy = new CalculatedVariables();
+		copy.putAll(cachedVariables);
+		return copy;
+	}
+
+	/** Remove a metadata model, when its source has been updated. */
+	public void removeMetadataModel(String key) {
+		synchronized (metadataModels) {
+			metadataModels.remove(key);
+		}
+	}
+
+	public long getHitCount() {
+		return hits.sum();
+	}
+
+	public long getMissCount() {
+		return misses.sum();
+	}
+
+	/** Remove all the cached metadata and reset the metrics. */
+	public void clear() {
+		synchronized (metadataModels) {
+			metadataModels.clear();
+		}
+		synchronized (calculatedVariables) {
+			calculatedVariables.clear();
+		}
+		hits.reset();
+		misses.reset();
+	}
+
+	/*
+	 * Groups, sequences and modalities are not modified during the processing and are shared with the copy.
+	 * Variables are copied, except the ones only read during the processing (paper UCQ indicators).
+	 */
+	static MetadataModel copyOf(MetadataModel metadataModel) {
+		MetadataModel copy = new MetadataModel();
+		copy.setGroups(new LinkedHashMap<>(metadataModel.getGroups()));
+		copy.setSequences(new ArrayList<>(metadataModel.getSequences()));
+		copy.setSpecType(metadataModel.getSpecType());
+		metadataModel.getSpecVersions().forEach(copy::putSpecVersions);
+		VariablesMap variables = new VariablesMap();
+		for (Variable variable : metadataModel.getVariables().getVariables().values()) {
+			variables.putVariable(copyOf(variable));
+		}
+		copy.setVariables(variables);
+		return copy;
+	}
+
+	private static Variable copyOf(Variable variable) {
+		Variable copy;
+		if (variable.getClass() == McqVariable.class) {
+			copy = new McqVariable(variable.getName(), variable.getGroup(), variable.getQuestionName(), ((McqVariable) variable).getText());
+		} else if (variable.getClass() == UcqVariable.class) {
+			UcqVariable ucqCopy = new UcqVariable(variable.getName(), variable.getGroup(), variable.getType(), variable.getSasFormat());
+			ucqCopy.getModalities().addAll(((UcqVariable) variable).getModalities());
+			copy = ucqCopy;
+		} else if (variable.getClass() == Variable.class) {
+			copy = new Variable(variable.getName(), variable.getGroup(), variable.getType(), variable.getSasFormat());
+		} else {
+			return variable;
+		}
+		copy.setType(variable.getType());
+		copy.setSasFormat(variable.getSasFormat());
+		copy.setMaxLengthData(variable.getMaxLengthData());
+		copy.setQuestionName(variable.getQuestionName());
+		copy.setInQuestionGrid(variable.isInQuestionGrid());
+		return copy;
+	}
+
+	private static <V> Map<String, V> lruMap() {
+		return new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, V> eldest) {
+				return size() > Constants.getMetadataCacheSize();
+			}
+		};
+	}
+}
@@ -1,6 +1,7 @@
 package fr.insee.kraftwerk.core.metadata;
 
 import fr.insee.bpm.exceptions.MetadataParserException;
+import fr.insee.bpm.metadata.model.CalculatedVariables;
 import fr.insee.bpm.metadata.model.Group;
 import fr.insee.bpm.metadata.model.MetadataModel;
 
@@ -15,6 +16,9 @@ import fr.insee.kraftwerk.core.inputs.ModeInputs;
 import fr.insee.kraftwerk.core.utils.files.FileUtilsInterface;
 import lombok.extern.log4j.Log4j2;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -33,25 +37,42 @@ public class MetadataUtils {
 	}
 
 	private static void putToMetadataModels(String dataMode, ModeInputs modeInputs, Map<String, MetadataModel> metadataModels, FileUtilsInterface fileUtilsInterface) {
-		// Step 1 : we add the variables read in the DDI
-		MetadataModel metadataModel = new MetadataModel();
+		// Specifications are read once, and only parsed if their content is not already in the cache
+		byte[] ddiContent = readSpecification(modeInputs.getDdiUrl(), fileUtilsInterface);
+		byte[] lunaticContent = modeInputs.getLunaticFile() == null ? null
+				: readSpecification(modeInputs.getLunaticFile().toString(), fileUtilsInterface);
+		String cacheKey = modeInputs.getLunaticFile() == null ? metadataCacheKey("DDI", ddiContent)
+				: metadataCacheKey("DDI_LUNATIC", ddiContent, lunaticContent);
+		MetadataModel metadataModel;
 		try {
-			metadataModel = DDIReader.getMetadataFromDDI(modeInputs.getDdiUrl(), fileUtilsInterface.readFile(modeInputs.getDdiUrl()));
+			metadataModel = MetadataCache.getInstance().getMetadataModel(cacheKey,
+					() -> addSpecificationVariables(modeInputs, DDIReader.getMetadataFromDDI(modeInputs.getDdiUrl(), specificationStream(ddiContent)), lunaticContent));
 		} catch (MetadataParserException e) {
+			// Metadata without the DDI variables is not cached : the DDI is parsed again on the next run
 			log.error(e.getMessage());
+			metadataModel = addSpecificationVariables(modeInputs, new MetadataModel(), lunaticContent);
 		}
+		// Step 3 : we add reporting data group if there is any reporting data
+		if(modeInputs.getReportingDataFile() != null){
+			metadataModel.getGroups().put(Constants.REPORTING_DATA_GROUP_NAME, new Group(Constants.REPORTING_DATA_GROUP_NAME));
+		}
+		metadataModels.put(dataMode, metadataModel);
+	}
+
+	/* Step 1 : variables read in the DDI, in the metadata model given, completed with the next steps */
+	private static MetadataModel addSpecificationVariables(ModeInputs modeInputs, MetadataModel metadataModel, byte[] lunaticContent) {
 		// Step 2 : we add the variables that are only present in the Lunatic file
 		if (modeInputs.getLunaticFile() != null) {
 			log.info("Adding variables from Lunatic file : {}", modeInputs.getLunaticFile().getFileName());
 			// We read and store lunaticModelVersion
-            metadataModel.putSpecVersions(SpecType.LUNATIC,LunaticReader.getLunaticModelVersion(fileUtilsInterface.readFile(modeInputs.getLunaticFile().toString())));
+            metadataModel.putSpecVersions(SpecType.LUNATIC,LunaticReader.getLunaticModelVersion(specificationStream(lunaticContent)));
 			// First we add the collected _MISSING variables
-			List<String> missingVars = LunaticReader.getMissingVariablesFromLunatic(fileUtilsInterface.readFile(modeInputs.getLunaticFile().toString()));
+			List<String> missingVars = LunaticReader.getMissingVariablesFromLunatic(specificationStream(lunaticContent));
 			for (String missingVar : missingVars) {
 				addLunaticVariable(metadataModel, missingVar, Constants.MISSING_SUFFIX, VariableType.STRING);
 			}
 			// Then we add calculated FILTER_RESULT_ variables
-			List<String> filterResults = LunaticReader.getFilterResultFromLunatic(fileUtilsInterface.readFile(modeInputs.getLunaticFile().toString()));
+			List<String> filterResults = LunaticReader.getFilterResultFromLunatic(specificationStream(lunaticContent));
 			for (String filterResult : filterResults) {
 				addLunaticVariable(metadataModel, filterResult, Constants.FILTER_RESULT_PREFIX, VariableType.BOOLEAN);
 			}
@@ -62,11 +83,48 @@ public class MetadataUtils {
 				metadataModel.getVariables().putVariable(varLien);
 			}
 		}
-		// Step 3 : we add reporting data group if there is any reporting data
-		if(modeInputs.getReportingDataFile() != null){
-			metadataModel.getGroups().put(Constants.REPORTING_DATA_GROUP_NAME, new Group(Constants.REPORTING_DATA_GROUP_NAME));
+		return metadataModel;
+	}
+
+	/**
+	 * Calculated variables of the Lunatic file of a mode, parsed only if its content is not already in the cache.
+	 */
+	public static CalculatedVariables getCalculatedVariables(ModeInputs modeInputs, FileUtilsInterface fileUtilsInterface) {
+		byte[] lunaticContent = readSpecification(modeInputs.getLunaticFile().toString(), fileUtilsInterface);
+		return MetadataCache.getInstance().getCalculatedVariables(metadataCacheKey("CALCULATED", lunaticContent),
+				() -> LunaticReader.getCalculatedFromLunatic(specificationStream(lunaticContent)));
+	}
+
+	/**
+	 * Read the whole content of a specification file, to hash it and parse it without reading it again.
+	 * @return the content, null if the file can't be read.
+	 */
+	static byte[] readSpecification(String path, FileUtilsInterface fileUtilsInterface) {
+		try (InputStream inputStream = fileUtilsInterface.readFile(path)) {
+			return inputStream == null ? null : inputStream.readAllBytes();
+		} catch (IOException e) {
+			log.error("Can't read specification file {} : {}", path, e.getMessage());
+			return null;
 		}
-		metadataModels.put(dataMode, metadataModel);
+	}
+
+	static InputStream specificationStream(byte[] content) {
+		return content == null ? null : new ByteArrayInputStream(content);
+	}
+
+	/**
+	 * Key of metadata in the cache, made of the kind of metadata and of the content hash of its specifications.
+	 * @return null if a specification can't be read : the metadata is not cached.
+	 */
+	static String metadataCacheKey(String kind, byte[]... specificationContents) {
+		StringBuilder key = new StringBuilder(kind);
+		for (byte[] content : specificationContents) {
+			if (content == null) {
+				return null;
+			}
+			key.append(':').append(MetadataCache.contentHash(content));
+		}
+		return key.toString();
 	}
 
 	public static void addLunaticVariable(MetadataModel metadata, String missingVar, String prefixOrSuffix, VariableType varType) {
@@ -83,6 +141,30 @@ public class MetadataUtils {
 		metadata.getVariables().putVariable(new Variable(missingVar, group, varType));
 	}
 
+	/**
+	 * Copy of a metadata model, to be completed by the parsing of a data file without modifying the original model.
+	 * The additions are reported in the original model by {@link #mergeParsedMetadata(MetadataModel, MetadataModel)}.
+	 */
+	public static MetadataModel copyOf(MetadataModel metadataModel) {
+		return MetadataCache.copyOf(metadataModel);
+	}
+
+	/**
+	 * Report in the metadata model the groups and variables added to its copy during the parsing of a data file,
+	 * and the max length of the data read.
+	 */
+	public static void mergeParsedMetadata(MetadataModel metadataModel, MetadataModel parsedCopy) {
+		parsedCopy.getGroups().forEach(metadataModel.getGroups()::putIfAbsent);
+		for (Variable parsedVariable : parsedCopy.getVariables().getVariables().values()) {
+			Variable variable = metadataModel.getVariables().getVariable(parsedVariable.getName());
+			if (variable == null) {
+				metadataModel.getVariables().putVariable(parsedVariable);
+			} else if (parsedVariable.getMaxLengthData() > variable.getMaxLengthData()) {
+				variable.setMaxLengthData(parsedVariable.getMaxLengthData());
+			}
+		}
+	}
+
 	public static Map<String, MetadataModel> getMetadataFromLunatic(Map<String, ModeInputs> modeInputsMap, FileUtilsInterface fileUtilsInterface) {
 		Map<String, MetadataModel> metadataModels = new LinkedHashMap<>();
 		modeInputsMap.forEach((k, v) -> putToMetadataVariableFromLunatic(k,v,metadataModels, fileUtilsInterface));
@@ -90,7 +172,14 @@ public class MetadataUtils {
 	}
 
 	private static void putToMetadataVariableFromLunatic(String dataMode, ModeInputs modeInputs, Map<String, MetadataModel> metadataModels, FileUtilsInterface fileUtilsInterface) {
-		MetadataModel metadataModel = LunaticReader.getMetadataFromLunatic(fileUtilsInterface.readFile(modeInputs.getLunaticFile().toString()));
+		byte[] lunaticContent = readSpecification(modeInputs.getLunaticFile().toString(), fileUtilsInterface);
+		MetadataModel metadataModel = MetadataCache.getInstance().getMetadataModel(metadataCacheKey("LUNATIC", lunaticContent),
+				() -> parseLunaticSpecification(lunaticContent));
+		metadataModels.put(dataMode, metadataModel);
+	}
+
+	private static MetadataModel parseLunaticSpecification(byte[] lunaticContent) {
+		MetadataModel metadataModel = LunaticReader.getMetadataFromLunatic(specificationStream(lunaticContent));
 		// We add the variables for pairwise links
 		if (metadataModel.getVariables().getVariable(Constants.LIENS) != null) {
 			// We identify the group containing the individuals
@@ -105,6 +194,6 @@ public class MetadataUtils {
 				metadataModel.getVariables().putVariable(varLien);
 			}
 		}
-		metadataModels.put(dataMode, metadataModel);
+		return metadataModel;
 	}
 }
@@ -35,23 +35,35 @@ public class MetadataUtilsGenesis {
 	}
 
 	private static void putToMetadataVariable(String dataMode, ModeInputs modeInputsGenesis, Map<String, MetadataModel> metadataModels, FileUtilsInterface fileUtilsInterface) throws MetadataParserException {
+		// Specifications are read once, and only parsed if their content is not already in the cache
+		byte[] ddiContent = MetadataUtils.readSpecification(modeInputsGenesis.getDdiUrl(), fileUtilsInterface);
+		byte[] lunaticContent = modeInputsGenesis.getLunaticFile() == null ? null
+				: MetadataUtils.readSpecification(modeInputsGenesis.getLunaticFile().toString(), fileUtilsInterface);
+		String cacheKey = modeInputsGenesis.getLunaticFile() == null ? MetadataUtils.metadataCacheKey("GENESIS_DDI", ddiContent)
+				: MetadataUtils.metadataCacheKey("GENESIS_DDI_LUNATIC", ddiContent, lunaticContent);
+		MetadataModel metadataModel = MetadataCache.getInstance().getMetadataModel(cacheKey,
+				() -> parseSpecifications(modeInputsGenesis, ddiContent, lunaticContent));
+		metadataModels.put(dataMode, metadataModel);
+	}
+
+	private static MetadataModel parseSpecifications(ModeInputs modeInputsGenesis, byte[] ddiContent, byte[] lunaticContent) throws MetadataParserException {
 		// Step 1 : we add the variables read in the DDI
-		MetadataModel metadataModel = DDIReader.getMetadataFromDDI(modeInputsGenesis.getDdiUrl(), fileUtilsInterface.readFile(modeInputsGenesis.getDdiUrl()));
+		MetadataModel metadataModel = DDIReader.getMetadataFromDDI(modeInputsGenesis.getDdiUrl(), MetadataUtils.specificationStream(ddiContent));
 
 		// Step 2 : we add the variables that are only present in the Lunatic file
 		if (modeInputsGenesis.getLunaticFile() != null) {
 			// First we add the collected _MISSING variables
-			List<String> missingVars = LunaticReader.getMissingVariablesFromLunatic(fileUtilsInterface.readFile(modeInputsGenesis.getLunaticFile().toString()));
+			List<String> missingVars = LunaticReader.getMissingVariablesFromLunatic(MetadataUtils.specificationStream(lunaticContent));
 			for (String missingVar : missingVars) {
 				addLunaticVariable(metadataModel, missingVar, Constants.MISSING_SUFFIX, VariableType.STRING);
 			}
 			// Then we add calculated FILTER_RESULT_ variables
-			List<String> filterResults = LunaticReader.getFilterResultFromLunatic(fileUtilsInterface.readFile(modeInputsGenesis.getLunaticFile().toString()));
+			List<String> filterResults = LunaticReader.getFilterResultFromLunatic(MetadataUtils.specificationStream(lunaticContent));
 			for (String filterResult : filterResults) {
 				addLunaticVariable(metadataModel, filterResult, Constants.FILTER_RESULT_PREFIX, VariableType.BOOLEAN);
 			}
 		}
-		metadataModels.put(dataMode, metadataModel);
+		return metadataModel;
 	}
 
 	public static void addLunaticVariable(MetadataModel metadataModel, String missingVar, String prefixOrSuffix, VariableType varType) {
@@ -80,7 +92,9 @@ public class MetadataUtilsGenesis {
 	}
 
 	private static void putToMetadataVariableFromLunatic(String dataMode, ModeInputs modeInputs, Map<String, MetadataModel> metadataModels, FileUtilsInterface fileUtilsInterface) {
-		MetadataModel metadataModel = LunaticReader.getMetadataFromLunatic(fileUtilsInterface.readFile(modeInputs.getLunaticFile().toString()));
+		byte[] lunaticContent = MetadataUtils.readSpecification(modeInputs.getLunaticFile().toString(), fileUtilsInterface);
+		MetadataModel metadataModel = MetadataCache.getInstance().getMetadataModel(MetadataUtils.metadataCacheKey("GENESIS_LUNATIC", lunaticContent),
+				() -> LunaticReader.getMetadataFromLunatic(MetadataUtils.specificationStream(lunaticContent)));
 		metadataModels.put(dataMode, metadataModel);
 	}
 }
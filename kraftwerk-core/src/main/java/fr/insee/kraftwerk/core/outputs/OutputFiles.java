@@ -91,6 +91,19 @@ public abstract class OutputFiles {
 	 * Method to write output tables from datasets that are in the bindings.
      */
 	public void writeOutputTables() throws KraftwerkException {
+		for (String datasetName : getDatasetToCreate()) {
+			writeOutputTable(datasetName, getDatabase());
+		}
+	}
+
+	/**
+	 * Method to write the output table of one dataset of the bindings.
+	 * Output tables are independent : they can be written concurrently, each with its own database statement.
+	 *
+	 * @param datasetName name of the dataset to write
+	 * @param database statement of the database containing the dataset table
+	 */
+	public void writeOutputTable(String datasetName, Statement database) throws KraftwerkException {
 		// implemented in subclasses
 	}
 
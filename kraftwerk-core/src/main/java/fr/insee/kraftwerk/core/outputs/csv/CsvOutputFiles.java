@@ -10,18 +10,20 @@ import fr.insee.kraftwerk.core.outputs.TableScriptInfo;
 import fr.insee.kraftwerk.core.utils.KraftwerkExecutionContext;
 import fr.insee.kraftwerk.core.utils.SqlUtils;
 import fr.insee.kraftwerk.core.utils.TextFileWriter;
+import fr.insee.kraftwerk.core.utils.files.CommittableOutputStream;
 import fr.insee.kraftwerk.core.utils.files.FileUtilsInterface;
 import fr.insee.kraftwerk.core.vtl.VtlBindings;
 import lombok.extern.slf4j.Slf4j;
 import org.jetbrains.annotations.NotNull;
 
 import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.IOException;
-import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.StandardOpenOption;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
@@ -46,79 +48,77 @@ public class CsvOutputFiles extends OutputFiles {
 	}
 
 	/**
-	 * Method to write CSV output tables from datasets that are in the bindings.
+	 * Method to write the CSV output table of a dataset that is in the bindings.
 	 */
 	@Override
-	public void writeOutputTables() throws KraftwerkException {
-		for (String datasetName : getDatasetToCreate()) {
-			try {
-				//Temporary file
-				Files.createDirectories(Path.of(System.getProperty("java.io.tmpdir")));
-				Path tmpOutputFile = Files.createTempFile(Path.of(System.getProperty("java.io.tmpdir")),
-						outputFileName(datasetName, kraftwerkExecutionContext), null);
-
-				//Get column names
-				List<String> columnNames = SqlUtils.getColumnNames(getDatabase(), datasetName);
-
-				if(columnNames.isEmpty()){
-					log.warn("dataset {} is empty !", datasetName);
-					return;
-				}
-
-				//Get boolean columns names
-				List<String> boolColumnNames = SqlUtils.getColumnNames(getDatabase(), datasetName, VariableType.BOOLEAN);
-				//Get indexes of boolean columns
-				List<Integer> boolColumnIndexes = new ArrayList<>();
-
-				//Create file with double quotes header
-				Files.write(tmpOutputFile, buildHeader(columnNames, boolColumnNames, boolColumnIndexes).getBytes());
-
-				//Data export into temp file
-				StringBuilder exportCsvQuery = getExportCsvQuery(datasetName, tmpOutputFile.toFile(), columnNames);
-				this.getDatabase().execute(exportCsvQuery.toString());
-
-				//Apply csv format transformations
-
-				//Merge data file with header file
-				//Read line by line to avoid memory waste
-				try(BufferedReader bufferedReader = Files.newBufferedReader(Path.of(tmpOutputFile.toAbsolutePath() + "data"))){
-					String line = bufferedReader.readLine();
-					while(line != null){
-						//Apply transformations to elements
-						line = applyNullTransformation(line);
-						line = applyBooleanTransformations(line, boolColumnIndexes);
+	public void writeOutputTable(String datasetName, Statement database) throws KraftwerkException {
+		try {
+			//Temporary file
+			Files.createDirectories(Path.of(System.getProperty("java.io.tmpdir")));
+			Path tmpOutputFile = Files.createTempFile(Path.of(System.getProperty("java.io.tmpdir")),
+					outputFileName(datasetName, kraftwerkExecutionContext), null);
+
+			//Get column names
+			List<String> columnNames = SqlUtils.getColumnNames(database, datasetName);
+
+			if(columnNames.isEmpty()){
+				log.warn("dataset {} is empty !", datasetName);
+				return;
+			}
 
-						Files.write(tmpOutputFile,(line + "\n").getBytes(),StandardOpenOption.APPEND);
-						line = bufferedReader.readLine();
-					}
+			//Get boolean columns names
+			List<String> boolColumnNames = SqlUtils.getColumnNames(database, datasetName, VariableType.BOOLEAN);
+			//Get indexes of boolean columns
+			List<Integer> boolColumnIndexes = new ArrayList<>();
+			String header = buildHeader(columnNames, boolColumnNames, boolColumnIndexes);
+			boolean[] boolColumns = new boolean[columnNames.size()];
+			boolColumnIndexes.forEach(index -> boolColumns[index] = true);
+
+			//Data export into temp file
+			StringBuilder exportCsvQuery = getExportCsvQuery(datasetName, tmpOutputFile.toFile(), columnNames);
+			database.execute(exportCsvQuery.toString());
+
+			String outputFile = getOutputFolder().resolve(outputFileName(datasetName, kraftwerkExecutionContext)).toString();
+			if (kraftwerkExecutionContext != null) {
+				//Count rows for functional log
+				try(ResultSet countResult =
+							database.executeQuery("SELECT COUNT(*) FROM '%s'".formatted(datasetName))){
+					countResult.next();
+					kraftwerkExecutionContext.getLineCountByTableMap().put(datasetName, countResult.getInt(1));
 				}
-				Files.deleteIfExists(Path.of(tmpOutputFile + "data"));
-
-
-				String outputFile = getOutputFolder().resolve(outputFileName(datasetName, kraftwerkExecutionContext)).toString();
-				if (kraftwerkExecutionContext != null) {
-					//Count rows for functional log
-					try(ResultSet countResult =
-								this.getDatabase().executeQuery("SELECT COUNT(*) FROM '%s'".formatted(datasetName))){
-						countResult.next();
-                        kraftwerkExecutionContext.getLineCountByTableMap().put(datasetName, countResult.getInt(1));
-					}
-
-					//Encrypt file if requested
-					if(kraftwerkExecutionContext.isWithEncryption()) {
-						InputStream encryptedStream = encryptionUtils.encryptOutputFile(tmpOutputFile, kraftwerkExecutionContext);
-						getFileUtilsInterface().writeFile(outputFile, encryptedStream, true);
-						log.info("File: {} successfully written and encrypted", outputFile);
-						continue; //Go to next dataset to write
-					}
+			}
+			boolean withEncryption = kraftwerkExecutionContext != null && kraftwerkExecutionContext.isWithEncryption();
+
+			//Stream data file with double quotes header into output file, applying csv format transformations
+			//Read line by line to avoid memory waste, encrypt on the fly if requested
+			//The output file is published only once every line is written
+			try(BufferedReader bufferedReader = Files.newBufferedReader(Path.of(tmpOutputFile.toAbsolutePath() + "data"));
+				CommittableOutputStream fileOutputStream = getFileUtilsInterface().openOutputStream(outputFile);
+				CommittableOutputStream outputStream = withEncryption ?
+						encryptionUtils.encryptOutputStream(fileOutputStream, kraftwerkExecutionContext)
+						: fileOutputStream){
+				BufferedWriter bufferedWriter = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+				bufferedWriter.write(header);
+				String line = bufferedReader.readLine();
+				while(line != null){
+					bufferedWriter.write(applyCsvTransformations(line, boolColumns));
+					bufferedWriter.write('\n');
+					line = bufferedReader.readLine();
 				}
-				//Move to output folder
-				getFileUtilsInterface().moveFile(tmpOutputFile, outputFile);
-				log.info("File: {} successfully written", outputFile);
-			} catch (SQLException | IOException e) {
-				throw new KraftwerkException(500, e.toString());
+				bufferedWriter.flush();
+				outputStream.commit();
+			} finally {
+				Files.deleteIfExists(Path.of(tmpOutputFile + "data"));
+				Files.deleteIfExists(tmpOutputFile);
+			}
+			if (withEncryption) {
+				log.info("File: {} successfully written and encrypted", outputFile);
+				return;
 			}
-        }
+			log.info("File: {} successfully written", outputFile);
+		} catch (SQLException | IOException e) {
+			throw new KraftwerkException(500, e.toString());
+		}
 	}
 
 	private static @NotNull StringBuilder getExportCsvQuery(String datasetName, File outputFile, List<String> columnNames) {
@@ -148,34 +148,37 @@ public class CsvOutputFiles extends OutputFiles {
 	}
 
 	/**
-	 * replaces false/true by 0/1 in a line
-	 * @param csvLine line to transform
-	 * @param boolColumnIndexes indexes of booleans values to change
-	 * @return the transformed line
-	 */
-	private String applyBooleanTransformations(String csvLine, List<Integer> boolColumnIndexes) {
-		String[] lineElements = csvLine.split(String.valueOf(Constants.CSV_OUTPUTS_SEPARATOR), -1);
-		//change "true" or "false" by "1" or "0"
-		for (int elementIndex : boolColumnIndexes) {
-			lineElements[elementIndex] = lineElements[elementIndex].replace("false", "0").replace("true", "1");
-		}
-		//Rebuild csv line
-		return String.join(String.valueOf(Constants.CSV_OUTPUTS_SEPARATOR),lineElements);
-	}
-
-	/**
-	 * Changes null values to "" in a line
+	 * Applies csv format transformations to the elements of a line, in one pass:
+	 * empty (null) values are changed to "", and false/true are replaced by 0/1 in boolean columns.
 	 * @param csvLine line to transform
+	 * @param boolColumns flags of boolean columns, by element index
 	 * @return the transformed line
 	 */
-	private String applyNullTransformation(String csvLine) {
-		String[] lineElements = csvLine.split(String.valueOf(Constants.CSV_OUTPUTS_SEPARATOR), -1);
-		for (int i = 0; i < lineElements.length; i++) {
-			if (lineElements[i].isEmpty()) {
-				lineElements[i] = "\"\"";
+	static String applyCsvTransformations(String csvLine, boolean[] boolColumns) {
+		StringBuilder transformedLine = new StringBuilder(csvLine.length() + 16);
+		int elementStart = 0;
+		int elementIndex = 0;
+		while (true) {
+			int elementEnd = csvLine.indexOf(Constants.CSV_OUTPUTS_SEPARATOR, elementStart);
+			if (elementEnd < 0) {
+				elementEnd = csvLine.length();
+			}
+			if (elementStart == elementEnd) {
+				transformedLine.append("\"\"");
+			} else if (elementIndex < boolColumns.length && boolColumns[elementIndex]) {
+				//change "true" or "false" by "1" or "0"
+				transformedLine.append(csvLine.substring(elementStart, elementEnd)
+						.replace("false", "0").replace("true", "1"));
+			} else {
+				transformedLine.append(csvLine, elementStart, elementEnd);
+			}
+			if (elementEnd == csvLine.length()) {
+				return transformedLine.toString();
 			}
+			transformedLine.append(Constants.CSV_OUTPUTS_SEPARATOR);
+			elementStart = elementEnd + 1;
+			elementIndex++;
 		}
-		return String.join(String.valueOf(Constants.CSV_OUTPUTS_SEPARATOR),lineElements);
 	}
 
 	@Override
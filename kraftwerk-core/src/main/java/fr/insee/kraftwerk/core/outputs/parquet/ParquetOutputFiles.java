@@ -48,37 +48,51 @@ public class ParquetOutputFiles extends OutputFiles {
 
 	
 	/**
-	 * Method to write output tables from datasets that are in the bindings.
+	 * Method to write the output table of a dataset that is in the bindings.
 	 */
 	@Override
-	public void writeOutputTables() throws KraftwerkException {
-		for (String datasetName : getDatasetToCreate()) {
-			try {
-				Files.createDirectories(Path.of(System.getProperty("java.io.tmpdir")));
-				Path tmpOutputFile = Files.createTempFile(Path.of(System.getProperty("java.io.tmpdir")),
-						outputFileName(datasetName, kraftwerkExecutionContext), null);
+	public void writeOutputTable(String datasetName, Statement database) throws KraftwerkException {
+		Path tmpOutputFile = null;
+		try {
+			Files.createDirectories(Path.of(System.getProperty("java.io.tmpdir")));
+			tmpOutputFile = Files.createTempFile(Path.of(System.getProperty("java.io.tmpdir")),
+					outputFileName(datasetName, kraftwerkExecutionContext), null);
 
-				Files.deleteIfExists(tmpOutputFile);
-				//Data export
-				getDatabase().execute(String.format("COPY %s TO '%s' (FORMAT PARQUET)", datasetName, tmpOutputFile));
+			Files.deleteIfExists(tmpOutputFile);
+			//Data export
+			database.execute(String.format("COPY %s TO '%s' (FORMAT PARQUET)", datasetName, tmpOutputFile));
 
 
-				String outputFile = getOutputFolder().resolve(outputFileName(datasetName, kraftwerkExecutionContext)).toString();
+			String outputFile = getOutputFolder().resolve(outputFileName(datasetName, kraftwerkExecutionContext)).toString();
 
-				//Encrypt file if requested
-				if(kraftwerkExecutionContext.isWithEncryption()) {
-					InputStream encryptedStream = encryptionUtils.encryptOutputFile(tmpOutputFile, kraftwerkExecutionContext);
+			//Encrypt file if requested
+			if(kraftwerkExecutionContext.isWithEncryption()) {
+				try (InputStream encryptedStream = encryptionUtils.encryptOutputFile(tmpOutputFile, kraftwerkExecutionContext)) {
 					getFileUtilsInterface().writeFile(outputFile, encryptedStream, true);
-					log.info("File: {} successfully written and encrypted", outputFile);
-					continue; //Go to next dataset to write
 				}
-
-				//Move to output folder
-				getFileUtilsInterface().moveFile(tmpOutputFile, outputFile);
-				log.info("File: {} successfully written", outputFile);
-			} catch (Exception e) {
-				throw new KraftwerkException(500, e.toString());
+				log.info("File: {} successfully written and encrypted", outputFile);
+				return;
 			}
+
+			//Move to output folder
+			getFileUtilsInterface().moveFile(tmpOutputFile, outputFile);
+			log.info("File: {} successfully written", outputFile);
+		} catch (Exception e) {
+			throw new KraftwerkException(500, e.toString());
+		} finally {
+			// Unencrypted data must not stay in the temporary folder, whether the export succeeded or not
+			deleteTemporaryFile(tmpOutputFile);
+		}
+	}
+
+	private static void deleteTemporaryFile(Path tmpOutputFile) {
+		if (tmpOutputFile == null) {
+			return;
+		}
+		try {
+			Files.deleteIfExists(tmpOutputFile);
+		} catch (IOException e) {
+			log.warn("Temporary file {} could not be deleted : {}", tmpOutputFile, e.toString());
 		}
 	}
 
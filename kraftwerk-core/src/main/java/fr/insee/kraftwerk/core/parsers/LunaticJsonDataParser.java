@@ -38,7 +38,7 @@ public class LunaticJsonDataParser extends DataParser {
 		JSONObject jsonData = (JSONObject) jsonObject.get("data");
 		String identifier = (String) jsonObject.get("id");
 
-		QuestionnaireData questionnaireData = new QuestionnaireData();
+		QuestionnaireData questionnaireData = new QuestionnaireData(data.getDataTables());
 
 		// Root identifier
 
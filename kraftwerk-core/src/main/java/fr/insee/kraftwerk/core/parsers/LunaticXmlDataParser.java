@@ -6,14 +6,14 @@ import fr.insee.bpm.metadata.model.VariableType;
 import fr.insee.bpm.metadata.model.VariablesMap;
 import fr.insee.bpm.metadata.reader.lunatic.LunaticReader;
 import fr.insee.kraftwerk.core.Constants;
+import fr.insee.kraftwerk.core.exceptions.KraftwerkException;
 import fr.insee.kraftwerk.core.rawdata.GroupData;
 import fr.insee.kraftwerk.core.rawdata.GroupInstance;
 import fr.insee.kraftwerk.core.rawdata.QuestionnaireData;
 import fr.insee.kraftwerk.core.rawdata.SurveyRawData;
 import fr.insee.kraftwerk.core.utils.files.FileUtilsInterface;
-import fr.insee.kraftwerk.core.utils.xml.XmlFileReader;
+import fr.insee.kraftwerk.core.utils.xml.XmlElementStreamReader;
 import lombok.extern.log4j.Log4j2;
-import nu.xom.Document;
 import nu.xom.Element;
 import nu.xom.Elements;
 
@@ -43,55 +43,50 @@ public class LunaticXmlDataParser extends DataParser {
 	}
 
 	/**
-	 * Parse the XML file from the given path.
-	 * 
+	 * Parse the XML file from the given path. Survey units are read one by one, so that memory used by the
+	 * parsing is bounded by the size of one survey unit.
+	 *
 	 * @param filePath Path to the XML file.
-	 * @return The parsed document.
+	 * @param lunaticFile Path to the Lunatic questionnaire, used to filter survey units (can be null).
 	 */
-	private Document readXmlFile(Path filePath) {
-		XmlFileReader xmlFileReader = new XmlFileReader(fileUtilsInterface);
-		Document document = xmlFileReader.readXmlFile(filePath);
-		if (document == null) {
-            log.warn("Failed to parse Lunatic answers file: {}", filePath);
-		}
-		return document;
-	}
-
 	private void parseDataFile(Path filePath, Path lunaticFile) {
-
-		Document document = readXmlFile(filePath);
 		log.debug("Begin to parse {} ", filePath);
-		if (document != null) {
-			Elements questionnaireNodeList = document.getRootElement().getFirstChildElement("SurveyUnits")
-					.getChildElements("SurveyUnit");
-			String questionnaireModelId = null;
-			if (lunaticFile != null) {
-				questionnaireModelId = LunaticReader.getQuestionnaireModelId(fileUtilsInterface.readFile(lunaticFile.toString()));
+		String questionnaireModelId = lunaticFile == null ? null
+				: LunaticReader.getQuestionnaireModelId(fileUtilsInterface.readFile(lunaticFile.toString()));
+
+		XmlElementStreamReader xmlElementStreamReader = new XmlElementStreamReader(fileUtilsInterface);
+		int questionnairesCount = data.getQuestionnairesCount();
+		int idSurveyUnitsCount = data.getIdSurveyUnits().size();
+		try {
+			if (xmlElementStreamReader.readElements(filePath, "SurveyUnits/SurveyUnit",
+					questionnaireNode -> parseSurveyUnit(questionnaireNode, lunaticFile, questionnaireModelId))) {
+				log.debug("Successfully parsed Lunatic answers file: {}", filePath);
+				return;
 			}
+		} catch (KraftwerkException e) {
+			// The survey units read before the error are not kept : the file is not imported at all
+			data.getQuestionnaires().subList(questionnairesCount, data.getQuestionnairesCount()).clear();
+			data.getIdSurveyUnits().subList(idSurveyUnitsCount, data.getIdSurveyUnits().size()).clear();
+		}
+		log.warn("Failed to parse Lunatic answers file: {}", filePath);
+	}
 
-			for (int i = 0; i < questionnaireNodeList.size(); i++) {
-
-				// Xml questionnaire node
-				Element questionnaireNode = questionnaireNodeList.get(i);
-
-				if (lunaticFile == null || checkLunaticQuestionnaire(questionnaireModelId, questionnaireNode)) {
+	private void parseSurveyUnit(Element questionnaireNode, Path lunaticFile, String questionnaireModelId) {
+		if (lunaticFile == null || checkLunaticQuestionnaire(questionnaireModelId, questionnaireNode)) {
 
-					// Init the questionnaire data object
-					QuestionnaireData questionnaireData = new QuestionnaireData();
+			// Init the questionnaire data object
+			QuestionnaireData questionnaireData = new QuestionnaireData(data.getDataTables());
 
-					// Root identifier
-					questionnaireData.setIdentifier(questionnaireNode.getFirstChildElement("Id").getValue());
-					data.getIdSurveyUnits().add(questionnaireNode.getFirstChildElement("Id").getValue());
+			// Root identifier
+			questionnaireData.setIdentifier(questionnaireNode.getFirstChildElement("Id").getValue());
+			data.getIdSurveyUnits().add(questionnaireNode.getFirstChildElement("Id").getValue());
 
-					readCollected(questionnaireNode, questionnaireData, data.getMetadataModel().getVariables());
-					readExternal(questionnaireNode, questionnaireData, data.getMetadataModel());
-					// Remove this method when all questionnaires will use Lunatic V2 format
-					readCalculated(questionnaireNode, questionnaireData, data.getMetadataModel().getVariables());
+			readCollected(questionnaireNode, questionnaireData, data.getMetadataModel().getVariables());
+			readExternal(questionnaireNode, questionnaireData, data.getMetadataModel());
+			// Remove this method when all questionnaires will use Lunatic V2 format
+			readCalculated(questionnaireNode, questionnaireData, data.getMetadataModel().getVariables());
 
-					data.addQuestionnaire(questionnaireData);
-				}
-			}
-			log.debug("Successfully parsed Lunatic answers file: {}", filePath);
+			data.addQuestionnaire(questionnaireData);
 		}
 	}
 
@@ -120,7 +120,7 @@ public class PaperDataParser extends DataParser {
 			String[] nextRecord;
 			while ((nextRecord = csvReader.readNext()) != null) {
 
-				QuestionnaireData questionnaireData = new QuestionnaireData();
+				QuestionnaireData questionnaireData = new QuestionnaireData(data.getDataTables());
 				GroupInstance answers = questionnaireData.getAnswers();
 
 				// Identifiers
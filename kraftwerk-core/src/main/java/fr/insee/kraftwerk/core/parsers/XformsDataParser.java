@@ -63,7 +63,7 @@ public class XformsDataParser extends DataParser {
 
 			for (int i = 0; i < questionnairesNodeList.size(); i++) {
 
-				QuestionnaireData questionnaireData = new QuestionnaireData();
+				QuestionnaireData questionnaireData = new QuestionnaireData(data.getDataTables());
 				GroupInstance answers = questionnaireData.getAnswers();
 
 				Element questionnaireNode = questionnairesNodeList.get(i);
@@ -0,0 +1,35 @@
+package fr.insee.kraftwerk.core.rawdata;
+
+import fr.insee.bpm.metadata.model.MetadataModel;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Registry of the tables storing the values of group instances, one table per group name.
+ * Questionnaires that share the same registry store their values in the same columns.
+ * Not thread safe: a registry must be filled by one thread at a time.
+ */
+public class DataTables {
+
+    private final Supplier<MetadataModel> metadataModelSupplier;
+    private final Map<String, GroupTable> tables = new HashMap<>();
+
+    /** Registry without metadata: all values are stored as strings. */
+    public DataTables() {
+        this(() -> null);
+    }
+
+    /**
+     * @param metadataModelSupplier Supplier of the metadata used to type the columns when they are created.
+     */
+    public DataTables(Supplier<MetadataModel> metadataModelSupplier) {
+        this.metadataModelSupplier = metadataModelSupplier;
+    }
+
+    GroupTable getTable(String groupName) {
+        return tables.computeIfAbsent(groupName, name -> new GroupTable(metadataModelSupplier.get()));
+    }
+
+}
@@ -17,8 +17,16 @@ public class GroupData {
      * Values: a GroupInstance (which is a subgroup of the current group). */
     protected final Map<String, GroupInstance> groupInstances = new LinkedHashMap<>();
 
+    /** Registry of the tables in which values of the instances are stored. */
+    private final DataTables dataTables;
+
     public GroupData(String name){
+        this(name, new DataTables());
+    }
+
+    public GroupData(String name, DataTables dataTables){
         this.groupName = name;
+        this.dataTables = dataTables;
     }
 
     public String getName() {
@@ -39,7 +47,7 @@ public class GroupData {
         if (groupInstances.containsKey(groupId)) {
             return groupInstances.get(groupId);
         } else {
-            GroupInstance newInstance = new GroupInstance(groupName, groupId);
+            GroupInstance newInstance = new GroupInstance(groupName, groupId, dataTables);
             groupInstances.put(groupId, newInstance);
             return newInstance;
         }
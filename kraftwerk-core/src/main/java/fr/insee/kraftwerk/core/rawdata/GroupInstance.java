@@ -9,6 +9,8 @@ import java.util.Set;
 
 /**
  * Object containing concrete data of a group.
+ * Values are stored in the table of the group, shared by all the instances of the group
+ * created with the same {@link DataTables} registry.
  */
 public class GroupInstance {
 
@@ -23,25 +25,35 @@ public class GroupInstance {
 	 */
 	String groupId;
 
+	/** Registry of the tables in which values of this instance and of its subgroups are stored. */
+	private final DataTables dataTables;
+
 	/**
-	 * A map containing group's variables' data. Keys: a variable name. Values: the
-	 * String value of a variable in data file.
+	 * The table containing group's variables' data, and the row of this instance in it.
 	 */
-	Map<String, String> values = new LinkedHashMap<>();
+	private final GroupTable table;
+	private final int row;
+
 	/**
 	 * A map containing subgroups' data. Keys: a group name. Values: a GroupData
-	 * (which is a subgroup of the current group).
+	 * (which is a subgroup of the current group). Created when the first subgroup is added.
 	 */
-	Map<String, GroupData> subGroups = new LinkedHashMap<>();
+	Map<String, GroupData> subGroups;
 
 	public GroupInstance(String groupName, String groupId) {
-		this.groupName = groupName;
-		this.groupId = groupId;
+		this(groupName, groupId, new DataTables());
 	}
 
 	public GroupInstance(String groupName, Integer instanceNumber) {
+		this(groupName, GroupData.getInstanceId(groupName, instanceNumber));
+	}
+
+	public GroupInstance(String groupName, String groupId, DataTables dataTables) {
 		this.groupName = groupName;
-		this.groupId = GroupData.getInstanceId(groupName, instanceNumber);
+		this.groupId = groupId;
+		this.dataTables = dataTables;
+		this.table = dataTables.getTable(groupName);
+		this.row = table.addRow();
 	}
 
 	public String getId() {
@@ -49,38 +61,41 @@ public class GroupInstance {
 	}
 
 	public String getValue(String variableName) {
-		return values.get(variableName);
+		return table.getValue(row, variableName);
 	}
 
 	public Set<String> getVariableNames() {
-		return values.keySet();
+		return table.getVariableNames(row);
 	}
 
 	public void putValue(String variableName, String value) {
-		values.put(variableName, value);
+		table.putValue(row, variableName, value);
 	}
 	public void putValues (Map<String,String> mapToAdd){
 		mapToAdd.forEach(this::putValue);
 	}
 
 	public GroupData getSubGroup(String groupName) {
-		if (subGroups.containsKey(groupName)) {
+		if (subGroups != null && subGroups.containsKey(groupName)) {
 			return subGroups.get(groupName);
 		} else {
-			GroupData newGroup = new GroupData(groupName);
-				if (!groupName.contains(Constants.ROOT_GROUP_NAME)) {
-				subGroups.put(groupName, newGroup);	
+			GroupData newGroup = new GroupData(groupName, dataTables);
+			if (!groupName.contains(Constants.ROOT_GROUP_NAME)) {
+				if (subGroups == null) {
+					subGroups = new LinkedHashMap<>();
+				}
+				subGroups.put(groupName, newGroup);
 			}
 			return newGroup;
 		}
 	}
 
 	public boolean hasSubGroups() {
-		return !subGroups.isEmpty();
+		return subGroups != null && !subGroups.isEmpty();
 	}
 
 	public Set<String> getSubGroupNames() {
-		return new LinkedHashSet<>(subGroups.keySet());
+		return subGroups != null ? new LinkedHashSet<>(subGroups.keySet()) : new LinkedHashSet<>();
 	}
 
 }
@@ -0,0 +1,88 @@
+package fr.insee.kraftwerk.core.rawdata;
+
+import fr.insee.bpm.metadata.model.MetadataModel;
+import fr.insee.bpm.metadata.model.Variable;
+import fr.insee.bpm.metadata.model.VariableType;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Columnar storage of the values of all the instances of a group.
+ * Each instance is a row of the table, each variable is a column.
+ * Columns of INTEGER, NUMBER and BOOLEAN variables store values in primitive form.
+ */
+class GroupTable {
+
+    private final MetadataModel metadataModel;
+
+    /** Column index of each variable of the table. Keys: a variable name. Values: index in columns list. */
+    private final Map<String, Integer> columnIndexes = new HashMap<>();
+    private final List<String> columnNames = new ArrayList<>();
+    private final List<ValueColumn> columns = new ArrayList<>();
+
+    private int rowCount = 0;
+
+    /**
+     * @param metadataModel Metadata used to choose the storage type of columns, may be null.
+     */
+    GroupTable(MetadataModel metadataModel) {
+        this.metadataModel = metadataModel;
+    }
+
+    /** Add a row to the table and return its number. */
+    int addRow() {
+        return rowCount++;
+    }
+
+    int getRowCount() {
+        return rowCount;
+    }
+
+    String getValue(int row, String variableName) {
+        Integer columnIndex = columnIndexes.get(variableName);
+        if (columnIndex == null) {
+            return null;
+        }
+        return columns.get(columnIndex).get(row);
+    }
+
+    void putValue(int row, String variableName, String value) {
+        Integer columnIndex = columnIndexes.get(variableName);
+        if (columnIndex == null) {
+            columnIndex = addColumn(variableName);
+        }
+        columns.get(columnIndex).put(row, value);
+    }
+
+    /** Return the names of the variables that have a value (possibly null) in the row given. */
+    Set<String> getVariableNames(int row) {
+        Set<String> variableNames = new LinkedHashSet<>();
+        for (int i = 0; i < columns.size(); i++) {
+            if (columns.get(i).isPresent(row)) {
+                variableNames.add(columnNames.get(i));
+            }
+        }
+        return variableNames;
+    }
+
+    private int addColumn(String variableName) {
+        columnNames.add(variableName);
+        columns.add(ValueColumn.of(getVariableType(variableName)));
+        columnIndexes.put(variableName, columns.size() - 1);
+        return columns.size() - 1;
+    }
+
+    private VariableType getVariableType(String variableName) {
+        if (metadataModel == null) {
+            return null;
+        }
+        Variable variable = metadataModel.getVariables().getVariable(variableName);
+        return variable != null ? variable.getType() : null;
+    }
+
+}
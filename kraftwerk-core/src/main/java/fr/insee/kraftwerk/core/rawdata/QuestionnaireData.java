@@ -14,7 +14,19 @@ public class QuestionnaireData {
 
     @Setter
     protected String identifier;
-    protected GroupInstance answers = new GroupInstance(Constants.ROOT_GROUP_NAME, "");
+    protected GroupInstance answers;
+
+    public QuestionnaireData() {
+        this(new DataTables());
+    }
+
+    /**
+     * @param dataTables Registry of the tables in which the values are stored,
+     *                   usually the one of the SurveyRawData object the questionnaire is added to.
+     */
+    public QuestionnaireData(DataTables dataTables) {
+        this.answers = new GroupInstance(Constants.ROOT_GROUP_NAME, "", dataTables);
+    }
 
     /**
      * Put the given value corresponding to the variable given in the data object.
@@ -22,6 +22,8 @@ public class SurveyRawData {
 	private MetadataModel metadataModel;
 	private final List<QuestionnaireData> questionnaires = new ArrayList<>();
     private List<String> idSurveyUnits = new ArrayList<>();//Used for file by file operations
+	/** Columnar storage of the questionnaires values, typed using the metadata model. */
+	private final DataTables dataTables = new DataTables(this::getMetadataModel);
 
 
 	public SurveyRawData() {}
@@ -0,0 +1,272 @@
+package fr.insee.kraftwerk.core.rawdata;
+
+import fr.insee.bpm.metadata.model.VariableType;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Column of a {@link GroupTable}: values of one variable for all the instances (rows) of a group.
+ * Rows are stored in fixed size chunks that are only allocated when a value is put in one of their rows,
+ * so that variables that are rarely answered don't cost a full column.
+ */
+abstract class ValueColumn {
+
+    static final int CHUNK_SHIFT = 8;
+    static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    /** Presence bitmap, one chunk of CHUNK_SIZE bits per chunk of rows. */
+    private long[][] presence = new long[0][];
+
+    /** Create the column adapted to the variable type given (string column if the type is unknown). */
+    static ValueColumn of(VariableType variableType) {
+        if (variableType == null) {
+            return new StringColumn();
+        }
+        return switch (variableType) {
+            case INTEGER -> new LongColumn();
+            case NUMBER -> new DoubleColumn();
+            case BOOLEAN -> new BooleanColumn();
+            default -> new StringColumn();
+        };
+    }
+
+    void put(int row, String value) {
+        int chunkIndex = row >>> CHUNK_SHIFT;
+        presence = grow(presence, chunkIndex);
+        if (presence[chunkIndex] == null) {
+            presence[chunkIndex] = new long[CHUNK_SIZE >>> 6];
+        }
+        presence[chunkIndex][(row & CHUNK_MASK) >>> 6] |= 1L << row;
+        store(row, value);
+    }
+
+    String get(int row) {
+        return isPresent(row) ? load(row) : null;
+    }
+
+    boolean isPresent(int row) {
+        int chunkIndex = row >>> CHUNK_SHIFT;
+        if (chunkIndex >= presence.length || presence[chunkIndex] == null) {
+            return false;
+        }
+        return (presence[chunkIndex][(row & CHUNK_MASK) >>> 6] & (1L << row)) != 0;
+    }
+
+    /** Make the chunk array long enough to contain the chunk index given. */
+    static <T> T[] grow(T[] chunks, int chunkIndex) {
+        if (chunkIndex < chunks.length) {
+            return chunks;
+        }
+        return Arrays.copyOf(chunks, Math.max(chunkIndex + 1, chunks.length + (chunks.length >> 1)));
+    }
+
+    /** Store the value of a row, presence has already been set. */
+    abstract void store(int row, String value);
+
+    /** Load the value of a present row. */
+    abstract String load(int row);
+
+    /** Column storing values as strings. */
+    static final class StringColumn extends ValueColumn {
+
+        private String[][] chunks = new String[0][];
+
+        @Override
+        void store(int row, String value) {
+            int chunkIndex = row >>> CHUNK_SHIFT;
+            chunks = grow(chunks, chunkIndex);
+            if (chunks[chunkIndex] == null) {
+                chunks[chunkIndex] = new String[CHUNK_SIZE];
+            }
+            chunks[chunkIndex][row & CHUNK_MASK] = value;
+        }
+
+        @Override
+        String load(int row) {
+            return chunks[row >>> CHUNK_SHIFT][row & CHUNK_MASK];
+        }
+    }
+
+    /**
+     * Column storing values in a primitive form when the string value can be restituted as is from it.
+     * Other values (null, empty or non canonical values, values that don't match the type...) are kept as strings.
+     */
+    abstract static class TypedColumn extends ValueColumn {
+
+        /** Values that have no faithful primitive representation. Keys: row number. */
+        private Map<Integer, String> rawValues;
+
+        @Override
+        final void store(int row, String value) {
+            if (value != null && storePrimitive(row, value)) {
+                if (rawValues != null) {
+                    rawValues.remove(row);
+                }
+                return;
+            }
+            if (rawValues == null) {
+                rawValues = new HashMap<>();
+            }
+            rawValues.put(row, value);
+        }
+
+        @Override
+        final String load(int row) {
+            if (rawValues != null && rawValues.containsKey(row)) {
+                return rawValues.get(row);
+            }
+            return loadPrimitive(row);
+        }
+
+        /** @return false if the value can't be stored in primitive form. */
+        abstract boolean storePrimitive(int row, String value);
+
+        abstract String loadPrimitive(int row);
+    }
+
+    /** Column of INTEGER variables. */
+    static final class LongColumn extends TypedColumn {
+
+        private long[][] chunks = new long[0][];
+
+        @Override
+        boolean storePrimitive(int row, String value) {
+            if (!isCanonicalLong(value)) {
+                return false;
+            }
+            int chunkIndex = row >>> CHUNK_SHIFT;
+            chunks = grow(chunks, chunkIndex);
+            if (chunks[chunkIndex] == null) {
+                chunks[chunkIndex] = new long[CHUNK_SIZE];
+            }
+            chunks[chunkIndex][row & CHUNK_MASK] = Long.parseLong(value);
+            return true;
+        }
+
+        @Override
+        String loadPrimitive(int row) {
+            return Long.toString(chunks[row >>> CHUNK_SHIFT][row & CHUNK_MASK]);
+        }
+    }
+
+    /** Column of NUMBER variables. Integral values are flagged to be restituted without decimal part. */
+    static final class DoubleColumn extends TypedColumn {
+
+        /** Integral values with at most this number of digits are exactly represented by a double. */
+        private static final int MAX_EXACT_DIGITS = 15;
+
+        private double[][] chunks = new double[0][];
+        private long[][] integralFlags = new long[0][];
+
+        @Override
+        boolean storePrimitive(int row, String value) {
+            boolean integral = isCanonicalLong(value) && value.length() <= MAX_EXACT_DIGITS;
+            double doubleValue;
+            if (integral) {
+                doubleValue = Long.parseLong(value);
+            } else if (isDecimalCandidate(value)) {
+                doubleValue = Double.parseDouble(value);
+                if (!Double.toString(doubleValue).equals(value)) {
+                    return false;
+                }
+            } else {
+                return false;
+            }
+            int chunkIndex = row >>> CHUNK_SHIFT;
+            chunks = grow(chunks, chunkIndex);
+            integralFlags = grow(integralFlags, chunkIndex);
+            if (chunks[chunkIndex] == null) {
+                chunks[chunkIndex] = new double[CHUNK_SIZE];
+                integralFlags[chunkIndex] = new long[CHUNK_SIZE >>> 6];
+            }
+            chunks[chunkIndex][row & CHUNK_MASK] = doubleValue;
+            long bit = 1L << row;
+            int word = (row & CHUNK_MASK) >>> 6;
+            integralFlags[chunkIndex][word] = integral
+                    ? integralFlags[chunkIndex][word] | bit
+                    : integralFlags[chunkIndex][word] & ~bit;
+            return true;
+        }
+
+        @Override
+        String loadPrimitive(int row) {
+            int chunkIndex = row >>> CHUNK_SHIFT;
+            double value = chunks[chunkIndex][row & CHUNK_MASK];
+            boolean integral = (integralFlags[chunkIndex][(row & CHUNK_MASK) >>> 6] & (1L << row)) != 0;
+            return integral ? Long.toString((long) value) : Double.toString(value);
+        }
+
+        /** Cheap check before parsing, to avoid exceptions on values that are obviously not numbers. */
+        private static boolean isDecimalCandidate(String value) {
+            if (value.isEmpty()) {
+                return false;
+            }
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if ((c < '0' || c > '9') && c != '.' && c != '-' && c != 'E') {
+                    return false;
+                }
+            }
+            return value.indexOf('.') > 0;
+        }
+    }
+
+    /** Column of BOOLEAN variables, stored as a bitmap. */
+    static final class BooleanColumn extends TypedColumn {
+
+        private long[][] chunks = new long[0][];
+
+        @Override
+        boolean storePrimitive(int row, String value) {
+            boolean booleanValue;
+            if ("true".equals(value)) {
+                booleanValue = true;
+            } else if ("false".equals(value)) {
+                booleanValue = false;
+            } else {
+                return false;
+            }
+            int chunkIndex = row >>> CHUNK_SHIFT;
+            chunks = grow(chunks, chunkIndex);
+            if (chunks[chunkIndex] == null) {
+                chunks[chunkIndex] = new long[CHUNK_SIZE >>> 6];
+            }
+            long bit = 1L << row;
+            int word = (row & CHUNK_MASK) >>> 6;
+            chunks[chunkIndex][word] = booleanValue ? chunks[chunkIndex][word] | bit : chunks[chunkIndex][word] & ~bit;
+            return true;
+        }
+
+        @Override
+        String loadPrimitive(int row) {
+            boolean value = (chunks[row >>> CHUNK_SHIFT][(row & CHUNK_MASK) >>> 6] & (1L << row)) != 0;
+            return Boolean.toString(value);
+        }
+    }
+
+    /**
+     * Check if the value is the canonical string representation of a long that can't overflow:
+     * optional minus sign, no leading zero, at most 18 digits.
+     */
+    static boolean isCanonicalLong(String value) {
+        int start = value.startsWith("-") ? 1 : 0;
+        int digits = value.length() - start;
+        if (digits == 0 || digits > 18) {
+            return false;
+        }
+        if (value.charAt(start) == '0' && (digits > 1 || start == 1)) {
+            return false;
+        }
+        for (int i = start; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
@@ -42,7 +42,7 @@ public class BuildBindingsSequenceGenesis {
 		// To be deported in another place in the code later at refactor step
 		List<SurveyUnitUpdateLatest> surveyUnitsFiltered = surveyUnits.stream().filter(surveyUnit -> dataMode.equals(surveyUnit.getMode().getModeName())).toList();
 		for(SurveyUnitUpdateLatest surveyUnit : surveyUnitsFiltered) {
-			QuestionnaireData questionnaire = new QuestionnaireData();
+			QuestionnaireData questionnaire = new QuestionnaireData(data.getDataTables());
 			questionnaire.setIdentifier(surveyUnit.getInterrogationId());
 			data.getIdSurveyUnits().add(surveyUnit.getInterrogationId());
 
@@ -1,14 +1,44 @@
 package fr.insee.kraftwerk.core.sequence;
 
+import fr.insee.kraftwerk.core.utils.KraftwerkExecutionContext;
 import fr.insee.kraftwerk.core.utils.SqlUtils;
+import fr.insee.kraftwerk.core.utils.StageTimer;
 import fr.insee.kraftwerk.core.vtl.VtlBindings;
 import lombok.NoArgsConstructor;
+import lombok.extern.log4j.Log4j2;
 
+import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
 
 @NoArgsConstructor
+@Log4j2
 public class InsertDatabaseSequence {
     public void insertDatabaseProcessing(VtlBindings vtlBindings, Statement database){
         SqlUtils.convertVtlBindingsIntoSqlDatabase(vtlBindings, database);
     }
+
+    /**
+     * Insert the datasets into the database, recording the DuckDB insertion duration and the rows of each dataset
+     * in the execution context. The database schema is read once, and data is checkpointed once.
+     * Databases attached by the SQL multimodal processing are detached once their tables are copied.
+     */
+    public void insertDatabaseProcessing(VtlBindings vtlBindings, Statement database, KraftwerkExecutionContext kraftwerkExecutionContext){
+        try {
+            Map<String, List<String>> tablesColumns = SqlUtils.getTablesColumns(database);
+            for (String datasetName : vtlBindings.getDatasetNames()) {
+                try (StageTimer stageTimer = kraftwerkExecutionContext.startStage("InsertDatabase", null, datasetName)) {
+                    // Rows are counted once, on the data points materialized or the rows copied for the insert
+                    long rows = SqlUtils.convertVtlDatasetIntoSqlTable(vtlBindings.getDataset(datasetName), datasetName, database, tablesColumns);
+                    stageTimer.setRowsIn(rows);
+                    stageTimer.setRowsOut(rows);
+                }
+            }
+            SqlUtils.detachSqlTableDatasets(vtlBindings, database);
+            SqlUtils.checkpoint(database);
+        } catch (SQLException e) {
+            log.error("SQL Error during VTL bindings conversion :\n{}",e.toString());
+        }
+    }
 }
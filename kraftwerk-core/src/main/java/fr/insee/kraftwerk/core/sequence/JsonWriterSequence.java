@@ -2,91 +2,181 @@ package fr.insee.kraftwerk.core.sequence;
 
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import fr.insee.bpm.metadata.model.Group;
 import fr.insee.bpm.metadata.model.MetadataModel;
+import fr.insee.kraftwerk.core.Constants;
 import fr.insee.kraftwerk.core.data.model.InterrogationId;
 import fr.insee.kraftwerk.core.data.model.SurveyUnitUpdateLatest;
 import fr.insee.kraftwerk.core.exceptions.KraftwerkException;
 import lombok.extern.slf4j.Slf4j;
+import org.duckdb.DuckDBConnection;
 
 import java.io.IOException;
+import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
 
 @Slf4j
 public class JsonWriterSequence {
 
+    /**
+     * Prefix of the table of the interrogations of the batch, with their position to read the group tables in the batch order.
+     * Each call has its own table, so that concurrent exports sharing the database don't replace each other's batch.
+     */
+    static final String BATCH_TABLE_PREFIX = "kraftwerk_json_batch";
+
+    /**
+     * Write a JSON document for each interrogation of the batch.
+     * Each group table is read once for the whole batch, ordered as the batch, and the documents
+     * are built walking through the interrogations and the group tables at the same pace.
+     */
     public void tmpJsonOutput(List<InterrogationId> listId,
                                 List<SurveyUnitUpdateLatest> suLatest,
                                 ObjectMapper objectMapper,
                                 JsonGenerator jsonGenerator,
                                 Map<String,MetadataModel> metadataModelsByMode,
                                 Statement database) throws KraftwerkException, IOException {
-        for (InterrogationId interrogationId : listId){
-            Map<String, Object> result = buildResultMap(suLatest, interrogationId, metadataModelsByMode, database);
-            if (result != null) {
-                objectMapper.writeValue(jsonGenerator, result);
+        Map<String, SurveyUnitUpdateLatest> suLatestById = new HashMap<>();
+        for (SurveyUnitUpdateLatest su : suLatest) {
+            suLatestById.putIfAbsent(su.getInterrogationId(), su);
+        }
+        Set<String> batchIds = new LinkedHashSet<>();
+        for (InterrogationId interrogationId : listId) {
+            batchIds.add(interrogationId.getId());
+        }
+        MetadataModel firstMetadataModel = metadataModelsByMode.entrySet().iterator().next().getValue();
+
+        String batchTableName = BATCH_TABLE_PREFIX + "_" + UUID.randomUUID().toString().replace("-", "");
+        List<GroupCursor> groupCursors = new ArrayList<>();
+        try {
+            insertBatchIds(database, batchTableName, batchIds);
+            for (String group : firstMetadataModel.getGroups().keySet()) {
+                groupCursors.add(new GroupCursor(database.getConnection(), group, batchTableName));
+            }
+            for (String interrogationId : batchIds) {
+                // Group rows are read even if the interrogation is not written, to stay in step with the batch
+                Map<String, Object> resultByScope = new LinkedHashMap<>();
+                for (GroupCursor groupCursor : groupCursors) {
+                    resultByScope.put(groupCursor.group, groupCursor.nextRows(interrogationId));
+                }
+                SurveyUnitUpdateLatest currentSu = suLatestById.get(interrogationId);
+                if (currentSu != null) {
+                    objectMapper.writeValue(jsonGenerator, buildResultMap(currentSu, interrogationId, resultByScope));
+                }
             }
+        } catch (SQLException e) {
+            log.error(e.getMessage());
+            throw new KraftwerkException(500, "SQL error : extraction step");
+        } finally {
+            for (GroupCursor groupCursor : groupCursors) {
+                groupCursor.close();
+            }
+            dropBatchIds(database, batchTableName);
         }
     }
 
-    private Map<String,Object> buildResultMap(List<SurveyUnitUpdateLatest> suLatest,
-                                              InterrogationId interrogationId,
-                                              Map<String,MetadataModel> metadataModelsByMode,
-                                              Statement database) throws KraftwerkException{
+    private Map<String,Object> buildResultMap(SurveyUnitUpdateLatest currentSu,
+                                              String interrogationId,
+                                              Map<String,Object> resultByScope) {
         Map<String,Object> resultById = new HashMap<>();
-        SurveyUnitUpdateLatest currentSu = suLatest.stream()
-                .filter(su -> su.getInterrogationId().equals(interrogationId.getId()))
-                .findFirst()
-                .orElse(null);
-
-        if (currentSu == null) return null;
-
         resultById.put("partitionId",currentSu.getCampaignId());
-        resultById.put("interrogationId", interrogationId.getId());
+        resultById.put("interrogationId", interrogationId);
         resultById.put("surveyUnitId",currentSu.getSurveyUnitId());
         resultById.put("contextualId",currentSu.getContextualId());
         resultById.put("questionnaireModelId",currentSu.getQuestionnaireId());
         resultById.put("mode",currentSu.getMode());
         resultById.put("isCapturedIndirectly",currentSu.getIsCapturedIndirectly());
         resultById.put("validationDate",currentSu.getValidationDate());
-        resultById.put("data",transformDataToJson(interrogationId, metadataModelsByMode, database));
+        resultById.put("data",resultByScope);
         return resultById;
     }
 
-    private Map<String,Object> transformDataToJson(InterrogationId interrogationId,
-                                                   Map<String, MetadataModel> metadataModelsByMode,
-                                                   Statement database) throws KraftwerkException {
-        Map<String, Object> resultByScope = new LinkedHashMap<>();
+    private static void insertBatchIds(Statement database, String batchTableName, Set<String> batchIds) throws SQLException {
+        database.execute(String.format("CREATE OR REPLACE TABLE %s (%s VARCHAR, batch_position INTEGER)",
+                batchTableName, Constants.ROOT_IDENTIFIER_NAME));
+        DuckDBConnection duckDBConnection = database.getConnection().unwrap(DuckDBConnection.class);
+        try (var appender = duckDBConnection.createAppender(DuckDBConnection.DEFAULT_SCHEMA, batchTableName)) {
+            int position = 0;
+            for (String interrogationId : batchIds) {
+                appender.beginRow();
+                appender.append(interrogationId);
+                appender.append(position++);
+                appender.endRow();
+            }
+        }
+    }
+
+    private static void dropBatchIds(Statement database, String batchTableName) {
         try {
-            MetadataModel firstMetadataModel = metadataModelsByMode.entrySet().iterator().next().getValue();
-            Map<String, Group> groups = firstMetadataModel.getGroups();
-            for (String group : groups.keySet()){
-                List<Object> listIteration = new ArrayList<>();
-                String request = String.format("SELECT * FROM %s WHERE interrogationId='%s'", group, interrogationId.getId());
-                ResultSet rs = database.executeQuery(request);
-                ResultSetMetaData meta = rs.getMetaData();
-                int cols = meta.getColumnCount();
-                while (rs.next()) {
-                    Map<String, Object> row = new LinkedHashMap<>();
-                    for (int i = 1; i <= cols; i++) {
-                        if (meta.getColumnLabel(i).equals("interrogationId")) continue;
-                        row.put(meta.getColumnLabel(i), rs.getObject(i));
+            database.execute(String.format("DROP TABLE IF EXISTS %s", batchTableName));
+        } catch (SQLException e) {
+            log.warn("Can't drop table {} : {}", batchTableName, e.getMessage());
+        }
+    }
+
+    /* Rows of a group table for the interrogations of the batch, in the batch order */
+    private static final class GroupCursor implements AutoCloseable {
+
+        private final String group;
+        private final Statement statement;
+        private final ResultSet resultSet;
+        private final ResultSetMetaData meta;
+        private final int idColumn;
+        private boolean hasRow;
+
+        private GroupCursor(Connection connection, String group, String batchTableName) throws SQLException {
+            this.group = group;
+            this.statement = connection.createStatement();
+            try {
+                // The rowid keeps the rows of an interrogation in their insertion order
+                this.resultSet = statement.executeQuery(String.format(
+                        "SELECT g.* FROM \"%s\" g JOIN %s b ON g.%s = b.%s ORDER BY b.batch_position, g.rowid",
+                        group, batchTableName, Constants.ROOT_IDENTIFIER_NAME, Constants.ROOT_IDENTIFIER_NAME));
+                this.meta = resultSet.getMetaData();
+                int interrogationIdColumn = -1;
+                for (int i = 1; i <= meta.getColumnCount(); i++) {
+                    if (meta.getColumnLabel(i).equals(Constants.ROOT_IDENTIFIER_NAME)) {
+                        interrogationIdColumn = i;
                     }
-                    listIteration.add(row);
                 }
-                resultByScope.put(group,listIteration);
+                this.idColumn = interrogationIdColumn;
+                this.hasRow = resultSet.next();
+            } catch (SQLException e) {
+                statement.close();
+                throw e;
+            }
+        }
+
+        private List<Object> nextRows(String interrogationId) throws SQLException {
+            List<Object> listIteration = new ArrayList<>();
+            while (hasRow && interrogationId.equals(resultSet.getString(idColumn))) {
+                Map<String, Object> row = new LinkedHashMap<>();
+                for (int i = 1; i <= meta.getColumnCount(); i++) {
+                    if (i == idColumn) continue;
+                    row.put(meta.getColumnLabel(i), resultSet.getObject(i));
+                }
+                listIteration.add(row);
+                hasRow = resultSet.next();
+            }
+            return listIteration;
+        }
+
+        @Override
+        public void close() {
+            try {
+                statement.close();
+            } catch (SQLException e) {
+                log.warn("Can't close query on table {} : {}", group, e.getMessage());
             }
-        } catch (Exception e){
-            log.error(e.getMessage());
-            throw new KraftwerkException(500,"SQL error : extraction step");
         }
-        return resultByScope;
     }
 }
@@ -9,42 +9,232 @@ import fr.insee.kraftwerk.core.dataprocessing.MultimodeTransformations;
 import fr.insee.kraftwerk.core.dataprocessing.ReconciliationProcessing;
 import fr.insee.kraftwerk.core.exceptions.KraftwerkException;
 import fr.insee.kraftwerk.core.inputs.UserInputs;
+import fr.insee.kraftwerk.core.utils.SqlUtils;
 import fr.insee.kraftwerk.core.utils.TextFileWriter;
 import fr.insee.kraftwerk.core.utils.files.FileUtilsInterface;
 import fr.insee.kraftwerk.core.utils.KraftwerkExecutionContext;
+import fr.insee.kraftwerk.core.utils.StageTimer;
 import fr.insee.kraftwerk.core.vtl.VtlBindings;
+import fr.insee.vtl.model.Dataset;
 import lombok.NoArgsConstructor;
+import lombok.extern.log4j.Log4j2;
 
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @NoArgsConstructor
+@Log4j2
 public class MultimodalSequence {
-	
+
+	/** Prefix of the in-memory databases attached for the SQL multimodal processing. */
+	private static final String MULTIMODAL_DATABASE_PREFIX = "kw_multimodal";
+
 	public void multimodalProcessing(UserInputs userInputs, VtlBindings vtlBindings, KraftwerkExecutionContext kraftwerkExecutionContext, Map<String, MetadataModel> metadataModels, FileUtilsInterface fileUtilsInterface) throws KraftwerkException {
+		multimodalProcessing(userInputs, vtlBindings, kraftwerkExecutionContext, metadataModels, fileUtilsInterface, null);
+	}
+
+	/**
+	 * Multimodal steps. If they are run as SQL (see {@link Constants#isMultimodalDuckDb()}) and a database is given,
+	 * the automated instructions are run in an in-memory database attached to it, in which the resulting tables
+	 * are left for the database insertion.
+	 *
+	 * @param database connection to the database in which the bindings will be inserted, or null to run the steps in VTL.
+	 */
+	public void multimodalProcessing(UserInputs userInputs, VtlBindings vtlBindings, KraftwerkExecutionContext kraftwerkExecutionContext, Map<String, MetadataModel> metadataModels, FileUtilsInterface fileUtilsInterface, Connection database) throws KraftwerkException {
+		if (Constants.isMultimodalDuckDb() && database != null && !vtlBindings.getDatasetNames().isEmpty()) {
+			multimodalSqlProcessing(userInputs, vtlBindings, kraftwerkExecutionContext, metadataModels, fileUtilsInterface, database);
+			return;
+		}
 		String multimodeDatasetName = Constants.MULTIMODE_DATASET_NAME;
 
 		/* Step 3.1 : aggregate unimodal datasets into a multimodal unique dataset */
 		DataProcessing reconciliationProcessing = new ReconciliationProcessing(vtlBindings, fileUtilsInterface);
-		String vtlGenerate = reconciliationProcessing.applyVtlTransformations(multimodeDatasetName,
-				userInputs.getVtlReconciliationFile(), kraftwerkExecutionContext);
+		String vtlGenerate;
+		try (StageTimer ignored = kraftwerkExecutionContext.startStage("ReconciliationProcessing", null, multimodeDatasetName)) {
+			vtlGenerate = reconciliationProcessing.applyVtlTransformations(multimodeDatasetName,
+					userInputs.getVtlReconciliationFile(), kraftwerkExecutionContext);
+		}
 		TextFileWriter.writeFile(fileUtilsInterface.getTempVtlFilePath(userInputs, "ReconciliationProcessing",multimodeDatasetName), vtlGenerate, fileUtilsInterface);
 
 		/* Step 3.1.b : clean up processing */
-		CleanUpProcessing cleanUpProcessing = new CleanUpProcessing(vtlBindings, metadataModels, fileUtilsInterface);
-		vtlGenerate = cleanUpProcessing.applyVtlTransformations(multimodeDatasetName, null, kraftwerkExecutionContext);
+		try (StageTimer ignored = kraftwerkExecutionContext.startStage("CleanUpProcessing", null, multimodeDatasetName)) {
+			CleanUpProcessing cleanUpProcessing = new CleanUpProcessing(vtlBindings, metadataModels, fileUtilsInterface);
+			vtlGenerate = cleanUpProcessing.applyVtlTransformations(multimodeDatasetName, null, kraftwerkExecutionContext);
+		}
 		TextFileWriter.writeFile(fileUtilsInterface.getTempVtlFilePath(userInputs, "CleanUpProcessing",multimodeDatasetName), vtlGenerate, fileUtilsInterface);
 
 		/* Step 3.2 : treatments on the multimodal dataset */
-		DataProcessing multimodeTransformations = new MultimodeTransformations(vtlBindings, fileUtilsInterface);
-		vtlGenerate = multimodeTransformations.applyVtlTransformations(multimodeDatasetName,
-				userInputs.getVtlTransformationsFile(), kraftwerkExecutionContext);
+		try (StageTimer ignored = kraftwerkExecutionContext.startStage("MultimodeTransformations", null, multimodeDatasetName)) {
+			DataProcessing multimodeTransformations = new MultimodeTransformations(vtlBindings, fileUtilsInterface);
+			vtlGenerate = multimodeTransformations.applyVtlTransformations(multimodeDatasetName,
+					userInputs.getVtlTransformationsFile(), kraftwerkExecutionContext);
+		}
 		TextFileWriter.writeFile(fileUtilsInterface.getTempVtlFilePath(userInputs, "MultimodeTransformations",multimodeDatasetName), vtlGenerate, fileUtilsInterface);
 
 		/* Step 3.3 : create datasets on each information level (i.e. each group) */
-		DataProcessing informationLevelsProcessing = new InformationLevelsProcessing(vtlBindings, fileUtilsInterface);
-		vtlGenerate = informationLevelsProcessing.applyVtlTransformations(multimodeDatasetName,
-				userInputs.getVtlInformationLevelsFile(), kraftwerkExecutionContext);
+		try (StageTimer ignored = kraftwerkExecutionContext.startStage("InformationLevelsProcessing", null, multimodeDatasetName)) {
+			DataProcessing informationLevelsProcessing = new InformationLevelsProcessing(vtlBindings, fileUtilsInterface);
+			vtlGenerate = informationLevelsProcessing.applyVtlTransformations(multimodeDatasetName,
+					userInputs.getVtlInformationLevelsFile(), kraftwerkExecutionContext);
+		}
 		TextFileWriter.writeFile(fileUtilsInterface.getTempVtlFilePath(userInputs, "InformationLevelsProcessing",multimodeDatasetName), vtlGenerate, fileUtilsInterface);
 	}
 
+	/**
+	 * Same steps, with the automated reconciliation, clean up and information levels instructions run as SQL.
+	 * The unimodal datasets are loaded into a new in-memory database attached to the database given, on a connection
+	 * of its own. The resulting tables are put in the bindings as {@link fr.insee.kraftwerk.core.vtl.SqlTableDataset},
+	 * copied with SQL by the database insertion which then detaches the database.
+	 * Tables are only read into VTL datasets if the user has given VTL instructions for the step, and are reloaded
+	 * once the instructions are applied.
+	 */
+	private void multimodalSqlProcessing(UserInputs userInputs, VtlBindings vtlBindings, KraftwerkExecutionContext kraftwerkExecutionContext, Map<String, MetadataModel> metadataModels, FileUtilsInterface fileUtilsInterface, Connection database) throws KraftwerkException {
+		String catalogName = null;
+		try (Connection connection = SqlUtils.duplicateConnection(database);
+			 Statement statement = connection.createStatement()) {
+			catalogName = SqlUtils.attachInMemoryDatabase(statement, MULTIMODAL_DATABASE_PREFIX);
+			multimodalSqlSteps(userInputs, vtlBindings, kraftwerkExecutionContext, metadataModels, fileUtilsInterface, statement);
+		} catch (SQLException e) {
+			detachDatabase(database, catalogName);
+			log.error("SQL error during multimodal processing : {}", e.toString());
+			throw new KraftwerkException(500, "SQL error during multimodal processing");
+		} catch (KraftwerkException | RuntimeException e) {
+			detachDatabase(database, catalogName);
+			throw e;
+		}
+	}
+
+	private void multimodalSqlSteps(UserInputs userInputs, VtlBindings vtlBindings, KraftwerkExecutionContext kraftwerkExecutionContext, Map<String, MetadataModel> metadataModels, FileUtilsInterface fileUtilsInterface, Statement statement) throws SQLException, KraftwerkException {
+		String multimodeDatasetName = Constants.MULTIMODE_DATASET_NAME;
+
+		/* Step 3.1 : aggregate unimodal tables into a multimodal unique table */
+		ReconciliationProcessing reconciliationProcessing = new ReconciliationProcessing(vtlBindings, fileUtilsInterface);
+		Set<String> multimodeIdentifiers = reconciliationProcessing.getIdentifiers();
+		if (vtlBindings.getDatasetNames().size() > 1) {
+			multimodeIdentifiers.add(Constants.MODE_VARIABLE_NAME);
+		}
+		String sqlGenerate;
+		try (StageTimer stageTimer = kraftwerkExecutionContext.startStage("ReconciliationProcessing", null, multimodeDatasetName)) {
+			long rowsIn = 0;
+			Map<String, List<String>> tablesColumns = SqlUtils.getTablesColumns(statement);
+			for (String datasetName : vtlBindings.getDatasetNames()) {
+				rowsIn += SqlUtils.convertVtlDatasetIntoSqlTable(vtlBindings.getDataset(datasetName), datasetName, statement, tablesColumns);
+			}
+			sqlGenerate = executeSqlInstructions(reconciliationProcessing.generateSqlInstructions(multimodeDatasetName), statement);
+			vtlBindings.put(multimodeDatasetName, SqlUtils.getSqlTableDataset(statement, multimodeDatasetName, multimodeIdentifiers));
+			applyUserVtlTransformations(reconciliationProcessing, multimodeDatasetName, userInputs.getVtlReconciliationFile(),
+					List.of(multimodeDatasetName), multimodeIdentifiers, statement, vtlBindings, kraftwerkExecutionContext);
+			stageTimer.setRowsIn(rowsIn);
+			stageTimer.setRowsOut(countTableRows(statement, multimodeDatasetName));
+		}
+		TextFileWriter.writeFile(fileUtilsInterface.getTempVtlFilePath(userInputs, "ReconciliationProcessing",multimodeDatasetName), sqlGenerate, fileUtilsInterface);
+
+		/* Step 3.1.b : clean up processing */
+		try (StageTimer ignored = kraftwerkExecutionContext.startStage("CleanUpProcessing", null, multimodeDatasetName)) {
+			CleanUpProcessing cleanUpProcessing = new CleanUpProcessing(vtlBindings, metadataModels, fileUtilsInterface);
+			sqlGenerate = cleanUpProcessing.applySqlTransformations(multimodeDatasetName, statement);
+			vtlBindings.put(multimodeDatasetName, SqlUtils.getSqlTableDataset(statement, multimodeDatasetName, multimodeIdentifiers));
+		}
+		TextFileWriter.writeFile(fileUtilsInterface.getTempVtlFilePath(userInputs, "CleanUpProcessing",multimodeDatasetName), sqlGenerate, fileUtilsInterface);
+
+		/* Step 3.2 : treatments on the multimodal dataset, user VTL only */
+		try (StageTimer ignored = kraftwerkExecutionContext.startStage("MultimodeTransformations", null, multimodeDatasetName)) {
+			DataProcessing multimodeTransformations = new MultimodeTransformations(vtlBindings, fileUtilsInterface);
+			applyUserVtlTransformations(multimodeTransformations, multimodeDatasetName, userInputs.getVtlTransformationsFile(),
+					List.of(multimodeDatasetName), multimodeIdentifiers, statement, vtlBindings, kraftwerkExecutionContext);
+		}
+		TextFileWriter.writeFile(fileUtilsInterface.getTempVtlFilePath(userInputs, "MultimodeTransformations",multimodeDatasetName), "", fileUtilsInterface);
+
+		/* Step 3.3 : create tables on each information level (i.e. each group) */
+		try (StageTimer stageTimer = kraftwerkExecutionContext.startStage("InformationLevelsProcessing", null, multimodeDatasetName)) {
+			InformationLevelsProcessing informationLevelsProcessing = new InformationLevelsProcessing(vtlBindings, fileUtilsInterface);
+			Map<String, String> groupInstructions = informationLevelsProcessing.generateSqlInstructions(multimodeDatasetName);
+			sqlGenerate = executeSqlInstructions(groupInstructions.values(), statement);
+			long rowsOut = 0;
+			for (String groupName : groupInstructions.keySet()) {
+				vtlBindings.put(groupName, SqlUtils.getSqlTableDataset(statement, groupName, multimodeIdentifiers));
+				rowsOut += countTableRows(statement, groupName);
+			}
+			List<String> tableNames = new ArrayList<>(groupInstructions.keySet());
+			tableNames.add(multimodeDatasetName);
+			applyUserVtlTransformations(informationLevelsProcessing, multimodeDatasetName, userInputs.getVtlInformationLevelsFile(),
+					tableNames, multimodeIdentifiers, statement, vtlBindings, kraftwerkExecutionContext);
+			stageTimer.setRowsOut(rowsOut);
+		}
+		TextFileWriter.writeFile(fileUtilsInterface.getTempVtlFilePath(userInputs, "InformationLevelsProcessing",multimodeDatasetName), sqlGenerate, fileUtilsInterface);
+	}
+
+	/* The attached database is detached from another connection, it can't be the default database */
+	private static void detachDatabase(Connection database, String catalogName) {
+		if (catalogName == null) {
+			return;
+		}
+		try (Connection connection = SqlUtils.duplicateConnection(database);
+			 Statement statement = connection.createStatement()) {
+			SqlUtils.detachDatabase(statement, catalogName);
+		} catch (SQLException e) {
+			log.warn("Database {} not detached : {}", catalogName, e.toString());
+		}
+	}
+
+	private static String executeSqlInstructions(Collection<String> sqlInstructions, Statement statement) throws SQLException {
+		for (String sqlInstruction : sqlInstructions) {
+			log.debug("SQL Query : {}", sqlInstruction);
+			statement.execute(sqlInstruction);
+		}
+		return String.join("\n", sqlInstructions);
+	}
+
+	/*
+	 * User VTL instructions of a step, applied on the tables given read into VTL datasets,
+	 * then reloaded into the tables. Nothing is read if there is no user VTL instructions.
+	 */
+	private static void applyUserVtlTransformations(DataProcessing dataProcessing, String bindingName, Path userVtlInstructionsPath,
+													Collection<String> tableNames, Set<String> identifierNames, Statement statement,
+													VtlBindings vtlBindings, KraftwerkExecutionContext kraftwerkExecutionContext) throws SQLException, KraftwerkException {
+		boolean userVtlGiven = dataProcessing.isUserVtlGiven(userVtlInstructionsPath);
+		if (userVtlGiven) {
+			for (String tableName : tableNames) {
+				vtlBindings.put(tableName, SqlUtils.convertSqlTableIntoVtlDataset(statement, tableName, identifierNames));
+			}
+		}
+		dataProcessing.applyUserVtlTransformations(bindingName, userVtlInstructionsPath, kraftwerkExecutionContext);
+		if (userVtlGiven) {
+			for (String tableName : tableNames) {
+				reloadTable(statement, tableName, vtlBindings);
+			}
+		}
+	}
+
+	/* Table replaced by the dataset of the bindings, modified by user VTL instructions */
+	private static void reloadTable(Statement statement, String tableName, VtlBindings vtlBindings) throws SQLException {
+		statement.execute(String.format("DROP TABLE IF EXISTS %s;", SqlUtils.toSqlIdentifier(tableName)));
+		Dataset dataset = vtlBindings.getDataset(tableName);
+		if (dataset == null) {
+			return;
+		}
+		SqlUtils.convertVtlDatasetIntoSqlTable(dataset, tableName, statement);
+		// A dataset without any exportable variable stays in memory
+		if (SqlUtils.getTableNames(statement).contains(tableName)) {
+			vtlBindings.put(tableName, SqlUtils.getSqlTableDataset(statement, tableName,
+					new HashSet<>(VtlBindings.getDatasetIdentifierNames(dataset))));
+		}
+	}
+
+	private static long countTableRows(Statement statement, String tableName) throws SQLException {
+		try (ResultSet resultSet = statement.executeQuery(
+				String.format("SELECT COUNT(*) FROM %s", SqlUtils.toSqlIdentifier(tableName)))) {
+			return resultSet.next() ? resultSet.getLong(1) : 0;
+		}
+	}
+
 }
@@ -16,6 +16,7 @@ import fr.insee.kraftwerk.core.metadata.*;
 import fr.insee.kraftwerk.core.utils.files.FileUtilsInterface;
 import fr.insee.kraftwerk.core.utils.TextFileWriter;
 import fr.insee.kraftwerk.core.utils.KraftwerkExecutionContext;
+import fr.insee.kraftwerk.core.utils.StageTimer;
 import fr.insee.kraftwerk.core.vtl.VtlBindings;
 import lombok.NoArgsConstructor;
 import lombok.extern.log4j.Log4j2;
@@ -44,10 +45,11 @@ public class UnimodalSequence {
 
 		/* Step 2.4b : Apply VTL expression for calculated variables (if any) */
 		if (modeInputs.getLunaticFile() != null) {
-			CalculatedVariables calculatedVariables = LunaticReader
-					.getCalculatedFromLunatic(fileUtilsInterface.readFile(modeInputs.getLunaticFile().toString()));
-			CalculatedProcessing calculatedProcessing = new CalculatedProcessing(vtlBindings, calculatedVariables, fileUtilsInterface);
-			vtlGenerate = calculatedProcessing.applyCalculatedVtlTransformations(dataMode, modeInputs.getModeVtlFile(), kraftwerkExecutionContext);
+			try (StageTimer ignored = kraftwerkExecutionContext.startStage("CalculatedProcessing", dataMode)) {
+				CalculatedVariables calculatedVariables = MetadataUtils.getCalculatedVariables(modeInputs, fileUtilsInterface);
+				CalculatedProcessing calculatedProcessing = new CalculatedProcessing(vtlBindings, calculatedVariables, fileUtilsInterface);
+				vtlGenerate = calculatedProcessing.applyCalculatedVtlTransformations(dataMode, modeInputs.getModeVtlFile(), kraftwerkExecutionContext);
+			}
 			TextFileWriter.writeFile(fileUtilsInterface.getTempVtlFilePath(userInputs, "CalculatedProcessing", dataMode),
 					vtlGenerate, fileUtilsInterface);
 
@@ -56,27 +58,35 @@ public class UnimodalSequence {
 		}
 
 		/* Step 2.4c : Prefix variable names with their belonging group names */
-		vtlGenerate = new GroupProcessing(vtlBindings, metadataModels.get(dataMode), fileUtilsInterface).applyVtlTransformations(dataMode, null, kraftwerkExecutionContext);
+		try (StageTimer ignored = kraftwerkExecutionContext.startStage("GroupProcessing", dataMode)) {
+			vtlGenerate = new GroupProcessing(vtlBindings, metadataModels.get(dataMode), fileUtilsInterface).applyVtlTransformations(dataMode, null, kraftwerkExecutionContext);
+		}
 		TextFileWriter.writeFile(fileUtilsInterface.getTempVtlFilePath(userInputs, "GroupProcessing", dataMode), vtlGenerate, fileUtilsInterface);
 
 		/* Step 2.5 : Apply standard mode-specific VTL transformations */
 		UnimodalDataProcessing dataProcessing = DataProcessingManager.getProcessingClass(modeInputs.getDataFormat(),
 				vtlBindings, metadataModels.get(dataMode), fileUtilsInterface);
-		vtlGenerate = dataProcessing.applyVtlTransformations(
-				dataMode,
-				Path.of(Constants.VTL_FOLDER_PATH)
-						.resolve("unimode")
-						.resolve(dataMode+".vtl"),
-				kraftwerkExecutionContext);
+		try (StageTimer ignored = kraftwerkExecutionContext.startStage("StandardVtl", dataMode)) {
+			vtlGenerate = dataProcessing.applyVtlTransformations(
+					dataMode,
+					Path.of(Constants.VTL_FOLDER_PATH)
+							.resolve("unimode")
+							.resolve(dataMode+".vtl"),
+					kraftwerkExecutionContext);
+		}
 		TextFileWriter.writeFile(fileUtilsInterface.getTempVtlFilePath(userInputs, "StandardVtl", dataMode), vtlGenerate, fileUtilsInterface);
 
 		/* Step 2.5b : Apply TCM VTL transformations */
-		TCMSequencesProcessing tcmSequencesProcessing = new TCMSequencesProcessing(vtlBindings,metadataModels.get(dataMode) , Constants.VTL_FOLDER_PATH, fileUtilsInterface);
-		vtlGenerate = tcmSequencesProcessing.applyAutomatedVtlInstructions(dataMode, kraftwerkExecutionContext);
+		try (StageTimer ignored = kraftwerkExecutionContext.startStage("TCMSequenceVTL", dataMode)) {
+			TCMSequencesProcessing tcmSequencesProcessing = new TCMSequencesProcessing(vtlBindings,metadataModels.get(dataMode) , Constants.VTL_FOLDER_PATH, fileUtilsInterface);
+			vtlGenerate = tcmSequencesProcessing.applyAutomatedVtlInstructions(dataMode, kraftwerkExecutionContext);
+		}
 		TextFileWriter.writeFile(fileUtilsInterface.getTempVtlFilePath(userInputs, "TCMSequenceVTL", dataMode), vtlGenerate, fileUtilsInterface);
 
 		/* Step 2.5c : Apply user specified mode-specific VTL transformations */
-		vtlGenerate = dataProcessing.applyVtlTransformations(dataMode, modeInputs.getModeVtlFile(), kraftwerkExecutionContext);
+		try (StageTimer ignored = kraftwerkExecutionContext.startStage(dataProcessing.getStepName(), dataMode)) {
+			vtlGenerate = dataProcessing.applyVtlTransformations(dataMode, modeInputs.getModeVtlFile(), kraftwerkExecutionContext);
+		}
 		TextFileWriter.writeFile(fileUtilsInterface.getTempVtlFilePath(userInputs, dataProcessing.getStepName(), dataMode),
 				vtlGenerate, fileUtilsInterface);
 
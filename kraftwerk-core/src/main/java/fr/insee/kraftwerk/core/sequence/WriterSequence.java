@@ -1,23 +1,31 @@
 package fr.insee.kraftwerk.core.sequence;
 
 import fr.insee.bpm.metadata.model.MetadataModel;
+import fr.insee.kraftwerk.core.Constants;
 import fr.insee.kraftwerk.core.encryption.ApplicationContextProvider;
 import fr.insee.kraftwerk.core.encryption.EncryptionUtilsStub;
 import fr.insee.kraftwerk.core.exceptions.KraftwerkException;
 import fr.insee.kraftwerk.core.inputs.ModeInputs;
 import fr.insee.kraftwerk.core.outputs.OutputFiles;
 import fr.insee.kraftwerk.core.outputs.OutputFilesFactory;
+import fr.insee.kraftwerk.core.utils.ConcurrentTasks;
 import fr.insee.kraftwerk.core.utils.KraftwerkExecutionContext;
+import fr.insee.kraftwerk.core.utils.StageTimer;
 import fr.insee.kraftwerk.core.utils.files.FileUtilsInterface;
 import fr.insee.kraftwerk.core.vtl.VtlBindings;
+import org.duckdb.DuckDBConnection;
 import org.springframework.context.ApplicationContext;
 
 import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
 import java.sql.Statement;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
 
 public class WriterSequence {
 
@@ -41,8 +49,7 @@ public class WriterSequence {
 								 FileUtilsInterface fileUtilsInterface) throws KraftwerkException {
 		Path outDirectory = FileUtilsInterface.transformToOut(inDirectory,kraftwerkExecutionContext.getExecutionDateTime());
 
-		writeCsvFiles(outDirectory, vtlBindings, modeInputsMap, metadataModels, kraftwerkExecutionContext, database, fileUtilsInterface);
-		writeParquetFiles(outDirectory, vtlBindings, modeInputsMap, metadataModels, kraftwerkExecutionContext, database, fileUtilsInterface);
+		writeFiles(outDirectory, vtlBindings, modeInputsMap, metadataModels, kraftwerkExecutionContext, database, fileUtilsInterface);
 	}
 
 	public void writeOutputFiles(Path inDirectory,
@@ -56,9 +63,69 @@ public class WriterSequence {
 		Map<String, ModeInputs> modeInputsMap = new HashMap<>();
 		modeInputsMap.put(modeInputs.getDataMode(), modeInputs);
 
-		writeCsvFiles(outDirectory, vtlBindings, modeInputsMap, new HashMap<>(), kraftwerkExecutionContext, database,
+		writeFiles(outDirectory, vtlBindings, modeInputsMap, new HashMap<>(), kraftwerkExecutionContext, database,
 				fileUtilsInterface);
-		writeParquetFiles(outDirectory, vtlBindings, modeInputsMap, new HashMap<>(), kraftwerkExecutionContext, database, fileUtilsInterface);
+	}
+
+	private void writeFiles(Path outDirectory,
+							VtlBindings vtlBindings,
+							Map<String, ModeInputs> modeInputsMap,
+							Map<String, MetadataModel> metadataModels,
+							KraftwerkExecutionContext kraftwerkExecutionContext,
+							Statement database,
+							FileUtilsInterface fileUtilsInterface) throws KraftwerkException {
+		if (Constants.getExportWorkers() > 1) {
+			writeFilesConcurrently(outDirectory, vtlBindings, modeInputsMap, metadataModels, kraftwerkExecutionContext, database, fileUtilsInterface);
+			return;
+		}
+		writeCsvFiles(outDirectory, vtlBindings, modeInputsMap, metadataModels, kraftwerkExecutionContext, database, fileUtilsInterface);
+		writeParquetFiles(outDirectory, vtlBindings, modeInputsMap, metadataModels, kraftwerkExecutionContext, database, fileUtilsInterface);
+	}
+
+	/**
+	 * Write CSV and parquet output tables with one job by dataset and format, run on a bounded pool.
+	 * Each job uses its own connection to the database, so that the export of a file
+	 * (encryption, move to the output folder) overlaps with the export queries of the other ones.
+	 */
+	private void writeFilesConcurrently(Path outDirectory,
+										VtlBindings vtlBindings,
+										Map<String, ModeInputs> modeInputsMap,
+										Map<String, MetadataModel> metadataModels,
+										KraftwerkExecutionContext kraftwerkExecutionContext,
+										Statement database,
+										FileUtilsInterface fileUtilsInterface) throws KraftwerkException {
+		OutputFiles csvOutputFiles = outputFilesFactory.createCsv(outDirectory, vtlBindings,
+				new ArrayList<>(modeInputsMap.keySet()), database, fileUtilsInterface, kraftwerkExecutionContext);
+		OutputFiles parquetOutputFiles = outputFilesFactory.createParquet(outDirectory, vtlBindings,
+				new ArrayList<>(modeInputsMap.keySet()), database, fileUtilsInterface, kraftwerkExecutionContext);
+		List<Map.Entry<OutputFiles, String>> jobs = new ArrayList<>();
+		for (OutputFiles outputFiles : List.of(csvOutputFiles, parquetOutputFiles)) {
+			for (String datasetName : outputFiles.getDatasetToCreate()) {
+				jobs.add(Map.entry(outputFiles, datasetName));
+			}
+		}
+		try (StageTimer stageTimer = kraftwerkExecutionContext.startStage("Export", null)) {
+			if (!jobs.isEmpty()) {
+				DuckDBConnection connection = database.getConnection().unwrap(DuckDBConnection.class);
+				List<Callable<Void>> exports = new ArrayList<>(jobs.size());
+				for (Map.Entry<OutputFiles, String> job : jobs) {
+					exports.add(() -> {
+						try (Connection jobConnection = connection.duplicate();
+							 Statement jobDatabase = jobConnection.createStatement()) {
+							job.getKey().writeOutputTable(job.getValue(), jobDatabase);
+						}
+						return null;
+					});
+				}
+				ConcurrentTasks.invokeAll(exports, Constants.getExportWorkers(), "output files export");
+			}
+			stageTimer.setRowsOut(kraftwerkExecutionContext.getLineCountByTableMap().values().stream()
+					.mapToLong(Integer::longValue).sum());
+		} catch (SQLException e) {
+			throw new KraftwerkException(500, e.toString());
+		}
+		csvOutputFiles.writeImportScripts(metadataModels, kraftwerkExecutionContext);
+		parquetOutputFiles.writeImportScripts(metadataModels, kraftwerkExecutionContext);
 	}
 
 	private void writeCsvFiles(Path outDirectory,
@@ -72,7 +139,11 @@ public class WriterSequence {
 		/* Step 5.1 : write csv output tables */
 		OutputFiles csvOutputFiles = outputFilesFactory.createCsv(outDirectory, vtlBindings,
 				new ArrayList<>(modeInputsMap.keySet()), database, fileUtilsInterface, kraftwerkExecutionContext);
-		csvOutputFiles.writeOutputTables();
+		try (StageTimer stageTimer = kraftwerkExecutionContext.startStage("CsvExport", null)) {
+			csvOutputFiles.writeOutputTables();
+			stageTimer.setRowsOut(kraftwerkExecutionContext.getLineCountByTableMap().values().stream()
+					.mapToLong(Integer::longValue).sum());
+		}
 		/* Step 5.2 : write scripts to import csv tables in several languages */
 		csvOutputFiles.writeImportScripts(metadataModels, kraftwerkExecutionContext);
 	}
@@ -89,7 +160,11 @@ public class WriterSequence {
 		/* Step 5.3 : write parquet output tables */
 		OutputFiles parquetOutputFiles = outputFilesFactory.createParquet(outDirectory, vtlBindings,
 				new ArrayList<>(modeInputsMap.keySet()), database, fileUtilsInterface, kraftwerkExecutionContext);
-		parquetOutputFiles.writeOutputTables();
+		try (StageTimer stageTimer = kraftwerkExecutionContext.startStage("ParquetExport", null)) {
+			parquetOutputFiles.writeOutputTables();
+			stageTimer.setRowsOut(kraftwerkExecutionContext.getLineCountByTableMap().values().stream()
+					.mapToLong(Integer::longValue).sum());
+		}
 		parquetOutputFiles.writeImportScripts(metadataModels, kraftwerkExecutionContext);
 	}
 }
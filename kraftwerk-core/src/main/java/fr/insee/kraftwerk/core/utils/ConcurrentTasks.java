@@ -0,0 +1,109 @@
+package fr.insee.kraftwerk.core.utils;
+
+import fr.insee.kraftwerk.core.exceptions.KraftwerkException;
+import lombok.extern.log4j.Log4j2;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Bounded pool of workers running the tasks of a processing step.
+ * Results are read in the order chosen by the caller, usually the submission order, so that outputs don't
+ * depend on the number of workers. A task failing with a KraftwerkException is rethrown as is, other failures
+ * are logged and rethrown as a KraftwerkException.
+ * Use in a try-with-resources block : closing interrupts the tasks still running,
+ * unless {@link #awaitSubmittedTasks()} has been called before.
+ */
+@Log4j2
+public class ConcurrentTasks implements AutoCloseable {
+
+	private final ExecutorService executor;
+	/** Name of the step, used in error messages */
+	private final String description;
+
+	public ConcurrentTasks(int workers, String description) {
+		this(Executors.newFixedThreadPool(Math.max(1, workers)), description);
+	}
+
+	/** Tasks run by the given executor, shut down when closing. */
+	public ConcurrentTasks(ExecutorService executor, String description) {
+		this.executor = executor;
+		this.description = description;
+	}
+
+	/**
+	 * Run the tasks on at most the given number of workers.
+	 * @return the results, in the order of the tasks
+	 * @throws KraftwerkException if a task failed, or if the calling thread is interrupted
+	 */
+	public static <T> List<T> invokeAll(Collection<? extends Callable<T>> tasks, int workers, String description) throws KraftwerkException {
+		try (ConcurrentTasks concurrentTasks = new ConcurrentTasks(Math.min(workers, tasks.size()), description)) {
+			return invokeAll(tasks, concurrentTasks.executor, description);
+		}
+	}
+
+	/**
+	 * Run the tasks on an executor shared with other callers, which is not shut down.
+	 * If a task fails, the tasks not finished yet are cancelled.
+	 * @return the results, in the order of the tasks
+	 * @throws KraftwerkException if a task failed, or if the calling thread is interrupted
+	 */
+	public static <T> List<T> invokeAll(Collection<? extends Callable<T>> tasks, ExecutorService sharedExecutor, String description) throws KraftwerkException {
+		ConcurrentTasks concurrentTasks = new ConcurrentTasks(sharedExecutor, description);
+		List<Future<T>> futures = new ArrayList<>(tasks.size());
+		try {
+			for (Callable<T> task : tasks) {
+				futures.add(concurrentTasks.submit(task));
+			}
+			List<T> results = new ArrayList<>(futures.size());
+			for (Future<T> future : futures) {
+				results.add(concurrentTasks.get(future));
+			}
+			return results;
+		} finally {
+			// Does nothing on the tasks already done
+			futures.forEach(future -> future.cancel(true));
+		}
+	}
+
+	public <T> Future<T> submit(Callable<T> task) {
+		return executor.submit(task);
+	}
+
+	/**
+	 * Wait for the result of a task submitted to this pool.
+	 * @throws KraftwerkException if the task failed, or if the calling thread is interrupted
+	 */
+	public <T> T get(Future<T> future) throws KraftwerkException {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new KraftwerkException(500, String.format("Interrupted during %s", description));
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof KraftwerkException kraftwerkException) {
+				throw kraftwerkException;
+			}
+			log.error("Error during {}", description, e.getCause());
+			throw new KraftwerkException(500, String.format("Error during %s : %s", description, e.getCause().getMessage()));
+		}
+	}
+
+	/**
+	 * Wait for the tasks already submitted to end, without interrupting them. No task can be submitted after.
+	 */
+	public void awaitSubmittedTasks() {
+		executor.close();
+	}
+
+	@Override
+	public void close() {
+		executor.shutdownNow();
+	}
+}
@@ -2,16 +2,20 @@ package fr.insee.kraftwerk.core.utils;
 
 import fr.insee.kraftwerk.core.Constants;
 import fr.insee.kraftwerk.core.KraftwerkError;
+import fr.insee.kraftwerk.core.exceptions.KraftwerkException;
 import lombok.Getter;
 import lombok.Setter;
 
 import java.text.SimpleDateFormat;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Getter
 @Setter
@@ -28,6 +32,14 @@ public class KraftwerkExecutionContext {
 
     private List<KraftwerkError> errors;
 
+    // Metrics by stage, mode and dataset, in the order the stages were first run
+    private final Map<String, StageMetrics> stageMetricsMap = Collections.synchronizedMap(new LinkedHashMap<>());
+
+    //Progress, in files or partitions processed, read by the jobs status
+    private final AtomicInteger progressTotal = new AtomicInteger();
+    private final AtomicInteger progressDone = new AtomicInteger();
+    private volatile boolean cancelled;
+
     //Parameters
     private String inDirectoryParam;
     private boolean fileByFile;
@@ -44,9 +56,11 @@ public class KraftwerkExecutionContext {
             long limitSize) {
         this.startTimeStamp = System.currentTimeMillis();
         this.executionDateTime = LocalDateTime.now();
-        this.lineCountByTableMap = new HashMap<>();
-        this.okFileNames = new ArrayList<>();
-        this.errors = new ArrayList<>();
+        // Filled by the concurrent export jobs
+        this.lineCountByTableMap = new ConcurrentHashMap<>();
+        // Lists filled by the workers of parallel file-by-file processing
+        this.okFileNames = Collections.synchronizedList(new ArrayList<>());
+        this.errors = Collections.synchronizedList(new ArrayList<>());
 
         this.inDirectoryParam = inDirectoryParam;
         this.fileByFile = fileByFile;
@@ -77,12 +91,100 @@ public class KraftwerkExecutionContext {
             toWrite.append("\t").append(fileName).append(Constants.END_LINE);
         }
 
+        List<StageMetrics> stageMetrics = getStageMetrics();
+        if (!stageMetrics.isEmpty()) {
+            toWrite.append("Métriques par étape:").append(Constants.END_LINE);
+        }
+        for (StageMetrics metrics : stageMetrics) {
+            toWrite.append("\t").append(metrics.getStageName());
+            if (metrics.getMode() != null) {
+                toWrite.append(" (").append(metrics.getMode()).append(")");
+            }
+            if (metrics.getDataset() != null) {
+                toWrite.append(" [").append(metrics.getDataset()).append("]");
+            }
+            toWrite.append(": ").append(metrics.getDurationMillis()).append(" ms")
+                    .append(", exécutions: ").append(metrics.getInvocations());
+            if (metrics.isRowsMeasured()) {
+                toWrite.append(", lignes en entrée: ").append(metrics.getRowsIn())
+                        .append(", lignes en sortie: ").append(metrics.getRowsOut());
+            }
+            toWrite.append(", mémoire allouée: ").append(metrics.getAllocatedBytes() / (1024 * 1024)).append(" Mo")
+                    .append(Constants.END_LINE);
+        }
+
         return toWrite.toString();
     }
 
+    /**
+     * Start measuring a processing stage. The returned timer must be closed at the end of the stage.
+     * @param stageName name of the stage
+     * @param mode mode the stage is applied to, null if the stage is not specific to one
+     */
+    public StageTimer startStage(String stageName, String mode) {
+        return startStage(stageName, mode, null);
+    }
+
+    /**
+     * Start measuring a processing stage applied to one dataset.
+     * The returned timer must be closed at the end of the stage.
+     * @param stageName name of the stage
+     * @param mode mode the stage is applied to, null if the stage is not specific to one
+     * @param dataset dataset the stage is applied to, null if the stage is not specific to one
+     */
+    public StageTimer startStage(String stageName, String mode, String dataset) {
+        return new StageTimer(this, stageName, mode, dataset);
+    }
+
+    public void recordStage(String stageName, String mode, long durationNanos, long rowsIn, long rowsOut, long allocatedBytes) {
+        getOrCreateStageMetrics(stageName, mode, null).add(durationNanos, rowsIn, rowsOut, allocatedBytes);
+    }
+
+    StageMetrics getOrCreateStageMetrics(String stageName, String mode, String dataset) {
+        String key = stageName + "|" + mode + "|" + dataset;
+        return stageMetricsMap.computeIfAbsent(key, k -> new StageMetrics(stageName, mode, dataset));
+    }
+
+    /** Metrics of the stages run so far, in the order they were first run */
+    public List<StageMetrics> getStageMetrics() {
+        synchronized (stageMetricsMap) {
+            return new ArrayList<>(stageMetricsMap.values());
+        }
+    }
+
+    /** Add files or partitions to process to the progress */
+    public void addProgressTotal(int units) {
+        progressTotal.addAndGet(units);
+    }
+
+    /** Count one more file or partition processed */
+    public void incrementProgressDone() {
+        progressDone.incrementAndGet();
+    }
+
+    public int getProgressTotal() {
+        return progressTotal.get();
+    }
+
+    public int getProgressDone() {
+        return progressDone.get();
+    }
+
+    /**
+     * Stop the execution before its next file or partition if it has been cancelled.
+     * @throws KraftwerkException if the execution has been cancelled
+     */
+    public void checkNotCancelled() throws KraftwerkException {
+        if (cancelled) {
+            throw new KraftwerkException(500, "Execution cancelled");
+        }
+    }
+
     public void addUniqueError(KraftwerkError kraftwerkError){
-        if (!errors.contains(kraftwerkError)){
-            errors.add(kraftwerkError);
+        synchronized (errors) {
+            if (!errors.contains(kraftwerkError)){
+                errors.add(kraftwerkError);
+            }
         }
     }
 }
@@ -2,8 +2,10 @@ package fr.insee.kraftwerk.core.utils;
 
 import fr.insee.bpm.metadata.model.VariableType;
 import fr.insee.kraftwerk.core.Constants;
+import fr.insee.kraftwerk.core.vtl.SqlTableDataset;
 import fr.insee.kraftwerk.core.vtl.VtlBindings;
 import fr.insee.vtl.model.Dataset;
+import fr.insee.vtl.model.InMemoryDataset;
 import fr.insee.vtl.model.Structured;
 import lombok.extern.slf4j.Slf4j;
 import org.duckdb.DuckDBAppender;
@@ -16,15 +18,22 @@ import java.nio.file.Path;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.sql.Types;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Slf4j
 public class SqlUtils {
@@ -40,55 +49,276 @@ public class SqlUtils {
      */
     public static void convertVtlBindingsIntoSqlDatabase(VtlBindings vtlBindings, Statement statement) {
         try {
+            Map<String, List<String>> tablesColumns = getTablesColumns(statement);
             for (String datasetName : vtlBindings.getDatasetNames()) {
-                //Variables types map
-                LinkedHashMap<String, VariableType> sqlSchema = extractSqlSchema(vtlBindings.getDataset(datasetName).getDataStructure());
-                createDataSQLTables(statement, datasetName, sqlSchema);
-                insertDataIntoTable(statement, datasetName, vtlBindings.getDataset(datasetName), sqlSchema);
+                convertVtlDatasetIntoSqlTable(vtlBindings.getDataset(datasetName), datasetName, statement, tablesColumns);
             }
+            detachSqlTableDatasets(vtlBindings, statement);
+            checkpoint(statement);
         } catch (SQLException e) {
             log.error("SQL Error during VTL bindings conversion :\n{}",e.toString());
         }
     }
 
+    /**
+     * Convert one vtl dataset to a SQL DuckDB table, created or completed if it already exists
+     * @param dataset vtl dataset to send into database
+     * @param datasetName name of the dataset, used as table name
+     * @param statement statement associated to database
+     * @throws SQLException if sql error
+     */
+    public static void convertVtlDatasetIntoSqlTable(Dataset dataset, String datasetName, Statement statement) throws SQLException {
+        convertVtlDatasetIntoSqlTable(dataset, datasetName, statement, getTablesColumns(statement));
+    }
+
+    /**
+     * Convert one vtl dataset to a SQL DuckDB table, created or completed if it already exists.
+     * A {@link SqlTableDataset} is copied from its attached database with SQL.
+     * Data is not checkpointed, call {@link #checkpoint(Statement)} once all the datasets are converted.
+     * @param dataset vtl dataset to send into database
+     * @param datasetName name of the dataset, used as table name
+     * @param statement statement associated to database
+     * @param tablesColumns columns of the tables of the database (see {@link #getTablesColumns(Statement)}),
+     *                      updated with the table created or completed
+     * @return the number of rows inserted
+     * @throws SQLException if sql error
+     */
+    public static long convertVtlDatasetIntoSqlTable(Dataset dataset, String datasetName, Statement statement,
+                                                     Map<String, List<String>> tablesColumns) throws SQLException {
+        //Variables types map
+        LinkedHashMap<String, VariableType> sqlSchema = extractSqlSchema(dataset.getDataStructure());
+        if (!createDataSQLTables(statement, datasetName, sqlSchema, tablesColumns)) {
+            return 0;
+        }
+        if (dataset instanceof SqlTableDataset sqlTableDataset) {
+            return statement.executeUpdate(String.format("INSERT INTO %s BY NAME SELECT * FROM %s.%s;",
+                    toSqlIdentifier(datasetName), toSqlIdentifier(sqlTableDataset.getCatalogName()),
+                    toSqlIdentifier(sqlTableDataset.getTableName())));
+        }
+        return insertDataIntoTable(statement, datasetName, dataset, sqlSchema, tablesColumns.get(datasetName));
+    }
 
     /**
-     * send CREATE TABLE query into DB for a dataset
+     * Get the columns of all the tables of the database, in one query.
+     * Tables of other attached databases are ignored.
+     * @param statement statement associated to database
+     * @return a (table name, column names in table order) map
+     * @throws SQLException if sql error
+     */
+    public static Map<String, List<String>> getTablesColumns(Statement statement) throws SQLException {
+        Map<String, List<String>> tablesColumns = new HashMap<>();
+        try (ResultSet resultSet = statement.executeQuery("SELECT table_name, column_name FROM information_schema.columns " +
+                "WHERE table_catalog = current_database() AND table_schema = current_schema() ORDER BY table_name, ordinal_position")) {
+            while (resultSet.next()) {
+                tablesColumns.computeIfAbsent(resultSet.getString("table_name"), tableName -> new ArrayList<>())
+                        .add(resultSet.getString("column_name"));
+            }
+        }
+        return tablesColumns;
+    }
+
+    /**
+     * Force to write data on disk
+     * @param statement statement associated to database
+     * @throws SQLException if sql error
+     */
+    public static void checkpoint(Statement statement) throws SQLException {
+        statement.execute("CHECKPOINT;");
+    }
+
+
+    /**
+     * Quote a table or column name for SQL queries
+     * @param name table or column name
+     * @return the quoted name
+     */
+    public static String toSqlIdentifier(String name) {
+        return "\"" + name.replace("\"", "\"\"") + "\"";
+    }
+
+    /**
+     * @param names table or column names
+     * @return the quoted names, separated by commas
+     */
+    public static String toSqlIdentifiers(Collection<String> names) {
+        return names.stream().map(SqlUtils::toSqlIdentifier).collect(Collectors.joining(", "));
+    }
+
+    /**
+     * Open another connection to the database of the connection given, to be used by another thread
+     * or with another default database.
+     * WARNING : Close the connection when finished or surround with try with ressources !
+     * @param connection DuckDB connection
+     * @return a new connection to the same database
+     * @throws SQLException if sql error
+     */
+    public static Connection duplicateConnection(Connection connection) throws SQLException {
+        return ((DuckDBConnection) connection).duplicate();
+    }
+
+    /**
+     * Attach a new in-memory database, which becomes the default database of the statement connection.
+     * The attached database is visible from every connection to the same database, until it is detached.
+     * @param statement statement associated to database
+     * @param prefix prefix of the attached database name, completed to be unique
+     * @return the name of the attached database
+     * @throws SQLException if sql error
+     */
+    public static String attachInMemoryDatabase(Statement statement, String prefix) throws SQLException {
+        String catalogName = prefix + "_" + UUID.randomUUID().toString().replace("-", "");
+        statement.execute(String.format("ATTACH ':memory:' AS %s;", toSqlIdentifier(catalogName)));
+        statement.execute(String.format("USE %s;", toSqlIdentifier(catalogName)));
+        return catalogName;
+    }
+
+    /**
+     * Detach an attached database, if it is still attached
+     * @param statement statement associated to database
+     * @param catalogName name of the attached database
+     * @throws SQLException if sql error
+     */
+    public static void detachDatabase(Statement statement, String catalogName) throws SQLException {
+        statement.execute(String.format("DETACH DATABASE IF EXISTS %s;", toSqlIdentifier(catalogName)));
+    }
+
+    /**
+     * Detach the databases of the {@link SqlTableDataset} of the bindings, once they are copied into the database.
+     * Their structures stay available.
+     * @param vtlBindings vtl bindings sent into database
+     * @param statement statement associated to database
+     * @throws SQLException if sql error
+     */
+    public static void detachSqlTableDatasets(VtlBindings vtlBindings, Statement statement) throws SQLException {
+        Set<String> catalogNames = new TreeSet<>();
+        for (String datasetName : vtlBindings.getDatasetNames()) {
+            if (vtlBindings.getDataset(datasetName) instanceof SqlTableDataset sqlTableDataset) {
+                catalogNames.add(sqlTableDataset.getCatalogName());
+            }
+        }
+        for (String catalogName : catalogNames) {
+            detachDatabase(statement, catalogName);
+        }
+    }
+
+    /**
+     * Reference a table of the default database of the statement as a dataset of the bindings, without reading it
+     * @param statement statement associated to database
+     * @param tableName name of the table
+     * @param identifierNames names of the columns having the identifier role, other columns are measures
+     * @return the dataset, having the structure of the table
+     * @throws SQLException if sql error
+     */
+    public static SqlTableDataset getSqlTableDataset(Statement statement, String tableName, Set<String> identifierNames) throws SQLException {
+        String catalogName;
+        try (ResultSet resultSet = statement.executeQuery("SELECT current_database()")) {
+            resultSet.next();
+            catalogName = resultSet.getString(1);
+        }
+        try (ResultSet resultSet = statement.executeQuery(String.format("SELECT * FROM %s LIMIT 0", toSqlIdentifier(tableName)))) {
+            return new SqlTableDataset(catalogName, tableName,
+                    new Structured.DataStructure(getComponents(resultSet.getMetaData(), identifierNames)));
+        }
+    }
+
+    /**
+     * Read a SQL table into an in-memory vtl dataset, in the order of the table rows
+     * @param statement statement associated to database
+     * @param tableName name of the table to read
+     * @param identifierNames names of the columns having the identifier role, other columns are measures
+     * @return the vtl dataset
+     * @throws SQLException if sql error
+     */
+    public static Dataset convertSqlTableIntoVtlDataset(Statement statement, String tableName, Set<String> identifierNames) throws SQLException {
+        List<List<Object>> dataPoints = new ArrayList<>();
+        try (ResultSet resultSet = getAllData(statement, tableName)) {
+            List<Structured.Component> components = getComponents(resultSet.getMetaData(), identifierNames);
+            while (resultSet.next()) {
+                List<Object> dataPoint = new ArrayList<>(components.size());
+                for (int i = 1; i <= components.size(); i++) {
+                    dataPoint.add(getVtlValue(resultSet, i, components.get(i - 1).getType()));
+                }
+                dataPoints.add(dataPoint);
+            }
+            return new InMemoryDataset(dataPoints, components);
+        }
+    }
+
+    private static List<Structured.Component> getComponents(ResultSetMetaData metaData, Set<String> identifierNames) throws SQLException {
+        List<Structured.Component> components = new ArrayList<>();
+        for (int i = 1; i <= metaData.getColumnCount(); i++) {
+            String columnName = metaData.getColumnName(i);
+            components.add(new Structured.Component(columnName, getJavaClassFromSqlType(metaData.getColumnType(i)),
+                    identifierNames.contains(columnName) ? Dataset.Role.IDENTIFIER : Dataset.Role.MEASURE));
+        }
+        return components;
+    }
+
+    private static Class<?> getJavaClassFromSqlType(int sqlType) {
+        return switch (sqlType) {
+            case Types.BIGINT, Types.INTEGER, Types.SMALLINT, Types.TINYINT -> Long.class;
+            case Types.DOUBLE, Types.FLOAT, Types.REAL, Types.DECIMAL, Types.NUMERIC -> Double.class;
+            case Types.BOOLEAN, Types.BIT -> Boolean.class;
+            default -> String.class;
+        };
+    }
+
+    private static Object getVtlValue(ResultSet resultSet, int columnIndex, Class<?> type) throws SQLException {
+        Object value;
+        if (type == Long.class) {
+            value = resultSet.getLong(columnIndex);
+        } else if (type == Double.class) {
+            value = resultSet.getDouble(columnIndex);
+        } else if (type == Boolean.class) {
+            value = resultSet.getBoolean(columnIndex);
+        } else {
+            value = resultSet.getString(columnIndex);
+        }
+        return resultSet.wasNull() ? null : value;
+    }
+
+    /**
+     * send CREATE TABLE query into DB for a dataset, or ALTER TABLE query if the table already exists
      *
      * @param statement   DuckDB connection
      * @param datasetName dataset to convert
      * @param sqlSchema schema of dataset
+     * @param tablesColumns columns of the database tables, updated
+     * @return false if the dataset has no variable, so no table
      * @throws SQLException if sql error
      */
-    private static void createDataSQLTables(
+    private static boolean createDataSQLTables(
             Statement statement,
             String datasetName,
-            LinkedHashMap<String, VariableType> sqlSchema
+            LinkedHashMap<String, VariableType> sqlSchema,
+            Map<String, List<String>> tablesColumns
     ) throws SQLException {
 
         //Skip if no variable
         if (sqlSchema.isEmpty()) {
             log.warn("Empty schema for dataset {}", datasetName);
-            return;
+            return false;
         }
 
         //Don't CREATE if table already exists (ex: file-by-file)
-        List<String> tableNames = getTableNames(statement);
-        if (!tableNames.contains(datasetName)) {
+        List<String> tableColumns = tablesColumns.get(datasetName);
+        if (tableColumns == null) {
             String createTableQuery = getCreateTableQuery(datasetName, sqlSchema);
 
             //Execute query
             log.debug("SQL Query : {}", createTableQuery);
             statement.execute(createTableQuery);
-            return;
+            tablesColumns.put(datasetName, new ArrayList<>(sqlSchema.keySet()));
+            return true;
         }
         //add missing columns if necessary
-        LinkedHashMap<String, VariableType> variablesToAdd = getVariablesToAdd(statement, datasetName, sqlSchema);
+        LinkedHashMap<String, VariableType> variablesToAdd = getVariablesToAdd(tableColumns, sqlSchema);
         if(variablesToAdd.isEmpty()){
-            return;
+            return true;
         }
         String updateTableQuery = getUpdateTableQuery(datasetName, variablesToAdd);
         statement.execute(updateTableQuery);
+        tableColumns.addAll(variablesToAdd.keySet());
+        return true;
     }
 
     private static String getCreateTableQuery(String datasetName, LinkedHashMap<String, VariableType> variablesToAdd) {
@@ -107,12 +337,13 @@ public class SqlUtils {
     }
 
     private static LinkedHashMap<String, VariableType> getVariablesToAdd(
-            Statement statement,
-            String datasetName,
+            List<String> tableColumns,
             LinkedHashMap<String, VariableType> sqlSchema
-    ) throws SQLException {
+    ) {
         LinkedHashMap<String,VariableType> variablesToAdd = new LinkedHashMap<>();
-        Set<String> columnsAlreadyInDatabase = new HashSet<>(getColumnNames(statement, datasetName));
+        //Column names are case-insensitive in DuckDB
+        Set<String> columnsAlreadyInDatabase = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        columnsAlreadyInDatabase.addAll(tableColumns);
         //Filter out variable names already in database table
         sqlSchema.keySet().stream()
                 .filter(variableName -> !columnsAlreadyInDatabase.contains(variableName))
@@ -174,45 +405,64 @@ public class SqlUtils {
     }
 
     /**
-     * insert data into table associated with dataset
+     * insert data into table associated with dataset, appending the typed values of the data points
+     * in the order of the table columns
      *
      * @param database DuckDB connection
      * @param dataset   dataset to convert
      * @param sqlSchema schema
+     * @param tableColumns columns of the table, null values being appended for the ones that are not in the dataset
      */
-    private static void insertDataIntoTable(Statement database, String datasetName, Dataset dataset, LinkedHashMap<String, VariableType> sqlSchema) throws SQLException {
-        if (dataset.getDataAsMap().isEmpty()) {
-            return;
+    private static long insertDataIntoTable(Statement database, String datasetName, Dataset dataset,
+                                            LinkedHashMap<String, VariableType> sqlSchema, List<String> tableColumns) throws SQLException {
+        List<Structured.DataPoint> dataPoints = dataset.getDataPoints();
+        if (dataPoints.isEmpty()) {
+            return 0;
+        }
+
+        //Index in the data points and type of each table column, -1 if not in the dataset
+        Map<String, String> datasetColumns = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        sqlSchema.keySet().forEach(columnName -> datasetColumns.put(columnName, columnName));
+        int[] columnIndexes = new int[tableColumns.size()];
+        VariableType[] columnTypes = new VariableType[tableColumns.size()];
+        for (int i = 0; i < tableColumns.size(); i++) {
+            String columnName = datasetColumns.get(tableColumns.get(i));
+            columnIndexes[i] = columnName == null ? -1 : dataset.getDataStructure().indexOfKey(columnName);
+            columnTypes[i] = columnName == null ? null : sqlSchema.get(columnName);
         }
 
         DuckDBConnection duckDBConnection = (DuckDBConnection) database.getConnection();
         log.debug("URL de connexion : {}", duckDBConnection.getMetaData().getURL());
         try(var appender = duckDBConnection.createAppender(DuckDBConnection.DEFAULT_SCHEMA,datasetName)){
-            for (Map<String, Object> dataRow : dataset.getDataAsMap()) {
+            for (Structured.DataPoint dataPoint : dataPoints) {
                 appender.beginRow();
-                for (String columnName : sqlSchema.keySet()) {
-                    String data = dataRow.get(columnName) == null ? null : dataRow.get(columnName).toString().replace("\n","");
-                    appendValueWithType(appender, data, sqlSchema.get(columnName));
+                for (int i = 0; i < columnIndexes.length; i++) {
+                    if (columnIndexes[i] < 0) {
+                        appender.appendNull();
+                    } else {
+                        appendValueWithType(appender, dataPoint.get(columnIndexes[i]), columnTypes[i]);
+                    }
                 }
                 appender.endRow();
             }
         }
-        database.execute("CHECKPOINT;"); //Force to write data on disk
+        return dataPoints.size();
     }
 
+    /* Values are appended natively, strings are only parsed if the value is not of the column type */
     private static void appendValueWithType(DuckDBAppender appender,
-                                            String data,
+                                            Object value,
                                             VariableType variableType) throws SQLException {
-        if (data == null){
+        if (value == null){
             appender.appendNull();
             return;
         }
         switch (variableType) {
-            case NUMBER -> appender.append(Double.parseDouble(data));
-            case BOOLEAN -> appender.append(Boolean.parseBoolean(data));
-            case INTEGER -> appender.append(Long.parseLong(data));
-            case STRING -> appender.append(data);
-            case DATE -> appender.append(LocalDateTime.parse(data));
+            case NUMBER -> appender.append(value instanceof Number number ? number.doubleValue() : Double.parseDouble(value.toString()));
+            case BOOLEAN -> appender.append(value instanceof Boolean bool ? bool.booleanValue() : Boolean.parseBoolean(value.toString()));
+            case INTEGER -> appender.append(value instanceof Number number ? number.longValue() : Long.parseLong(value.toString()));
+            case STRING -> appender.append(value.toString().replace("\n",""));
+            case DATE -> appender.append(value instanceof LocalDateTime dateTime ? dateTime : LocalDateTime.parse(value.toString()));
         }
     }
 
@@ -0,0 +1,76 @@
+package fr.insee.kraftwerk.core.utils;
+
+import lombok.Getter;
+
+/**
+ * Metrics accumulated by one processing stage for one mode and one dataset during an execution.
+ * A stage can run several times (one per file in file-by-file mode, one per Genesis partition),
+ * durations, rows and allocated bytes are summed over the invocations.
+ * Rows are only meaningful if the stage counted them, see {@link #isRowsMeasured()}.
+ */
+public class StageMetrics {
+
+	@Getter
+	private final String stageName;
+	/** Mode the stage was applied to, null if the stage is not specific to one */
+	@Getter
+	private final String mode;
+	/** Dataset the stage was applied to, null if the stage is not specific to one */
+	@Getter
+	private final String dataset;
+	private long invocations;
+	private long durationNanos;
+	private long rowsIn;
+	private long rowsOut;
+	private long allocatedBytes;
+	private boolean rowsMeasured;
+
+	public StageMetrics(String stageName, String mode, String dataset) {
+		this.stageName = stageName;
+		this.mode = mode;
+		this.dataset = dataset;
+	}
+
+	synchronized void add(long durationNanos, long allocatedBytes) {
+		this.invocations++;
+		this.durationNanos += durationNanos;
+		this.allocatedBytes += allocatedBytes;
+	}
+
+	synchronized void add(long durationNanos, long rowsIn, long rowsOut, long allocatedBytes) {
+		add(durationNanos, allocatedBytes);
+		this.rowsIn += rowsIn;
+		this.rowsOut += rowsOut;
+		this.rowsMeasured = true;
+	}
+
+	public synchronized long getDurationMillis() {
+		return durationNanos / 1_000_000;
+	}
+
+	public synchronized long getInvocations() {
+		return invocations;
+	}
+
+	public synchronized long getDurationNanos() {
+		return durationNanos;
+	}
+
+	public synchronized long getRowsIn() {
+		return rowsIn;
+	}
+
+	public synchronized long getRowsOut() {
+		return rowsOut;
+	}
+
+	/** @return true if at least one invocation of the stage counted its rows in and out */
+	public synchronized boolean isRowsMeasured() {
+		return rowsMeasured;
+	}
+
+	public synchronized long getAllocatedBytes() {
+		return allocatedBytes;
+	}
+
+}
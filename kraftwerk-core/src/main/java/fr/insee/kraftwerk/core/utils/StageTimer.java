@@ -0,0 +1,71 @@
+package fr.insee.kraftwerk.core.utils;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Measures one run of a processing stage, from its creation to its closing :
+ * wall-clock duration and bytes allocated by the current thread.
+ * Rows in and out are set by the stages which already know them (database inserts, exports) : VTL datasets
+ * are not counted, as it would evaluate them again, and the stage is then recorded without rows.
+ * Metrics are added to the execution context when the timer is closed.
+ * Use in a try-with-resources block, on the thread running the stage.
+ */
+public class StageTimer implements AutoCloseable {
+
+	private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+
+	private final KraftwerkExecutionContext kraftwerkExecutionContext;
+	private final String stageName;
+	private final String mode;
+	private final String dataset;
+	private final long startNanos;
+	private final long startAllocatedBytes;
+	private long rowsIn;
+	private long rowsOut;
+	private boolean rowsMeasured;
+
+	StageTimer(KraftwerkExecutionContext kraftwerkExecutionContext, String stageName, String mode, String dataset) {
+		this.kraftwerkExecutionContext = kraftwerkExecutionContext;
+		this.stageName = stageName;
+		this.mode = mode;
+		this.dataset = dataset;
+		this.startAllocatedBytes = currentThreadAllocatedBytes();
+		this.startNanos = System.nanoTime();
+	}
+
+	@Override
+	public void close() {
+		long durationNanos = System.nanoTime() - startNanos;
+		long allocatedBytes = startAllocatedBytes < 0 ? 0 : Math.max(0, currentThreadAllocatedBytes() - startAllocatedBytes);
+		StageMetrics stageMetrics = kraftwerkExecutionContext.getOrCreateStageMetrics(stageName, mode, dataset);
+		if (rowsMeasured) {
+			stageMetrics.add(durationNanos, rowsIn, rowsOut, allocatedBytes);
+		} else {
+			stageMetrics.add(durationNanos, allocatedBytes);
+		}
+	}
+
+	public void setRowsIn(long rowsIn) {
+		this.rowsIn = rowsIn;
+		this.rowsMeasured = true;
+	}
+
+	public void setRowsOut(long rowsOut) {
+		this.rowsOut = rowsOut;
+		this.rowsMeasured = true;
+	}
+
+	/**
+	 * @return the bytes allocated by the current thread since its start, or -1 if the JVM can't measure it
+	 */
+	private static long currentThreadAllocatedBytes() {
+		if (THREAD_MX_BEAN instanceof com.sun.management.ThreadMXBean sunThreadMXBean
+				&& sunThreadMXBean.isThreadAllocatedMemorySupported()
+				&& sunThreadMXBean.isThreadAllocatedMemoryEnabled()) {
+			return sunThreadMXBean.getCurrentThreadAllocatedBytes();
+		}
+		return -1;
+	}
+
+}
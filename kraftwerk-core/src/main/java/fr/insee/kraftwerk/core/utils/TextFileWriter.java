@@ -43,6 +43,7 @@ public class TextFileWriter {
 			for (KraftwerkError error : kraftwerkExecutionContext.getErrors()) {
 				fileUtilsInterface.writeFile(tempOutputPath.toString(), error.toString(), false);
 			}
+			fileUtilsInterface.flushAppends(tempOutputPath.toString());
 			log.info(String.format("Text file: %s successfully written", tempOutputPath));
 		} else {
 			log.debug("No error found during VTL transformations");
@@ -54,6 +55,7 @@ public class TextFileWriter {
 		tempOutputPath = tempOutputPath.resolve(inDirectory.getFileName() + "_LOG_" + kraftwerkExecutionContext.getStartTimeStamp() +".txt");
 
 		fileUtilsInterface.writeFile(tempOutputPath.toString(), kraftwerkExecutionContext.getFormattedString(), false);
+		fileUtilsInterface.flushAppends(tempOutputPath.toString());
 	}
 
 	public static boolean pathContainsFolder(Path pathString, String folderToFind) {
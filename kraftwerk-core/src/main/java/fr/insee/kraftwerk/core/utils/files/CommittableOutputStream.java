@@ -0,0 +1,29 @@
+package fr.insee.kraftwerk.core.utils.files;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Stream writing a file that is published only when the stream is committed.
+ * Until then, data is written apart from the destination file, and a file previously at the destination is kept.
+ * Closing the stream without committing it aborts it : data written is discarded, so that a failure
+ * in a try-with-resources block never publishes a truncated file.
+ */
+public abstract class CommittableOutputStream extends OutputStream {
+
+    /**
+     * Publish the data written to the destination, replacing the file already there, and close the stream.
+     * @throws IOException if the file can't be published, the stream being aborted
+     */
+    public abstract void commit() throws IOException;
+
+    /**
+     * Discard the data written and close the stream. Does nothing once the stream is committed or aborted.
+     */
+    public abstract void abort();
+
+    @Override
+    public void close() {
+        abort();
+    }
+}
@@ -102,8 +102,9 @@ public class FileSystemImpl implements FileUtilsInterface{
 
 	@Override
 	public Path getTempVtlFilePath(UserInputs userInputs, String step, String dataset) {
-		createDirectoryIfNotExist(FileUtilsInterface.transformToTemp(userInputs.getInputDirectory()));
-		return FileUtilsInterface.transformToTemp(userInputs.getInputDirectory()).resolve(step+ dataset+".vtl");
+		Path tempVtlDirectory = FileUtilsInterface.transformToTemp(userInputs.getInputDirectory()).resolve(userInputs.getProcessingId());
+		createDirectoryIfNotExist(tempVtlDirectory);
+		return tempVtlDirectory.resolve(step+ dataset+".vtl");
 	}
 
 	@Override
@@ -157,6 +158,16 @@ public class FileSystemImpl implements FileUtilsInterface{
 		}
 	}
 
+	@Override
+	public CommittableOutputStream openOutputStream(String path) throws KraftwerkException {
+		createDirectoryIfNotExist(Path.of(path).getParent());
+		try {
+			return new FileSystemOutputStream(Path.of(path));
+		} catch (IOException e) {
+			throw new KraftwerkException(500, "Can't open file " + path + " : " + e);
+		}
+	}
+
 	@Override
 	public String findFile(String directory, String regex) throws KraftwerkException {
 		try (Stream<Path> files = Files.find(Path.of(directory), 1, (path, basicFileAttributes) -> path.toFile().getName().toLowerCase().matches(regex))) {
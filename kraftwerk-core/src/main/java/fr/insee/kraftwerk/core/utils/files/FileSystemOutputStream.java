@@ -0,0 +1,87 @@
+package fr.insee.kraftwerk.core.utils.files;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Stream writing a local file : data is written into a hidden temporary file of the destination folder,
+ * renamed into the destination file when the stream is committed.
+ */
+@Slf4j
+class FileSystemOutputStream extends CommittableOutputStream {
+
+    private final Path destination;
+    private final Path tmpFile;
+    private final OutputStream out;
+    private boolean closed = false;
+
+    FileSystemOutputStream(Path destination) throws IOException {
+        this.destination = destination;
+        this.tmpFile = Files.createTempFile(destination.toAbsolutePath().getParent(), "." + destination.getFileName(), ".tmp");
+        this.out = Files.newOutputStream(tmpFile);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        ensureOpen();
+        out.write(b);
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        ensureOpen();
+        out.write(bytes, offset, length);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        ensureOpen();
+        out.flush();
+    }
+
+    @Override
+    public void commit() throws IOException {
+        ensureOpen();
+        closed = true;
+        try {
+            out.close();
+            Files.move(tmpFile, destination, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            deleteTmpFile();
+            throw e;
+        }
+    }
+
+    @Override
+    public void abort() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            out.close();
+        } catch (IOException e) {
+            log.warn("Can't close temporary file {} : {}", tmpFile, e.toString());
+        }
+        deleteTmpFile();
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Stream to " + destination + " is closed");
+        }
+    }
+
+    private void deleteTmpFile() {
+        try {
+            Files.deleteIfExists(tmpFile);
+        } catch (IOException e) {
+            log.error("Can't delete temporary file {} : {}", tmpFile, e.toString());
+        }
+    }
+}
@@ -74,6 +74,23 @@ public interface FileUtilsInterface {
      */
     void writeFile(String path, InputStream inputStream, boolean replace);
 
+    /**
+     * Write the appends to a file which may have been buffered by the implementation
+     * @param path path of the file
+     */
+    default void flushAppends(String path) {
+        //Appends are written immediately by default
+    }
+
+    /**
+     * Open a stream writing into a file, replaced if it already exists
+     * @param path path of the destination file
+     * @return a stream to the file, published once the stream is committed : closing it without committing
+     * discards the data written
+     * @throws KraftwerkException if the file can't be opened
+     */
+    CommittableOutputStream openOutputStream(String path) throws KraftwerkException;
+
     /**
      * Move file from local file system to another path
      * @param fileSystemPath local path
@@ -148,5 +165,10 @@ public interface FileUtilsInterface {
      */
     void renameInputFile(Path inDirectory);
     void archiveInputFiles(UserInputsFile userInputsFile) throws KraftwerkException;
+    /**
+     * Path of the VTL script generated by a step, in the temp folder of the inputs.
+     * Each processing of the inputs has its own folder, so that concurrent processings of the same folder
+     * (files processed in parallel, jobs) don't write the same scripts.
+     */
     Path getTempVtlFilePath(UserInputs userInputs, String step, String dataset);
 }
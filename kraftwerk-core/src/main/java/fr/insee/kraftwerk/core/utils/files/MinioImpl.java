@@ -1,10 +1,13 @@
 package fr.insee.kraftwerk.core.utils.files;
 
+import fr.insee.kraftwerk.core.Constants;
 import fr.insee.kraftwerk.core.exceptions.KraftwerkException;
 import fr.insee.kraftwerk.core.inputs.ModeInputs;
 import fr.insee.kraftwerk.core.inputs.UserInputs;
 import fr.insee.kraftwerk.core.inputs.UserInputsFile;
 import fr.insee.kraftwerk.core.utils.DateUtils;
+import io.minio.ComposeObjectArgs;
+import io.minio.ComposeSource;
 import io.minio.GetObjectArgs;
 import io.minio.ListObjectsArgs;
 import io.minio.MinioClient;
@@ -15,12 +18,10 @@ import io.minio.StatObjectArgs;
 import io.minio.StatObjectResponse;
 import io.minio.errors.ErrorResponseException;
 import io.minio.messages.Item;
-import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
-import java.io.FileInputStream;
 import java.io.InputStream;
 import java.net.MalformedURLException;
 import java.net.URI;
@@ -30,16 +31,27 @@ import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Stream;
 
 @Slf4j
-@AllArgsConstructor
 public class MinioImpl implements FileUtilsInterface {
 
     private static final String ARCHIVE = "Archive";
+    /** Minimum size of an existing object to append to it by composition instead of uploading it again */
+    private static final long COMPOSE_MIN_SIZE = 5242880;
+    private static final String APPEND_SUFFIX = ".append";
 
     MinioClient minioClient;
     String bucketName;
+    /** Appends buffered by path until they are flushed */
+    private final Map<String, ByteArrayOutputStream> pendingAppends = new ConcurrentHashMap<>();
+
+    public MinioImpl(MinioClient minioClient, String bucketName) {
+        this.minioClient = minioClient;
+        this.bucketName = bucketName;
+    }
 
     // Interface methods
 
@@ -89,6 +101,7 @@ public class MinioImpl implements FileUtilsInterface {
 
     @Override
     public List<String> listFileNames(String dir) {
+        flushAllAppends();
         try {
             ArrayList<String> filePaths = new ArrayList<>();
             Iterable<Result<Item>> results = minioClient.listObjects(
@@ -116,11 +129,13 @@ public class MinioImpl implements FileUtilsInterface {
 
     @Override
     public Path getTempVtlFilePath(UserInputs userInputs, String step, String dataset) {
-        return FileUtilsInterface.transformToTemp(userInputs.getInputDirectory()).resolve(step+ dataset+".vtl");
+        return FileUtilsInterface.transformToTemp(userInputs.getInputDirectory()).resolve(userInputs.getProcessingId())
+                .resolve(step+ dataset+".vtl");
     }
 
     @Override
     public Boolean isDirectory(String path){
+        flushAllAppends();
         try {
             //List files of parent to check if directory
             Iterable<Result<Item>> results = minioClient.listObjects(
@@ -141,6 +156,7 @@ public class MinioImpl implements FileUtilsInterface {
 
     @Override
     public long getSizeOf(String path) {
+        flushAppends(path);
         try {
             StatObjectResponse objectStat = minioClient.statObject(StatObjectArgs.builder().bucket(bucketName).object(path.replace("\\","/")).build());
             return objectStat.size();
@@ -152,13 +168,51 @@ public class MinioImpl implements FileUtilsInterface {
 
     @Override
     public void writeFile(String path, String toWrite, boolean replace) {
-        InputStream inputStream = new ByteArrayInputStream(toWrite.getBytes());
-        writeFileOnMinio(path.replace("\\","/"), inputStream, toWrite.length(), replace);
+        writeFile(path, new ByteArrayInputStream(toWrite.getBytes()), replace);
     }
 
+    /**
+     * Write stream into a file. Appends are buffered in memory until the file is read
+     * or {@link #flushAppends(String)} is called, to upload the file once.
+     */
     @Override
     public void writeFile(String path, InputStream inputStream, boolean replace) {
-        writeFileOnMinio(path.replace("\\","/"), inputStream, -1, replace);
+        String minioPath = path.replace("\\","/");
+        try {
+            if (!replace) {
+                byte[] toAppend = inputStream.readAllBytes();
+                pendingAppends.compute(minioPath, (key, pendingAppend) -> {
+                    ByteArrayOutputStream appended = pendingAppend == null ? new ByteArrayOutputStream() : pendingAppend;
+                    appended.writeBytes(toAppend);
+                    return appended;
+                });
+                return;
+            }
+            //Content replaced, appends written before are lost
+            pendingAppends.remove(minioPath);
+            try (CommittableOutputStream outputStream = openOutputStream(minioPath)) {
+                inputStream.transferTo(outputStream);
+                outputStream.commit();
+            }
+        } catch (Exception e) {
+            log.error(e.toString());
+        }
+    }
+
+    @Override
+    public void flushAppends(String path) {
+        String minioPath = path.replace("\\","/");
+        ByteArrayOutputStream pendingAppend = pendingAppends.remove(minioPath);
+        if (pendingAppend != null) {
+            appendOnMinio(minioPath, pendingAppend.toByteArray());
+        }
+    }
+
+    @Override
+    public CommittableOutputStream openOutputStream(String path) {
+        pendingAppends.remove(path.replace("\\","/"));
+        return new MinioOutputStream(minioClient, bucketName, path.replace("\\","/"),
+                MinioOutputStream.PART_SIZE, Constants.getMinioUploadWorkers());
     }
 
     @Override
@@ -173,6 +227,7 @@ public class MinioImpl implements FileUtilsInterface {
 
     @Override
     public InputStream readFile(String minioPath) {
+        flushAppends(minioPath);
         try {
             return minioClient.getObject(GetObjectArgs.builder().bucket(bucketName).object(minioPath.replace("\\","/")).build());
         } catch (Exception e) {
@@ -183,6 +238,7 @@ public class MinioImpl implements FileUtilsInterface {
 
     @Override
     public boolean isFileExists(String objectPath) {
+        flushAppends(objectPath);
         try {
             minioClient.statObject(StatObjectArgs.builder().bucket(bucketName).object(objectPath.replace("\\","/")).build());
             return true;
@@ -197,8 +253,9 @@ public class MinioImpl implements FileUtilsInterface {
 
     @Override
     public void moveFile(Path fileSystemPath, String dstMinioPath) throws KraftwerkException {
-        try (InputStream inputStream = new FileInputStream(fileSystemPath.toFile())){
-            writeFileOnMinio(dstMinioPath.replace("\\","/"), inputStream, Files.size(fileSystemPath), true);
+        try (CommittableOutputStream outputStream = openOutputStream(dstMinioPath)){
+            Files.copy(fileSystemPath, outputStream);
+            outputStream.commit();
         } catch (Exception e) {
             throw new KraftwerkException(500, "Can't move file " + fileSystemPath + " to " + dstMinioPath.replace("\\","/"));
         }
@@ -241,35 +298,55 @@ public class MinioImpl implements FileUtilsInterface {
 
     //Utilities
 
-    private void writeFileOnMinio(String minioPath, InputStream inputStream, long fileSize, boolean replace) {
-        try{
-            if(replace || !isFileExists(minioPath)){
-                minioClient.putObject(
-                        PutObjectArgs.builder().bucket(bucketName).stream(
-                                inputStream,
-                                fileSize,
-                                fileSize == -1 ? 10485760 : -1
-                        ).object(minioPath.replace("\\","/")).build());
+    private void flushAllAppends() {
+        for (String path : List.copyOf(pendingAppends.keySet())) {
+            flushAppends(path);
+        }
+    }
+
+    /* Appends to an object : small objects are uploaded again with the appended bytes,
+    large ones are composed with an object holding the appended bytes, without download */
+    private void appendOnMinio(String minioPath, byte[] toAppend) {
+        try {
+            long existingSize = -1;
+            try {
+                existingSize = minioClient.statObject(StatObjectArgs.builder().bucket(bucketName).object(minioPath).build()).size();
+            } catch (ErrorResponseException e) {
+                //New object
+            }
+            if (existingSize < 0) {
+                putObject(minioPath, toAppend);
                 return;
             }
-        }catch (Exception e) {
-            log.error(e.toString());
-        }
-        try (InputStream alreadyExistingInputStream = readFile(minioPath)){
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            alreadyExistingInputStream.transferTo(baos);
-            inputStream.transferTo(baos);
-            inputStream.close();
-            InputStream appendedInputStream = new ByteArrayInputStream(baos.toByteArray());
-            int size = baos.size();
-            baos.close();
-            minioClient.putObject(PutObjectArgs.builder().bucket(bucketName).stream(appendedInputStream, size, -1).object(minioPath.replace("\\","/")).build());
-            appendedInputStream.close();
+            if (existingSize >= COMPOSE_MIN_SIZE) {
+                String appendPath = minioPath + APPEND_SUFFIX;
+                putObject(appendPath, toAppend);
+                try {
+                    minioClient.composeObject(ComposeObjectArgs.builder().bucket(bucketName).object(minioPath).sources(List.of(
+                            ComposeSource.builder().bucket(bucketName).object(minioPath).build(),
+                            ComposeSource.builder().bucket(bucketName).object(appendPath).build()
+                    )).build());
+                } finally {
+                    deleteFile(appendPath);
+                }
+                return;
+            }
+            ByteArrayOutputStream appended = new ByteArrayOutputStream();
+            try (InputStream alreadyExistingInputStream = minioClient.getObject(GetObjectArgs.builder().bucket(bucketName).object(minioPath).build())) {
+                alreadyExistingInputStream.transferTo(appended);
+            }
+            appended.writeBytes(toAppend);
+            putObject(minioPath, appended.toByteArray());
         } catch (Exception e) {
             log.error(e.toString());
         }
     }
 
+    private void putObject(String minioPath, byte[] content) throws Exception {
+        minioClient.putObject(PutObjectArgs.builder().bucket(bucketName)
+                .stream(new ByteArrayInputStream(content), content.length, -1).object(minioPath).build());
+    }
+
     private void moveDirectory(String srcMinioPath, String dstMinioPath) {
         try {
             for (String filePath : listFileNames(srcMinioPath.replace("\\","/"))) {
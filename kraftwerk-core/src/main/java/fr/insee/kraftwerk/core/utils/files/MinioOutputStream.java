@@ -0,0 +1,232 @@
+package fr.insee.kraftwerk.core.utils.files;
+
+import io.minio.ComposeObjectArgs;
+import io.minio.ComposeSource;
+import io.minio.MinioClient;
+import io.minio.PutObjectArgs;
+import io.minio.RemoveObjectArgs;
+import fr.insee.kraftwerk.core.exceptions.KraftwerkException;
+import fr.insee.kraftwerk.core.utils.ConcurrentTasks;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Future;
+
+/**
+ * Stream writing a MinIO object without local file.
+ * Written data is cut into parts uploaded concurrently as temporary objects, under a prefix apart from
+ * the output folders, which are composed into the final object when the stream is committed.
+ * Parts are buffered in a bounded pool : writing blocks while every buffer is being uploaded.
+ * Data smaller than one part is uploaded in a single request when the stream is committed.
+ * Parts are removed once the stream is committed or aborted.
+ */
+@Slf4j
+class MinioOutputStream extends CommittableOutputStream {
+
+    /** Size of the uploaded parts, at least 5 MB as required by MinIO to compose objects */
+    static final int PART_SIZE = 10485760;
+    /** Prefix of the parts being uploaded, one folder per stream */
+    static final String PARTS_PREFIX = "temp/kraftwerk-parts/";
+    private static final String PART_SUFFIX = "part";
+
+    private final MinioClient minioClient;
+    private final String bucketName;
+    private final String objectName;
+    private final String partsPrefix = PARTS_PREFIX + UUID.randomUUID() + "/";
+    private final int partSize;
+    private final int uploadWorkers;
+    /** Buffers available for writing, uploaded buffers come back in it */
+    private final BlockingQueue<byte[]> bufferPool;
+    private int allocatedBuffers = 0;
+    private ConcurrentTasks uploads;
+    private final List<String> partNames = new ArrayList<>();
+    private final List<Future<Void>> partUploads = new ArrayList<>();
+    private byte[] buffer;
+    private int bufferCount = 0;
+    private boolean closed = false;
+
+    MinioOutputStream(MinioClient minioClient, String bucketName, String objectName, int partSize, int uploadWorkers) {
+        this.minioClient = minioClient;
+        this.bucketName = bucketName;
+        this.objectName = objectName;
+        this.partSize = partSize;
+        this.uploadWorkers = Math.max(1, uploadWorkers);
+        // One buffer being written while the other ones are uploaded
+        this.bufferPool = new ArrayBlockingQueue<>(this.uploadWorkers + 1);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        ensureWritable();
+        buffer[bufferCount++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        while (length > 0) {
+            ensureWritable();
+            int copied = Math.min(length, partSize - bufferCount);
+            System.arraycopy(bytes, offset, buffer, bufferCount, copied);
+            bufferCount += copied;
+            offset += copied;
+            length -= copied;
+        }
+    }
+
+    @Override
+    public void commit() throws IOException {
+        ensureOpen();
+        try {
+            if (partUploads.isEmpty()) {
+                putObject(objectName, buffer == null ? new byte[0] : buffer, bufferCount);
+                return;
+            }
+            if (bufferCount > 0) {
+                uploadPart();
+            }
+            waitForPartUploads();
+            List<ComposeSource> sources = new ArrayList<>();
+            for (String partName : partNames) {
+                sources.add(ComposeSource.builder().bucket(bucketName).object(partName).build());
+            }
+            minioClient.composeObject(ComposeObjectArgs.builder().bucket(bucketName).object(objectName).sources(sources).build());
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("Can't write file " + objectName + " : " + e, e);
+        } finally {
+            closed = true;
+            releaseParts();
+        }
+    }
+
+    @Override
+    public void abort() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        releaseParts();
+    }
+
+    /* Parts still uploaded after a failure are removed too */
+    private void releaseParts() {
+        if (uploads != null) {
+            awaitPartUploads();
+            uploads.close();
+        }
+        removeParts();
+    }
+
+    /* Makes room in the current buffer, uploading it if it is full */
+    private void ensureWritable() throws IOException {
+        ensureOpen();
+        if (buffer == null) {
+            buffer = nextBuffer();
+        }
+        if (bufferCount == partSize) {
+            uploadPart();
+            buffer = nextBuffer();
+        }
+    }
+
+    private void uploadPart() throws IOException {
+        checkPartUploads();
+        if (uploads == null) {
+            uploads = new ConcurrentTasks(uploadWorkers, "upload of " + objectName);
+        }
+        byte[] partBuffer = buffer;
+        int partLength = bufferCount;
+        String partName = partsPrefix + PART_SUFFIX + (partNames.size() + 1);
+        partNames.add(partName);
+        partUploads.add(uploads.submit(() -> {
+            try {
+                putObject(partName, partBuffer, partLength);
+                return null;
+            } finally {
+                bufferPool.offer(partBuffer);
+            }
+        }));
+        buffer = null;
+        bufferCount = 0;
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Stream to " + objectName + " is closed");
+        }
+    }
+
+    /* Buffer from the pool, waiting for an upload to end once every buffer is allocated */
+    private byte[] nextBuffer() throws IOException {
+        byte[] nextBuffer = bufferPool.poll();
+        if (nextBuffer != null) {
+            return nextBuffer;
+        }
+        if (allocatedBuffers < uploadWorkers + 1) {
+            allocatedBuffers++;
+            return new byte[partSize];
+        }
+        try {
+            return bufferPool.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Upload of " + objectName + " interrupted");
+        }
+    }
+
+    /* Fails fast if an upload already failed */
+    private void checkPartUploads() throws IOException {
+        for (Future<Void> partUpload : partUploads) {
+            if (partUpload.isDone()) {
+                getPartUpload(partUpload);
+            }
+        }
+    }
+
+    private void waitForPartUploads() throws IOException {
+        for (Future<Void> partUpload : partUploads) {
+            getPartUpload(partUpload);
+        }
+    }
+
+    private void awaitPartUploads() {
+        for (Future<Void> partUpload : partUploads) {
+            try {
+                getPartUpload(partUpload);
+            } catch (IOException e) {
+                // Already reported
+            }
+        }
+    }
+
+    private void getPartUpload(Future<Void> partUpload) throws IOException {
+        try {
+            uploads.get(partUpload);
+        } catch (KraftwerkException e) {
+            throw new IOException("Can't upload part of file " + objectName + " : " + e.getMessage(), e);
+        }
+    }
+
+    private void putObject(String name, byte[] bytes, int length) throws Exception {
+        minioClient.putObject(PutObjectArgs.builder().bucket(bucketName).object(name)
+                .stream(new ByteArrayInputStream(bytes, 0, length), length, -1).build());
+    }
+
+    private void removeParts() {
+        for (String partName : partNames) {
+            try {
+                minioClient.removeObject(RemoveObjectArgs.builder().bucket(bucketName).object(partName).build());
+            } catch (Exception e) {
+                log.error("Can't remove temporary part {} : {}", partName, e.toString());
+            }
+        }
+    }
+}
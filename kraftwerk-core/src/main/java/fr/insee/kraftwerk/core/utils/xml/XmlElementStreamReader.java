@@ -0,0 +1,159 @@
+package fr.insee.kraftwerk.core.utils.xml;
+
+import fr.insee.kraftwerk.core.exceptions.KraftwerkException;
+import fr.insee.kraftwerk.core.utils.files.FileUtilsInterface;
+import lombok.extern.log4j.Log4j2;
+import nu.xom.Attribute;
+import nu.xom.Element;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Class providing a method to read the elements at a given path in an XML document one by one.
+ * We use StAX in this class so that memory is bounded by the size of one element, whatever the size of the document.
+ * Each element is given as a nu.xom element, so that it can be processed like an element of a document read
+ * with {@link XmlFileReader}.
+ */
+@Log4j2
+public class XmlElementStreamReader {
+
+    private final FileUtilsInterface fileUtilsInterface;
+
+    public XmlElementStreamReader(FileUtilsInterface fileUtilsInterface) {
+        this.fileUtilsInterface = fileUtilsInterface;
+    }
+
+    /**
+     * Read the XML file and give each element found at the path given to the consumer, in document order.
+     *
+     * @param filePath Path to the XML file.
+     * @param elementPath Local names of the ancestors of the elements below the root element, followed by the
+     *                    local name of the elements, separated by slashes (e.g. "SurveyUnits/SurveyUnit").
+     * @param elementConsumer Consumer called on each element read.
+     * @return false if the file doesn't exist.
+     * @throws KraftwerkException if the file could not be read or is malformed.
+     * In that case, the elements read before the error have been given to the consumer.
+     */
+    public boolean readElements(Path filePath, String elementPath, Consumer<Element> elementConsumer) throws KraftwerkException {
+        return readElements(filePath, Set.of(elementPath), elementConsumer);
+    }
+
+    /**
+     * Read the XML file and give each element found at one of the paths given to the consumer, in document order.
+     *
+     * @param filePath Path to the XML file.
+     * @param elementPaths Paths of the elements below the root element, as described in
+     *                     {@link #readElements(Path, String, Consumer)}.
+     * @param elementConsumer Consumer called on each element read.
+     * @return false if the file doesn't exist.
+     * @throws KraftwerkException if the file could not be read or is malformed.
+     * In that case, the elements read before the error have been given to the consumer.
+     */
+    public boolean readElements(Path filePath, Set<String> elementPaths, Consumer<Element> elementConsumer) throws KraftwerkException {
+        XMLInputFactory xif = XMLInputFactory.newInstance();
+        xif.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        xif.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        xif.setProperty(XMLInputFactory.IS_COALESCING, true);
+
+        try (InputStream inputStream = fileUtilsInterface.readFile(filePath.toString())) {
+            if (inputStream == null) {
+                return false;
+            }
+            XMLStreamReader xsr = xif.createXMLStreamReader(inputStream);
+            try {
+                readElements(xsr, elementPaths, elementConsumer);
+            } finally {
+                xsr.close();
+            }
+            return true;
+        } catch (XMLStreamException ex) {
+            log.error("XML document is malformed.", ex);
+            throw new KraftwerkException(500, String.format("XML document %s is malformed : %s", filePath, ex.getMessage()));
+        } catch (IOException ex) {
+            log.error(String.format("Could not connect to data file %s", filePath), ex);
+            throw new KraftwerkException(500, String.format("Could not read data file %s", filePath));
+        }
+    }
+
+    private static void readElements(XMLStreamReader xsr, Set<String> elementPaths, Consumer<Element> elementConsumer) throws XMLStreamException {
+        // Path of the current element below the root element, the root element itself being at depth 0
+        Deque<String> currentPath = new ArrayDeque<>();
+        int depth = 0;
+        while (xsr.hasNext()) {
+            switch (xsr.next()) {
+                case XMLStreamConstants.START_ELEMENT -> {
+                    if (depth > 0) {
+                        currentPath.addLast(xsr.getLocalName());
+                        if (elementPaths.contains(String.join("/", currentPath))) {
+                            elementConsumer.accept(buildElement(xsr));
+                            currentPath.removeLast();
+                            continue;
+                        }
+                    }
+                    depth++;
+                }
+                case XMLStreamConstants.END_ELEMENT -> {
+                    depth--;
+                    if (depth > 0) {
+                        currentPath.removeLast();
+                    }
+                }
+                default -> {
+                    // Only elements are needed to follow the path
+                }
+            }
+        }
+    }
+
+    /**
+     * Build the element on which the reader is positioned, with all its content.
+     * When the method returns, the reader is positioned on the end tag of the element.
+     */
+    private static Element buildElement(XMLStreamReader xsr) throws XMLStreamException {
+        Element root = startElement(xsr, null);
+        Element current = root;
+        while (current != null) {
+            switch (xsr.next()) {
+                case XMLStreamConstants.START_ELEMENT -> current = startElement(xsr, current);
+                case XMLStreamConstants.END_ELEMENT -> current = current == root ? null : (Element) current.getParent();
+                case XMLStreamConstants.CHARACTERS, XMLStreamConstants.CDATA, XMLStreamConstants.SPACE ->
+                        current.appendChild(xsr.getText());
+                default -> {
+                    // Comments and processing instructions are not needed
+                }
+            }
+        }
+        return root;
+    }
+
+    private static Element startElement(XMLStreamReader xsr, Element parent) {
+        String prefix = xsr.getPrefix();
+        String qualifiedName = prefix == null || prefix.isEmpty() ? xsr.getLocalName() : prefix + ":" + xsr.getLocalName();
+        String namespaceUri = xsr.getNamespaceURI();
+        Element element = new Element(qualifiedName, namespaceUri == null ? "" : namespaceUri);
+        for (int i = 0; i < xsr.getAttributeCount(); i++) {
+            String attributePrefix = xsr.getAttributePrefix(i);
+            String attributeName = attributePrefix == null || attributePrefix.isEmpty()
+                    ? xsr.getAttributeLocalName(i)
+                    : attributePrefix + ":" + xsr.getAttributeLocalName(i);
+            String attributeNamespace = xsr.getAttributeNamespace(i);
+            element.addAttribute(new Attribute(attributeName, attributeNamespace == null ? "" : attributeNamespace,
+                    xsr.getAttributeValue(i)));
+        }
+        if (parent != null) {
+            parent.appendChild(element);
+        }
+        return element;
+    }
+
+}
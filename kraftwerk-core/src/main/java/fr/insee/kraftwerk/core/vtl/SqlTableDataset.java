@@ -0,0 +1,34 @@
+package fr.insee.kraftwerk.core.vtl;
+
+import fr.insee.vtl.model.Dataset;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Dataset of the bindings whose data is a table of an attached DuckDB database, as created by the SQL multimodal
+ * processing. Only its structure is in memory : writers use it, and the database insertion copies the table with SQL.
+ * Data points are not available, the table has to be read with
+ * {@link fr.insee.kraftwerk.core.utils.SqlUtils#convertSqlTableIntoVtlDataset} to be used by VTL instructions.
+ */
+@Getter
+public class SqlTableDataset implements Dataset {
+
+    /** Name of the attached database containing the table */
+    private final String catalogName;
+    private final String tableName;
+    private final DataStructure dataStructure;
+
+    public SqlTableDataset(String catalogName, String tableName, DataStructure dataStructure) {
+        this.catalogName = catalogName;
+        this.tableName = tableName;
+        this.dataStructure = dataStructure;
+    }
+
+    @Override
+    public List<DataPoint> getDataPoints() {
+        throw new UnsupportedOperationException(String.format(
+                "Dataset %s is a table of the database %s, its data points are not in memory", tableName, catalogName));
+    }
+
+}
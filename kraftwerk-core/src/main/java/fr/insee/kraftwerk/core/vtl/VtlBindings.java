@@ -6,13 +6,16 @@ import fr.insee.bpm.metadata.model.Variable;
 import fr.insee.bpm.metadata.model.VariableType;
 import fr.insee.kraftwerk.core.Constants;
 import fr.insee.vtl.model.Dataset;
+import fr.insee.vtl.model.InMemoryDataset;
 import fr.insee.vtl.model.Structured;
 import fr.insee.vtl.model.Structured.Component;
 import lombok.extern.log4j.Log4j2;
 
 import javax.script.SimpleBindings;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Stream;
 
 /**
@@ -57,6 +60,52 @@ public class VtlBindings extends SimpleBindings {
         }
 
     }
+    /**
+     * Remove the rows of a dataset stored in the bindings that have the same identifier values as a previous row.
+     * @param datasetName Name of a dataset stored in the bindings.
+     */
+    public void removeDuplicates(String datasetName) {
+        if (this.get(datasetName) instanceof Dataset dataset) {
+            this.put(datasetName, removeDuplicates(dataset));
+        }
+    }
+
+    /**
+     * Remove the rows that have the same identifier values as a previous row, as union(ds, ds) does in VTL.
+     * Single pass with a hash set of the identifier values : the dataset is returned as is if it has no duplicate,
+     * or if it has no identifier.
+     * @param dataset A VTL dataset.
+     * @return The dataset without duplicates, the first row of each identifier values being kept.
+     */
+    public static Dataset removeDuplicates(Dataset dataset) {
+        Structured.DataStructure dataStructure = dataset.getDataStructure();
+        int[] identifierIndexes = dataStructure.getIdentifiers().stream()
+                .mapToInt(component -> dataStructure.indexOfKey(component.getName()))
+                .toArray();
+        if (identifierIndexes.length == 0) {
+            return dataset;
+        }
+        List<Structured.DataPoint> dataPoints = dataset.getDataPoints();
+        Set<List<Object>> identifierValues = HashSet.newHashSet(dataPoints.size());
+        List<Structured.DataPoint> distinctDataPoints = null;
+        for (int i = 0; i < dataPoints.size(); i++) {
+            Structured.DataPoint dataPoint = dataPoints.get(i);
+            List<Object> key = new ArrayList<>(identifierIndexes.length);
+            for (int identifierIndex : identifierIndexes) {
+                key.add(dataPoint.get(identifierIndex));
+            }
+            if (!identifierValues.add(key)) {
+                // First duplicate : the rows read so far are distinct
+                if (distinctDataPoints == null) {
+                    distinctDataPoints = new ArrayList<>(dataPoints.subList(0, i));
+                }
+            } else if (distinctDataPoints != null) {
+                distinctDataPoints.add(dataPoint);
+            }
+        }
+        return distinctDataPoints == null ? dataset : new InMemoryDataset(distinctDataPoints, dataStructure);
+    }
+
     public static List<String> getDatasetIdentifierNames(Dataset dataset) {
         return getComponentNamesWithRole(dataset, Dataset.Role.IDENTIFIER);
     }
@@ -0,0 +1,151 @@
+package fr.insee.kraftwerk.core.vtl;
+
+import fr.insee.kraftwerk.core.Constants;
+import fr.insee.vtl.engine.VtlScriptEngine;
+import fr.insee.vtl.engine.exceptions.VtlRuntimeException;
+import fr.insee.vtl.engine.visitors.AssignmentVisitor;
+import fr.insee.vtl.parser.VtlLexer;
+import fr.insee.vtl.parser.VtlParser;
+import lombok.extern.log4j.Log4j2;
+import org.antlr.v4.runtime.BaseErrorListener;
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.RecognitionException;
+import org.antlr.v4.runtime.Recognizer;
+
+import javax.script.ScriptException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache of parsed VTL scripts, keyed by script text.
+ * Generated scripts are the same for every file (file-by-file mode) and every Genesis batch,
+ * so their parse trees are kept and only the evaluation is run again.
+ * The cache is a LRU bounded by {@link Constants#getVtlCompilationCacheSize()} entries, shared by all VtlExecute instances.
+ * Scripts with syntax errors are not cached, they are evaluated by the engine to get the usual error.
+ */
+@Log4j2
+public class VtlCompilationCache {
+
+	private static final VtlCompilationCache INSTANCE = new VtlCompilationCache();
+
+	private final Map<String, List<VtlParser.StatementContext>> compiledScripts = new LinkedHashMap<>(16, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, List<VtlParser.StatementContext>> eldest) {
+			return size() > Constants.getVtlCompilationCacheSize();
+		}
+	};
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+
+	VtlCompilationCache() {
+	}
+
+	public static VtlCompilationCache getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * Evaluate the given VTL script in the current context of the engine,
+	 * parsing it only if it is not already in the cache.
+	 *
+	 * @param vtlScript A string containing vtl instructions.
+	 * @param engine Trevas engine, with the bindings set in its context.
+	 * @return The result of the last statement.
+	 * @throws ScriptException if the script is invalid or can't be evaluated.
+	 */
+	public Object eval(String vtlScript, VtlScriptEngine engine) throws ScriptException {
+		if (Constants.getVtlCompilationCacheSize() <= 0) {
+			return engine.eval(vtlScript);
+		}
+		List<VtlParser.StatementContext> statements = getCompiledScript(vtlScript);
+		if (statements == null) {
+			// Syntax error : let the engine throw the usual exception
+			return engine.eval(vtlScript);
+		}
+		try {
+			AssignmentVisitor assignmentVisitor = new AssignmentVisitor(engine, engine.getProcessingEngine());
+			Object result = null;
+			for (VtlParser.StatementContext statement : statements) {
+				result = assignmentVisitor.visit(statement);
+			}
+			return result;
+		} catch (VtlRuntimeException e) {
+			throw e.getCause();
+		}
+	}
+
+	private List<VtlParser.StatementContext> getCompiledScript(String vtlScript) {
+		synchronized (compiledScripts) {
+			List<VtlParser.StatementContext> statements = compiledScripts.get(vtlScript);
+			if (statements != null) {
+				hits.increment();
+				return statements;
+			}
+		}
+		misses.increment();
+		List<VtlParser.StatementContext> statements = parse(vtlScript);
+		if (statements != null) {
+			synchronized (compiledScripts) {
+				compiledScripts.put(vtlScript, statements);
+			}
+		}
+		return statements;
+	}
+
+	/**
+	 * Parse the script into VTL statements.
+	 * @return the statements, or null if the script has syntax errors.
+	 */
+	private static List<VtlParser.StatementContext> parse(String vtlScript) {
+		SyntaxErrorListener errorListener = new SyntaxErrorListener();
+		VtlLexer lexer = new VtlLexer(CharStreams.fromString(vtlScript));
+		lexer.removeErrorListeners();
+		lexer.addErrorListener(errorListener);
+		VtlParser parser = new VtlParser(new CommonTokenStream(lexer));
+		parser.removeErrorListeners();
+		parser.addErrorListener(errorListener);
+		List<VtlParser.StatementContext> statements = parser.start().statement();
+		if (errorListener.hasErrors) {
+			log.debug("Syntax error in VTL script, it will not be cached : {}", vtlScript);
+			return null;
+		}
+		return statements;
+	}
+
+	public long getHitCount() {
+		return hits.sum();
+	}
+
+	public long getMissCount() {
+		return misses.sum();
+	}
+
+	public int size() {
+		synchronized (compiledScripts) {
+			return compiledScripts.size();
+		}
+	}
+
+	/** Remove all the cached scripts and reset the metrics. */
+	public void clear() {
+		synchronized (compiledScripts) {
+			compiledScripts.clear();
+		}
+		hits.reset();
+		misses.reset();
+	}
+
+	private static class SyntaxErrorListener extends BaseErrorListener {
+		private boolean hasErrors = false;
+
+		@Override
+		public void syntaxError(Recognizer<?, ?> recognizer, Object offendingSymbol, int line,
+								int charPositionInLine, String msg, RecognitionException e) {
+			hasErrors = true;
+		}
+	}
+
+}
@@ -0,0 +1,194 @@
+package fr.insee.kraftwerk.core.vtl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import fr.insee.bpm.metadata.model.MetadataModel;
+import fr.insee.bpm.metadata.model.Variable;
+import fr.insee.bpm.metadata.model.VariableType;
+import fr.insee.kraftwerk.core.Constants;
+import fr.insee.kraftwerk.core.rawdata.GroupData;
+import fr.insee.kraftwerk.core.rawdata.GroupInstance;
+import fr.insee.kraftwerk.core.rawdata.QuestionnaireData;
+import fr.insee.kraftwerk.core.rawdata.SurveyRawData;
+import fr.insee.vtl.jackson.TrevasModule;
+import fr.insee.vtl.model.Dataset;
+import fr.insee.vtl.model.InMemoryDataset;
+import fr.insee.vtl.model.Structured;
+import lombok.extern.log4j.Log4j2;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Class to build VTL datasets directly in memory from survey data objects.
+ * The dataset built has the same structure and data points as the one obtained by reading the file written
+ * by {@link VtlJsonDatasetWriter}, without writing and parsing a temporary JSON file.
+ */
+@Log4j2
+public class VtlDatasetBuilder {
+
+	/** Java classes used by Trevas for each VTL type (same mapping as the Trevas Jackson module). */
+	private static final Map<String, Class<?>> VTL_TYPES = Map.of(
+			"STRING", String.class,
+			"INTEGER", Long.class,
+			"NUMBER", Double.class,
+			"BOOLEAN", Boolean.class,
+			"DATE", Instant.class
+	);
+
+	/** Mapper used to convert values of types that have no direct conversion. */
+	private static final ObjectMapper MAPPER = new ObjectMapper().registerModule(new TrevasModule());
+
+	private final SurveyRawData surveyData;
+	private final MetadataModel metadataModel;
+
+	/*
+	 * Local variable to ensure that data points will have variables in the same
+	 * order as data structure. Keys: a variable name. Values: the column number of
+	 * the variable in the dataset.
+	 */
+	private final Map<String, Integer> columnsMapping = new HashMap<>();
+	private final List<Structured.Component> dataStructure = new ArrayList<>();
+
+	/**
+	 * @param surveyData Survey data parsed into a SurveyRawData object.
+	 */
+	public VtlDatasetBuilder(SurveyRawData surveyData) {
+		this.surveyData = surveyData;
+		this.metadataModel = surveyData.getMetadataModel();
+	}
+
+	/**
+	 * Build the VTL dataset corresponding to the survey data.
+	 *
+	 * @return An in memory VTL dataset.
+	 * @throws IllegalArgumentException if a value cannot be converted to the type of its variable.
+	 */
+	public Dataset buildVtlDataset() {
+		buildDataStructure();
+		return new InMemoryDataset(buildDataPoints(), dataStructure);
+	}
+
+	private void buildDataStructure() {
+		// Root level identifiers
+		addComponent(Constants.ROOT_IDENTIFIER_NAME, String.class, Dataset.Role.IDENTIFIER);
+		addComponent(Constants.SURVEY_UNIT_IDENTIFIER_NAME, String.class, Dataset.Role.MEASURE);
+		// Group identifiers
+		for (String groupName : metadataModel.getSubGroupNames()) {
+			// The group name is the identifier variable for the group
+			addComponent(groupName, String.class, Dataset.Role.IDENTIFIER);
+		}
+		// Variables
+		for (String variableName : metadataModel.getVariables().getVariableNames()) {
+			Variable variable = metadataModel.getVariables().getVariable(variableName);
+			String vtlType = VtlJsonDatasetWriter.convertToVtlType(variable.getType());
+			addComponent(variableName, VTL_TYPES.getOrDefault(vtlType, String.class), Dataset.Role.MEASURE);
+		}
+	}
+
+	private void addComponent(String name, Class<?> type, Dataset.Role role) {
+		dataStructure.add(new Structured.Component(name, type, role, null));
+		columnsMapping.put(name, dataStructure.size() - 1);
+	}
+
+	private List<List<Object>> buildDataPoints() {
+		List<List<Object>> dataPoints = new ArrayList<>();
+
+		for (QuestionnaireData questionnaireData : surveyData.getQuestionnaires()) {
+			GroupInstance rootInstance = questionnaireData.getAnswers();
+
+			Object[] rowValues = new Object[dataStructure.size()];
+
+			// Root level identifiers
+			rowValues[0] = questionnaireData.getIdentifier();
+			rowValues[1] = rootInstance.getValue(Constants.SURVEY_UNIT_IDENTIFIER_NAME);
+
+			// Root variables values
+			addValuesToRow(rootInstance, rowValues);
+
+			// If no subgroups, write line right away
+			if (!rootInstance.hasSubGroups()) {
+				dataPoints.add(Arrays.asList(rowValues));
+				continue;
+			}
+
+			boolean emptySubGroups = true;
+			for (String groupName : rootInstance.getSubGroupNames()) {
+				GroupData groupData = rootInstance.getSubGroup(groupName);
+
+				// Group values: one row per group instance
+				for (String groupId : groupData.getInstanceIds()) {
+					Object[] groupRowValues = rowValues.clone();
+					GroupInstance groupInstance = groupData.getInstance(groupId);
+					groupRowValues[columnsMapping.get(groupName)] = groupInstance.getId();
+					addValuesToRow(groupInstance, groupRowValues);
+					dataPoints.add(Arrays.asList(groupRowValues));
+					emptySubGroups = false;
+				}
+			}
+
+			// If all subgroups are empty, write a single line
+			if (emptySubGroups) {
+				dataPoints.add(Arrays.asList(rowValues));
+			}
+		}
+
+		return dataPoints;
+	}
+
+	private void addValuesToRow(GroupInstance groupInstance, Object[] rowValues) {
+		for (String variableName : groupInstance.getVariableNames()) {
+			Integer column = columnsMapping.get(variableName);
+			if (column == null) {
+				log.debug("Variable named \"{}\" found in data object is unknown.", variableName);
+				continue;
+			}
+			String value = groupInstance.getValue(variableName);
+			if (!variableName.equals(Constants.SURVEY_UNIT_IDENTIFIER_NAME)
+					&& metadataModel.getVariables().getVariable(variableName).getType() == VariableType.BOOLEAN) {
+				value = VtlJsonDatasetWriter.convertBooleanValue(value);
+			}
+			rowValues[column] = convertValue(value, dataStructure.get(column));
+		}
+	}
+
+	/**
+	 * Convert a string value from the data object to the java type expected by Trevas for the given component.
+	 * Conversions follow the rules applied by Jackson when reading a VTL JSON dataset: blank values of
+	 * non-string components are null, and other values are parsed leniently.
+	 */
+	static Object convertValue(String value, Structured.Component component) {
+		Class<?> type = component.getType();
+		if (value == null || type == String.class) {
+			return value;
+		}
+		String trimmedValue = value.trim();
+		if (trimmedValue.isEmpty()) {
+			return null;
+		}
+		try {
+			if (type == Long.class) {
+				return Long.valueOf(trimmedValue);
+			}
+			if (type == Double.class) {
+				return Double.valueOf(trimmedValue);
+			}
+			if (type == Boolean.class) {
+				return Boolean.valueOf(trimmedValue);
+			}
+		} catch (NumberFormatException e) {
+			log.debug("Value \"{}\" of column {} is not a plain number, trying lenient conversion.",
+					value, component.getName());
+		}
+		try {
+			return MAPPER.convertValue(trimmedValue, type);
+		} catch (IllegalArgumentException e) {
+			throw new IllegalArgumentException(
+					String.format("failed to convert value \"%s\" of column %s", value, component.getName()), e);
+		}
+	}
+
+}
@@ -7,6 +7,7 @@ import fr.insee.kraftwerk.core.rawdata.SurveyRawData;
 import fr.insee.kraftwerk.core.utils.TextFileWriter;
 import fr.insee.kraftwerk.core.utils.files.FileUtilsInterface;
 import fr.insee.kraftwerk.core.utils.KraftwerkExecutionContext;
+import fr.insee.vtl.engine.VtlScriptEngine;
 import fr.insee.vtl.jackson.TrevasModule;
 import fr.insee.vtl.model.Dataset;
 import lombok.extern.log4j.Log4j2;
@@ -51,6 +52,7 @@ public class VtlExecute {
      * The variables map of the given data object is also stored and can later be get using the method
      * getDatasetVariablesMap.
      * The given binding name will be the reference name of the dataset during the evaluation of VTL scripts.
+     * The dataset is built in memory, unless the JSON dataset mode is enabled in {@link Constants}.
      *
      * @param surveyRawData Data object.
      * Path to the local json file.
@@ -58,6 +60,26 @@ public class VtlExecute {
      * The name the dataset will be referred to when executing VTL instructions.
      */
     public void convertToVtlDataset(SurveyRawData surveyRawData, String bindingName, VtlBindings bindings){
+        if (Constants.isVtlJsonDatasetMode()) {
+            convertToVtlDatasetThroughJson(surveyRawData, bindingName, bindings);
+            return;
+        }
+        try {
+            bindings.put(bindingName, new VtlDatasetBuilder(surveyRawData).buildVtlDataset());
+        } catch (IllegalArgumentException e) {
+            log.error("Unable to build dataset {}: {}", bindingName, e);
+        }
+    }
+
+    /**
+     * Transform the given data object into a Trevas VTL dataset through a temporary VTL JSON file,
+     * and put it in the bindings. Kept for debugging and compatibility purposes.
+     *
+     * @param surveyRawData Data object.
+     * @param bindingName
+     * The name the dataset will be referred to when executing VTL instructions.
+     */
+    public void convertToVtlDatasetThroughJson(SurveyRawData surveyRawData, String bindingName, VtlBindings bindings){
         // Write data in a json file
         var vtlJsonDatasetWriter = new VtlJsonDatasetWriter(surveyRawData, bindingName);
         String tempDatasetPath = vtlJsonDatasetWriter.writeVtlJsonDataset();
@@ -158,8 +180,12 @@ public class VtlExecute {
                 // set script context
                 ScriptContext context = engine.getContext();
                 context.setBindings(bindings, ScriptContext.ENGINE_SCOPE);
-                // eval
-                engine.eval(vtlScript);
+                // eval, reusing the parsed script if it has already been evaluated
+                if (engine instanceof VtlScriptEngine vtlScriptEngine) {
+                    VtlCompilationCache.getInstance().eval(vtlScript, vtlScriptEngine);
+                } else {
+                    engine.eval(vtlScript);
+                }
                 // overwrite bindings
                 engine.getContext().getBindings(ScriptContext.ENGINE_SCOPE);
 
@@ -225,7 +225,7 @@ public class VtlJsonDatasetWriter {
 	private static final Set<String> falseValues = Set.of("false", "0");
 
 	/** Method to convert compatible boolean values to "true" or "false". */
-	private static String convertBooleanValue(String value) {
+	static String convertBooleanValue(String value) {
 		if (value != null) {
 			if (trueValues.contains(value)) return "true";
 			else if (falseValues.contains(value)) return "false";
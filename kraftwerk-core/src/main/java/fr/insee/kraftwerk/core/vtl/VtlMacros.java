@@ -1,6 +1,7 @@
 package fr.insee.kraftwerk.core.vtl;
 
 import java.util.Collection;
+import java.util.Map;
 import java.util.StringJoiner;
 
 /**
@@ -27,4 +28,20 @@ public class VtlMacros {
         }
         return res.toString();
     }
+
+    /**
+     * Return the content of a single VTL rename clause from the given
+     * old name to new name map.
+     *
+     * @param renames A map of variable names (old name to new name).
+     *
+     * @return A string like "VariableA to NewA, VariableB to NewB".
+     */
+    public static String toVtlRenameSyntax(Map<String, String> renames) {
+        StringJoiner res = new StringJoiner(", ");
+        for(Map.Entry<String, String> rename : renames.entrySet()) {
+            res.add(rename.getKey() + " to " + rename.getValue());
+        }
+        return res.toString();
+    }
 }
@@ -9,15 +9,19 @@ import fr.insee.kraftwerk.core.utils.files.FileSystemImpl;
 import fr.insee.kraftwerk.core.utils.files.FileUtilsInterface;
 import fr.insee.kraftwerk.core.utils.KraftwerkExecutionContext;
 import fr.insee.kraftwerk.core.vtl.VtlBindings;
+import fr.insee.kraftwerk.core.vtl.VtlScript;
 import fr.insee.vtl.model.Dataset;
 import fr.insee.vtl.model.InMemoryDataset;
 import fr.insee.vtl.model.Structured;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class GroupProcessingTest {
 
@@ -56,4 +60,65 @@ class GroupProcessingTest {
                 Set.of("ID", "FOO", "DEPTH1.FOO1", "DEPTH1.DEPTH2.FOO2"),
                 outDataset.getDataStructure().keySet());
     }
+
+    @Test
+    void addPrefixes_missingVariable() {
+        //
+        Dataset initialDataset = new InMemoryDataset(
+                List.of(
+                        List.of("T01", 1L)
+                ),
+                List.of(
+                        new Structured.Component("ID", String.class, Dataset.Role.IDENTIFIER),
+                        new Structured.Component("FOO1", Long.class, Dataset.Role.MEASURE)
+                )
+        );
+        KraftwerkExecutionContext kraftwerkExecutionContext = TestConstants.getKraftwerkExecutionContext();
+        VtlBindings vtlBindings = new VtlBindings();
+        vtlBindings.put("TEST", initialDataset);
+        //
+        MetadataModel metadata = new MetadataModel();
+        metadata.putGroup(new Group("DEPTH1", metadata.getRootGroup().getName()));
+        metadata.getVariables().putVariable(new Variable("FOO1", metadata.getGroup("DEPTH1"), VariableType.NUMBER));
+        metadata.getVariables().putVariable(new Variable("NOT_IN_DATA", metadata.getGroup("DEPTH1"), VariableType.NUMBER));
+        //
+        new GroupProcessing(vtlBindings, metadata, fileUtilsInterface).applyAutomatedVtlInstructions("TEST", kraftwerkExecutionContext);
+
+        //
+        assertEquals(Set.of("ID", "DEPTH1.FOO1"), vtlBindings.getDataset("TEST").getDataStructure().keySet());
+        assertTrue(kraftwerkExecutionContext.getErrors().isEmpty());
+    }
+
+    @Test
+    void addPrefixes_wideQuestionnaire() {
+        int variablesCount = 1500;
+        //
+        List<Structured.Component> components = new ArrayList<>();
+        List<Object> values = new ArrayList<>();
+        components.add(new Structured.Component("ID", String.class, Dataset.Role.IDENTIFIER));
+        values.add("T01");
+        MetadataModel metadata = new MetadataModel();
+        metadata.putGroup(new Group("LOOP", metadata.getRootGroup().getName()));
+        Set<String> expectedNames = new HashSet<>(Set.of("ID"));
+        for (int i = 0; i < variablesCount; i++) {
+            components.add(new Structured.Component("VAR" + i, String.class, Dataset.Role.MEASURE));
+            values.add("value" + i);
+            metadata.getVariables().putVariable(new Variable("VAR" + i, metadata.getGroup("LOOP"), VariableType.STRING));
+            expectedNames.add("LOOP.VAR" + i);
+        }
+        KraftwerkExecutionContext kraftwerkExecutionContext = TestConstants.getKraftwerkExecutionContext();
+        VtlBindings vtlBindings = new VtlBindings();
+        vtlBindings.put("TEST", new InMemoryDataset(List.of(values), components));
+        GroupProcessing groupProcessing = new GroupProcessing(vtlBindings, metadata, fileUtilsInterface);
+
+        //
+        VtlScript vtlScript = groupProcessing.generateVtlInstructions("TEST");
+        groupProcessing.applyAutomatedVtlInstructions("TEST", kraftwerkExecutionContext);
+        Dataset outDataset = vtlBindings.getDataset("TEST");
+
+        // One rename for all variables
+        assertEquals(1, vtlScript.size());
+        assertEquals(expectedNames, outDataset.getDataStructure().keySet());
+        assertEquals("value1499", outDataset.getDataPoints().getFirst().get("LOOP.VAR1499"));
+    }
 }
@@ -134,6 +134,37 @@ class ReconciliationTest {
 				multimodeDataset.getDataStructure().keySet());
 	}
 
+	@Test
+	void reconciliation_sameIdentifiersInTwoModes() throws KraftwerkException {
+		InMemoryDataset cawiSameIdsDataset = new InMemoryDataset(
+				List.of(
+						Map.of("ID", "T01", "LOOP", "LOOP-01", "FOO", "foo1web", "CAWI_SPECIFIC", "bar", "LOOP.FOO1", "foo11web")
+				),
+				Map.of("ID", String.class, "LOOP", String.class,
+						"FOO", String.class, "CAWI_SPECIFIC", String.class, "LOOP.FOO1", String.class
+				),
+				Map.of("ID", Role.IDENTIFIER, "LOOP", Role.IDENTIFIER,
+						"FOO", Role.MEASURE, "CAWI_SPECIFIC", Role.MEASURE, "LOOP.FOO1", Role.MEASURE
+				)
+		);
+		vtlBindings.put("CAPI", capiDataset);
+		vtlBindings.put("CAWI", cawiSameIdsDataset);
+		//
+		ReconciliationProcessing reconciliation = new ReconciliationProcessing(vtlBindings, fileUtilsInterface);
+		reconciliation.applyVtlTransformations("MULTIMODE", null, kraftwerkExecutionContext);
+		//
+		Dataset multimodeDataset = vtlBindings.getDataset("MULTIMODE");
+		// One row per identifiers, common variables of the first mode, specific variables of every mode
+		assertEquals(2, multimodeDataset.getDataPoints().size());
+		Map<String, Object> firstRow = multimodeDataset.getDataAsMap().stream()
+				.filter(row -> "LOOP-01".equals(row.get("LOOP")))
+				.findFirst().orElseThrow();
+		assertEquals("CAPI", firstRow.get(Constants.MODE_VARIABLE_NAME));
+		assertEquals("foo1", firstRow.get("FOO"));
+		assertEquals("foo", firstRow.get("CAPI_SPECIFIC"));
+		assertEquals("bar", firstRow.get("CAWI_SPECIFIC"));
+	}
+
 	@Test
 	void applyReconciliation_threeModes() throws KraftwerkException {
 		vtlBindings.put("CAPI", cawiDataset);
@@ -1,8 +1,11 @@
 package fr.insee.kraftwerk.core.extradata;
 
+import fr.insee.kraftwerk.core.Constants;
 import fr.insee.kraftwerk.core.TestConstants;
 import fr.insee.kraftwerk.core.exceptions.KraftwerkException;
 import fr.insee.kraftwerk.core.exceptions.NullException;
+import fr.insee.kraftwerk.core.extradata.paradata.Event;
+import fr.insee.kraftwerk.core.extradata.paradata.ParaDataUE;
 import fr.insee.kraftwerk.core.extradata.paradata.Paradata;
 import fr.insee.kraftwerk.core.extradata.paradata.ParadataParser;
 import fr.insee.bpm.metadata.model.MetadataModel;
@@ -11,7 +14,11 @@ import fr.insee.kraftwerk.core.rawdata.SurveyRawData;
 import fr.insee.kraftwerk.core.utils.files.FileSystemImpl;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
@@ -116,6 +123,69 @@ class ParaDataParserTest {
 		assertDoesNotThrow(() -> paradataParser.parseParadata(paradata, finalSrd));
 	}
 	
+	@ParameterizedTest
+	@ValueSource(ints = {1, 4})
+	void parseParadata_sameResultWithWorkers(int paradataWorkers) throws NullException {
+		SurveyRawData srd = new SurveyRawData();
+		srd.setMetadataModel(new MetadataModel());
+		srd = addIdToTest(srd, "PL1100000101");
+		srd = addIdToTest(srd, "RR100144");
+		srd = addIdToTest(srd, "NOPARADATA");
+		Paradata paradata = new Paradata();
+		paradata.setFilepath(Paths.get(TestConstants.UNIT_TESTS_DIRECTORY + "/paradata"));
+
+		Constants.setParadataWorkers(paradataWorkers);
+		try {
+			paradataParser.parseParadata(paradata, srd);
+		} finally {
+			Constants.setParadataWorkers(4);
+		}
+
+		Assertions.assertEquals(List.of("PL1100000101", "RR100144"),
+				paradata.getListParadataUE().stream().map(ParaDataUE::getIdentifier).sorted().toList());
+		QuestionnaireData questionnaire = srd.getQuestionnaires().get(1);
+		Assertions.assertEquals("RR100144", questionnaire.getIdentifier());
+		Assertions.assertEquals("5", questionnaire.getAnswers().getValue(Constants.NUMBER_SESSIONS_NAME));
+		Assertions.assertEquals("6058470",
+				questionnaire.getAnswers().getValue(Constants.LENGTH_SESSIONS_NAME + Constants.PARADATA_TIMESTAMP_SUFFIX));
+		Assertions.assertNull(srd.getQuestionnaires().get(2).getAnswers().getValue(Constants.NUMBER_SESSIONS_NAME));
+	}
+
+	@Test
+	void parseParadata_onlyCollectEventsKept(@TempDir Path paradataFolder) throws Exception {
+		String event = "{\"idOrchestrator\":\"%s\",\"idSession\":\"S1\",\"idParadataObject\":\"%s\","
+				+ "\"newValue\":[\"a\",{\"b\":1}],\"responseName\":\"PRENOM\",\"timestamp\":%d}";
+		String json = "{\"events\":[[" + String.join(",",
+				event.formatted("orchestrator-collect", "init-session", 1000L),
+				event.formatted("orchestrator-collect", "init-orchestrator-collect", 1100L),
+				event.formatted("orchestrator-readonly", "radio-input", 1150L),
+				event.formatted("orchestrator-collect", "prenom-input", 1200L),
+				event.formatted("orchestrator-collect", "prenom-input", 1300L),
+				event.formatted("orchestrator-collect", "prenom-input", 1300L),
+				event.formatted("orchestrator-collect", "validate-button-orchestrator-collect", 2000L))
+				+ "]],\"idSu\":\"UE01\"}";
+		Files.writeString(paradataFolder.resolve("paradata.UE01.json"), json);
+		SurveyRawData srd = new SurveyRawData();
+		srd.setMetadataModel(new MetadataModel());
+		srd = addIdToTest(srd, "UE01");
+		Paradata paradata = new Paradata(paradataFolder);
+
+		paradataParser.parseParadata(paradata, srd);
+
+		ParaDataUE paraDataUE = paradata.getParadataUE("UE01");
+		// Read-only event and duplicated event removed
+		Assertions.assertEquals(5, paraDataUE.getEventsCount());
+		Assertions.assertEquals(List.of(1000L, 1100L, 1200L, 1300L, 2000L),
+				paraDataUE.getEvents().stream().map(Event::getTimestamp).toList());
+		Assertions.assertEquals("UE01", paraDataUE.getEvents().getFirst().getIdSurveyUnit());
+		Assertions.assertEquals(1, paraDataUE.getSessions().size());
+		Assertions.assertEquals(1000, paraDataUE.createLengthSessionsVariable());
+		// Input events, duplicates included
+		Assertions.assertEquals(3, paraDataUE.getParadataVariableCount("PRENOM"));
+		Assertions.assertEquals("3", srd.getQuestionnaires().getFirst().getAnswers()
+				.getValue(Constants.PARADATA_VARIABLES_PREFIX + "PRENOM"));
+	}
+
 	private SurveyRawData addIdToTest(SurveyRawData srd, String idToAdd) {
 		List<String> ids = srd.getIdSurveyUnits();
 		if (ids == null) { ids = new ArrayList<>();}
@@ -0,0 +1,51 @@
+package fr.insee.kraftwerk.core.extradata;
+
+import fr.insee.kraftwerk.core.extradata.paradata.ParadataEvents;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ParadataEventsTest {
+
+	@Test
+	void sortAndRemoveDuplicates_firstReadKept() {
+		ParadataEvents events = new ParadataEvents();
+		events.add(2, "A", "S1");
+		events.add(1, "B", "S1");
+		events.add(1, "A", "S1");
+		events.add(1, "B", "S2"); // same as the second event, but with a different session => removed
+
+		events.sortAndRemoveDuplicates();
+
+		assertEquals(3, events.size());
+		assertEquals("A", events.getIdParadataObject(0));
+		assertEquals(1, events.getTimestamp(0));
+		assertEquals("B", events.getIdParadataObject(1));
+		assertEquals("S1", events.getIdSession(1));
+		assertEquals("A", events.getIdParadataObject(2));
+		assertEquals(2, events.getTimestamp(2));
+	}
+
+	@Test
+	void add_growsBeyondInitialCapacity() {
+		ParadataEvents events = new ParadataEvents();
+		for (int i = 1000; i > 0; i--) {
+			events.add(i, "OBJECT", "SESSION");
+		}
+
+		events.sortAndRemoveDuplicates();
+
+		assertEquals(1000, events.size());
+		assertEquals(1, events.getTimestamp(0));
+		assertEquals(1000, events.getTimestamp(999));
+	}
+
+	@Test
+	void empty() {
+		ParadataEvents events = new ParadataEvents();
+		events.sortAndRemoveDuplicates();
+		assertTrue(events.isEmpty());
+	}
+
+}
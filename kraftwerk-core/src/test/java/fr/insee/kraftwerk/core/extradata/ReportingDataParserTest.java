@@ -55,7 +55,7 @@ class ReportingDataParserTest {
         reportingDataUE.setInterviewerId("INT001");
         reportingDataUE.setOrganizationUnitId("ORG001");
 
-        reportingData.getListReportingDataUE().add(reportingDataUE);
+        reportingData.addReportingDataUE(reportingDataUE);
     }
 
     @Test
@@ -99,6 +99,41 @@ class ReportingDataParserTest {
                 .getValue(Constants.ORGANIZATION_UNIT_ID_NAME));
     }
 
+    @Test
+    void testAddReportingValues_joinOnIdentifier() {
+        QuestionnaireData questionnaire = new QuestionnaireData();
+        questionnaire.setIdentifier("Q123456");
+        QuestionnaireData otherQuestionnaire = new QuestionnaireData();
+        otherQuestionnaire.setIdentifier("Q000000");
+        surveyRawData.addQuestionnaire(otherQuestionnaire);
+        surveyRawData.addQuestionnaire(questionnaire);
+        ReportingDataUE missingUE = new ReportingDataUE("Q999999");
+        missingUE.setInterviewerId("INT999");
+        reportingData.addReportingDataUE(missingUE);
+
+        reportingDataParser.integrateReportingDataIntoUE(surveyRawData, reportingData, false, null);
+
+        // Only reporting data of existing questionnaires is added
+        assertEquals(2, surveyRawData.getQuestionnairesCount());
+        assertEquals("INT001", questionnaire.getAnswers().getSubGroup(Constants.REPORTING_DATA_GROUP_NAME)
+                .getInstance(Constants.REPORTING_DATA_PREFIX_NAME + "Q123456")
+                .getValue(Constants.INTERVIEWER_ID_NAME));
+        assertTrue(otherQuestionnaire.getAnswers().getSubGroupNames().isEmpty());
+    }
+
+    @Test
+    void testAddReportingValues_noReportingRowWithoutValues() {
+        QuestionnaireData questionnaire = new QuestionnaireData();
+        questionnaire.setIdentifier("Q000000");
+        surveyRawData.addQuestionnaire(questionnaire);
+        reportingData.addReportingDataUE(new ReportingDataUE("Q000000"));
+
+        reportingDataParser.integrateReportingDataIntoUE(surveyRawData, reportingData, false, null);
+
+        // The survey unit has no reporting values : no reporting data instance is created for it
+        assertTrue(questionnaire.getAnswers().getSubGroupNames().isEmpty());
+    }
+
     @Test
     void testCountMaxStates() {
         // Add other reporting data to count
@@ -109,8 +144,8 @@ class ReportingDataParserTest {
         ue2.getStates().add(new State("STATE1", 1650000000000L));
         ue2.getStates().add(new State("STATE2", 1650005000000L));
 
-        reportingData.getListReportingDataUE().add(ue1);
-        reportingData.getListReportingDataUE().add(ue2);
+        reportingData.addReportingDataUE(ue1);
+        reportingData.addReportingDataUE(ue2);
 
         assertEquals(2, reportingDataParser.countMaxStates(reportingData));
     }
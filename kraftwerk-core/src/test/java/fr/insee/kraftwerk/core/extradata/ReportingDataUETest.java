@@ -80,5 +80,37 @@ public class ReportingDataUETest {
 		Assertions.assertFalse(reportingData.containsReportingDataUE("Report9999"));
 		
 	}
+
+	@Test
+	void getReportingDataUETest() {
+		ReportingData reportingData = new ReportingData(Path.of("test"), new ArrayList<>());
+		ReportingDataUE first = new ReportingDataUE("Report0001");
+		reportingData.addReportingDataUE(first);
+		Assertions.assertSame(first, reportingData.getReportingDataUE("Report0001"));
+
+		// Survey units added after a search are found, the first one is kept for a duplicated identifier
+		reportingData.addReportingDataUE(new ReportingDataUE("Report0001"));
+		ReportingDataUE second = new ReportingDataUE("Report0002");
+		reportingData.addReportingDataUE(second);
+		Assertions.assertSame(first, reportingData.getReportingDataUE("Report0001"));
+		Assertions.assertSame(second, reportingData.getReportingDataUE("Report0002"));
+		Assertions.assertNull(reportingData.getReportingDataUE("Report9999"));
+		Assertions.assertEquals(3, reportingData.getListReportingDataUE().size());
+	}
+
+	@Test
+	void getListReportingDataUE_readOnly() {
+		List<ReportingDataUE> listReportingDataUE = new ArrayList<>();
+		listReportingDataUE.add(new ReportingDataUE("Report0001"));
+		ReportingData reportingData = new ReportingData(Path.of("test"), listReportingDataUE);
+		List<ReportingDataUE> readOnlyList = reportingData.getListReportingDataUE();
+		ReportingDataUE other = new ReportingDataUE("Report0002");
+
+		Assertions.assertThrows(UnsupportedOperationException.class, () -> readOnlyList.add(other));
+		// The list given is copied : adding to it doesn't bypass the index
+		listReportingDataUE.add(other);
+		Assertions.assertEquals(1, reportingData.getListReportingDataUE().size());
+		Assertions.assertFalse(reportingData.containsReportingDataUE("Report0002"));
+	}
 	
 }
\ No newline at end of file
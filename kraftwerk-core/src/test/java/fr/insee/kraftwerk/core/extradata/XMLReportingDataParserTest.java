@@ -13,7 +13,10 @@ import fr.insee.kraftwerk.core.rawdata.SurveyRawDataTest;
 import fr.insee.kraftwerk.core.utils.files.FileSystemImpl;
 import fr.insee.kraftwerk.core.utils.files.FileUtilsInterface;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
@@ -21,6 +24,8 @@ import java.util.ArrayList;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class XMLReportingDataParserTest {
 
@@ -152,6 +157,42 @@ class XMLReportingDataParserTest {
 		assertEquals(1696618304931L, reportingDataUE.getSurveyValidationDateTimeStamp());
 	}
 
+	@Test
+	void parseReportingData_identificationConfigurationOnAllUEs() throws KraftwerkException {
+		XMLReportingDataParser xMLReportingDataParser = new XMLReportingDataParser(fileUtilsInterface);
+		ReportingData reportingData = new ReportingData(
+				Paths.get(TestConstants.UNIT_TESTS_DIRECTORY + "/reportingdata/reportingdata.xml"), new ArrayList<>());
+		xMLReportingDataParser.parseReportingData(reportingData, SurveyRawDataTest.createFakePapiSurveyRawData(), true);
+
+		assertTrue(reportingData.getListReportingDataUE().stream()
+				.allMatch(ue -> "IASCO".equals(ue.getIdentificationConfiguration())));
+	}
+
+	@Test
+	void parseReportingData_fileNotFound() {
+		XMLReportingDataParser xMLReportingDataParser = new XMLReportingDataParser(fileUtilsInterface);
+		ReportingData reportingData = new ReportingData(Path.of("notfound.xml"), new ArrayList<>());
+		SurveyRawData data = SurveyRawDataTest.createFakePapiSurveyRawData();
+
+		assertThrows(KraftwerkException.class, () -> xMLReportingDataParser.parseReportingData(reportingData, data, true));
+	}
+
+	@Test
+	void parseReportingData_truncatedFileNotLoaded(@TempDir Path tempDir) throws IOException {
+		Path filePath = tempDir.resolve("truncated.xml");
+		Files.writeString(filePath, """
+				<Campaign>
+					<SurveyUnits>
+						<SurveyUnit><Id>TNL1102000275</Id><States><State><type>INITLA</type><date>1650000000000</date></State></States></SurveyUnit>
+						<SurveyUnit><Id>TNL1102000276</Id>""");
+		XMLReportingDataParser xMLReportingDataParser = new XMLReportingDataParser(fileUtilsInterface);
+		ReportingData reportingData = new ReportingData(filePath, new ArrayList<>());
+		SurveyRawData data = SurveyRawDataTest.createFakePapiSurveyRawData();
+
+		assertThrows(KraftwerkException.class, () -> xMLReportingDataParser.parseReportingData(reportingData, data, true));
+		assertTrue(reportingData.getListReportingDataUE().isEmpty());
+	}
+
 	@Test
 	void maxTest() {
 		XMLReportingDataParser xMLReportingDataParser = new XMLReportingDataParser(fileUtilsInterface);
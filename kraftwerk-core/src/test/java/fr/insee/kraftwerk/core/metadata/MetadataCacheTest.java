@@ -0,0 +1,151 @@
+package fr.insee.kraftwerk.core.metadata;
+
+import fr.insee.bpm.metadata.model.CalculatedVariables;
+import fr.insee.bpm.metadata.model.Group;
+import fr.insee.bpm.metadata.model.MetadataModel;
+import fr.insee.bpm.metadata.model.Variable;
+import fr.insee.bpm.metadata.model.VariableType;
+import fr.insee.kraftwerk.core.Constants;
+import fr.insee.kraftwerk.core.TestConstants;
+import fr.insee.kraftwerk.core.inputs.ModeInputs;
+import fr.insee.kraftwerk.core.utils.files.FileSystemImpl;
+import fr.insee.kraftwerk.core.utils.files.FileUtilsInterface;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MetadataCacheTest {
+
+	private final MetadataCache metadataCache = new MetadataCache();
+	private final AtomicInteger parseCount = new AtomicInteger();
+
+	@BeforeEach
+	void init() {
+		MetadataCache.getInstance().clear();
+	}
+
+	@AfterEach
+	void resetCacheSize() {
+		Constants.setMetadataCacheSize(16);
+	}
+
+	@Test
+	void getMetadataModel_parsedOnce() {
+		for (int i = 0; i < 3; i++) {
+			metadataCache.getMetadataModel("DDI:hash", this::parseModel);
+		}
+
+		assertEquals(1, parseCount.get());
+		assertEquals(1, metadataCache.getMissCount());
+		assertEquals(2, metadataCache.getHitCount());
+	}
+
+	@Test
+	void getMetadataModel_copiesNotShared() {
+		MetadataModel first = metadataCache.getMetadataModel("DDI:hash", this::parseModel);
+		first.getGroups().put(Constants.REPORTING_DATA_GROUP_NAME, new Group(Constants.REPORTING_DATA_GROUP_NAME));
+		first.getVariables().putVariable(new Variable("ADDED", first.getRootGroup(), VariableType.STRING));
+		first.getVariables().getVariable("PRENOM").setMaxLengthData(12);
+
+		MetadataModel second = metadataCache.getMetadataModel("DDI:hash", this::parseModel);
+
+		assertFalse(second.getGroups().containsKey(Constants.REPORTING_DATA_GROUP_NAME));
+		assertFalse(second.getVariables().hasVariable("ADDED"));
+		assertTrue(second.getVariables().hasVariable("PRENOM"));
+		assertEquals("BOUCLE_PRENOMS", second.getVariables().getVariable("PRENOM").getGroup().getName());
+		assertEquals(0, second.getVariables().getVariable("PRENOM").getMaxLengthData());
+	}
+
+	@Test
+	void getMetadataModel_expired() throws InterruptedException {
+		metadataCache.getMetadataModel("GENESIS:questionnaire:WEB", Duration.ofMillis(50), this::parseModel);
+		metadataCache.getMetadataModel("GENESIS:questionnaire:WEB", Duration.ofMillis(50), this::parseModel);
+		assertEquals(1, parseCount.get());
+
+		Thread.sleep(100);
+		metadataCache.getMetadataModel("GENESIS:questionnaire:WEB", Duration.ofMillis(50), this::parseModel);
+
+		assertEquals(2, parseCount.get());
+		assertEquals(2, metadataCache.getMissCount());
+		assertEquals(1, metadataCache.getHitCount());
+	}
+
+	@Test
+	void getMetadataModel_noCache() {
+		Constants.setMetadataCacheSize(0);
+
+		metadataCache.getMetadataModel("DDI:hash", this::parseModel);
+		metadataCache.getMetadataModel("DDI:hash", this::parseModel);
+		metadataCache.getMetadataModel(null, this::parseModel);
+
+		assertEquals(3, parseCount.get());
+		assertEquals(0, metadataCache.getHitCount());
+	}
+
+	@Test
+	void getMetadataModel_removed() {
+		metadataCache.getMetadataModel("GENESIS:QUEST:WEB", this::parseModel);
+		metadataCache.removeMetadataModel("GENESIS:QUEST:WEB");
+		metadataCache.getMetadataModel("GENESIS:QUEST:WEB", this::parseModel);
+
+		assertEquals(2, parseCount.get());
+	}
+
+	@Test
+	void getCalculatedVariables_copiesNotShared() {
+		CalculatedVariables first = metadataCache.getCalculatedVariables("CALCULATED:hash", this::parseCalculated);
+		first.remove("SUM");
+		CalculatedVariables second = metadataCache.getCalculatedVariables("CALCULATED:hash", this::parseCalculated);
+
+		assertEquals(1, parseCount.get());
+		assertEquals("A + B", second.getVtlExpression("SUM"));
+	}
+
+	@Test
+	void contentHash_changesWithContent() {
+		assertEquals(MetadataCache.contentHash("<DDI/>".getBytes()), MetadataCache.contentHash("<DDI/>".getBytes()));
+		assertNotEquals(MetadataCache.contentHash("<DDI/>".getBytes()), MetadataCache.contentHash("<DDI />".getBytes()));
+	}
+
+	@Test
+	void getMetadata_specificationsParsedOnce() {
+		FileUtilsInterface fileUtilsInterface = new FileSystemImpl(TestConstants.TEST_RESOURCES_DIRECTORY);
+		ModeInputs modeInputs = new ModeInputs();
+		modeInputs.setDdiUrl(TestConstants.UNIT_TESTS_DIRECTORY + "/ddi/ddi-log-2021-x21-web.xml");
+		modeInputs.setLunaticFile(Path.of(TestConstants.UNIT_TESTS_DIRECTORY, "lunatic", "log2021x21_web.json"));
+
+		MetadataModel parsed = MetadataUtils.getMetadata(Map.of("WEB", modeInputs), fileUtilsInterface).get("WEB");
+		MetadataModel cached = MetadataUtils.getMetadata(Map.of("WEB", modeInputs), fileUtilsInterface).get("WEB");
+
+		assertEquals(1, MetadataCache.getInstance().getMissCount());
+		assertEquals(1, MetadataCache.getInstance().getHitCount());
+		assertEquals(parsed.getVariables().getVariableNames(), cached.getVariables().getVariableNames());
+		assertEquals(parsed.getGroupNames(), cached.getGroupNames());
+		assertEquals(parsed.getSpecVersions(), cached.getSpecVersions());
+	}
+
+	private MetadataModel parseModel() {
+		parseCount.incrementAndGet();
+		MetadataModel metadataModel = new MetadataModel();
+		metadataModel.putGroup(new Group("BOUCLE_PRENOMS", Constants.ROOT_GROUP_NAME));
+		metadataModel.getVariables().putVariable(new Variable("PRENOM", metadataModel.getGroup("BOUCLE_PRENOMS"), VariableType.STRING));
+		return metadataModel;
+	}
+
+	private CalculatedVariables parseCalculated() {
+		parseCount.incrementAndGet();
+		CalculatedVariables calculatedVariables = new CalculatedVariables();
+		calculatedVariables.putVariable(new CalculatedVariables.CalculatedVariable("SUM", "A + B"));
+		return calculatedVariables;
+	}
+}
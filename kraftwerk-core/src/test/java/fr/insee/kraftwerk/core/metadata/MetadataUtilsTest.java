@@ -9,6 +9,8 @@ import fr.insee.kraftwerk.core.Constants;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 
 class MetadataUtilsTest {
 
@@ -38,4 +40,32 @@ class MetadataUtilsTest {
         assertEquals(Constants.ROOT_GROUP_NAME,metadata.getVariables().getVariable("COMMENT_QE").getGroup().getName());
 
     }
+
+    @Test
+    void mergeParsedMetadataTest() {
+        MetadataModel metadata = new MetadataModel();
+        Variable varRoot = new Variable("TYPE_QUEST", metadata.getRootGroup(), VariableType.STRING);
+        varRoot.setMaxLengthData(5);
+        metadata.getVariables().putVariable(varRoot);
+
+        MetadataModel fileMetadata = MetadataUtils.copyOf(metadata);
+        fileMetadata.getVariables().getVariable("TYPE_QUEST").setMaxLengthData(12);
+        fileMetadata.putGroup(new Group(Constants.REPORTING_DATA_GROUP_NAME));
+        fileMetadata.getVariables().putVariable(new Variable("OUTCOME", fileMetadata.getGroup(Constants.REPORTING_DATA_GROUP_NAME), VariableType.STRING));
+        // The model of the mode is not modified by the parsing of the file
+        assertEquals(5, metadata.getVariables().getVariable("TYPE_QUEST").getMaxLengthData());
+        assertNull(metadata.getVariables().getVariable("OUTCOME"));
+
+        MetadataUtils.mergeParsedMetadata(metadata, fileMetadata);
+
+        assertEquals(12, metadata.getVariables().getVariable("TYPE_QUEST").getMaxLengthData());
+        assertNotNull(metadata.getVariables().getVariable("OUTCOME"));
+        assertNotNull(metadata.getGroup(Constants.REPORTING_DATA_GROUP_NAME));
+
+        // A smaller length read in another file doesn't lower the max length
+        MetadataModel otherFileMetadata = MetadataUtils.copyOf(metadata);
+        otherFileMetadata.getVariables().getVariable("TYPE_QUEST").setMaxLengthData(3);
+        MetadataUtils.mergeParsedMetadata(metadata, otherFileMetadata);
+        assertEquals(12, metadata.getVariables().getVariable("TYPE_QUEST").getMaxLengthData());
+    }
 }
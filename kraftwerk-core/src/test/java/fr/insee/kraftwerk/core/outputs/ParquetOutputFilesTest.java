@@ -6,6 +6,7 @@ import fr.insee.bpm.metadata.model.Variable;
 import fr.insee.bpm.metadata.model.VariableType;
 import fr.insee.kraftwerk.core.Constants;
 import fr.insee.kraftwerk.core.TestConstants;
+import fr.insee.kraftwerk.core.encryption.EncryptionUtils;
 import fr.insee.kraftwerk.core.encryption.EncryptionUtilsStub;
 import fr.insee.kraftwerk.core.exceptions.KraftwerkException;
 import fr.insee.kraftwerk.core.inputs.UserInputsFile;
@@ -25,6 +26,9 @@ import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.sql.SQLException;
@@ -33,6 +37,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -128,6 +133,37 @@ class ParquetOutputFilesTest {
 		Assertions.assertNotEquals(0, f.length());
 	}
 
+	@Test
+	void writeOutputTable_encryptedLeavesNoTemporaryFile() throws KraftwerkException, IOException {
+		KraftwerkExecutionContext kraftwerkExecutionContext = new KraftwerkExecutionContext(null, false, true, true, 419430400L);
+		EncryptionUtils copyEncryptionUtils = new EncryptionUtils() {
+			@Override
+			public InputStream encryptOutputFile(Path pathOfFileToEncrypt, KraftwerkExecutionContext context) throws KraftwerkException {
+				try {
+					return Files.newInputStream(pathOfFileToEncrypt);
+				} catch (IOException e) {
+					throw new KraftwerkException(500, e.toString());
+				}
+			}
+
+			@Override
+			public String getEncryptedFileExtension() {
+				return ".enc";
+			}
+		};
+		ParquetOutputFiles encryptedOutputFiles = new ParquetOutputFiles(Paths.get(TestConstants.UNIT_TESTS_DUMP),
+				outputFiles.getVtlBindings(), testUserInputs.getModes(), testDatabase, fileUtilsInterface,
+				kraftwerkExecutionContext, copyEncryptionUtils);
+		String tmpFilePrefix = encryptedOutputFiles.outputFileName(Constants.ROOT_GROUP_NAME, kraftwerkExecutionContext);
+
+		encryptedOutputFiles.writeOutputTable(Constants.ROOT_GROUP_NAME, testDatabase);
+
+		Assertions.assertTrue(encryptedOutputFiles.getOutputFolder().resolve(tmpFilePrefix).toFile().exists());
+		try (Stream<Path> tmpFiles = Files.list(Path.of(System.getProperty("java.io.tmpdir")))) {
+			Assertions.assertTrue(tmpFiles.noneMatch(path -> path.getFileName().toString().startsWith(tmpFilePrefix)));
+		}
+	}
+
 	@AfterAll
     static void closeConnection() throws SQLException {
 		testDatabase.getConnection().close();
@@ -0,0 +1,27 @@
+package fr.insee.kraftwerk.core.outputs.csv;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CsvTransformationsTest {
+
+	// Boolean column is the second one
+	private static final boolean[] BOOL_COLUMNS = {false, true, false};
+
+	@ParameterizedTest
+	@CsvSource(delimiter = '|', quoteCharacter = '\'', value = {
+			"'\"A\";\"true\";\"B\"'|'\"A\";\"1\";\"B\"'",
+			"'\"A\";\"false\";\"true\"'|'\"A\";\"0\";\"true\"'",
+			"';;'|'\"\";\"\";\"\"'",
+			"'\"A\";;'|'\"A\";\"\";\"\"'",
+			"';\"true\";\"C\"'|'\"\";\"1\";\"C\"'",
+			"'\"A\";\"true\";\"B\";\"true\"'|'\"A\";\"1\";\"B\";\"true\"'",
+			"'\"A\"'|'\"A\"'"
+	})
+	void applyCsvTransformations_test(String csvLine, String expected) {
+		assertEquals(expected, CsvOutputFiles.applyCsvTransformations(csvLine, BOOL_COLUMNS));
+	}
+
+}
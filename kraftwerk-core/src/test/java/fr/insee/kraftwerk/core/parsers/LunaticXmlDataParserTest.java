@@ -12,7 +12,10 @@ import fr.insee.kraftwerk.core.rawdata.SurveyRawData;
 import fr.insee.kraftwerk.core.utils.files.FileSystemImpl;
 import fr.insee.kraftwerk.core.utils.files.FileUtilsInterface;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
@@ -38,6 +41,24 @@ class LunaticXmlDataParserTest {
 
 	}
 	
+	@Test
+	void parseLunaticXml_truncatedFileNotImported(@TempDir Path tempDir) throws IOException {
+		SurveyRawData data = new SurveyRawData("TEST");
+		data.setMetadataModel(ImportScriptTest.createVariablesMap_rootOnly());
+		Path dataPath = tempDir.resolve("truncated.xml");
+		Files.writeString(dataPath, """
+				<Campaign>
+					<SurveyUnits>
+						<SurveyUnit><Id>T0000001</Id><Data><COLLECTED/></Data></SurveyUnit>
+						<SurveyUnit><Id>T0000002</Id>""");
+		LunaticXmlDataParser parser = new LunaticXmlDataParser(data, fileUtilsInterface);
+
+		parser.parseDataFile(dataPath);
+
+		assertEquals(0, data.getQuestionnairesCount());
+		assertEquals(List.of(), data.getIdSurveyUnits());
+	}
+
 	@Test
 	void parseLunaticDataFolder() throws NullException {
 		//
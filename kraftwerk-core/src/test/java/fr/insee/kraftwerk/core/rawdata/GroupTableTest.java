@@ -0,0 +1,109 @@
+package fr.insee.kraftwerk.core.rawdata;
+
+import fr.insee.bpm.metadata.model.MetadataModel;
+import fr.insee.bpm.metadata.model.Variable;
+import fr.insee.bpm.metadata.model.VariableType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GroupTableTest {
+
+    private GroupTable groupTable;
+
+    @BeforeEach
+    void setUp() {
+        MetadataModel metadataModel = new MetadataModel();
+        metadataModel.getVariables().putVariable(new Variable("AGE", metadataModel.getRootGroup(), VariableType.INTEGER));
+        metadataModel.getVariables().putVariable(new Variable("INCOME", metadataModel.getRootGroup(), VariableType.NUMBER));
+        metadataModel.getVariables().putVariable(new Variable("OWNER", metadataModel.getRootGroup(), VariableType.BOOLEAN));
+        groupTable = new GroupTable(metadataModel);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"42", "-7", "0", "042", "-0", " 42", "", "forty", "99999999999999999999", "123456789012345678"})
+    void integerColumn_valueRestitutedAsIs(String value) {
+        int row = groupTable.addRow();
+        groupTable.putValue(row, "AGE", value);
+        assertEquals(value, groupTable.getValue(row, "AGE"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"1500.5", "12", "0.1", "1.0", "1.50", "1e3", "1.0E10", "12,5", "1234567890123456", "-3.25", "NaN"})
+    void numberColumn_valueRestitutedAsIs(String value) {
+        int row = groupTable.addRow();
+        groupTable.putValue(row, "INCOME", value);
+        assertEquals(value, groupTable.getValue(row, "INCOME"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"true", "false", "1", "0", "TRUE", ""})
+    void booleanColumn_valueRestitutedAsIs(String value) {
+        int row = groupTable.addRow();
+        groupTable.putValue(row, "OWNER", value);
+        assertEquals(value, groupTable.getValue(row, "OWNER"));
+    }
+
+    @Test
+    void nullValue_isPresent() {
+        int row = groupTable.addRow();
+        groupTable.putValue(row, "AGE", null);
+        assertNull(groupTable.getValue(row, "AGE"));
+        assertEquals(Set.of("AGE"), groupTable.getVariableNames(row));
+    }
+
+    @Test
+    void overwriteValue() {
+        int row = groupTable.addRow();
+        groupTable.putValue(row, "AGE", "forty");
+        groupTable.putValue(row, "AGE", "40");
+        assertEquals("40", groupTable.getValue(row, "AGE"));
+        groupTable.putValue(row, "OWNER", "true");
+        groupTable.putValue(row, "OWNER", "false");
+        assertEquals("false", groupTable.getValue(row, "OWNER"));
+    }
+
+    @Test
+    void manyRows_sparseValues() {
+        for (int i = 0; i < 2000; i++) {
+            int row = groupTable.addRow();
+            if (i % 3 == 0) {
+                groupTable.putValue(row, "AGE", String.valueOf(i));
+                groupTable.putValue(row, "OTHER", "value" + i);
+            }
+            if (i % 7 == 0) {
+                groupTable.putValue(row, "OWNER", String.valueOf(i % 2 == 0));
+            }
+        }
+        assertEquals(2000, groupTable.getRowCount());
+        for (int row = 0; row < 2000; row++) {
+            assertEquals(row % 3 == 0 ? String.valueOf(row) : null, groupTable.getValue(row, "AGE"));
+            assertEquals(row % 3 == 0 ? "value" + row : null, groupTable.getValue(row, "OTHER"));
+            assertEquals(row % 7 == 0 ? String.valueOf(row % 2 == 0) : null, groupTable.getValue(row, "OWNER"));
+        }
+        assertEquals(Set.of("AGE", "OTHER", "OWNER"), groupTable.getVariableNames(0));
+        assertEquals(Set.of(), groupTable.getVariableNames(1));
+        assertNull(groupTable.getValue(5000, "AGE"));
+    }
+
+    @Test
+    void instancesShareTables() {
+        DataTables dataTables = new DataTables();
+        QuestionnaireData questionnaire1 = new QuestionnaireData(dataTables);
+        QuestionnaireData questionnaire2 = new QuestionnaireData(dataTables);
+        questionnaire1.putValue("A", "VAR");
+        questionnaire2.putValue("B", "VAR");
+
+        assertSame(dataTables.getTable(questionnaire1.getAnswers().groupName),
+                dataTables.getTable(questionnaire2.getAnswers().groupName));
+        assertEquals(2, dataTables.getTable(questionnaire1.getAnswers().groupName).getRowCount());
+        assertEquals("A", questionnaire1.getValue("VAR"));
+        assertEquals("B", questionnaire2.getValue("VAR"));
+    }
+
+}
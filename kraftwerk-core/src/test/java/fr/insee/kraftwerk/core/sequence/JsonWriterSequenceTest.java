@@ -0,0 +1,161 @@
+package fr.insee.kraftwerk.core.sequence;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import fr.insee.bpm.metadata.model.Group;
+import fr.insee.bpm.metadata.model.MetadataModel;
+import fr.insee.kraftwerk.core.Constants;
+import fr.insee.kraftwerk.core.data.model.InterrogationId;
+import fr.insee.kraftwerk.core.data.model.Mode;
+import fr.insee.kraftwerk.core.data.model.SurveyUnitUpdateLatest;
+import fr.insee.kraftwerk.core.exceptions.KraftwerkException;
+import fr.insee.kraftwerk.core.utils.SqlUtils;
+import org.duckdb.DuckDBConnection;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class JsonWriterSequenceTest {
+
+    private static final String LOOP_NAME = "BOUCLE_PRENOMS";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void tmpJsonOutput_batchDocuments() throws SQLException, KraftwerkException, IOException {
+        try (Connection database = SqlUtils.openConnection(); Statement statement = database.createStatement()) {
+            createTables(statement);
+            // ID0 belongs to a previous batch, ID3 has no survey unit
+            statement.execute("INSERT INTO RACINE VALUES ('ID0', 50), ('ID1', 30), ('ID2', 40), ('ID3', 60)");
+            statement.execute("INSERT INTO " + LOOP_NAME + " VALUES ('ID1', 'BOUCLE_PRENOMS-01', 'ALICE'), "
+                    + "('ID0', 'BOUCLE_PRENOMS-01', 'OLD'), ('ID3', 'BOUCLE_PRENOMS-01', 'CAROL'), "
+                    + "('ID1', 'BOUCLE_PRENOMS-02', 'BOB')");
+
+            List<Map<String, Object>> documents = writeDocuments(List.of("ID2", "ID1", "ID3"),
+                    List.of(surveyUnit("ID1"), surveyUnit("ID2")), statement);
+
+            assertEquals(2, documents.size());
+            Map<String, Object> id2 = documents.getFirst();
+            assertEquals("ID2", id2.get("interrogationId"));
+            assertEquals("UE-ID2", id2.get("surveyUnitId"));
+            assertEquals("WEB", id2.get("mode"));
+            assertEquals(Map.of(Constants.ROOT_GROUP_NAME, List.of(Map.of("AGE", 40)), LOOP_NAME, List.of()),
+                    id2.get("data"));
+            Map<String, Object> id1 = documents.get(1);
+            assertEquals("ID1", id1.get("interrogationId"));
+            assertEquals(Map.of(Constants.ROOT_GROUP_NAME, List.of(Map.of("AGE", 30)),
+                            LOOP_NAME, List.of(Map.of(LOOP_NAME, "BOUCLE_PRENOMS-01", "PRENOM", "ALICE"),
+                                    Map.of(LOOP_NAME, "BOUCLE_PRENOMS-02", "PRENOM", "BOB"))),
+                    id1.get("data"));
+            assertBatchTableDropped(statement);
+        }
+    }
+
+    @Test
+    void tmpJsonOutput_concurrentBatches() throws Exception {
+        try (Connection database = SqlUtils.openConnection(); Statement statement = database.createStatement()) {
+            createTables(statement);
+            statement.execute("INSERT INTO RACINE SELECT 'ID' || i, i FROM range(200) t(i)");
+            DuckDBConnection duckDBConnection = database.unwrap(DuckDBConnection.class);
+            ExecutorService executor = Executors.newFixedThreadPool(4);
+            try {
+                List<Future<List<Map<String, Object>>>> batches = new ArrayList<>();
+                for (int batch = 0; batch < 4; batch++) {
+                    List<String> ids = IntStream.range(batch * 50, (batch + 1) * 50).mapToObj(i -> "ID" + i).toList();
+                    batches.add(executor.submit(() -> {
+                        try (Connection batchConnection = duckDBConnection.duplicate();
+                             Statement batchStatement = batchConnection.createStatement()) {
+                            return writeDocuments(ids, ids.stream().map(JsonWriterSequenceTest::surveyUnit).toList(), batchStatement);
+                        }
+                    }));
+                }
+                // Each export reads its own batch, even when the others write theirs at the same time
+                for (int batch = 0; batch < 4; batch++) {
+                    List<Map<String, Object>> documents = batches.get(batch).get();
+                    assertEquals(50, documents.size());
+                    for (int i = 0; i < 50; i++) {
+                        int age = batch * 50 + i;
+                        assertEquals(Map.of(Constants.ROOT_GROUP_NAME, List.of(Map.of("AGE", age)), LOOP_NAME, List.of()),
+                                documents.get(i).get("data"));
+                    }
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+            assertBatchTableDropped(statement);
+        }
+    }
+
+    @Test
+    void tmpJsonOutput_missingTable_exception() throws SQLException {
+        try (Connection database = SqlUtils.openConnection(); Statement statement = database.createStatement()) {
+            statement.execute("CREATE TABLE RACINE (interrogationId VARCHAR, AGE INTEGER)");
+
+            assertThrows(KraftwerkException.class,
+                    () -> writeDocuments(List.of("ID1"), List.of(surveyUnit("ID1")), statement));
+            assertBatchTableDropped(statement);
+        }
+    }
+
+    private List<Map<String, Object>> writeDocuments(List<String> ids, List<SurveyUnitUpdateLatest> suLatest,
+                                                     Statement statement) throws KraftwerkException, IOException {
+        StringWriter output = new StringWriter();
+        try (JsonGenerator jsonGenerator = objectMapper.getFactory().createGenerator(output)) {
+            jsonGenerator.writeStartArray();
+            new JsonWriterSequence().tmpJsonOutput(ids.stream().map(JsonWriterSequenceTest::interrogationId).toList(),
+                    suLatest, objectMapper, jsonGenerator, Map.of("WEB", metadataModel()), statement);
+            jsonGenerator.writeEndArray();
+        }
+        return objectMapper.readValue(output.toString(), new TypeReference<>() {});
+    }
+
+    private static void createTables(Statement statement) throws SQLException {
+        statement.execute("CREATE TABLE RACINE (interrogationId VARCHAR, AGE INTEGER)");
+        statement.execute("CREATE TABLE " + LOOP_NAME + " (interrogationId VARCHAR, " + LOOP_NAME + " VARCHAR, PRENOM VARCHAR)");
+    }
+
+    private static void assertBatchTableDropped(Statement statement) throws SQLException {
+        try (ResultSet resultSet = statement.executeQuery(String.format(
+                "SELECT * FROM information_schema.tables WHERE table_name LIKE '%s%%'", JsonWriterSequence.BATCH_TABLE_PREFIX))) {
+            assertFalse(resultSet.next());
+        }
+    }
+
+    private static MetadataModel metadataModel() {
+        MetadataModel metadataModel = new MetadataModel();
+        metadataModel.putGroup(new Group(LOOP_NAME, Constants.ROOT_GROUP_NAME));
+        return metadataModel;
+    }
+
+    private static InterrogationId interrogationId(String id) {
+        InterrogationId interrogationId = new InterrogationId();
+        interrogationId.setId(id);
+        return interrogationId;
+    }
+
+    private static SurveyUnitUpdateLatest surveyUnit(String interrogationId) {
+        SurveyUnitUpdateLatest surveyUnit = new SurveyUnitUpdateLatest();
+        surveyUnit.setInterrogationId(interrogationId);
+        surveyUnit.setSurveyUnitId("UE-" + interrogationId);
+        surveyUnit.setQuestionnaireId("QUEST");
+        surveyUnit.setMode(Mode.WEB);
+        return surveyUnit;
+    }
+}
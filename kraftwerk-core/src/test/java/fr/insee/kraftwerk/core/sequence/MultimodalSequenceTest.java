@@ -6,17 +6,32 @@ import fr.insee.kraftwerk.core.TestConstants;
 import fr.insee.kraftwerk.core.exceptions.KraftwerkException;
 import fr.insee.kraftwerk.core.inputs.UserInputs;
 import fr.insee.kraftwerk.core.utils.KraftwerkExecutionContext;
+import fr.insee.kraftwerk.core.utils.SqlUtils;
 import fr.insee.kraftwerk.core.utils.files.FileSystemImpl;
 import fr.insee.kraftwerk.core.utils.files.FileUtilsInterface;
+import fr.insee.kraftwerk.core.vtl.SqlTableDataset;
 import fr.insee.kraftwerk.core.vtl.VtlBindings;
+import fr.insee.vtl.model.Dataset;
+import fr.insee.vtl.model.Dataset.Role;
+import fr.insee.vtl.model.InMemoryDataset;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class MultimodalSequenceTest {
@@ -62,4 +77,89 @@ class MultimodalSequenceTest {
         assertTrue(new File("target/tmp/MultimodeTransformations_" + Constants.MULTIMODE_DATASET_NAME + ".vtl").exists());
         assertTrue(new File("target/tmp/InformationLevelsProcessing_" + Constants.MULTIMODE_DATASET_NAME + ".vtl").exists());
     }
+
+    @Test
+    void testMultimodalProcessing_duckDbSameAsVtl() throws KraftwerkException, SQLException {
+        new File("target/tmp").mkdirs();
+        assertSameOutputsWithDuckDb();
+    }
+
+    @Test
+    void testMultimodalProcessing_duckDbSameAsVtl_userVtl() throws KraftwerkException, SQLException, IOException {
+        new File("target/tmp").mkdirs();
+        Path userVtlFile = Path.of("target/tmp/transformations_duckdb.vtl");
+        Files.writeString(userVtlFile, "MULTIMODE := MULTIMODE [calc SCORE2 := SCORE * 2];");
+        userInputs.setVtlTransformationsFile(userVtlFile);
+        assertTrue(assertSameOutputsWithDuckDb().contains("SCORE2"));
+    }
+
+    /* Run the multimodal steps in VTL then in DuckDB, and compare the tables inserted. Return the multimodal table columns. */
+    private List<String> assertSameOutputsWithDuckDb() throws KraftwerkException, SQLException {
+        Map<String, MetadataModel> modes = Map.of("CAPI", new MetadataModel(), "CAWI", new MetadataModel());
+
+        try (Connection vtlDatabase = SqlUtils.openConnection(); Connection sqlDatabase = SqlUtils.openConnection();
+             Statement vtlStatement = vtlDatabase.createStatement(); Statement sqlStatement = sqlDatabase.createStatement()) {
+            VtlBindings vtlBindingsVtl = unimodalBindings();
+            multimodalSequence.multimodalProcessing(userInputs, vtlBindingsVtl, kraftwerkExecutionContext, new HashMap<>(modes), fileUtilsInterface, vtlDatabase);
+            new InsertDatabaseSequence().insertDatabaseProcessing(vtlBindingsVtl, vtlStatement, kraftwerkExecutionContext);
+
+            VtlBindings vtlBindingsSql = unimodalBindings();
+            Constants.setMultimodalDuckDb(true);
+            try {
+                multimodalSequence.multimodalProcessing(userInputs, vtlBindingsSql, kraftwerkExecutionContext, new HashMap<>(modes), fileUtilsInterface, sqlDatabase);
+            } finally {
+                Constants.setMultimodalDuckDb(false);
+            }
+            // Tables are left in the database, only their structure is in the bindings
+            assertInstanceOf(SqlTableDataset.class, vtlBindingsSql.getDataset(Constants.MULTIMODE_DATASET_NAME));
+            new InsertDatabaseSequence().insertDatabaseProcessing(vtlBindingsSql, sqlStatement, kraftwerkExecutionContext);
+
+            assertEquals(Set.copyOf(vtlBindingsVtl.getDatasetNames()), Set.copyOf(vtlBindingsSql.getDatasetNames()));
+            for (String datasetName : List.of(Constants.MULTIMODE_DATASET_NAME, Constants.ROOT_GROUP_NAME, "LOOP")) {
+                Dataset expected = vtlBindingsVtl.getDataset(datasetName);
+                Dataset actual = vtlBindingsSql.getDataset(datasetName);
+                assertEquals(expected.getDataStructure().keySet(), actual.getDataStructure().keySet(), datasetName);
+                assertEquals(Set.copyOf(VtlBindings.getDatasetIdentifierNames(expected)), Set.copyOf(VtlBindings.getDatasetIdentifierNames(actual)), datasetName);
+            }
+            assertEquals(Set.copyOf(SqlUtils.getTableNames(vtlStatement)), Set.copyOf(SqlUtils.getTableNames(sqlStatement)));
+            for (String tableName : SqlUtils.getTableNames(vtlStatement)) {
+                assertEquals(SqlUtils.convertSqlTableIntoVtlDataset(vtlStatement, tableName, Set.of()).getDataAsMap(),
+                        SqlUtils.convertSqlTableIntoVtlDataset(sqlStatement, tableName, Set.of()).getDataAsMap(), tableName);
+            }
+            // Identifiers found in both modes : one row, with the specific variables of both modes
+            assertEquals(3, SqlUtils.convertSqlTableIntoVtlDataset(sqlStatement, Constants.MULTIMODE_DATASET_NAME, Set.of()).getDataPoints().size());
+            // The database of the multimodal tables is detached once they are inserted
+            try (ResultSet resultSet = sqlStatement.executeQuery("SELECT count(*) FROM duckdb_databases() WHERE database_name LIKE 'kw_multimodal%'")) {
+                resultSet.next();
+                assertEquals(0, resultSet.getInt(1));
+            }
+            return SqlUtils.getColumnNames(sqlStatement, Constants.MULTIMODE_DATASET_NAME);
+        }
+    }
+
+    private static VtlBindings unimodalBindings() {
+        String rootId = Constants.ROOT_IDENTIFIER_NAME;
+        VtlBindings unimodalBindings = new VtlBindings();
+        unimodalBindings.put("CAPI", new InMemoryDataset(
+                List.of(
+                        Map.of(rootId, "T01", "LOOP", "LOOP-01", "FOO", "foo1", "SCORE", 4L, "AGE", 40L, "LOOP.FOO1", "foo11"),
+                        Map.of(rootId, "T01", "LOOP", "LOOP-02", "FOO", "foo1", "SCORE", 4L, "AGE", 40L, "LOOP.FOO1", "foo12")
+                ),
+                Map.of(rootId, String.class, "LOOP", String.class, "FOO", String.class, "SCORE", Long.class,
+                        "AGE", Long.class, "LOOP.FOO1", String.class),
+                Map.of(rootId, Role.IDENTIFIER, "LOOP", Role.IDENTIFIER, "FOO", Role.MEASURE, "SCORE", Role.MEASURE,
+                        "AGE", Role.MEASURE, "LOOP.FOO1", Role.MEASURE)
+        ));
+        unimodalBindings.put("CAWI", new InMemoryDataset(
+                List.of(
+                        Map.of(rootId, "T01", "LOOP", "LOOP-01", "FOO", "foo1web", "SCORE", 4.5, "CAWI_SPECIFIC", "bar", "LOOP.FOO1", "foo11web"),
+                        Map.of(rootId, "T02", "LOOP", "LOOP-01", "FOO", "foo2", "SCORE", 2.5, "CAWI_SPECIFIC", "baz", "LOOP.FOO1", "foo21")
+                ),
+                Map.of(rootId, String.class, "LOOP", String.class, "FOO", String.class, "SCORE", Double.class,
+                        "CAWI_SPECIFIC", String.class, "LOOP.FOO1", String.class),
+                Map.of(rootId, Role.IDENTIFIER, "LOOP", Role.IDENTIFIER, "FOO", Role.MEASURE, "SCORE", Role.MEASURE,
+                        "CAWI_SPECIFIC", Role.MEASURE, "LOOP.FOO1", Role.MEASURE)
+        ));
+        return unimodalBindings;
+    }
 }
@@ -0,0 +1,108 @@
+package fr.insee.kraftwerk.core.sequence;
+
+import fr.insee.kraftwerk.core.Constants;
+import fr.insee.kraftwerk.core.TestConstants;
+import fr.insee.kraftwerk.core.exceptions.KraftwerkException;
+import fr.insee.kraftwerk.core.inputs.ModeInputs;
+import fr.insee.kraftwerk.core.utils.KraftwerkExecutionContext;
+import fr.insee.kraftwerk.core.utils.SqlUtils;
+import fr.insee.kraftwerk.core.utils.files.FileSystemImpl;
+import fr.insee.kraftwerk.core.utils.files.FileUtilsInterface;
+import fr.insee.kraftwerk.core.vtl.VtlBindings;
+import fr.insee.vtl.model.Dataset.Role;
+import fr.insee.vtl.model.InMemoryDataset;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WriterSequenceTest {
+
+    @TempDir
+    Path tempDirectory;
+
+    @Test
+    void writeOutputFiles_concurrentSameAsSequential() throws KraftwerkException, SQLException, IOException {
+        Path inDirectory = tempDirectory.resolve("in").resolve("CAMPAIGN");
+        FileUtilsInterface fileUtilsInterface = new FileSystemImpl(tempDirectory.toString());
+        VtlBindings vtlBindings = outputBindings();
+        ModeInputs modeInputs = new ModeInputs();
+        modeInputs.setDataMode("CAWI");
+        KraftwerkExecutionContext sequentialContext = TestConstants.getKraftwerkExecutionContext();
+        KraftwerkExecutionContext concurrentContext = TestConstants.getKraftwerkExecutionContext();
+
+        try (Connection database = SqlUtils.openConnection(); Statement statement = database.createStatement()) {
+            SqlUtils.convertVtlBindingsIntoSqlDatabase(vtlBindings, statement);
+            WriterSequence writerSequence = new WriterSequence();
+            writerSequence.writeOutputFiles(inDirectory, "_sequential", vtlBindings, modeInputs,
+                    sequentialContext, statement, fileUtilsInterface);
+            Constants.setExportWorkers(4);
+            try {
+                writerSequence.writeOutputFiles(inDirectory, "_concurrent", vtlBindings, modeInputs,
+                        concurrentContext, statement, fileUtilsInterface);
+            } finally {
+                Constants.setExportWorkers(1);
+            }
+        }
+
+        Path sequentialFolder = outputFolder(inDirectory, "_sequential");
+        Path concurrentFolder = outputFolder(inDirectory, "_concurrent");
+        List<String> sequentialFiles = fileNames(sequentialFolder);
+        assertEquals(sequentialFiles, fileNames(concurrentFolder));
+        assertTrue(sequentialFiles.contains("CAMPAIGN_RACINE.csv"));
+        assertTrue(sequentialFiles.contains("CAMPAIGN_LOOP.parquet"));
+        for (String fileName : sequentialFiles) {
+            if (fileName.endsWith(".csv")) {
+                assertEquals(Files.readAllLines(sequentialFolder.resolve(fileName)),
+                        Files.readAllLines(concurrentFolder.resolve(fileName)), fileName);
+            }
+        }
+        assertEquals(sequentialContext.getLineCountByTableMap(), concurrentContext.getLineCountByTableMap());
+    }
+
+    private static Path outputFolder(Path inDirectory, String suffix) throws IOException {
+        try (Stream<Path> folders = Files.list(FileUtilsInterface.transformToOut(inDirectory))) {
+            return folders.filter(folder -> folder.getFileName().toString().endsWith(suffix)).findFirst().orElseThrow();
+        }
+    }
+
+    private static List<String> fileNames(Path folder) throws IOException {
+        try (Stream<Path> files = Files.list(folder)) {
+            return files.map(file -> file.getFileName().toString()).sorted().toList();
+        }
+    }
+
+    private static VtlBindings outputBindings() {
+        String rootId = Constants.ROOT_IDENTIFIER_NAME;
+        VtlBindings vtlBindings = new VtlBindings();
+        vtlBindings.put(Constants.ROOT_GROUP_NAME, new InMemoryDataset(
+                List.of(
+                        Map.of(rootId, "T01", "FOO", "foo1", "AGE", 40L),
+                        Map.of(rootId, "T02", "FOO", "foo2", "AGE", 25L)
+                ),
+                Map.of(rootId, String.class, "FOO", String.class, "AGE", Long.class),
+                Map.of(rootId, Role.IDENTIFIER, "FOO", Role.MEASURE, "AGE", Role.MEASURE)
+        ));
+        vtlBindings.put("LOOP", new InMemoryDataset(
+                List.of(
+                        Map.of(rootId, "T01", "LOOP", "LOOP-01", "FOO1", "foo11"),
+                        Map.of(rootId, "T01", "LOOP", "LOOP-02", "FOO1", "foo12"),
+                        Map.of(rootId, "T02", "LOOP", "LOOP-01", "FOO1", "foo21")
+                ),
+                Map.of(rootId, String.class, "LOOP", String.class, "FOO1", String.class),
+                Map.of(rootId, Role.IDENTIFIER, "LOOP", Role.IDENTIFIER, "FOO1", Role.MEASURE)
+        ));
+        return vtlBindings;
+    }
+}
@@ -0,0 +1,69 @@
+package fr.insee.kraftwerk.core.utils;
+
+import fr.insee.kraftwerk.core.exceptions.KraftwerkException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ConcurrentTasksTest {
+
+	@Test
+	void invokeAll_resultsInTasksOrder() throws KraftwerkException {
+		List<Callable<Integer>> tasks = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			int taskNumber = i;
+			tasks.add(() -> {
+				// First tasks end last
+				Thread.sleep(10L * (10 - taskNumber));
+				return taskNumber;
+			});
+		}
+
+		assertEquals(List.of(0, 1, 2, 3, 4, 5, 6, 7, 8, 9), ConcurrentTasks.invokeAll(tasks, 4, "test"));
+	}
+
+	@Test
+	void invokeAll_kraftwerkExceptionRethrown() {
+		List<Callable<Integer>> tasks = List.of(
+				() -> 1,
+				() -> {
+					throw new KraftwerkException(400, "Bad input");
+				});
+
+		KraftwerkException exception = assertThrows(KraftwerkException.class, () -> ConcurrentTasks.invokeAll(tasks, 2, "test"));
+		assertEquals(400, exception.getStatus());
+		assertEquals("Bad input", exception.getMessage());
+	}
+
+	@Test
+	void awaitSubmittedTasks_notInterrupted() {
+		Future<Boolean> task;
+		try (ConcurrentTasks concurrentTasks = new ConcurrentTasks(1, "test")) {
+			task = concurrentTasks.submit(() -> {
+				Thread.sleep(100);
+				return true;
+			});
+			concurrentTasks.awaitSubmittedTasks();
+		}
+
+		// The task would have been interrupted during its sleep by the closing
+		assertEquals(Boolean.TRUE, task.resultNow());
+	}
+
+	@Test
+	void invokeAll_otherExceptionWrapped() {
+		List<Callable<Integer>> tasks = List.of(() -> {
+			throw new IllegalStateException("Unexpected");
+		});
+
+		KraftwerkException exception = assertThrows(KraftwerkException.class, () -> ConcurrentTasks.invokeAll(tasks, 2, "test"));
+		assertEquals(500, exception.getStatus());
+		assertEquals("Error during test : Unexpected", exception.getMessage());
+	}
+}
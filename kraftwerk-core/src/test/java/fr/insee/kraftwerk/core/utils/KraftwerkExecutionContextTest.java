@@ -15,6 +15,7 @@ import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 
 class KraftwerkExecutionContextTest {
     @Test
@@ -81,4 +82,73 @@ class KraftwerkExecutionContextTest {
         //Then
         Assertions.assertThat(kraftwerkExecutionContext.getErrors()).isNotEmpty().hasSize(2).containsExactly(kraftwerkError, kraftwerkError2);
     }
+
+    @Test
+    void recordStage_accumulatedByStageAndMode_test(){
+        //Given
+        KraftwerkExecutionContext kraftwerkExecutionContext = TestConstants.getKraftwerkExecutionContext();
+
+        //When
+        kraftwerkExecutionContext.recordStage("GroupProcessing", "WEB", 2_000_000, 10, 10, 1024);
+        kraftwerkExecutionContext.recordStage("GroupProcessing", "PAPI", 1_000_000, 5, 5, 0);
+        kraftwerkExecutionContext.recordStage("GroupProcessing", "WEB", 3_000_000, 20, 20, 1024);
+        kraftwerkExecutionContext.recordStage("CsvExport", null, 4_000_000, 0, 45, 0);
+
+        //Then
+        List<StageMetrics> stageMetrics = kraftwerkExecutionContext.getStageMetrics();
+        Assertions.assertThat(stageMetrics).extracting(StageMetrics::getStageName, StageMetrics::getMode)
+                .containsExactly(Assertions.tuple("GroupProcessing", "WEB"),
+                        Assertions.tuple("GroupProcessing", "PAPI"),
+                        Assertions.tuple("CsvExport", null));
+        StageMetrics webGroupProcessing = stageMetrics.getFirst();
+        Assertions.assertThat(webGroupProcessing.getInvocations()).isEqualTo(2);
+        Assertions.assertThat(webGroupProcessing.getDurationMillis()).isEqualTo(5);
+        Assertions.assertThat(webGroupProcessing.getRowsIn()).isEqualTo(30);
+        Assertions.assertThat(webGroupProcessing.getRowsOut()).isEqualTo(30);
+        Assertions.assertThat(webGroupProcessing.getAllocatedBytes()).isEqualTo(2048);
+        Assertions.assertThat(kraftwerkExecutionContext.getFormattedString())
+                .contains("GroupProcessing (WEB): 5 ms", "CsvExport: 4 ms");
+    }
+
+    @Test
+    void startStage_recordedOnClose_test(){
+        //Given
+        KraftwerkExecutionContext kraftwerkExecutionContext = TestConstants.getKraftwerkExecutionContext();
+
+        //When
+        try (StageTimer stageTimer = kraftwerkExecutionContext.startStage("StandardVtl", "WEB")) {
+            stageTimer.setRowsIn(3);
+            Assertions.assertThat(kraftwerkExecutionContext.getStageMetrics()).isEmpty();
+            stageTimer.setRowsOut(2);
+        }
+
+        //Then
+        Assertions.assertThat(kraftwerkExecutionContext.getStageMetrics()).hasSize(1);
+        StageMetrics stageMetrics = kraftwerkExecutionContext.getStageMetrics().getFirst();
+        Assertions.assertThat(stageMetrics.getInvocations()).isEqualTo(1);
+        Assertions.assertThat(stageMetrics.getRowsIn()).isEqualTo(3);
+        Assertions.assertThat(stageMetrics.getRowsOut()).isEqualTo(2);
+        Assertions.assertThat(stageMetrics.getDurationNanos()).isPositive();
+        Assertions.assertThat(stageMetrics.isRowsMeasured()).isTrue();
+    }
+
+    @Test
+    void startStage_withoutRows_test(){
+        //Given
+        KraftwerkExecutionContext kraftwerkExecutionContext = TestConstants.getKraftwerkExecutionContext();
+
+        //When
+        try (StageTimer ignored = kraftwerkExecutionContext.startStage("ReconciliationProcessing", null, "MULTIMODE")) {
+            Assertions.assertThat(kraftwerkExecutionContext.getStageMetrics()).isEmpty();
+        }
+
+        //Then
+        StageMetrics stageMetrics = kraftwerkExecutionContext.getStageMetrics().getFirst();
+        Assertions.assertThat(stageMetrics.getMode()).isNull();
+        Assertions.assertThat(stageMetrics.getDataset()).isEqualTo("MULTIMODE");
+        Assertions.assertThat(stageMetrics.isRowsMeasured()).isFalse();
+        Assertions.assertThat(kraftwerkExecutionContext.getFormattedString())
+                .contains("ReconciliationProcessing [MULTIMODE]: ")
+                .doesNotContain("lignes en entrée");
+    }
 }
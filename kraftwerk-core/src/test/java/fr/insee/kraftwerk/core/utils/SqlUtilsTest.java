@@ -22,6 +22,7 @@ import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -211,6 +212,64 @@ class SqlUtilsTest {
     }
 
 
+    @Test
+    void convertVtlDatasetIntoSqlTable_typedValues() throws SQLException {
+        try(Statement testDatabaseStatement = SqlUtils.openConnection().createStatement()) {
+            //Given
+            Dataset testDataset = new InMemoryDataset(
+                    List.of(
+                            Arrays.asList("UE1", 12L, 1.5, true, "line1\nline2"),
+                            Arrays.asList("UE2", null, 3L, false, null)
+                    ),
+                    List.of(new Structured.Component("ID", String.class, Dataset.Role.IDENTIFIER),
+                            new Structured.Component("AGE", Long.class, Dataset.Role.MEASURE),
+                            new Structured.Component("SCORE", Double.class, Dataset.Role.MEASURE),
+                            new Structured.Component("OK", Boolean.class, Dataset.Role.MEASURE),
+                            new Structured.Component("COMMENT", String.class, Dataset.Role.MEASURE)));
+
+            //When
+            SqlUtils.convertVtlDatasetIntoSqlTable(testDataset, "TYPED", testDatabaseStatement);
+
+            //Then
+            try (ResultSet resultSet = testDatabaseStatement.executeQuery("SELECT * FROM TYPED ORDER BY ID")) {
+                Assertions.assertThat(resultSet.next()).isTrue();
+                Assertions.assertThat(resultSet.getLong("AGE")).isEqualTo(12L);
+                Assertions.assertThat(resultSet.getDouble("SCORE")).isEqualTo(1.5);
+                Assertions.assertThat(resultSet.getBoolean("OK")).isTrue();
+                Assertions.assertThat(resultSet.getString("COMMENT")).isEqualTo("line1line2");
+                Assertions.assertThat(resultSet.next()).isTrue();
+                Assertions.assertThat(resultSet.getObject("AGE")).isNull();
+                Assertions.assertThat(resultSet.getDouble("SCORE")).isEqualTo(3.0);
+                Assertions.assertThat(resultSet.getObject("COMMENT")).isNull();
+            }
+        }
+    }
+
+    @Test
+    void convertVtlDatasetIntoSqlTable_existingTable() throws SQLException {
+        try(Statement testDatabaseStatement = SqlUtils.openConnection().createStatement()) {
+            //Given : table created by a previous file, with columns in another order
+            testDatabaseStatement.execute("CREATE TABLE EXISTING(\"B\" VARCHAR, \"A\" VARCHAR, \"OLD\" VARCHAR)");
+            Dataset testDataset = new InMemoryDataset(
+                    List.of(List.of("a1", "b1", "c1")),
+                    List.of(new Structured.Component("A", String.class, Dataset.Role.IDENTIFIER),
+                            new Structured.Component("B", String.class, Dataset.Role.MEASURE),
+                            new Structured.Component("C", String.class, Dataset.Role.MEASURE)));
+
+            //When
+            SqlUtils.convertVtlDatasetIntoSqlTable(testDataset, "EXISTING", testDatabaseStatement);
+
+            //Then
+            Assertions.assertThat(SqlUtils.getColumnNames(testDatabaseStatement, "EXISTING")).containsExactly("B", "A", "OLD", "C");
+            try (ResultSet resultSet = testDatabaseStatement.executeQuery("SELECT * FROM EXISTING")) {
+                Assertions.assertThat(resultSet.next()).isTrue();
+                Assertions.assertThat(resultSet.getString("A")).isEqualTo("a1");
+                Assertions.assertThat(resultSet.getString("B")).isEqualTo("b1");
+                Assertions.assertThat(resultSet.getString("C")).isEqualTo("c1");
+                Assertions.assertThat(resultSet.getString("OLD")).isNull();
+            }
+        }
+    }
 
     @AfterAll
     static void closeConnection() throws SQLException {
@@ -0,0 +1,91 @@
+package fr.insee.kraftwerk.core.utils;
+
+import fr.insee.kraftwerk.core.TestConstants;
+import fr.insee.kraftwerk.core.exceptions.KraftwerkException;
+import fr.insee.kraftwerk.core.utils.files.FileSystemImpl;
+import fr.insee.kraftwerk.core.utils.files.FileUtilsInterface;
+import fr.insee.kraftwerk.core.utils.xml.XmlElementStreamReader;
+import fr.insee.kraftwerk.core.utils.xml.XmlFileReader;
+import nu.xom.Document;
+import nu.xom.Element;
+import nu.xom.Elements;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class XmlElementStreamReaderTest {
+
+	private static final String LUNATIC_XML_FOLDER = TestConstants.UNIT_TESTS_DIRECTORY + "/data/lunatic_xml/";
+
+	private final FileUtilsInterface fileUtilsInterface = new FileSystemImpl(TestConstants.TEST_RESOURCES_DIRECTORY);
+
+	@ParameterizedTest
+	@ValueSource(strings = {"fake-lunatic-data-1.xml", "fake-lunatic-data-2.xml", "fake-lunatic-data-3.xml", "fake-lunatic-data-root-only.xml"})
+	void readElements_sameAsDocument(String fileName) throws KraftwerkException {
+		Path filePath = Path.of(LUNATIC_XML_FOLDER + fileName);
+		Document document = new XmlFileReader(fileUtilsInterface).readXmlFile(filePath);
+		Elements expected = document.getRootElement().getFirstChildElement("SurveyUnits").getChildElements("SurveyUnit");
+
+		List<Element> elements = new ArrayList<>();
+		assertTrue(new XmlElementStreamReader(fileUtilsInterface).readElements(filePath, "SurveyUnits/SurveyUnit", elements::add));
+
+		assertEquals(expected.size(), elements.size());
+		for (int i = 0; i < expected.size(); i++) {
+			assertEquals(expected.get(i).toXML(), elements.get(i).toXML());
+		}
+	}
+
+	@Test
+	void readElements_fileNotFound() throws KraftwerkException {
+		List<Element> elements = new ArrayList<>();
+		assertFalse(new XmlElementStreamReader(fileUtilsInterface).readElements(Path.of("notfound.xml"), "SurveyUnits/SurveyUnit", elements::add));
+		assertTrue(elements.isEmpty());
+	}
+
+	@Test
+	void readElements_onlyAtPath(@TempDir Path tempDir) throws IOException, KraftwerkException {
+		Path filePath = tempDir.resolve("nested.xml");
+		Files.writeString(filePath, """
+				<Campaign>
+					<SurveyUnits>
+						<SurveyUnit><Id>1</Id><SurveyUnit><Id>nested</Id></SurveyUnit></SurveyUnit>
+						<Other><SurveyUnit><Id>other</Id></SurveyUnit></Other>
+						<SurveyUnit><Id>2</Id></SurveyUnit>
+					</SurveyUnits>
+					<SurveyUnit><Id>root</Id></SurveyUnit>
+				</Campaign>""");
+
+		List<String> identifiers = new ArrayList<>();
+		assertTrue(new XmlElementStreamReader(fileUtilsInterface).readElements(filePath, "SurveyUnits/SurveyUnit",
+				element -> identifiers.add(element.getFirstChildElement("Id").getValue())));
+
+		assertEquals(List.of("1", "2"), identifiers);
+	}
+
+	@Test
+	void readElements_malformed(@TempDir Path tempDir) throws IOException {
+		Path filePath = tempDir.resolve("truncated.xml");
+		Files.writeString(filePath, """
+				<Campaign>
+					<SurveyUnits>
+						<SurveyUnit><Id>1</Id></SurveyUnit>
+						<SurveyUnit><Id>2""");
+		XmlElementStreamReader xmlElementStreamReader = new XmlElementStreamReader(fileUtilsInterface);
+
+		assertThrows(KraftwerkException.class, () ->
+				xmlElementStreamReader.readElements(filePath, "SurveyUnits/SurveyUnit", element -> {}));
+	}
+
+}
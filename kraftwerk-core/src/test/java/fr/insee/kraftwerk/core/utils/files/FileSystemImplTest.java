@@ -3,10 +3,12 @@ package fr.insee.kraftwerk.core.utils.files;
 import fr.insee.kraftwerk.core.Constants;
 import fr.insee.kraftwerk.core.TestConstants;
 import fr.insee.kraftwerk.core.exceptions.KraftwerkException;
+import fr.insee.kraftwerk.core.inputs.UserInputs;
 import fr.insee.kraftwerk.core.inputs.UserInputsFile;
 import org.assertj.core.api.Assertions;
 import org.junit.Assert;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import java.io.File;
 import java.io.IOException;
@@ -222,6 +224,42 @@ class FileSystemImplTest {
         Files.deleteIfExists(inputDirectory.resolve("test.txt"));
         Files.deleteIfExists(inputDirectory);
     }
+    @Test
+    void openOutputStreamTest_publishedOnCommit(@TempDir Path outputDirectory) throws IOException, KraftwerkException {
+        //GIVEN
+        Path outputFile = outputDirectory.resolve("test.csv");
+        Files.writeString(outputFile, "previous");
+
+        //WHEN + THEN
+        try (CommittableOutputStream outputStream = fileSystemImpl.openOutputStream(outputFile.toString())) {
+            outputStream.write("new".getBytes());
+            Assertions.assertThat(Files.readString(outputFile)).isEqualTo("previous");
+            outputStream.commit();
+        }
+        Assertions.assertThat(Files.readString(outputFile)).isEqualTo("new");
+        try (Stream<Path> files = Files.list(outputDirectory)) {
+            Assertions.assertThat(files).containsExactly(outputFile);
+        }
+    }
+
+    @Test
+    void openOutputStreamTest_notCommitted(@TempDir Path outputDirectory) throws IOException, KraftwerkException {
+        //GIVEN
+        Path outputFile = outputDirectory.resolve("test.csv");
+        Files.writeString(outputFile, "previous");
+
+        //WHEN
+        try (CommittableOutputStream outputStream = fileSystemImpl.openOutputStream(outputFile.toString())) {
+            outputStream.write("truncat".getBytes());
+        }
+
+        //THEN
+        Assertions.assertThat(Files.readString(outputFile)).isEqualTo("previous");
+        try (Stream<Path> files = Files.list(outputDirectory)) {
+            Assertions.assertThat(files).containsExactly(outputFile);
+        }
+    }
+
     @Test
     void findFileTest() throws KraftwerkException {
         //GIVEN
@@ -344,4 +382,21 @@ class FileSystemImplTest {
         //WHEN+THEN
         Assertions.assertThat(fileSystemImpl.convertToUrl("test.txt", inputDirectory)).endsWith("test.txt");
     }
+
+    @Test
+    void getTempVtlFilePath_ownedByEachProcessing(@TempDir Path tempDirectory) {
+        //GIVEN
+        Path inputDirectory = tempDirectory.resolve("in").resolve("campaign");
+        UserInputs firstFileInputs = new UserInputs(inputDirectory, fileSystemImpl);
+        UserInputs secondFileInputs = new UserInputs(inputDirectory, fileSystemImpl);
+
+        //WHEN
+        Path firstScript = fileSystemImpl.getTempVtlFilePath(firstFileInputs, "GroupProcessing", "WEB");
+        Path secondScript = fileSystemImpl.getTempVtlFilePath(secondFileInputs, "GroupProcessing", "WEB");
+
+        //THEN
+        Assertions.assertThat(firstScript).isNotEqualTo(secondScript).hasFileName("GroupProcessingWEB.vtl");
+        Assertions.assertThat(firstScript.getParent()).isDirectory().startsWith(tempDirectory.resolve("temp"));
+        Assertions.assertThat(fileSystemImpl.getTempVtlFilePath(firstFileInputs, "GroupProcessing", "WEB")).isEqualTo(firstScript);
+    }
 }
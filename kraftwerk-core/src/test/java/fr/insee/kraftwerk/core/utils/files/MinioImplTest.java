@@ -0,0 +1,118 @@
+package fr.insee.kraftwerk.core.utils.files;
+
+import io.minio.ComposeObjectArgs;
+import io.minio.ComposeSource;
+import io.minio.GetObjectArgs;
+import io.minio.GetObjectResponse;
+import io.minio.MinioClient;
+import io.minio.PutObjectArgs;
+import io.minio.RemoveObjectArgs;
+import io.minio.StatObjectArgs;
+import io.minio.StatObjectResponse;
+import io.minio.errors.ErrorResponseException;
+import okhttp3.Headers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MinioImplTest {
+
+    private static final String ERRORS_PATH = "out/CAMPAIGN/errors.txt";
+
+    private MinioClient minioClient;
+    private MinioImpl minioImpl;
+    private final Map<String, String> uploadedObjects = new ConcurrentHashMap<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        minioClient = mock(MinioClient.class);
+        minioImpl = new MinioImpl(minioClient, "bucket");
+        doAnswer(invocation -> {
+            PutObjectArgs putObjectArgs = invocation.getArgument(0);
+            uploadedObjects.put(putObjectArgs.object(), new String(putObjectArgs.stream().readAllBytes(), StandardCharsets.UTF_8));
+            return null;
+        }).when(minioClient).putObject(any(PutObjectArgs.class));
+    }
+
+    @Test
+    void writeFile_appendsUploadedOnceWhenFlushed() throws Exception {
+        when(minioClient.statObject(any(StatObjectArgs.class))).thenThrow(ErrorResponseException.class);
+
+        for (int i = 0; i < 100; i++) {
+            minioImpl.writeFile(ERRORS_PATH, "error " + i + "\n", false);
+        }
+        verify(minioClient, never()).putObject(any(PutObjectArgs.class));
+        minioImpl.flushAppends(ERRORS_PATH);
+        minioImpl.flushAppends(ERRORS_PATH);
+
+        verify(minioClient, times(1)).putObject(any(PutObjectArgs.class));
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            expected.append("error ").append(i).append("\n");
+        }
+        assertEquals(expected.toString(), uploadedObjects.get(ERRORS_PATH));
+    }
+
+    @Test
+    void writeFile_smallExistingObject_uploadedAgain() throws Exception {
+        StatObjectResponse statObjectResponse = statObjectResponse(8);
+        when(minioClient.statObject(any(StatObjectArgs.class))).thenReturn(statObjectResponse);
+        when(minioClient.getObject(any(GetObjectArgs.class))).thenReturn(new GetObjectResponse(Headers.of(), "bucket",
+                null, ERRORS_PATH, new ByteArrayInputStream("existing".getBytes(StandardCharsets.UTF_8))));
+
+        minioImpl.writeFile(ERRORS_PATH, " appended", false);
+        // Buffered appends are written before the file is read
+        minioImpl.readFile(ERRORS_PATH);
+
+        assertEquals("existing appended", uploadedObjects.get(ERRORS_PATH));
+        verify(minioClient, never()).composeObject(any());
+    }
+
+    @Test
+    void writeFile_largeExistingObject_composed() throws Exception {
+        StatObjectResponse statObjectResponse = statObjectResponse(10485760);
+        when(minioClient.statObject(any(StatObjectArgs.class))).thenReturn(statObjectResponse);
+
+        minioImpl.writeFile(ERRORS_PATH, "appended", false);
+        minioImpl.flushAppends(ERRORS_PATH);
+
+        verify(minioClient, never()).getObject(any());
+        ArgumentCaptor<ComposeObjectArgs> composeCaptor = ArgumentCaptor.forClass(ComposeObjectArgs.class);
+        verify(minioClient).composeObject(composeCaptor.capture());
+        assertEquals(ERRORS_PATH, composeCaptor.getValue().object());
+        List<String> sources = composeCaptor.getValue().sources().stream().map(ComposeSource::object).toList();
+        assertEquals(ERRORS_PATH, sources.getFirst());
+        assertEquals("appended", uploadedObjects.get(sources.get(1)));
+        verify(minioClient).removeObject(any(RemoveObjectArgs.class));
+    }
+
+    @Test
+    void writeFile_replace_discardsAppends() {
+        minioImpl.writeFile(ERRORS_PATH, "appended", false);
+        minioImpl.writeFile(ERRORS_PATH, "replaced", true);
+        minioImpl.flushAppends(ERRORS_PATH);
+
+        assertEquals(Map.of(ERRORS_PATH, "replaced"), uploadedObjects);
+    }
+
+    private static StatObjectResponse statObjectResponse(long size) {
+        StatObjectResponse statObjectResponse = mock(StatObjectResponse.class);
+        when(statObjectResponse.size()).thenReturn(size);
+        return statObjectResponse;
+    }
+}
@@ -0,0 +1,121 @@
+package fr.insee.kraftwerk.core.utils.files;
+
+import io.minio.ComposeObjectArgs;
+import io.minio.ComposeSource;
+import io.minio.MinioClient;
+import io.minio.PutObjectArgs;
+import io.minio.RemoveObjectArgs;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class MinioOutputStreamTest {
+
+    private static final String OBJECT_NAME = "out/CAMPAIGN/CAMPAIGN_RACINE.csv";
+    private static final int PART_SIZE = 16;
+
+    private MinioClient minioClient;
+    private final Map<String, byte[]> uploadedObjects = new ConcurrentHashMap<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        minioClient = mock(MinioClient.class);
+        doAnswer(invocation -> {
+            PutObjectArgs putObjectArgs = invocation.getArgument(0);
+            uploadedObjects.put(putObjectArgs.object(), putObjectArgs.stream().readAllBytes());
+            return null;
+        }).when(minioClient).putObject(any(PutObjectArgs.class));
+    }
+
+    @Test
+    void write_smallerThanPart_singleUpload() throws Exception {
+        byte[] data = "RACINE;FOO".getBytes(StandardCharsets.UTF_8);
+
+        try (CommittableOutputStream outputStream = new MinioOutputStream(minioClient, "bucket", OBJECT_NAME, PART_SIZE, 2)) {
+            outputStream.write(data);
+            outputStream.commit();
+        }
+
+        assertEquals(Map.of(OBJECT_NAME, data).keySet(), uploadedObjects.keySet());
+        assertArrayEquals(data, uploadedObjects.get(OBJECT_NAME));
+        verify(minioClient, never()).composeObject(any());
+    }
+
+    @Test
+    void write_severalParts_composed() throws Exception {
+        byte[] data = "0123456789abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ".getBytes(StandardCharsets.UTF_8);
+
+        try (CommittableOutputStream outputStream = new MinioOutputStream(minioClient, "bucket", OBJECT_NAME, PART_SIZE, 2)) {
+            outputStream.write(data, 0, 20);
+            for (int i = 20; i < 30; i++) {
+                outputStream.write(data[i]);
+            }
+            outputStream.write(data, 30, data.length - 30);
+            outputStream.commit();
+        }
+
+        ArgumentCaptor<ComposeObjectArgs> composeCaptor = ArgumentCaptor.forClass(ComposeObjectArgs.class);
+        verify(minioClient).composeObject(composeCaptor.capture());
+        assertEquals(OBJECT_NAME, composeCaptor.getValue().object());
+        List<String> partNames = composeCaptor.getValue().sources().stream().map(ComposeSource::object).toList();
+        assertEquals(4, partNames.size());
+        // Parts are not in the output folder
+        assertTrue(partNames.stream().allMatch(partName -> partName.startsWith(MinioOutputStream.PARTS_PREFIX)));
+        ByteArrayOutputStream composed = new ByteArrayOutputStream();
+        for (String partName : partNames) {
+            composed.write(uploadedObjects.get(partName));
+        }
+        assertArrayEquals(data, composed.toByteArray());
+        verify(minioClient, times(4)).removeObject(any(RemoveObjectArgs.class));
+    }
+
+    @Test
+    void close_notCommitted_nothingPublished() throws Exception {
+        try (CommittableOutputStream outputStream = new MinioOutputStream(minioClient, "bucket", OBJECT_NAME, PART_SIZE, 2)) {
+            outputStream.write(new byte[PART_SIZE * 2 + 1]);
+        }
+
+        assertFalse(uploadedObjects.containsKey(OBJECT_NAME));
+        verify(minioClient, never()).composeObject(any());
+        verify(minioClient, times(2)).removeObject(any(RemoveObjectArgs.class));
+    }
+
+    @Test
+    void commit_failedPartUpload_partsRemoved() throws Exception {
+        AtomicInteger uploadAttempts = new AtomicInteger();
+        doAnswer(invocation -> {
+            uploadAttempts.incrementAndGet();
+            throw new IOException("Connection refused");
+        }).when(minioClient).putObject(any(PutObjectArgs.class));
+        try (CommittableOutputStream outputStream = new MinioOutputStream(minioClient, "bucket", OBJECT_NAME, PART_SIZE, 2)) {
+            // A write fails fast if the upload of a previous part has already failed, the commit fails otherwise
+            assertThrows(IOException.class, () -> {
+                outputStream.write(new byte[PART_SIZE * 2 + 1]);
+                outputStream.commit();
+            });
+        }
+        verify(minioClient, never()).composeObject(any());
+        // Every uploaded part is removed, parts are no longer uploaded once a failure is known
+        verify(minioClient, times(uploadAttempts.get())).removeObject(any(RemoveObjectArgs.class));
+    }
+}
@@ -22,6 +22,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @Log4j2
@@ -166,4 +167,39 @@ class VtlBindingsTest {
 		assertEquals("INDIVIDU", variablesMap.getVariables().getVariable("AGE").getGroupName());
 	}
 
+	@Test
+	void removeDuplicates_sameAsVtlUnion() {
+		Dataset dsWithDuplicates = new InMemoryDataset(
+				List.of(
+						List.of("UE001", "Lille", "INDIVIDU-1", "Jean"),
+						List.of("UE001", "Lille", "INDIVIDU-2", "Frédéric"),
+						List.of("UE001", "Lyon", "INDIVIDU-1", "Jean-Paul"),
+						List.of("UE004", "Amiens", "INDIVIDU-1", "David")
+				),
+				List.of(
+						new Structured.Component(Constants.ROOT_IDENTIFIER_NAME, String.class, Role.IDENTIFIER),
+						new Structured.Component("LIB_COMMUNE", String.class, Role.MEASURE),
+						new Structured.Component("INDIVIDU", String.class, Role.IDENTIFIER),
+						new Structured.Component("INDIVIDU.PRENOM", String.class, Role.MEASURE)
+				)
+		);
+		vtlBindings.put("TEST", dsWithDuplicates);
+		vtlExecute.evalVtlScript("TEST := union(TEST, TEST);", vtlBindings, kraftwerkExecutionContext);
+
+		Dataset deduplicated = VtlBindings.removeDuplicates(dsWithDuplicates);
+
+		assertEquals(3, deduplicated.getDataPoints().size());
+		assertEquals("Lille", deduplicated.getDataPoints().get(0).get("LIB_COMMUNE"));
+		assertEquals(vtlBindings.getDataset("TEST").getDataAsMap(), deduplicated.getDataAsMap());
+	}
+
+	@Test
+	void removeDuplicates_noDuplicate() {
+		vtlBindings.put("TEST", ds1);
+		vtlBindings.removeDuplicates("TEST");
+		// Dataset not copied
+		assertSame(ds1, vtlBindings.getDataset("TEST"));
+		Assertions.assertDoesNotThrow(() -> vtlBindings.removeDuplicates("NOT_IN_BINDINGS"));
+	}
+
 }
@@ -0,0 +1,106 @@
+package fr.insee.kraftwerk.core.vtl;
+
+import fr.insee.kraftwerk.core.Constants;
+import fr.insee.vtl.engine.VtlScriptEngine;
+import fr.insee.vtl.model.Dataset;
+import fr.insee.vtl.model.InMemoryDataset;
+import fr.insee.vtl.model.Structured;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.script.Bindings;
+import javax.script.ScriptContext;
+import javax.script.ScriptEngineManager;
+import javax.script.ScriptException;
+import javax.script.SimpleBindings;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class VtlCompilationCacheTest {
+
+	private final VtlCompilationCache vtlCompilationCache = new VtlCompilationCache();
+	private VtlScriptEngine engine;
+	private Bindings bindings;
+
+	@BeforeEach
+	void init() {
+		engine = (VtlScriptEngine) new ScriptEngineManager().getEngineByName("vtl");
+		bindings = new SimpleBindings();
+		bindings.put("ds", new InMemoryDataset(
+				List.of(List.of("T01", 1L), List.of("T02", 2L)),
+				List.of(new Structured.Component("ID", String.class, Dataset.Role.IDENTIFIER),
+						new Structured.Component("FOO", Long.class, Dataset.Role.MEASURE))));
+		engine.setBindings(bindings, ScriptContext.ENGINE_SCOPE);
+	}
+
+	@AfterEach
+	void resetCacheSize() {
+		Constants.setVtlCompilationCacheSize(512);
+	}
+
+	@Test
+	void eval_sameResultAsEngine() throws ScriptException {
+		vtlCompilationCache.eval("ds2 := ds [calc BAR := FOO * 2]; ds3 := ds2 [rename BAR to BAZ];", engine);
+
+		Dataset ds3 = (Dataset) bindings.get("ds3");
+		assertEquals(List.of("ID", "FOO", "BAZ"), ds3.getDataStructure().keySet().stream().toList());
+		assertEquals(4L, ds3.getDataPoints().get(1).get("BAZ"));
+	}
+
+	@Test
+	void eval_hitsAndMisses() throws ScriptException {
+		for (int i = 0; i < 3; i++) {
+			vtlCompilationCache.eval("ds2 := ds [calc BAR := FOO * 2];", engine);
+		}
+		vtlCompilationCache.eval("ds3 := ds [calc BAR := FOO * 3];", engine);
+
+		assertEquals(2, vtlCompilationCache.getMissCount());
+		assertEquals(2, vtlCompilationCache.getHitCount());
+		assertEquals(2, vtlCompilationCache.size());
+	}
+
+	@Test
+	void eval_evictsLeastRecentlyUsed() throws ScriptException {
+		Constants.setVtlCompilationCacheSize(2);
+		vtlCompilationCache.eval("ds1 := ds;", engine);
+		vtlCompilationCache.eval("ds2 := ds;", engine);
+		vtlCompilationCache.eval("ds1 := ds;", engine);
+		vtlCompilationCache.eval("ds3 := ds;", engine);
+		// ds2 script has been evicted
+		vtlCompilationCache.eval("ds2 := ds;", engine);
+
+		assertEquals(2, vtlCompilationCache.size());
+		assertEquals(1, vtlCompilationCache.getHitCount());
+		assertEquals(4, vtlCompilationCache.getMissCount());
+	}
+
+	@Test
+	void eval_syntaxError_notCached() {
+		assertThrows(ScriptException.class, () -> vtlCompilationCache.eval("ds2 := ds [calc BAR := ];", engine));
+		assertEquals(0, vtlCompilationCache.size());
+	}
+
+	@Test
+	void eval_runtimeError_sameExceptionAsEngine() {
+		String vtlScript = "ds2 := NOT_IN_BINDINGS [calc BAR := FOO];";
+		ScriptException expected = assertThrows(ScriptException.class, () -> engine.eval(vtlScript));
+		ScriptException actual = assertThrows(ScriptException.class, () -> vtlCompilationCache.eval(vtlScript, engine));
+
+		assertEquals(expected.getClass(), actual.getClass());
+		assertEquals(expected.getMessage(), actual.getMessage());
+	}
+
+	@Test
+	void eval_cacheDisabled() throws ScriptException {
+		Constants.setVtlCompilationCacheSize(0);
+		vtlCompilationCache.eval("ds2 := ds;", engine);
+		vtlCompilationCache.eval("ds2 := ds;", engine);
+
+		assertEquals(0, vtlCompilationCache.size());
+		assertEquals(0, vtlCompilationCache.getHitCount());
+	}
+
+}
@@ -0,0 +1,108 @@
+package fr.insee.kraftwerk.core.vtl;
+
+import fr.insee.bpm.metadata.model.MetadataModel;
+import fr.insee.bpm.metadata.model.Variable;
+import fr.insee.bpm.metadata.model.VariableType;
+import fr.insee.kraftwerk.core.Constants;
+import fr.insee.kraftwerk.core.TestConstants;
+import fr.insee.kraftwerk.core.rawdata.QuestionnaireData;
+import fr.insee.kraftwerk.core.rawdata.SurveyRawData;
+import fr.insee.kraftwerk.core.rawdata.SurveyRawDataTest;
+import fr.insee.kraftwerk.core.utils.files.FileSystemImpl;
+import fr.insee.kraftwerk.core.utils.files.FileUtilsInterface;
+import fr.insee.vtl.model.Dataset;
+import fr.insee.vtl.model.Structured;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class VtlDatasetBuilderTest {
+
+	private final FileUtilsInterface fileUtilsInterface = new FileSystemImpl(TestConstants.TEST_RESOURCES_DIRECTORY);
+	private final VtlExecute vtlExecute = new VtlExecute(fileUtilsInterface);
+
+	static Stream<SurveyRawData> surveyRawDataProvider() {
+		return Stream.of(
+				SurveyRawDataTest.createFakeData_rootOnly(),
+				SurveyRawDataTest.createFakeData_oneLevel(),
+				SurveyRawDataTest.createFakePapiSurveyRawData(),
+				SurveyRawDataTest.createFakeCapiSurveyRawData(),
+				SurveyRawDataTest.createFakeCawiSurveyRawData()
+		);
+	}
+
+	@ParameterizedTest
+	@MethodSource("surveyRawDataProvider")
+	void buildVtlDataset_sameAsJsonDataset(SurveyRawData surveyRawData) {
+		VtlBindings vtlBindings = new VtlBindings();
+		vtlExecute.convertToVtlDatasetThroughJson(surveyRawData, "JSON", vtlBindings);
+		Dataset expected = vtlBindings.getDataset("JSON");
+
+		Dataset dataset = new VtlDatasetBuilder(surveyRawData).buildVtlDataset();
+
+		assertEquals(expected.getDataStructure(), dataset.getDataStructure());
+		assertEquals(expected.getDataAsList(), dataset.getDataAsList());
+	}
+
+	@Test
+	void buildVtlDataset_typedValues() {
+		SurveyRawData surveyRawData = new SurveyRawData();
+		MetadataModel metadataModel = new MetadataModel();
+		metadataModel.getVariables().putVariable(new Variable("AGE", metadataModel.getRootGroup(), VariableType.INTEGER));
+		metadataModel.getVariables().putVariable(new Variable("INCOME", metadataModel.getRootGroup(), VariableType.NUMBER));
+		metadataModel.getVariables().putVariable(new Variable("OWNER", metadataModel.getRootGroup(), VariableType.BOOLEAN));
+		surveyRawData.setMetadataModel(metadataModel);
+		QuestionnaireData questionnaire = new QuestionnaireData();
+		questionnaire.setIdentifier("S0000001");
+		questionnaire.putValue(" 42 ", "AGE");
+		questionnaire.putValue("1500.5", "INCOME");
+		questionnaire.putValue("1", "OWNER");
+		surveyRawData.addQuestionnaire(questionnaire);
+
+		Dataset dataset = new VtlDatasetBuilder(surveyRawData).buildVtlDataset();
+
+		Structured.DataPoint dataPoint = dataset.getDataPoints().getFirst();
+		assertEquals("S0000001", dataPoint.get(Constants.ROOT_IDENTIFIER_NAME));
+		assertEquals(42L, dataPoint.get("AGE"));
+		assertEquals(1500.5, dataPoint.get("INCOME"));
+		assertEquals(true, dataPoint.get("OWNER"));
+	}
+
+	@Test
+	void convertValue_blankNumberIsNull() {
+		Structured.Component component = new Structured.Component("AGE", Long.class, Dataset.Role.MEASURE);
+		assertNull(VtlDatasetBuilder.convertValue("", component));
+		assertNull(VtlDatasetBuilder.convertValue(null, component));
+	}
+
+	@Test
+	void convertValue_invalidNumber() {
+		Structured.Component component = new Structured.Component("AGE", Long.class, Dataset.Role.MEASURE);
+		assertThrows(IllegalArgumentException.class, () -> VtlDatasetBuilder.convertValue("forty", component));
+	}
+
+	@Test
+	void convertToVtlDataset_invalidValue_notInBindings() {
+		SurveyRawData surveyRawData = new SurveyRawData();
+		MetadataModel metadataModel = new MetadataModel();
+		metadataModel.getVariables().putVariable(new Variable("AGE", metadataModel.getRootGroup(), VariableType.INTEGER));
+		surveyRawData.setMetadataModel(metadataModel);
+		QuestionnaireData questionnaire = new QuestionnaireData();
+		questionnaire.setIdentifier("S0000001");
+		questionnaire.putValue("forty", "AGE");
+		surveyRawData.addQuestionnaire(questionnaire);
+		VtlBindings vtlBindings = new VtlBindings();
+
+		vtlExecute.convertToVtlDataset(surveyRawData, "TEST", vtlBindings);
+
+		assertFalse(vtlBindings.containsKey("TEST"));
+	}
+
+}
@@ -226,6 +226,23 @@ public class MainDefinitions {
 		mp.runMain();
 	}
 
+	@When("Step 1 : We launch main service file by file with {int} workers")
+	public void launch_main_filebyfile_parallel(int workers) throws KraftwerkException {
+		// We clean the output and the temp directory
+		deleteDirectory(outDirectory.toFile());
+		deleteDirectory(tempDirectory.toFile());
+
+		kraftwerkExecutionContext = new KraftwerkExecutionContext(inDirectory.toString(), true, true, isUsingEncryption, 419430400L);
+
+		MainProcessing mp = new MainProcessing(kraftwerkExecutionContext, Paths.get(FUNCTIONAL_TESTS_INPUT_DIRECTORY).resolve(campaignName).toString(), new FileSystemImpl(TestConstants.TEST_RESOURCES_DIRECTORY));
+		Constants.setFileByFileWorkers(workers);
+		try {
+			mp.runMain();
+		} finally {
+			Constants.setFileByFileWorkers(1);
+		}
+	}
+
 	@When("Step 2 : We get each unimodal dataset")
 	public void unimodal_treatments() throws KraftwerkException, SQLException {
 		try (Statement statement = database.createStatement()) {
@@ -21,3 +21,20 @@ Feature: Do we save correctly all data file by file?
   |SAMPLETEST-MULTIPLEDATA-v1       |7                     |137                    |BOUCLE_PRENOMS   |11                        |223                              |
   |SAMPLETEST-MULTIPLEDATA-v2       |4                     |137                    |BOUCLE_PRENOMS   |6                         |223                              |
   |SAMPLETEST-PARADATA-v1           |2                     |14                     |B_PRENOMREP      |3                         |1089                             |
+
+  Scenario Outline: Do we create the same data files when files are processed concurrently
+    Given Step 0 : We have some survey in directory "<Directory>"
+    When Step 1 : We launch main service file by file with <Workers> workers
+    Then Step 2 : We check root output file has <ExpectedLineCount> lines and <ExpectedDataFieldCount> variables
+    And We check if the CSV format is correct
+    Then Step 2 : We check "<LoopName>" output file has <ExpectedLoopLineCount> lines and <ExpectedLoopDataFieldCount> variables
+
+    Examples:
+    # Parameters :
+    # - Directory : Directory of test campaigns
+    # - Workers : Number of files processed concurrently
+    # - ExpectedLineCount : Expected row quantity
+    # - ExpectedDataFieldCount : Expected field quantity
+
+  |Directory                        |Workers |ExpectedLineCount     |ExpectedDataFieldCount |LoopName         |ExpectedLoopLineCount     |ExpectedLoopDataFieldCount       |
+  |SAMPLETEST-MULTIPLEDATA-v1       |4       |7                     |137                    |BOUCLE_PRENOMS   |11                        |223                              |